@@ -366,6 +366,19 @@ suite = {
       "testProject" : True,
     },
 
+    "com.oracle.truffle.js.shell.test" : {
+      "subDir" : "src",
+      "sourceDirs" : ["src"],
+      "dependencies" : [
+        "mx:JUNIT",
+        "com.oracle.truffle.js.shell",
+      ],
+      "checkstyle" : "com.oracle.truffle.js",
+      "javaCompliance" : "8+",
+      "workingSets" : "Truffle,JavaScript",
+      "testProject" : True,
+    },
+
     "com.oracle.truffle.js.test.instrumentation" : {
       "subDir" : "src",
       "sourceDirs" : ["src"],
@@ -593,7 +606,7 @@ suite = {
     },
 
     "TRUFFLE_JS_TESTS" : {
-      "dependencies" : ["com.oracle.truffle.js.test", "com.oracle.truffle.js.test.external", "com.oracle.truffle.js.test.instrumentation", "com.oracle.truffle.js.test.threading"],
+      "dependencies" : ["com.oracle.truffle.js.test", "com.oracle.truffle.js.test.external", "com.oracle.truffle.js.test.instrumentation", "com.oracle.truffle.js.test.threading", "com.oracle.truffle.js.shell.test"],
       "exclude" : [
         "mx:HAMCREST",
         "mx:JUNIT",
@@ -604,6 +617,7 @@ suite = {
       ],
       "distDependencies" : [
         "GRAALJS",
+        "GRAALJS_LAUNCHER",
         "truffle:TRUFFLE_TCK",
         "TRUFFLE_JS_SNAPSHOT_TOOL",
       ],
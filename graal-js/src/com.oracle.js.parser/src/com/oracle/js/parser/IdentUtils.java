@@ -202,6 +202,14 @@ public final class IdentUtils {
         return (codePoint < PRECOMPUTED_ARRAY_SIZE) ? ID_PART_ARRAY[codePoint] : contains(ID_PART_RANGES, codePoint);
     }
 
+    /**
+     * Fast path of {@link #isIdentifierPart(int)} for ASCII characters, {@code false} for all
+     * other characters.
+     */
+    public static boolean isASCIIIdentifierPart(char ch) {
+        return ch < PRECOMPUTED_ARRAY_SIZE && ID_PART_ARRAY[ch];
+    }
+
     private static boolean contains(int[] ranges, int codePoint) {
         int low = 0;
         int high = ranges.length / 2 - 1;
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.js.parser;
+
+/**
+ * Interns the names and string literals of a parse. Names can be looked up directly from the
+ * source characters, so a name that has been seen before does not allocate a new string. Keywords
+ * and frequently used names are interned once in a table shared by all parses (and, being string
+ * literals, are also identical to the constants used by the runtime).
+ */
+final class InternTable {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    //@formatter:off
+    private static final String[] COMMON_NAMES = {
+        // keywords and contextual keywords
+        "arguments", "as", "async", "await", "break", "case", "catch", "class", "const", "continue", "debugger", "default",
+        "delete", "do", "else", "enum", "eval", "export", "extends", "false", "finally", "for", "from", "function", "get",
+        "if", "implements", "import", "in", "instanceof", "interface", "let", "new", "null", "of", "package", "private",
+        "protected", "public", "return", "set", "static", "super", "switch", "target", "this", "throw", "true", "try",
+        "typeof", "undefined", "var", "void", "while", "with", "yield",
+        // common identifiers and property names
+        "Array", "Boolean", "Date", "Error", "JSON", "Map", "Math", "Number", "Object", "Promise", "Proxy", "Reflect",
+        "RegExp", "Set", "String", "Symbol", "TypeError", "WeakMap", "apply", "assign", "bind", "call", "callback",
+        "concat", "configurable", "console", "constructor", "create", "data", "define", "defineProperty",
+        "done", "e", "enumerable", "error", "exports", "forEach", "global", "hasOwnProperty", "i", "index", "indexOf",
+        "iterator", "join", "key", "keys", "length", "log", "map", "message", "module", "name", "next", "options",
+        "prototype", "push", "reduce", "require", "resolve", "result", "self", "slice", "splice", "split", "then",
+        "toString", "type", "use strict", "value", "valueOf", "window", "writable",
+    };
+    //@formatter:on
+
+    private static final InternTable COMMON = createCommon();
+
+    private final InternTable shared;
+    private String[] table;
+    private int size;
+
+    InternTable() {
+        this(COMMON, INITIAL_CAPACITY);
+    }
+
+    private InternTable(InternTable shared, int capacity) {
+        this.shared = shared;
+        this.table = new String[capacity];
+    }
+
+    private static InternTable createCommon() {
+        InternTable common = new InternTable(null, Integer.highestOneBit(COMMON_NAMES.length * 4));
+        for (String name : COMMON_NAMES) {
+            common.intern(name);
+        }
+        return common;
+    }
+
+    /**
+     * Returns the interned string with the given content.
+     */
+    String intern(String candidate) {
+        int hash = candidate.hashCode();
+        if (shared != null) {
+            String found = shared.find(hash, candidate);
+            if (found != null) {
+                return found;
+            }
+        }
+        int index = indexOf(hash, candidate);
+        String found = table[index];
+        if (found != null) {
+            return found;
+        }
+        insert(index, candidate);
+        return candidate;
+    }
+
+    /**
+     * Returns the interned string with the content {@code chars[start, start + length)}. A new
+     * string is only created if there is none yet.
+     */
+    String intern(CharSequence chars, int start, int length) {
+        int hash = hash(chars, start, length);
+        if (shared != null) {
+            String found = shared.find(hash, chars, start, length);
+            if (found != null) {
+                return found;
+            }
+        }
+        int mask = table.length - 1;
+        int index = hash & mask;
+        for (String entry = table[index]; entry != null; entry = table[index]) {
+            if (entry.hashCode() == hash && contentEquals(entry, chars, start, length)) {
+                return entry;
+            }
+            index = (index + 1) & mask;
+        }
+        String candidate = chars.subSequence(start, start + length).toString();
+        insert(index, candidate);
+        return candidate;
+    }
+
+    private String find(int hash, String candidate) {
+        return table[indexOf(hash, candidate)];
+    }
+
+    private String find(int hash, CharSequence chars, int start, int length) {
+        int mask = table.length - 1;
+        for (int index = hash & mask; table[index] != null; index = (index + 1) & mask) {
+            String entry = table[index];
+            if (entry.hashCode() == hash && contentEquals(entry, chars, start, length)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the slot of the entry equal to {@code candidate}, or the free slot to insert it at.
+     */
+    private int indexOf(int hash, String candidate) {
+        int mask = table.length - 1;
+        int index = hash & mask;
+        for (String entry = table[index]; entry != null; entry = table[index]) {
+            if (entry.hashCode() == hash && entry.equals(candidate)) {
+                break;
+            }
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void insert(int index, String value) {
+        table[index] = value;
+        size++;
+        // keep the load factor at or below 1/2
+        if (size * 2 > table.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        String[] oldTable = table;
+        String[] newTable = new String[oldTable.length * 2];
+        int mask = newTable.length - 1;
+        for (String entry : oldTable) {
+            if (entry != null) {
+                int index = entry.hashCode() & mask;
+                while (newTable[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                newTable[index] = entry;
+            }
+        }
+        table = newTable;
+    }
+
+    /**
+     * Same hash function as {@link String#hashCode()}.
+     */
+    private static int hash(CharSequence chars, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        return hash;
+    }
+
+    private static boolean contentEquals(String entry, CharSequence chars, int start, int length) {
+        if (entry.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (entry.charAt(i) != chars.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -71,8 +71,6 @@ import static com.oracle.js.parser.TokenType.TEMPLATE_TAIL;
 import static com.oracle.js.parser.TokenType.XML;
 
 import java.math.BigInteger;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Responsible for converting source content into a stream of tokens.
@@ -118,8 +116,8 @@ public class Lexer extends Scanner {
     private boolean pauseOnNextLeftBrace;
     boolean pauseOnRightBrace;
 
-    /** Map to intern strings during parsing (memory footprint). */
-    private final Map<String, String> internedStrings;
+    /** Table to intern strings during parsing (memory footprint). */
+    private final InternTable internedStrings;
 
     private static final String MESSAGE_INVALID_HEX = "invalid.hex";
 
@@ -180,7 +178,7 @@ public class Lexer extends Scanner {
      */
     public Lexer(final Source source, final int start, final int len, final TokenStream stream, final boolean scripting, final int ecmaScriptVersion, final boolean shebang, final boolean isModule,
                     final boolean pauseOnFunctionBody, final boolean allowBigInt) {
-        super(source.getContent().toString().toCharArray(), 1, start, len);
+        super(source.getContent(), 1, start, len);
         this.source = source;
         this.stream = stream;
         this.scripting = scripting;
@@ -193,7 +191,7 @@ public class Lexer extends Scanner {
         this.last = EOL;
 
         this.pauseOnFunctionBody = pauseOnFunctionBody;
-        this.internedStrings = new HashMap<>();
+        this.internedStrings = new InternTable();
     }
 
     private Lexer(final Lexer lexer, final State state) {
@@ -446,7 +444,14 @@ public class Lexer extends Scanner {
      */
     private void skipWhitespace(final boolean addEOL) {
         while (isWhitespace(ch0)) {
-            if (isEOL(ch0)) {
+            if (ch0 == ' ' || ch0 == '\t') {
+                // Fast path: skip a run of blanks (e.g. indentation) at once.
+                int pos = position + 1;
+                while (pos < limit && (content.charAt(pos) == ' ' || content.charAt(pos) == '\t')) {
+                    pos++;
+                }
+                reset(pos);
+            } else if (isEOL(ch0)) {
                 skipEOL(addEOL);
             } else {
                 skip(1);
@@ -917,7 +922,7 @@ public class Lexer extends Scanner {
         }
 
         for (int i = 0; i < len; ++i) {
-            if (content[start + i] != keyword.charAt(i)) {
+            if (content.charAt(start + i) != keyword.charAt(i)) {
                 return false;
             }
         }
@@ -925,6 +930,15 @@ public class Lexer extends Scanner {
         return true;
     }
 
+    private boolean containsBackslash(final int start, final int end) {
+        for (int pos = start; pos < end; pos++) {
+            if (content.charAt(pos) == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Convert a string to a JavaScript identifier.
      *
@@ -936,6 +950,10 @@ public class Lexer extends Scanner {
     private String valueOfIdent(final int start, final int length, final boolean convertUnicode) {
         // End of scan.
         final int end = start + length;
+        if (!convertUnicode || !containsBackslash(start, end)) {
+            // No escapes: intern directly from the source content.
+            return internedStrings.intern(content, start, length);
+        }
         // Buffer for recording characters.
         final StringBuilder sb = new StringBuilder(length);
 
@@ -944,7 +962,7 @@ public class Lexer extends Scanner {
         // Scan until end of line or end of file.
         while (pos < end) {
 
-            char curCh0 = content[pos];
+            char curCh0 = content.charAt(pos);
 
             // If escape character.
             if (convertUnicode && curCh0 == '\\' && charAt(pos + 1) == 'u') {
@@ -1561,7 +1579,14 @@ public class Lexer extends Scanner {
 
         // Make sure remaining characters are valid part characters.
         while (!atEOF()) {
-            if (ch0 == '\\' && ch1 == 'u') {
+            if (IdentUtils.isASCIIIdentifierPart(ch0)) {
+                // Fast path: skip a run of ASCII identifier characters at once.
+                int pos = position + 1;
+                while (pos < limit && IdentUtils.isASCIIIdentifierPart(content.charAt(pos))) {
+                    pos++;
+                }
+                reset(pos);
+            } else if (ch0 == '\\' && ch1 == 'u') {
                 skip(2);
                 final int codePoint = unicodeEscapeSequence(TokenType.IDENT);
 
@@ -1593,7 +1618,7 @@ public class Lexer extends Scanner {
     private boolean identifierEqual(final int aStart, final int aLength, final int bStart, final int bLength) {
         if (aLength == bLength) {
             for (int i = 0; i < aLength; i++) {
-                if (content[aStart + i] != content[bStart + i]) {
+                if (content.charAt(aStart + i) != content.charAt(bStart + i)) {
                     return false;
                 }
             }
@@ -1875,12 +1900,12 @@ public class Lexer extends Scanner {
             // Remove last end of line if specified.
             if (excludeLastEOL) {
                 // Handles \n.
-                if (content[stringEnd - 1] == '\n') {
+                if (content.charAt(stringEnd - 1) == '\n') {
                     stringEnd--;
                 }
 
                 // Handles \r and \r\n.
-                if (content[stringEnd - 1] == '\r') {
+                if (content.charAt(stringEnd - 1) == '\r') {
                     stringEnd--;
                 }
 
@@ -2059,7 +2084,7 @@ public class Lexer extends Scanner {
                 }
                 return value;
             case STRING:
-                return stringIntern(source.getString(start, len)); // String
+                return internedStrings.intern(content, start, len); // String
             case ESCSTRING:
                 return valueOfString(start, len, strict); // String
             case IDENT:
@@ -2144,8 +2169,7 @@ public class Lexer extends Scanner {
     }
 
     public String stringIntern(String candidate) {
-        String interned = internedStrings.putIfAbsent(candidate, candidate);
-        return interned == null ? candidate : interned;
+        return internedStrings.intern(candidate);
     }
 
     /**
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Arrays filled by push in a loop, with and without presizing by allocation site length feedback
+ * ({@code js.array-length-feedback}). The number of backing store copies per operation is printed
+ * at the end of each trial.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHArrayPushBenchmark {
+
+    @State(Scope.Thread)
+    public static class MyState {
+        @Param({"true", "false"}) String feedback;
+
+        Context context;
+        Value pushInts;
+        Value pushObjects;
+        long operations;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.newBuilder("js").allowExperimentalOptions(true).option("js.array-length-feedback", feedback).option("js.metrics", "true").build();
+            pushInts = context.eval(Source.create("js", "(function() {\n" +
+                            "  var a = [];\n" +
+                            "  for (var i = 0; i < 10000; i++) { a.push(i); }\n" +
+                            "  return a.length;\n" +
+                            "})"));
+            pushObjects = context.eval(Source.create("js", "(function() {\n" +
+                            "  var a = [];\n" +
+                            "  for (var i = 0; i < 1000; i++) { a.push({i: i}); }\n" +
+                            "  return a.length;\n" +
+                            "})"));
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            Value counters = context.eval("js", "Graal.metrics.snapshot().counters");
+            long copies = counters.hasMember("arrayGrow") ? counters.getMember("arrayGrow").asLong() : 0;
+            System.out.printf("%nfeedback=%s: %d backing store copies in %d operations%n", feedback, copies, operations);
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Value testPushInts(MyState state) {
+        state.operations++;
+        return state.pushInts.execute();
+    }
+
+    @Benchmark
+    public Value testPushObjects(MyState state) {
+        state.operations++;
+        return state.pushObjects.execute();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Await-heavy async functions. Each benchmark starts an async function whose awaits are resumed
+ * by the pending jobs that run before the call returns to Java.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHAwaitBenchmark {
+
+    @State(Scope.Thread)
+    public static class MyState {
+        Context context;
+        Value awaitInLoop;
+        Value awaitPromiseInLoop;
+        Value awaitInTryFinally;
+        Value awaitInNestedCalls;
+        Value awaitPromiseAll;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.create("js");
+            context.eval(Source.create("js", "var count = 0;\n" +
+                            "async function loop(n) { for (var i = 0; i < n; i++) { await i; count++; } }\n" +
+                            "async function loopPromise(n) { for (var i = 0; i < n; i++) { count += await Promise.resolve(1); } }\n" +
+                            "async function tryFinally(n) {\n" +
+                            "  for (var i = 0; i < n; i++) {\n" +
+                            "    try { try { await i; } finally { await i; count++; } } finally { count++; }\n" +
+                            "  }\n" +
+                            "}\n" +
+                            "async function leaf(i) { await i; return 1; }\n" +
+                            "async function nested(n) { for (var i = 0; i < n; i++) { count += await leaf(i); } }\n" +
+                            "async function all(n) {\n" +
+                            "  for (var i = 0; i < n; i += 10) {\n" +
+                            "    var promises = [];\n" +
+                            "    for (var j = 0; j < 10; j++) { promises.push(leaf(j)); }\n" +
+                            "    count += (await Promise.all(promises)).length;\n" +
+                            "  }\n" +
+                            "}\n" +
+                            "function run(f) { count = 0; f(1000); return count; }"));
+            awaitInLoop = context.eval(Source.create("js", "(function() { return run(loop); })"));
+            awaitPromiseInLoop = context.eval(Source.create("js", "(function() { return run(loopPromise); })"));
+            awaitInTryFinally = context.eval(Source.create("js", "(function() { return run(tryFinally); })"));
+            awaitInNestedCalls = context.eval(Source.create("js", "(function() { return run(nested); })"));
+            awaitPromiseAll = context.eval(Source.create("js", "(function() { return run(all); })"));
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Value testAwaitInLoop(MyState state) {
+        return state.awaitInLoop.execute();
+    }
+
+    @Benchmark
+    public Value testAwaitPromiseInLoop(MyState state) {
+        return state.awaitPromiseInLoop.execute();
+    }
+
+    @Benchmark
+    public Value testAwaitInTryFinally(MyState state) {
+        return state.awaitInTryFinally.execute();
+    }
+
+    @Benchmark
+    public Value testAwaitInNestedCalls(MyState state) {
+        return state.awaitInNestedCalls.execute();
+    }
+
+    @Benchmark
+    public Value testAwaitPromiseAll(MyState state) {
+        return state.awaitPromiseAll.execute();
+    }
+}
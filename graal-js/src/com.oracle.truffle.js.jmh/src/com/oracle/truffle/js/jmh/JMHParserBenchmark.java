@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.js.parser.ErrorManager;
+import com.oracle.js.parser.Parser;
+import com.oracle.js.parser.ScriptEnvironment;
+import com.oracle.js.parser.ir.FunctionNode;
+
+/**
+ * Measures the throughput of the JavaScript parser (lexing and parsing to the parser AST, without
+ * translation to Truffle nodes). Pass a real-world library with {@code -p file=/path/to/lib.js};
+ * by default a generated library of roughly {@code size} MB is used. The parser throughput in
+ * MB/s is the reported operations per second multiplied by the source size in MB.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JMHParserBenchmark {
+
+    @Param({""}) public String file;
+    @Param({"4"}) public int size;
+
+    private String code;
+    private ScriptEnvironment env;
+
+    @Setup(Level.Trial)
+    public void doSetup() throws IOException {
+        if (file.isEmpty()) {
+            code = generateLibrary(size << 20);
+        } else {
+            code = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        }
+        env = ScriptEnvironment.builder().ecmaScriptVersion(11).allowBigInt(true).build();
+    }
+
+    @Benchmark
+    public FunctionNode testParse() {
+        Parser parser = new Parser(env, com.oracle.js.parser.Source.sourceFor("lib.js", code), new ErrorManager.ThrowErrorManager());
+        return parser.parse();
+    }
+
+    private static String generateLibrary(int length) {
+        StringBuilder sb = new StringBuilder(length + 1024);
+        sb.append("(function (root, factory) {\n  'use strict';\n  if (typeof module === 'object' && module.exports) { module.exports = factory(); } else { root.lib = factory(); }\n}(this, function () {\n");
+        sb.append("  var exports = {};\n");
+        for (int i = 0; sb.length() < length; i++) {
+            sb.append("  /**\n   * Helper number ").append(i).append(".\n   */\n");
+            sb.append("  function helper").append(i).append("(value, options) {\n");
+            sb.append("    var result = [], index = -1, length = value == null ? 0 : value.length;\n");
+            sb.append("    options = options || { prototype: null, constructor: Object, key: 'item").append(i).append("' };\n");
+            sb.append("    while (++index < length) {\n");
+            sb.append("      if (typeof value[index] === \"string\" && value[index].length > ").append(i % 17).append(") {\n");
+            sb.append("        result.push(value[index].toUpperCase() + options.key);\n");
+            sb.append("      } else {\n");
+            sb.append("        result[result.length] = (value[index] | 0) * 0x").append(Integer.toHexString(i)).append(" + 1.5e3;\n");
+            sb.append("      }\n");
+            sb.append("    }\n");
+            sb.append("    return result.filter(function (x) { return x !== undefined; }).map((y) => y).join(',');\n");
+            sb.append("  }\n");
+            sb.append("  exports.helper").append(i).append(" = helper").append(i).append(";\n");
+            sb.append("  class Widget").append(i).append(" extends Object { constructor(a) { super(); this.a = a; } get value() { return this.a; } }\n");
+            sb.append("  exports.Widget").append(i).append(" = Widget").append(i).append(";\n");
+        }
+        sb.append("  return exports;\n}));\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how execution in contexts sharing one {@link Engine} scales with the number of threads.
+ * Every benchmark thread owns a context of the shared engine. Run with different thread counts
+ * (e.g. {@code -t 1}, {@code -t 8}, {@code -t 64}) and compare the per-thread throughput.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHSharedEngineBenchmark {
+
+    private static final String CODE = "(function() {\n" +
+                    "  function Point(x, y) { this.x = x; this.y = y; }\n" +
+                    "  var sum = 0;\n" +
+                    "  for (var i = 0; i < 1000; i++) {\n" +
+                    "    var p = new Point(i, i + 1);\n" +
+                    "    for (var k in p) { sum += p[k]; }\n" +
+                    "    sum += Object.keys(p).length + [i, p.x].map(function(v) { return v + 1; }.bind(null))[0];\n" +
+                    "  }\n" +
+                    "  return sum;\n" +
+                    "})()";
+
+    @State(Scope.Benchmark)
+    public static class SharedEngineState {
+        Engine engine;
+        Source source;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            engine = Engine.create();
+            source = Source.create("js", CODE);
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            engine.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ContextState {
+        Context context;
+
+        @Setup(Level.Trial)
+        public void doSetup(SharedEngineState engineState) {
+            context = Context.newBuilder("js").engine(engineState.engine).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Value testEvalInSharedEngine(SharedEngineState engineState, ContextState contextState) {
+        return contextState.context.eval(engineState.source);
+    }
+
+    /**
+     * Creates a fresh context per invocation, measuring the lazily initialized state that is
+     * shared between the contexts of an engine.
+     */
+    @Benchmark
+    public double testNewContextInSharedEngine(SharedEngineState engineState) {
+        try (Context context = Context.newBuilder("js").engine(engineState.engine).build()) {
+            return context.eval(engineState.source).asDouble();
+        }
+    }
+
+    /**
+     * Creates a fresh context per invocation and runs a trivial script, measuring realm creation.
+     * Run with {@code -prof gc} to compare the allocation per context.
+     */
+    @Benchmark
+    public int testNewContextStartup(SharedEngineState engineState) {
+        try (Context context = Context.newBuilder("js").engine(engineState.engine).option("js.intl-402", "true").build()) {
+            return context.eval("js", "1").asInt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bulk operations on typed arrays of different element types.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHTypedArrayBenchmark {
+
+    @State(Scope.Thread)
+    public static class MyState {
+        @Param({"Uint8Array", "Int32Array", "Float64Array"}) String type;
+
+        Context context;
+        Value fill;
+        Value reverse;
+        Value copyWithin;
+        Value slice;
+        Value indexOf;
+        Value includes;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.create("js");
+            context.eval(Source.create("js", "var array = new " + type + "(65536);\n" +
+                            "for (var i = 0; i < array.length; i++) { array[i] = i & 0x7f; }\n" +
+                            "array[array.length - 1] = 0xff;"));
+            fill = context.eval(Source.create("js", "(function() { return array.fill(42, 1, array.length - 1); })"));
+            reverse = context.eval(Source.create("js", "(function() { return array.reverse(); })"));
+            copyWithin = context.eval(Source.create("js", "(function() { return array.copyWithin(1, 0, array.length - 1); })"));
+            slice = context.eval(Source.create("js", "(function() { return array.slice(1).length; })"));
+            indexOf = context.eval(Source.create("js", "(function() { return array.indexOf(0xff); })"));
+            includes = context.eval(Source.create("js", "(function() { return array.includes(0xff); })"));
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Value testFill(MyState state) {
+        return state.fill.execute();
+    }
+
+    @Benchmark
+    public Value testReverse(MyState state) {
+        return state.reverse.execute();
+    }
+
+    @Benchmark
+    public Value testCopyWithin(MyState state) {
+        return state.copyWithin.execute();
+    }
+
+    @Benchmark
+    public Value testSlice(MyState state) {
+        return state.slice.execute();
+    }
+
+    @Benchmark
+    public Value testIndexOf(MyState state) {
+        return state.indexOf.execute();
+    }
+
+    @Benchmark
+    public Value testIncludes(MyState state) {
+        return state.includes.execute();
+    }
+}
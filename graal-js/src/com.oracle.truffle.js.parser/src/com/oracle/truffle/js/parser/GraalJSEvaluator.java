@@ -206,10 +206,68 @@ public final class GraalJSEvaluator implements JSParser {
     @TruffleBoundary
     private static Object doEvaluate(JSRealm realm, Node lastNode, Object thisObj, MaterializedFrame materializedFrame, Source source, boolean isStrict, DirectEvalContext directEval) {
         JSContext context = realm.getContext();
-        ScriptNode scriptNode = parseEval(context, lastNode, source, isStrict, directEval);
+        ScriptNode scriptNode = parseEvalCached(context, lastNode, source, isStrict, directEval);
         return runParsed(scriptNode, realm, thisObj, materializedFrame);
     }
 
+    /**
+     * Parses eval code, reusing the translated script of a previous eval of the same source in the
+     * same scope if the eval cache is enabled. Sources containing template literals are not
+     * cached, since every parse of a tagged template must yield a distinct template object.
+     */
+    private static ScriptNode parseEvalCached(JSContext context, Node lastNode, Source source, boolean isStrict, DirectEvalContext directEval) {
+        if (!context.isEvalCacheEnabled() || containsBacktick(source.getCharacters())) {
+            return parseEval(context, lastNode, source, isStrict, directEval);
+        }
+        context.checkEvalAllowed();
+        EvalCacheKey key = new EvalCacheKey(source, isStrict, directEval);
+        ScriptNode scriptNode = context.getCachedEval(key);
+        if (scriptNode == null) {
+            scriptNode = parseEval(context, lastNode, source, isStrict, directEval);
+            context.putCachedEval(key, scriptNode);
+        }
+        return scriptNode;
+    }
+
+    private static boolean containsBacktick(CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            if (chars.charAt(i) == '`') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Eval cache key. Direct evals are translated against the saved parser environment of the
+     * call site, which is compared by identity.
+     */
+    private static final class EvalCacheKey {
+        private final Source source;
+        private final boolean isStrict;
+        private final DirectEvalContext directEval;
+
+        EvalCacheKey(Source source, boolean isStrict, DirectEvalContext directEval) {
+            this.source = source;
+            this.isStrict = isStrict;
+            this.directEval = directEval;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof EvalCacheKey)) {
+                return false;
+            }
+            EvalCacheKey other = (EvalCacheKey) obj;
+            return isStrict == other.isStrict && directEval == other.directEval && source.equals(other.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return (source.hashCode() * 31 + System.identityHashCode(directEval)) * 31 + (isStrict ? 1 : 0);
+        }
+    }
+
     private static Object runParsed(ScriptNode scriptNode, JSRealm realm, Object thisObj, MaterializedFrame materializedFrame) {
         DynamicObject functionObj = JSFunction.create(realm, scriptNode.getFunctionData(), materializedFrame);
         return scriptNode.run(JSArguments.createZeroArg(thisObj, functionObj));
@@ -257,8 +315,7 @@ public final class GraalJSEvaluator implements JSParser {
 
     @Override
     public ScriptNode parseScript(JSContext context, Source source, String prolog, String epilog, String[] argumentNames) {
-        String mimeType = source.getMimeType();
-        if (MODULE_MIME_TYPE.equals(mimeType) || (mimeType == null && source.getName().endsWith(MODULE_SOURCE_NAME_SUFFIX))) {
+        if (isModuleSource(source)) {
             return fakeScriptForModule(context, source);
         }
         try {
@@ -268,6 +325,16 @@ public final class GraalJSEvaluator implements JSParser {
         }
     }
 
+    static boolean isModuleSource(Source source) {
+        String mimeType = source.getMimeType();
+        return MODULE_MIME_TYPE.equals(mimeType) || (mimeType == null && source.getName().endsWith(MODULE_SOURCE_NAME_SUFFIX));
+    }
+
+    @Override
+    public List<Object> parseAhead(JSContext context, List<Source> sources) {
+        return GraalJSParserHelper.parseAhead(context, sources);
+    }
+
     private ScriptNode fakeScriptForModule(JSContext context, Source source) {
         RootNode rootNode = new JavaScriptRootNode(context.getLanguage(), JSBuiltin.createSourceSection(), null) {
             @Child private PerformPromiseThenNode performPromiseThenNode = PerformPromiseThenNode.create(context);
@@ -41,6 +41,13 @@
 package com.oracle.truffle.js.parser;
 
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 
 import com.oracle.js.parser.ErrorManager;
@@ -94,6 +101,12 @@ public final class GraalJSParserHelper {
     private static FunctionNode parseSource(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions,
                     boolean parseModule, boolean eval, boolean evalInFunction, Scope evalScope, String prologue, String epilogue, String[] argumentNames) {
         CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
+        if (!eval && argumentNames == null && prologue.isEmpty() && epilogue.isEmpty() && context.hasParseAheadResults()) {
+            FunctionNode parsedAhead = takeParsedAhead(context, truffleSource, parserOptions, parseModule);
+            if (parsedAhead != null) {
+                return parsedAhead;
+            }
+        }
         CharSequence code;
         if (prologue.isEmpty() && epilogue.isEmpty()) {
             code = truffleSource.getCharacters();
@@ -153,13 +166,24 @@ public final class GraalJSParserHelper {
     }
 
     private static Parser createParser(JSContext context, ScriptEnvironment env, com.oracle.js.parser.Source source, ErrorManager errors, JSParserOptions parserOptions) {
+        return createParser(context, env, source, errors, parserOptions, null);
+    }
+
+    /**
+     * @param deferredRegexLiterals if not {@code null}, regular expression literals are collected
+     *            here instead of being validated during parsing
+     */
+    private static Parser createParser(JSContext context, ScriptEnvironment env, com.oracle.js.parser.Source source, ErrorManager errors, JSParserOptions parserOptions,
+                    List<RegexToken> deferredRegexLiterals) {
         return new Parser(env, source, errors) {
             @Override
             protected void validateLexerToken(LexerToken lexerToken) {
                 if (lexerToken instanceof RegexToken) {
                     final RegexToken regex = (RegexToken) lexerToken;
-                    // validate regular expression
-                    if (context.getContextOptions().isValidateRegExpLiterals()) {
+                    if (deferredRegexLiterals != null) {
+                        deferredRegexLiterals.add(regex);
+                    } else if (context.getContextOptions().isValidateRegExpLiterals()) {
+                        // validate regular expression
                         try {
                             RegexCompilerInterface.validate(context, regex.getExpression(), regex.getOptions(), parserOptions.getEcmaScriptVersion());
                         } catch (JSException e) {
@@ -176,6 +200,103 @@ public final class GraalJSParserHelper {
         };
     }
 
+    /**
+     * Parses the given sources on a shared pool of daemon threads. The parser has no shared mutable
+     * state, so the sources are parsed independently; the results are consumed in evaluation order
+     * on the context thread by {@link #parseSource}. Results that are never consumed are dropped
+     * when the context that submitted them is disposed.
+     */
+    public static List<Object> parseAhead(JSContext context, List<com.oracle.truffle.api.source.Source> sources) {
+        List<Object> keys = new ArrayList<>(sources.size());
+        for (com.oracle.truffle.api.source.Source source : sources) {
+            boolean parseModule = GraalJSEvaluator.isModuleSource(source);
+            JSParserOptions parserOptions = context.getParserOptions().putStrict(parseModule || context.getParserOptions().isStrict());
+            Future<ParsedAhead> result = ParseAheadExecutor.INSTANCE.submit(() -> parseInBackground(context, source, parserOptions, parseModule));
+            Object key = parseAheadKey(source, parserOptions, parseModule);
+            context.putParseAheadResult(key, result);
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * Sources compare by content, name and path, and cache their hash code, so the key can be
+     * computed for every parsed source without copying its text.
+     */
+    private static Object parseAheadKey(com.oracle.truffle.api.source.Source source, JSParserOptions parserOptions, boolean parseModule) {
+        return Arrays.asList(source, parseModule, parserOptions);
+    }
+
+    /**
+     * Parses a source on a worker thread. Returns {@code null} for sources with syntax errors, which
+     * are parsed again on the context thread to report the error.
+     */
+    private static ParsedAhead parseInBackground(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions, boolean parseModule) {
+        com.oracle.js.parser.Source source = com.oracle.js.parser.Source.sourceFor(truffleSource.getName(), truffleSource.getCharacters(), false);
+        ErrorManager errors = new ErrorManager.StringBuilderErrorManager();
+        errors.setLimit(0);
+        List<RegexToken> regexLiterals = new ArrayList<>();
+        Parser parser = createParser(context, makeScriptEnvironment(parserOptions), source, errors, parserOptions, regexLiterals);
+        FunctionNode parsed = parseModule ? parser.parseModule(":module") : parser.parse();
+        if (errors.hasErrors()) {
+            return null;
+        }
+        return new ParsedAhead(parsed, regexLiterals);
+    }
+
+    /**
+     * Returns the AST of a source parsed ahead, waiting for the worker thread if necessary, or
+     * {@code null} if the source has to be parsed on the calling thread. Regular expression literals
+     * are validated here since this may need the context.
+     */
+    private static FunctionNode takeParsedAhead(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions, boolean parseModule) {
+        Future<?> result = context.takeParseAheadResult(parseAheadKey(truffleSource, parserOptions, parseModule));
+        if (result == null) {
+            return null;
+        }
+        ParsedAhead parsed;
+        try {
+            parsed = (ParsedAhead) result.get();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (parsed == null) {
+            return null;
+        }
+        if (context.getContextOptions().isValidateRegExpLiterals()) {
+            for (RegexToken regex : parsed.regexLiterals) {
+                try {
+                    RegexCompilerInterface.validate(context, regex.getExpression(), regex.getOptions(), parserOptions.getEcmaScriptVersion());
+                } catch (JSException e) {
+                    // parse again to report the error at the right position
+                    return null;
+                }
+            }
+        }
+        return parsed.functionNode;
+    }
+
+    private static final class ParsedAhead {
+        final FunctionNode functionNode;
+        final List<RegexToken> regexLiterals;
+
+        ParsedAhead(FunctionNode functionNode, List<RegexToken> regexLiterals) {
+            this.functionNode = functionNode;
+            this.regexLiterals = regexLiterals;
+        }
+    }
+
+    private static final class ParseAheadExecutor {
+        static final ExecutorService INSTANCE = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), (runnable) -> {
+            Thread thread = new Thread(runnable, "graaljs-parse-ahead");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private static ScriptEnvironment makeScriptEnvironment(JSParserOptions parserOptions) {
         ScriptEnvironment.Builder builder = ScriptEnvironment.builder();
         builder.strict(parserOptions.isStrict());
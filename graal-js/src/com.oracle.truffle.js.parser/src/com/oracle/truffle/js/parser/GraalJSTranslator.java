@@ -1799,26 +1799,20 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         assert forNode.isForInOrOf();
         VarRef iteratorVar = environment.createTempVar();
         JavaScriptNode iteratorInit = iteratorVar.createWriteNode(iterator);
-        VarRef nextResultVar = environment.createTempVar();
-        JavaScriptNode iteratorNext = factory.createIteratorNext(iteratorVar.createReadNode());
-        // nextResult = IteratorNext(iterator)
-        // while(!(done = IteratorComplete(nextResult)))
+        VarRef nextValueVar = environment.createTempVar();
+        // while((nextResult = IteratorStep(iterator)) !== false) { nextValue = IteratorValue(nextResult); ...
+        // (combined into one node, so that the iterator result object does not escape)
+        JavaScriptNode iteratorStepValue = factory.createIteratorStepValue(context, iteratorVar.createReadNode(), (JSWriteFrameSlotNode) nextValueVar.createWriteNode(null));
         JavaScriptNode condition = factory.createDual(context,
                         factory.createIteratorSetDone(iteratorVar.createReadNode(), factory.createConstantBoolean(true)),
-                        factory.createUnary(UnaryOperation.NOT, factory.createIteratorComplete(context, nextResultVar.createWriteNode(iteratorNext))));
+                        iteratorStepValue);
         JavaScriptNode wrappedBody;
         try (EnvironmentCloseable blockEnv = needsPerIterationScope(forNode) ? enterBlockEnvironment(lc.getCurrentBlock()) : new EnvironmentCloseable(environment)) {
-            // var nextValue = IteratorValue(nextResult);
-            VarRef nextResultVar2 = environment.findTempVar(nextResultVar.getFrameSlot());
-            VarRef nextValueVar = environment.createTempVar();
+            VarRef nextValueVar2 = environment.findTempVar(nextValueVar.getFrameSlot());
             VarRef iteratorVar2 = environment.findTempVar(iteratorVar.getFrameSlot());
-            JavaScriptNode nextResult = nextResultVar2.createReadNode();
-            JavaScriptNode nextValue = factory.createIteratorValue(context, nextResult);
-            JavaScriptNode writeNextValue = nextValueVar.createWriteNode(nextValue);
-            JavaScriptNode writeNext = tagStatement(desugarForHeadAssignment(forNode, nextValueVar.createReadNode()), forNode);
+            JavaScriptNode writeNext = tagStatement(desugarForHeadAssignment(forNode, nextValueVar2.createReadNode()), forNode);
             JavaScriptNode body = transform(forNode.getBody());
             wrappedBody = blockEnv.wrapBlockScope(createBlock(
-                            writeNextValue,
                             factory.createIteratorSetDone(iteratorVar2.createReadNode(), factory.createConstantBoolean(false)),
                             writeNext,
                             body));
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.shell;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compares {@link MappedUtf8CharSequence} with the JDK's decoding of the same bytes.
+ */
+public class MappedUtf8CharSequenceTest {
+
+    private static final int CHECKPOINT_INTERVAL = 1024;
+
+    private static final byte[][] MALFORMED = {
+                    {(byte) 0x80},
+                    {(byte) 0xbf},
+                    {(byte) 0xc0, (byte) 0x80},
+                    {(byte) 0xc1, (byte) 0xbf},
+                    {(byte) 0xc3},
+                    {(byte) 0xe0, (byte) 0x80, (byte) 0x80},
+                    {(byte) 0xe0, (byte) 0x9f, (byte) 0xbf},
+                    {(byte) 0xe2, (byte) 0x82},
+                    {(byte) 0xed, (byte) 0xa0, (byte) 0x80},
+                    {(byte) 0xed, (byte) 0xbf, (byte) 0xbf},
+                    {(byte) 0xed, (byte) 0xa0},
+                    {(byte) 0xf0, (byte) 0x80, (byte) 0x80, (byte) 0x80},
+                    {(byte) 0xf0, (byte) 0x8f, (byte) 0xbf, (byte) 0xbf},
+                    {(byte) 0xf0, (byte) 0x9f, (byte) 0x98},
+                    {(byte) 0xf0, (byte) 0x9f},
+                    {(byte) 0xf4, (byte) 0x90, (byte) 0x80, (byte) 0x80},
+                    {(byte) 0xf5, (byte) 0x80, (byte) 0x80, (byte) 0x80},
+                    {(byte) 0xf8, (byte) 0x88, (byte) 0x80, (byte) 0x80, (byte) 0x80},
+                    {(byte) 0xfe},
+                    {(byte) 0xff},
+    };
+
+    private static void assertSameContent(byte[] bytes) {
+        String expected = new String(bytes, StandardCharsets.UTF_8);
+        int length = expected.length();
+
+        CharSequence sequential = MappedUtf8CharSequence.create(ByteBuffer.wrap(bytes));
+        assertEquals(length, sequential.length());
+        for (int i = 0; i < length; i++) {
+            assertEquals("charAt(" + i + ")", expected.charAt(i), sequential.charAt(i));
+        }
+        assertEquals(expected, sequential.toString());
+
+        CharSequence backward = MappedUtf8CharSequence.create(ByteBuffer.wrap(bytes));
+        for (int i = length - 1; i >= 0; i--) {
+            assertEquals("charAt(" + i + ")", expected.charAt(i), backward.charAt(i));
+        }
+
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            indices.add(i);
+        }
+        Collections.shuffle(indices, new Random(length));
+        CharSequence random = MappedUtf8CharSequence.create(ByteBuffer.wrap(bytes));
+        for (int i : indices) {
+            assertEquals("charAt(" + i + ")", expected.charAt(i), random.charAt(i));
+        }
+
+        List<Integer> boundaries = new ArrayList<>();
+        for (int boundary = 0; boundary <= length + 1; boundary += CHECKPOINT_INTERVAL) {
+            for (int delta = -2; delta <= 2; delta++) {
+                int offset = boundary + delta;
+                if (offset >= 0 && offset <= length) {
+                    boundaries.add(offset);
+                }
+            }
+        }
+        boundaries.add(length);
+        CharSequence sub = MappedUtf8CharSequence.create(ByteBuffer.wrap(bytes));
+        for (int start : boundaries) {
+            for (int end : boundaries) {
+                if (start <= end) {
+                    assertEquals(start + ", " + end, expected.substring(start, end), sub.subSequence(start, end).toString());
+                }
+            }
+        }
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String repeat(String s, int count) {
+        StringBuilder sb = new StringBuilder(s.length() * count);
+        for (int i = 0; i < count; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertSameContent(new byte[0]);
+    }
+
+    @Test
+    public void testAscii() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 3 * CHECKPOINT_INTERVAL + 17; i++) {
+            sb.append((char) (' ' + i % 95));
+        }
+        assertSameContent(utf8(sb.toString()));
+    }
+
+    @Test
+    public void testCheckpoints() {
+        // one, two, three and four byte sequences, so that checkpoints fall on every kind
+        String chars = "a\u00e4\u20ac\ud83d\ude00b\u0800\uffff\ud800\udc00\udbff\udfff\u07ff";
+        assertSameContent(utf8(repeat(chars, 4 * CHECKPOINT_INTERVAL / chars.length() + 3)));
+    }
+
+    @Test
+    public void testSurrogatePairAtCheckpoint() {
+        for (int prefix = CHECKPOINT_INTERVAL - 3; prefix <= CHECKPOINT_INTERVAL + 1; prefix++) {
+            String s = repeat("\u00e4", prefix) + repeat("\ud83d\ude00", CHECKPOINT_INTERVAL + 1) + "z";
+            assertSameContent(utf8(s));
+        }
+    }
+
+    @Test
+    public void testMalformed() {
+        for (byte[] malformed : MALFORMED) {
+            assertSameContent(malformed);
+            for (int prefix = CHECKPOINT_INTERVAL - 2; prefix <= CHECKPOINT_INTERVAL + 1; prefix++) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] padding = utf8(repeat("\u00e4", prefix));
+                out.write(padding, 0, padding.length);
+                for (int i = 0; i < 3; i++) {
+                    out.write(malformed, 0, malformed.length);
+                    out.write('x');
+                    out.write(malformed, 0, malformed.length);
+                    out.write(0xc3);
+                    out.write(0xa4);
+                }
+                // truncated at the end of the input
+                out.write(malformed, 0, malformed.length);
+                assertSameContent(out.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void testRandomBytes() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20; i++) {
+            byte[] bytes = new byte[random.nextInt(4 * CHECKPOINT_INTERVAL)];
+            for (int j = 0; j < bytes.length; j++) {
+                // mostly lead and continuation bytes, so that sequences are often well-formed
+                int b = random.nextInt(8);
+                bytes[j] = (byte) (b == 0 ? random.nextInt(0x80) : b < 4 ? 0x80 + random.nextInt(0x40) : 0xc0 + random.nextInt(0x40));
+            }
+            assertSameContent(bytes);
+        }
+    }
+
+    @Test
+    public void testOutOfBounds() {
+        CharSequence chars = MappedUtf8CharSequence.create(ByteBuffer.wrap(utf8("\u00e4bc")));
+        for (int index : new int[]{-1, 3}) {
+            try {
+                chars.charAt(index);
+                fail(String.valueOf(index));
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+        }
+    }
+}
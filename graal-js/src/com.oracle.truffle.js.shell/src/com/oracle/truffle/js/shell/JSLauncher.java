@@ -66,6 +66,8 @@ import org.graalvm.polyglot.Value;
 
 public class JSLauncher extends AbstractLanguageLauncher {
     static final String MODULE_MIME_TYPE = "application/javascript+module";
+    /** Script files of at least this size are mapped into memory and decoded on demand. */
+    static final long MAPPED_SOURCE_MIN_SIZE = 64L << 20;
     private static final String PROMPT = "> ";
 
     public static void main(String[] args) {
@@ -74,6 +76,7 @@ public class JSLauncher extends AbstractLanguageLauncher {
 
     boolean printResult = false;
     boolean fuzzilliREPRL = false;
+    boolean parseAhead = false;
     String[] programArgs;
     final List<UnparsedSource> unparsedSources = new LinkedList<>();
     private VersionAction versionAction = VersionAction.None;
@@ -178,6 +181,9 @@ public class JSLauncher extends AbstractLanguageLauncher {
             case "fuzzilli-reprl":
                 fuzzilliREPRL = true;
                 return Consumed;
+            case "parse-ahead":
+                parseAhead = true;
+                return Consumed;
         }
         return Unhandled;
     }
@@ -241,6 +247,21 @@ public class JSLauncher extends AbstractLanguageLauncher {
         return sources;
     }
 
+    /**
+     * Returns the script and module files in the format of the {@code js.parse-ahead} option.
+     */
+    String getParseAheadFiles() {
+        List<String> files = new ArrayList<>();
+        for (UnparsedSource unparsedSource : unparsedSources) {
+            // mapped files are not read ahead, they are decoded on demand. --module files are
+            // evaluated with the module MIME type, which the option cannot express.
+            if (unparsedSource.type == SourceType.FILE && !unparsedSource.isMapped()) {
+                files.add(unparsedSource.src);
+            }
+        }
+        return String.join(File.pathSeparator, files);
+    }
+
     void addFile(String file) {
         unparsedSources.add(new UnparsedSource(file, SourceType.FILE));
     }
@@ -277,6 +298,7 @@ public class JSLauncher extends AbstractLanguageLauncher {
         printOption("--module FILE",        "load module file");
         printOption("--syntax-extensions",  "enable non-spec syntax extensions");
         printOption("--print-result",       "print the return value of each FILE");
+        printOption("--parse-ahead",        "parse all FILEs in parallel before running them");
         printOption("--scripting",          "enable scripting features (Nashorn compatibility option)");
         printOption("--strict",             "run in strict mode");
         printOption("--version",            "print the version and exit");
@@ -291,6 +313,7 @@ public class JSLauncher extends AbstractLanguageLauncher {
                         "-f", "--file",
                         "--syntax-extensions",
                         "--print-result",
+                        "--parse-ahead",
                         "--version",
                         "--show-version",
                         "--scripting",
@@ -312,6 +335,9 @@ public class JSLauncher extends AbstractLanguageLauncher {
         int status;
         contextBuilder.arguments("js", programArgs);
         contextBuilder.option("js.shell", "true");
+        if (parseAhead) {
+            contextBuilder.option("js.parse-ahead", getParseAheadFiles());
+        }
         try (Context context = contextBuilder.build()) {
             runVersionAction(versionAction, context.getEngine());
             preEval(context);
@@ -461,7 +487,11 @@ public class JSLauncher extends AbstractLanguageLauncher {
         private Source parse() throws IOException {
             switch (type) {
                 case FILE:
-                    return Source.newBuilder("js", new File(src)).build();
+                    File file = new File(src);
+                    if (isMapped()) {
+                        return Source.newBuilder("js", file).content(MappedUtf8CharSequence.map(file.toPath())).build();
+                    }
+                    return Source.newBuilder("js", file).build();
                 case EVAL:
                     return Source.newBuilder("js", src, "<eval_script>").buildLiteral();
                 case MODULE:
@@ -472,5 +502,9 @@ public class JSLauncher extends AbstractLanguageLauncher {
                     throw new IllegalStateException();
             }
         }
+
+        private boolean isMapped() {
+            return type == SourceType.FILE && new File(src).length() >= MAPPED_SOURCE_MIN_SIZE;
+        }
     }
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.shell;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only character view of a memory-mapped UTF-8 file. Characters are decoded on access, so the
+ * content is never held as a whole in UTF-16. Random access uses a table of the byte offsets of
+ * every {@value #CHECKPOINT_INTERVAL}th character; sequential access (as done by the lexer)
+ * continues from the previously accessed character. Files that only contain ASCII characters are
+ * accessed directly. Malformed input is replaced by U+FFFD the same way as by the JDK's UTF-8
+ * decoder, so the content equals {@code new String(bytes, UTF_8)}.
+ */
+final class MappedUtf8CharSequence implements CharSequence {
+
+    private static final int CHECKPOINT_SHIFT = 10;
+    private static final int CHECKPOINT_INTERVAL = 1 << CHECKPOINT_SHIFT;
+    private static final char REPLACEMENT_CHARACTER = '\ufffd';
+
+    private final ByteBuffer bytes;
+    private final int length;
+    /** Byte offset and index of the first character starting at or after each interval. */
+    private final int[] checkpointByteOffsets;
+    private final int[] checkpointCharIndices;
+    /**
+     * Character index (high 32 bits) and byte offset (low 32 bits) of the last decoded character,
+     * packed so that concurrent readers always see a consistent pair. Sources are lexed
+     * sequentially by one thread, so this is a plain field: other threads may see a stale cursor,
+     * which is still a valid position to continue decoding from. Writes of longs are atomic on the
+     * 64-bit platforms this launcher supports.
+     */
+    private long cursor;
+
+    private MappedUtf8CharSequence(ByteBuffer bytes, int length, int[] checkpointByteOffsets, int[] checkpointCharIndices) {
+        this.bytes = bytes;
+        this.length = length;
+        this.checkpointByteOffsets = checkpointByteOffsets;
+        this.checkpointCharIndices = checkpointCharIndices;
+    }
+
+    static MappedUtf8CharSequence map(Path path) throws IOException {
+        ByteBuffer bytes;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large: " + path);
+            }
+            bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        return create(bytes);
+    }
+
+    static MappedUtf8CharSequence create(ByteBuffer bytes) {
+        int size = bytes.limit();
+        int ascii = 0;
+        while (ascii < size && bytes.get(ascii) >= 0) {
+            ascii++;
+        }
+        if (ascii == size) {
+            return new MappedUtf8CharSequence(bytes, size, null, null);
+        }
+        int[] byteOffsets = new int[(size >>> CHECKPOINT_SHIFT) + 1];
+        int[] charIndices = new int[byteOffsets.length];
+        int checkpoints = 0;
+        int charIndex = 0;
+        for (int byteOffset = 0; byteOffset < size;) {
+            if (charIndex >= checkpoints << CHECKPOINT_SHIFT) {
+                byteOffsets[checkpoints] = byteOffset;
+                charIndices[checkpoints] = charIndex;
+                checkpoints++;
+            }
+            int sequenceLength = sequenceLength(bytes, byteOffset);
+            charIndex += sequenceLength == 4 ? 2 : 1;
+            byteOffset += Math.abs(sequenceLength);
+        }
+        return new MappedUtf8CharSequence(bytes, charIndex, byteOffsets, charIndices);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        if (checkpointByteOffsets == null) {
+            return (char) bytes.get(index);
+        }
+        long last = cursor;
+        int charIndex = (int) (last >>> 32);
+        int byteOffset = (int) last;
+        if (index < charIndex || index - charIndex >= CHECKPOINT_INTERVAL) {
+            int checkpoint = index >>> CHECKPOINT_SHIFT;
+            if (checkpointCharIndices[checkpoint] > index) {
+                // the character is the second half of a surrogate pair starting before the
+                // checkpoint
+                checkpoint--;
+            }
+            charIndex = checkpointCharIndices[checkpoint];
+            byteOffset = checkpointByteOffsets[checkpoint];
+        }
+        while (true) {
+            int sequenceLength = sequenceLength(bytes, byteOffset);
+            int chars = sequenceLength == 4 ? 2 : 1;
+            if (index < charIndex + chars) {
+                cursor = ((long) charIndex << 32) | byteOffset;
+                int codePoint = sequenceLength < 0 ? REPLACEMENT_CHARACTER : decode(bytes, byteOffset, sequenceLength);
+                if (chars == 1) {
+                    return (char) codePoint;
+                }
+                return index == charIndex ? Character.highSurrogate(codePoint) : Character.lowSurrogate(codePoint);
+            }
+            charIndex += chars;
+            byteOffset += Math.abs(sequenceLength);
+        }
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException(start + ", " + end);
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            sb.append(charAt(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length).toString();
+    }
+
+    /**
+     * Returns the length of the well-formed UTF-8 sequence at the given offset or, negated, the
+     * number of bytes of a malformed sequence that are replaced by a single U+FFFD. Like the JDK's
+     * decoder, the longest prefix of a valid sequence is replaced as a whole, except for encoded
+     * surrogates, which are always three bytes.
+     */
+    private static int sequenceLength(ByteBuffer bytes, int offset) {
+        int limit = bytes.limit();
+        int b1 = bytes.get(offset) & 0xff;
+        if (b1 < 0x80) {
+            return 1;
+        } else if (b1 >= 0xc2 && b1 <= 0xdf) {
+            return offset + 1 < limit && isContinuation(bytes.get(offset + 1)) ? 2 : -1;
+        } else if (b1 >= 0xe0 && b1 <= 0xef) {
+            if (offset + 1 >= limit) {
+                return -1;
+            }
+            int b2 = bytes.get(offset + 1) & 0xff;
+            if (!isContinuation(b2) || (b1 == 0xe0 && b2 < 0xa0)) {
+                return -1;
+            }
+            if (offset + 2 >= limit || !isContinuation(bytes.get(offset + 2))) {
+                return -2;
+            }
+            return b1 == 0xed && b2 >= 0xa0 ? -3 : 3;
+        } else if (b1 >= 0xf0 && b1 <= 0xf4) {
+            if (offset + 1 >= limit) {
+                return -1;
+            }
+            int b2 = bytes.get(offset + 1) & 0xff;
+            if (!isContinuation(b2) || (b1 == 0xf0 && b2 < 0x90) || (b1 == 0xf4 && b2 >= 0x90)) {
+                return -1;
+            }
+            if (offset + 2 >= limit || !isContinuation(bytes.get(offset + 2))) {
+                return -2;
+            }
+            if (offset + 3 >= limit || !isContinuation(bytes.get(offset + 3))) {
+                return -3;
+            }
+            return 4;
+        } else {
+            return -1;
+        }
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xc0) == 0x80;
+    }
+
+    private static int decode(ByteBuffer bytes, int offset, int sequenceLength) {
+        int b = bytes.get(offset) & 0xff;
+        switch (sequenceLength) {
+            case 2:
+                return ((b & 0x1f) << 6) | (bytes.get(offset + 1) & 0x3f);
+            case 3:
+                return ((b & 0x0f) << 12) | ((bytes.get(offset + 1) & 0x3f) << 6) | (bytes.get(offset + 2) & 0x3f);
+            case 4:
+                return ((b & 0x07) << 18) | ((bytes.get(offset + 1) & 0x3f) << 12) | ((bytes.get(offset + 2) & 0x3f) << 6) | (bytes.get(offset + 3) & 0x3f);
+            default:
+                return b;
+        }
+    }
+}
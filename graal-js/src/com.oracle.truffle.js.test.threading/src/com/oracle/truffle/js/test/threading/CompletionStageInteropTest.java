@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.threading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Value;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class CompletionStageInteropTest {
+
+    private static final String COMPLETION_STAGE_OPTION = "js.interop-completion-stage";
+
+    private static Context.Builder newContextBuilder() {
+        return TestUtil.newContextBuilder().allowHostAccess(HostAccess.ALL).allowHostClassLookup(s -> true).option(COMPLETION_STAGE_OPTION, "true");
+    }
+
+    private static CompletableFuture<Object> completeLater(Object value) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            return value;
+        });
+    }
+
+    /**
+     * Waits until the global variable {@code result} is set. The completion of a stage that
+     * completed while the context was in use is run when the context is entered next.
+     */
+    private static Value awaitResult(Context context) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            Value result = context.eval("js", "result");
+            if (!result.isNull()) {
+                return result;
+            }
+            Thread.sleep(1);
+        }
+        throw new AssertionError("result not set");
+    }
+
+    /**
+     * A Java CompletionStage can be awaited. The stage completes on another thread.
+     */
+    @Test
+    public void awaitCompletableFuture() throws InterruptedException {
+        try (Context context = newContextBuilder().build()) {
+            context.getBindings("js").putMember("future", completeLater(42));
+            context.eval("js", "var result; (async function() { result = await future; })();");
+            assertEquals(42, awaitResult(context).asInt());
+        }
+    }
+
+    @Test
+    public void awaitFailedCompletableFuture() throws InterruptedException {
+        try (Context context = newContextBuilder().build()) {
+            CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
+                throw new IllegalStateException("failed");
+            });
+            context.getBindings("js").putMember("future", future);
+            context.eval("js", "var result; Promise.resolve(future).catch(e => { result = e.getMessage(); });");
+            assertEquals("failed", awaitResult(context).asString());
+        }
+    }
+
+    /**
+     * Evaluation does not wait for a pending stage.
+     */
+    @Test(timeout = 30000)
+    public void awaitNeverCompletingFuture() {
+        try (Context context = newContextBuilder().build()) {
+            context.getBindings("js").putMember("future", new CompletableFuture<>());
+            context.eval("js", "var result; (async function() { result = await future; })();");
+            assertTrue(context.eval("js", "result").isNull());
+            assertEquals(42, context.eval("js", "40 + 2").asInt());
+        }
+    }
+
+    /**
+     * A stage completed while the context is not in use runs its continuation right away on the
+     * completing thread.
+     */
+    @Test
+    public void completeAfterEvaluation() {
+        try (Context context = newContextBuilder().build()) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            context.getBindings("js").putMember("future", future);
+            context.eval("js", "var result; (async function() { result = await future + 1; })();");
+            assertTrue(context.eval("js", "result").isNull());
+            future.complete(41);
+            assertEquals(42, context.eval("js", "result").asInt());
+        }
+    }
+
+    @Test
+    public void notThenableWithoutOption() {
+        try (Context context = TestUtil.newContextBuilder().allowHostAccess(HostAccess.ALL).build()) {
+            CompletableFuture<Object> future = CompletableFuture.completedFuture(42);
+            context.getBindings("js").putMember("future", future);
+            context.eval("js", "var result; (async function() { result = await future; })();");
+            assertTrue(context.eval("js", "result").isHostObject());
+        }
+    }
+
+    /**
+     * A JavaScript promise can be converted to a CompletableFuture with {@code Java.to}.
+     */
+    @Test
+    public void promiseToCompletableFuture() throws InterruptedException, ExecutionException {
+        try (Context context = newContextBuilder().build()) {
+            Value future = context.eval("js", "Java.to(Promise.resolve(41).then(x => x + 1), Java.type('java.util.concurrent.CompletableFuture'));");
+            assertEquals(42, ((Number) future.as(CompletableFuture.class).get()).intValue());
+
+            future = context.eval("js", "Java.to(Promise.reject(new Error('rejected')), 'java.util.concurrent.CompletionStage');");
+            CompletableFuture<?> rejected = future.as(CompletableFuture.class);
+            assertTrue(rejected.isCompletedExceptionally());
+        }
+    }
+
+    /**
+     * Contexts can be run on Java virtual threads (JDK 21+), e.g. one thread per request. Waiting
+     * for awaited Java operations only parks the virtual thread.
+     */
+    @Test
+    public void virtualThreads() throws Exception {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        Assume.assumeNotNull(executor);
+        final int tasks = 1000;
+        try (Engine engine = TestUtil.newEngineBuilder().build()) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                final int index = i;
+                results.add(executor.submit(() -> {
+                    try (Context context = newContextBuilder().engine(engine).build()) {
+                        context.getBindings("js").putMember("future", completeLater(index));
+                        context.eval("js", "var result; (async function() { result = await future + 1; })();");
+                        return awaitResult(context).asInt();
+                    }
+                }));
+            }
+            for (int i = 0; i < tasks; i++) {
+                assertEquals(i + 1, (int) results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
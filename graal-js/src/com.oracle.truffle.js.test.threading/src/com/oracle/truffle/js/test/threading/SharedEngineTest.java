@@ -96,6 +96,26 @@ public class SharedEngineTest {
                         "})();");
     }
 
+    /**
+     * Exercises lazily initialized state shared by all contexts of an engine (bound function
+     * data, shape data used by property enumeration).
+     */
+    @Test
+    public void testParallelLazyInitialization() {
+        parallelEval("(function() {" +
+                        "    function Point(x, y) { this.x = x; this.y = y; }" +
+                        "    var sum = 0;" +
+                        "    for (var i = 0; i < 100; i++) {" +
+                        "        var p = new Point(i, i);" +
+                        "        for (var k in p) { sum += p[k]; }" +
+                        "        sum += Object.keys(p).length;" +
+                        "        var bound = Point.bind(null, i);" +
+                        "        sum += new bound(i).x;" +
+                        "    }" +
+                        "    if (sum !== 15050) throw new Error('unexpected: ' + sum);" +
+                        "})();");
+    }
+
     private static void parallelEval(String source) {
         final int contexts = 16;
         final int perThreadIterations = 100;
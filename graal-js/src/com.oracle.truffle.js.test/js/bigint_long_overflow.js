@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/**
+ * BigInt arithmetic around the boundaries of the 64-bit representation.
+ */
+
+load('assert.js');
+
+const MAX = 2n ** 63n - 1n;
+const MIN = -(2n ** 63n);
+
+for (let i = 0; i < 1000; i++) {
+    assertSame('9223372036854775808', String(MAX + 1n));
+    assertSame('-9223372036854775809', String(MIN - 1n));
+    assertSame('85070591730234615847396907784232501249', String(MAX * MAX));
+    assertSame('9223372036854775808', String(MIN / -1n));
+    assertSame('9223372036854775808', String(-MIN));
+    assertSame(0n, MIN % -1n);
+    assertSame(MAX, (MAX + 1n) - 1n);
+    assertSame(true, MAX < MAX + 1n);
+    assertSame(true, MIN - 1n < MIN);
+    assertSame(true, MAX + 2n > 9223372036854775807);
+    assertSame(true, MAX + 1n == 2 ** 63);
+    assertSame(false, MAX == 2 ** 63);
+    assertSame(-1n, MIN >> 100n);
+    assertSame(2n ** 64n, 1n << 64n);
+    assertSame(BigInt.asIntN(64, MAX + 1n), MIN);
+    assertSame(BigInt.asUintN(64, -1n), 2n ** 64n - 1n);
+    assertSame(MAX, BigInt('9223372036854775807'));
+    assertSame(MAX + 1n, BigInt('9223372036854775808'));
+}
+
+let i64 = new BigInt64Array(2);
+let u64 = new BigUint64Array(i64.buffer);
+for (let i = 0; i < 1000; i++) {
+    i64[0] = MAX + 1n;
+    assertSame(MIN, i64[0]);
+    assertSame(2n ** 63n, u64[0]);
+    i64[1] = BigInt(i) * 3n;
+    assertSame(BigInt(i) * 3n, i64[1]);
+}
+
+true;
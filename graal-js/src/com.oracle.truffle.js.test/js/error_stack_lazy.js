@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/**
+ * The stack of an error is captured when the error is created, even if it is read later.
+ */
+
+load('assert.js');
+
+function inner() {
+    return new Error('inner');
+}
+
+function outer() {
+    return inner();
+}
+
+function skipped() {
+    let obj = {};
+    Error.captureStackTrace(obj, skipped);
+    return obj;
+}
+
+function caller() {
+    return skipped();
+}
+
+let errors = [];
+for (let i = 0; i < 10; i++) {
+    errors.push(outer());
+}
+for (let error of errors) {
+    let lines = error.stack.split('\n');
+    assertSame('Error: inner', lines[0]);
+    assertTrue(lines[1].includes('at inner'));
+    assertTrue(lines[2].includes('at outer'));
+    assertSame(errors[0].stack, error.stack);
+}
+
+let captured = caller();
+let lines = captured.stack.split('\n');
+assertTrue(lines[1].includes('at caller'));
+assertFalse(captured.stack.includes('skipped'));
+
+true;
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/**
+ * for-of and for-in over built-in iterables (inlined iterator steps).
+ */
+
+load('assert.js');
+
+function collect(iterable) {
+    var result = [];
+    for (var value of iterable) {
+        result.push(value);
+    }
+    return result.join();
+}
+
+var map = new Map([[1, 'a'], [2, 'b']]);
+var set = new Set(['x', 'y', 'z']);
+
+for (var i = 0; i < 1000; i++) {
+    assertSame('1,2,3', collect([1, 2, 3]));
+    assertSame('1.5,2.5', collect(new Float64Array([1.5, 2.5])));
+    assertSame('1,a,2,b', collect(map));
+    assertSame('1,2', collect(map.keys()));
+    assertSame('a,b', collect(map.values()));
+    assertSame('x,y,z', collect(set));
+    assertSame('x,y,z', collect(set.values()));
+    assertSame('a,\uD83D\uDE00,b', collect('a\uD83D\uDE00b'));
+    assertSame('0,1,2', collect(['a', 'b', 'c'].keys()));
+    assertSame('0,a,1,b', collect(['a', 'b'].entries()));
+}
+
+// holes and accessors are read through the regular next() call
+var holes = [1, , 3];
+assertSame('1,,3', collect(holes));
+Object.defineProperty(Array.prototype, 1, {
+    get: function() {
+        return 'getter';
+    },
+    configurable: true
+});
+assertSame('1,getter,3', collect(holes));
+delete Array.prototype[1];
+
+// array-likes
+var arrayLike = {length: 2, 0: 'p', 1: 'q'};
+arrayLike[Symbol.iterator] = Array.prototype[Symbol.iterator];
+assertSame('p,q', collect(arrayLike));
+(function() {
+    assertSame('4,5', collect(arguments));
+})(4, 5);
+
+// an array that grows during iteration
+var growing = [1];
+var steps = 0;
+for (var value of growing) {
+    if (growing.length < 5) {
+        growing.push(value + 1);
+    }
+    steps++;
+}
+assertSame(5, steps);
+
+// the next method is looked up once before the loop
+var ArrayIteratorPrototype = Object.getPrototypeOf([][Symbol.iterator]());
+var originalNext = ArrayIteratorPrototype.next;
+var result = [];
+for (var value of [1, 2, 3]) {
+    ArrayIteratorPrototype.next = function() {
+        return {value: 'patched', done: true};
+    };
+    result.push(value);
+}
+assertSame('1,2,3', result.join());
+assertSame('', collect([1, 2, 3]));
+ArrayIteratorPrototype.next = originalNext;
+assertSame('1,2,3', collect([1, 2, 3]));
+
+// break and throw close the iterator, exhausted iterators are not closed
+var closed = 0;
+var iterable = {};
+iterable[Symbol.iterator] = function() {
+    var count = 0;
+    return {
+        next: function() {
+            return {value: count, done: count++ >= 3};
+        },
+        return: function() {
+            closed++;
+            return {};
+        }
+    };
+};
+for (var value of iterable) {
+    if (value === 1) {
+        break;
+    }
+}
+assertSame(1, closed);
+assertThrows(function() {
+    for (var value of iterable) {
+        throw new Error();
+    }
+}, Error);
+assertSame(2, closed);
+assertSame('0,1,2', collect(iterable));
+assertSame(2, closed);
+
+// value getters are only called for results that are not done
+var valueReads = 0;
+var counting = {};
+counting[Symbol.iterator] = function() {
+    var count = 0;
+    return {
+        next: function() {
+            var done = count++ >= 2;
+            return {
+                get value() {
+                    valueReads++;
+                    return count;
+                },
+                done: done
+            };
+        }
+    };
+};
+assertSame('1,2', collect(counting));
+assertSame(2, valueReads);
+
+// for-in shares the loop desugaring
+var keys = [];
+for (var key in {a: 1, b: 2}) {
+    keys.push(key);
+}
+assertSame('a,b', keys.join());
+
+true;
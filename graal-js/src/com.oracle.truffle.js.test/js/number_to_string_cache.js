@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/**
+ * Number to string conversions and numeric property keys (with colliding cache entries).
+ */
+
+load('assert.js');
+
+for (let round = 0; round < 3; round++) {
+    for (let i = -3000; i < 3000; i += 7) {
+        let s = String(i);
+        assertSame(i, Number(s));
+        assertSame(s, `${i}`);
+        assertSame(s, '' + i);
+        assertSame(String(i + 0.5), (i + 0.5).toString());
+        assertSame(i + 0.5, Number(String(i + 0.5)));
+    }
+}
+assertSame('1e+21', String(1e21));
+assertSame('4294967296', String(2 ** 32));
+assertSame('0', String(-0));
+
+let obj = {};
+let arr = [];
+for (let i = 0; i < 5000; i++) {
+    obj[String(i)] = i;
+    arr[String(i)] = i;
+}
+for (let i = 0; i < 5000; i++) {
+    assertSame(i, obj[i]);
+    assertSame(i, arr[String(i)]);
+}
+assertSame(5000, arr.length);
+arr['4294967295'] = 1; // not an array index
+assertSame(5000, arr.length);
+arr['01'] = 2; // not an array index
+assertSame(1, arr[1]);
+
+true;
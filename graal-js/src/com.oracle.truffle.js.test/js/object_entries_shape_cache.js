@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/**
+ * Object.keys/values/entries on objects sharing a shape, with and without accessors.
+ */
+
+load('assert.js');
+
+function check(o, keys, values) {
+    assertSame(keys.join(), Object.keys(o).join());
+    assertSame(values.join(), Object.values(o).join());
+    let entries = Object.entries(o);
+    assertSame(keys.length, entries.length);
+    for (let i = 0; i < entries.length; i++) {
+        assertSame(keys[i], entries[i][0]);
+        assertSame(values[i], entries[i][1]);
+    }
+}
+
+for (let i = 0; i < 100; i++) {
+    let plain = {a: i, b: 'x', 2: true, 1: null};
+    check(plain, ['1', '2', 'a', 'b'], [null, true, i, 'x']);
+
+    let hidden = {a: i, b: 2};
+    Object.defineProperty(hidden, 'c', {value: 3, enumerable: false});
+    check(hidden, ['a', 'b'], [i, 2]);
+
+    // a getter may change the object while the values are collected
+    let accessor = {a: 1, get b() { delete this.c; return 2; }, c: 3};
+    assertSame('1,2', Object.values(accessor).join());
+    accessor = {a: 1, get b() { delete this.c; return 2; }, c: 3};
+    assertSame('a,1,b,2', Object.entries(accessor).join());
+}
+
+true;
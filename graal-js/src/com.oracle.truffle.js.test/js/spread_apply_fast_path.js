@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/**
+ * Spread arguments and Function.prototype.apply with fast arrays.
+ */
+
+load('assert.js');
+
+function collect() {
+    return Array.prototype.slice.call(arguments);
+}
+
+function forward(...args) {
+    return collect(...args);
+}
+
+function forwardApply(...args) {
+    return collect.apply(null, args);
+}
+
+for (var i = 0; i < 1000; i++) {
+    assertSame('1,2,3', collect(...[1, 2, 3]).join());
+    assertSame('0,1.5,2.5,x', collect(0, ...[1.5, 2.5], 'x').join());
+    assertSame('a,b,c', forward('a', 'b', 'c').join());
+    assertSame('a,b', forwardApply('a', 'b').join());
+    assertSame(0, forward().length);
+    assertSame('1,2', collect.apply(null, [1, 2]).join());
+}
+
+// holes are read through the prototype chain
+var holes = [1, , 3];
+assertSame('1,,3', collect(...holes).join());
+assertSame(3, collect(...holes).length);
+assertSame(undefined, collect(...holes)[1]);
+Array.prototype[1] = 'proto';
+assertSame('1,proto,3', collect(...holes).join());
+assertSame('1,proto,3', collect.apply(null, holes).join());
+delete Array.prototype[1];
+
+// a replaced @@iterator is honored
+var arr = [1, 2, 3];
+arr[Symbol.iterator] = function*() {
+    yield 'custom';
+};
+assertSame('custom', collect(...arr).join());
+assertSame('1,2,3', collect.apply(null, arr).join());
+
+// a replaced %ArrayIteratorPrototype%.next is honored
+var ArrayIteratorPrototype = Object.getPrototypeOf([][Symbol.iterator]());
+var originalNext = ArrayIteratorPrototype.next;
+var calls = 0;
+ArrayIteratorPrototype.next = function() {
+    calls++;
+    return originalNext.call(this);
+};
+assertSame('4,5', collect(...[4, 5]).join());
+assertSame(3, calls);
+ArrayIteratorPrototype.next = originalNext;
+assertSame('4,5', collect(...[4, 5]).join());
+assertSame(3, calls);
+
+// arguments of the callee do not alias the spread array
+var source = [1, 2, 3];
+(function(a) {
+    arguments[0] = 42;
+})(...source);
+(function(a) {
+    arguments[0] = 42;
+}).apply(null, source);
+assertSame('1,2,3', source.join());
+
+true;
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Licensed under the Universal Permissive License v 1.0 as shown at http://oss.oracle.com/licenses/upl.
+ */
+
+/**
+ * Bulk operations (fill, reverse, copyWithin, slice, indexOf, includes) on typed arrays.
+ */
+
+load('assert.js');
+
+var types = [Int8Array, Uint8Array, Uint8ClampedArray, Int16Array, Uint16Array, Int32Array, Uint32Array, Float32Array, Float64Array];
+
+function check(array, expected) {
+    assertSame(expected.length, array.length);
+    for (var i = 0; i < expected.length; i++) {
+        assertSame(expected[i], array[i]);
+    }
+}
+
+types.forEach(function(Type) {
+    var a = new Type([1, 2, 3, 4, 5, 6, 7]);
+    a.fill(9, 1, 6);
+    check(a, [1, 9, 9, 9, 9, 9, 7]);
+    a.fill(3);
+    check(a, [3, 3, 3, 3, 3, 3, 3]);
+
+    a = new Type([1, 2, 3, 4, 5, 6, 7]);
+    a.reverse();
+    check(a, [7, 6, 5, 4, 3, 2, 1]);
+    a = new Type([1, 2, 3, 4]);
+    a.reverse();
+    check(a, [4, 3, 2, 1]);
+
+    a = new Type([1, 2, 3, 4, 5]);
+    a.copyWithin(1, 0, 4);
+    check(a, [1, 1, 2, 3, 4]);
+    a = new Type([1, 2, 3, 4, 5]);
+    a.copyWithin(0, 1);
+    check(a, [2, 3, 4, 5, 5]);
+
+    a = new Type([1, 2, 3, 4, 5]);
+    var s = a.slice(1, 4);
+    check(s, [2, 3, 4]);
+    s[0] = 42;
+    assertSame(2, a[1]);
+
+    // views with an offset
+    var buffer = new ArrayBuffer(Type.BYTES_PER_ELEMENT * 8);
+    var view = new Type(buffer, Type.BYTES_PER_ELEMENT * 2, 4);
+    view.set([1, 2, 3, 4]);
+    view.reverse();
+    check(view, [4, 3, 2, 1]);
+    view.fill(5, 2);
+    check(new Type(buffer), [0, 0, 4, 3, 5, 5, 0, 0]);
+    check(view.slice(1), [3, 5, 5]);
+
+    a = new Type([0, 1, 2, 3, 2, 1]);
+    assertSame(2, a.indexOf(2));
+    assertSame(4, a.indexOf(2, 3));
+    assertSame(-1, a.indexOf(2, 5));
+    assertSame(0, a.indexOf(-0));
+    assertSame(-1, a.indexOf('2'));
+    assertSame(-1, a.indexOf(1.5));
+    assertSame(-1, a.indexOf(NaN));
+    assertSame(true, a.includes(3));
+    assertSame(false, a.includes(3, 4));
+    assertSame(false, a.includes(NaN));
+    assertSame(false, a.includes(undefined));
+});
+
+// values outside of the element range
+assertSame(-1, new Uint8Array([255]).indexOf(-1));
+assertSame(-1, new Int8Array([-1]).indexOf(255));
+assertSame(0, new Uint32Array([0xFFFFFFFF]).indexOf(0xFFFFFFFF));
+assertSame(-1, new Uint32Array([0xFFFFFFFF]).indexOf(-1));
+assertSame(-1, new Int32Array([-1]).indexOf(0xFFFFFFFF));
+assertSame(-1, new Float32Array([0.1]).indexOf(0.1));
+assertSame(0, new Float32Array([0.5]).indexOf(0.5));
+
+// NaN is found by includes, but not by indexOf
+var f = new Float64Array([1, NaN]);
+assertSame(-1, f.indexOf(NaN));
+assertSame(true, f.includes(NaN));
+assertSame(true, new Float32Array([NaN]).includes(NaN));
+
+// BigInt arrays
+var b = new BigInt64Array([1n, -2n, 3n, -(2n ** 63n)]);
+assertSame(1, b.indexOf(-2n));
+assertSame(-1, b.indexOf(-2));
+assertSame(3, b.indexOf(-(2n ** 63n)));
+assertSame(true, b.includes(3n));
+b.reverse();
+assertSame(-(2n ** 63n), b[0]);
+b.fill(7n, 1);
+assertSame(7n, b[3]);
+var u = new BigUint64Array([2n ** 64n - 1n, 0n]);
+assertSame(0, u.indexOf(2n ** 64n - 1n));
+assertSame(-1, u.indexOf(-1n));
+
+// overlapping slice into a view on the same buffer
+class Overlapping extends Uint8Array {
+    static get [Symbol.species]() {
+        return function(length) {
+            return new Uint8Array(shared.buffer, 1, length);
+        };
+    }
+}
+var shared = new Overlapping([1, 2, 3, 4, 5]);
+shared.slice(0, 3);
+check(new Uint8Array(shared.buffer), [1, 1, 1, 1, 5]);
+
+true;
@@ -44,6 +44,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.PolyglotException;
@@ -113,4 +117,29 @@ public class GlobalBuiltinTest extends JSTest {
         }
     }
 
+    @Test
+    public void testMapBuffer() throws IOException {
+        Path file = Files.createTempFile("mapbuffer", ".bin");
+        try {
+            Files.write(file, new byte[]{1, 2, 3, 4, 5});
+            try (Context context = JSTest.newContextBuilder().allowIO(true).option(JSContextOptions.SHELL_NAME, "true").build()) {
+                context.getBindings(JavaScriptLanguage.ID).putMember("fileName", file.toString());
+                Value result = context.eval(JavaScriptLanguage.ID, "" +
+                                "var whole = new Uint8Array(mapbuffer(fileName));\n" +
+                                "var region = new Uint8Array(mapbuffer(fileName, 1, 2));\n" +
+                                "var rest = new Uint8Array(mapbuffer(fileName, 3));\n" +
+                                "var end = mapbuffer(fileName, 5);\n" +
+                                "whole[0] = 42;\n" +
+                                "closebuffer(whole.buffer);\n" +
+                                "var result = [whole.length, region.length, region[0], region[1], rest.length, rest[1], end.byteLength].join();\n" +
+                                "[region, rest].forEach(a => closebuffer(a.buffer));\n" +
+                                "result;");
+                assertEquals("0,2,2,3,2,5,0", result.asString());
+            }
+            // the mapping is private
+            assertEquals(1, Files.readAllBytes(file)[0]);
+        } finally {
+            Files.delete(file);
+        }
+    }
 }
@@ -42,16 +42,24 @@ package com.oracle.truffle.js.test.interop;
 
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Value;
 import org.junit.Test;
 
 import com.oracle.truffle.js.test.JSTest;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class InteropByteBufferTest {
 
@@ -161,4 +169,37 @@ public class InteropByteBufferTest {
             assertEquals(jBuffer.get(2), 43);
         }
     }
+
+    @Test
+    public void testMappedBufferToTypedArray() throws IOException {
+        Path file = Files.createTempFile("mapped", ".bin");
+        try {
+            Files.write(file, new byte[]{1, 2, 3, 4});
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                            Context context = JSTest.newContextBuilder().build()) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 1, 3);
+                context.getBindings("js").putMember("buffer", buffer);
+                Value jsBuffer = context.eval(ID, "var ta = new Int8Array(new ArrayBuffer(buffer)); ta[2] = 42; ta;");
+                assertEquals(3, jsBuffer.getArraySize());
+                assertEquals(2, jsBuffer.getArrayElement(0).asByte());
+                assertEquals(42, buffer.get(2));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReadOnlyDirectBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(3).asReadOnlyBuffer();
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.getBindings("js").putMember("buffer", buffer);
+            try {
+                context.eval(ID, "new ArrayBuffer(buffer);");
+                fail("TypeError expected");
+            } catch (PolyglotException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("TypeError"));
+            }
+        }
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSConfig;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.array.LengthTrackingAllocationSite;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Arrays presized to the length their allocation site has observed ({@code js.array-length-feedback}).
+ */
+public class ArrayLengthFeedbackTest {
+
+    private static final String PUSH_LOOP = "(function(n) {" +
+                    "  var a = [];" +
+                    "  for (var i = 0; i < n; i++) { a.push('' + i); }" +
+                    "  return a.length + Number(a[n - 1]);" +
+                    "})";
+
+    private static Context newContext(boolean feedback) {
+        return JSTest.newContextBuilder().option(JSContextOptions.METRICS_NAME, "true").option(JSContextOptions.ARRAY_LENGTH_FEEDBACK_NAME, String.valueOf(feedback)).build();
+    }
+
+    private static Context newDefaultContext() {
+        return JSTest.newContextBuilder().option(JSContextOptions.METRICS_NAME, "true").build();
+    }
+
+    private static long getGrowCount(Context context) {
+        Long count = JavaScriptLanguage.getJSContext(context).getMetrics().getCounters().get(JSMetrics.ARRAY_GROW);
+        return count == null ? 0 : count;
+    }
+
+    private static long runAndCountGrowths(Context context, Value pushLoop, int n) {
+        long before = getGrowCount(context);
+        assertEquals(2 * n - 1, pushLoop.execute(n).asInt());
+        return getGrowCount(context) - before;
+    }
+
+    @Test
+    public void testPushLoop() {
+        try (Context context = newContext(true)) {
+            Value pushLoop = context.eval(ID, PUSH_LOOP);
+            for (int i = 0; i < JSConfig.ArrayLengthFeedbackSamples; i++) {
+                assertTrue(runAndCountGrowths(context, pushLoop, 1000) > 0);
+            }
+            assertEquals(0, runAndCountGrowths(context, pushLoop, 1000));
+            assertEquals(0, runAndCountGrowths(context, pushLoop, 10));
+        }
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        try (Context context = newDefaultContext()) {
+            Value pushLoop = context.eval(ID, PUSH_LOOP);
+            long growths = runAndCountGrowths(context, pushLoop, 1000);
+            assertTrue(growths > 0);
+            for (int i = 0; i < JSConfig.ArrayLengthFeedbackSamples; i++) {
+                assertEquals(growths, runAndCountGrowths(context, pushLoop, 1000));
+            }
+        }
+    }
+
+    private static void fillArray(LengthTrackingAllocationSite site, int length) {
+        int capacity = Math.max(JSConfig.InitialArraySize, site.nextInitialCapacity());
+        for (int i = capacity; i < length; i = capacity) {
+            int newCapacity = 2 * (i + 1);
+            site.notifyArrayGrowth(capacity, newCapacity);
+            capacity = newCapacity;
+        }
+    }
+
+    @Test
+    public void testLargeArrayDoesNotPresizeOthers() {
+        LengthTrackingAllocationSite site = new LengthTrackingAllocationSite();
+        fillArray(site, 100000);
+        for (int i = 1; i < JSConfig.ArrayLengthFeedbackSamples; i++) {
+            fillArray(site, 3);
+        }
+        assertEquals(0, site.nextInitialCapacity());
+
+        site = new LengthTrackingAllocationSite();
+        for (int i = 0; i < JSConfig.ArrayLengthFeedbackSamples; i++) {
+            fillArray(site, i % 4 == 0 ? 2000 : 3);
+        }
+        assertEquals(0, site.nextInitialCapacity());
+
+        site = new LengthTrackingAllocationSite();
+        for (int i = 0; i < JSConfig.ArrayLengthFeedbackSamples; i++) {
+            fillArray(site, i % 4 == 0 ? 3 : 2000);
+        }
+        assertEquals(2048, site.nextInitialCapacity());
+    }
+
+    @Test
+    public void testFeedbackDecays() {
+        LengthTrackingAllocationSite site = new LengthTrackingAllocationSite();
+        for (int i = 0; i <= JSConfig.ArrayLengthFeedbackSamples; i++) {
+            fillArray(site, 1000);
+        }
+        assertTrue(site.nextInitialCapacity() >= 512);
+        for (int i = 0; i < 2 * JSConfig.ArrayLengthFeedbackPeriod; i++) {
+            fillArray(site, 3);
+        }
+        assertEquals(0, site.nextInitialCapacity());
+    }
+
+    @Test
+    public void testFeedbackIsCapped() {
+        LengthTrackingAllocationSite site = new LengthTrackingAllocationSite();
+        for (int i = 0; i <= JSConfig.ArrayLengthFeedbackSamples; i++) {
+            fillArray(site, 10 * JSConfig.MaxArrayLengthFeedback);
+        }
+        assertEquals(JSConfig.MaxArrayLengthFeedback, site.nextInitialCapacity());
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Multiple awaits, fulfilled and rejected, in one async function activation.
+ */
+public class AwaitTest {
+
+    private static String evalAndRunJobs(String source, boolean asyncStackTraces) {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.ASYNC_STACK_TRACES_NAME, String.valueOf(asyncStackTraces)).build()) {
+            context.eval(JavaScriptLanguage.ID, "var log = [];\n" + source);
+            // pending jobs have been run at this point
+            return context.eval(JavaScriptLanguage.ID, "log.join()").asString();
+        }
+    }
+
+    @Test
+    public void testMixedAwaits() {
+        String source = "" +
+                        "async function mixed() {\n" +
+                        "  log.push(await 1);\n" +
+                        "  try { await Promise.reject('r1'); } catch (e) { log.push(e); }\n" +
+                        "  log.push(await Promise.resolve(2));\n" +
+                        "  try {\n" +
+                        "    try { await Promise.reject('r2'); } finally { log.push(await 3); }\n" +
+                        "  } catch (e) { log.push(e); }\n" +
+                        "  for (var i = 0; i < 3; i++) { log.push(await i); }\n" +
+                        "  return 'done';\n" +
+                        "}\n" +
+                        "mixed().then(r => log.push(r));";
+        for (boolean asyncStackTraces : new boolean[]{false, true}) {
+            assertEquals("1,r1,2,3,r2,0,1,2,done", evalAndRunJobs(source, asyncStackTraces));
+        }
+    }
+
+    @Test
+    public void testInterleavedActivations() {
+        String source = "" +
+                        "async function f(name) { for (var i = 0; i < 3; i++) { await null; log.push(name + i); } }\n" +
+                        "f('a'); f('b');";
+        assertEquals("a0,b0,a1,b1,a2,b2", evalAndRunJobs(source, true));
+    }
+
+    @Test
+    public void testAsyncGenerator() {
+        String source = "" +
+                        "async function* gen() {\n" +
+                        "  yield await 'a';\n" +
+                        "  try { await Promise.reject('b'); } catch (e) { yield e; }\n" +
+                        "  yield 'c';\n" +
+                        "}\n" +
+                        "(async function() { for await (var v of gen()) { log.push(v); } log.push('end'); })();";
+        assertEquals("a,b,c,end", evalAndRunJobs(source, true));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Sources whose characters are a {@link CharSequence} other than a {@link String}, as used for
+ * sources that are decoded on demand.
+ */
+public class CharSequenceSourceTest {
+
+    private static final class WrappedCharSequence implements CharSequence {
+        private final String characters;
+
+        WrappedCharSequence(String characters) {
+            this.characters = characters;
+        }
+
+        @Override
+        public int length() {
+            return characters.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return characters.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return characters.substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return characters;
+        }
+    }
+
+    @Test
+    public void testEval() {
+        WrappedCharSequence code = new WrappedCharSequence("" +
+                        "var s = 'gr\u00fc\u00dfe \ud83d\ude00';\n" +
+                        "var \u00e4\\u0062 = `${s.length}`;\n" +
+                        "[\u00e4b, /\\d+/.exec('x42')[0], s.codePointAt(6).toString(16)].join();");
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertEquals("8,42,1f600", context.eval(Source.newBuilder(JavaScriptLanguage.ID, code, "chars.js").buildLiteral()).asString());
+        }
+    }
+
+    @Test
+    public void testSyntaxErrorLocation() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.eval(Source.newBuilder(JavaScriptLanguage.ID, new WrappedCharSequence("var a = 1;\nvar b = ;"), "chars.js").buildLiteral());
+            fail();
+        } catch (PolyglotException e) {
+            assertTrue(e.isSyntaxError());
+            assertEquals(2, e.getSourceLocation().getStartLine());
+        }
+    }
+}
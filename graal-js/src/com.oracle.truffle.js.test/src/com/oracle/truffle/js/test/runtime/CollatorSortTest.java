@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Array.prototype.sort with an {@code Intl.Collator.prototype.compare} comparator (sorted by
+ * collation keys) must agree with sorting by a plain function calling the same collator.
+ */
+public class CollatorSortTest {
+
+    private static final String COMPARE_SORTS = "" +
+                    "function check(array, collator) {\n" +
+                    "  var expected = array.slice().sort((a, b) => collator.compare(a, b)).join('|');\n" +
+                    "  var actual = array.slice().sort(collator.compare).join('|');\n" +
+                    "  if (expected !== actual) throw new Error(expected + ' !== ' + actual);\n" +
+                    "  return actual;\n" +
+                    "}\n";
+
+    private static String eval(String source) {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.INTL_402_NAME, "true").build()) {
+            return context.eval(JavaScriptLanguage.ID, COMPARE_SORTS + source).toString();
+        }
+    }
+
+    @Test
+    public void testLocales() {
+        assertEquals("a|ä|z", eval("check(['z', 'ä', 'a'], new Intl.Collator('de'))"));
+        assertEquals("a|z|ä", eval("check(['z', 'ä', 'a'], new Intl.Collator('sv'))"));
+        assertEquals("ok", eval("check(['a10', 'a2', 'a1'], new Intl.Collator('en-u-kn')); check(['a10', 'a2', 'a1'], new Intl.Collator('en', {numeric: true})); 'ok'"));
+    }
+
+    @Test
+    public void testSensitivity() {
+        // equal strings keep their order (stable sort)
+        assertEquals("a|A|á|b|B", eval("check(['b', 'B', 'a', 'A', 'á'], new Intl.Collator('en', {sensitivity: 'base'}))"));
+        assertEquals("ok", eval("['base', 'accent', 'case', 'variant'].forEach(s => check(['e', 'É', 'é', 'E', 'f', 'ê'], new Intl.Collator('fr', {sensitivity: s}))); 'ok'"));
+        assertEquals("ok", eval("check(['a-b', 'ab', 'a b', 'a.b'], new Intl.Collator('en', {ignorePunctuation: true})); 'ok'"));
+    }
+
+    @Test
+    public void testMixedElements() {
+        // undefined sorts last, holes are removed
+        assertEquals("a,b,,false", eval("var a = ['b', undefined, 'a']; a.length = 4; a.sort(new Intl.Collator('en').compare); a.join() + (3 in a)"));
+        // non-string elements are converted by the compare function
+        assertEquals("1|10|2|a", eval("check(['a', 10, 2, '1'], new Intl.Collator('en'))"));
+        assertEquals("x|y", eval("var o = {toString() { return 'y'; }}; check([o, 'x'], new Intl.Collator('en'))"));
+    }
+
+    @Test
+    public void testLarge() {
+        assertEquals("ok", eval("var a = []; for (var i = 0; i < 5000; i++) { a.push(String.fromCharCode(97 + i % 26, 65 + (i * 7) % 26, 0xe0 + i % 5) + i); }" +
+                        "check(a, new Intl.Collator('en')); check(a, new Intl.Collator('en', {sensitivity: 'case'})); 'ok'"));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.util.ConcurrentClockCache;
+
+public class ConcurrentClockCacheTest {
+
+    @Test
+    public void testEntryBound() {
+        ConcurrentClockCache<Integer, String> cache = new ConcurrentClockCache<>(4, 1000);
+        for (int i = 0; i < 4; i++) {
+            cache.put(i, "v" + i, 1);
+        }
+        assertEquals("v0", cache.get(0));
+        cache.put(4, "v4", 1);
+        assertEquals(4, cache.size());
+        // the referenced entry got a second chance
+        assertEquals("v0", cache.get(0));
+        assertNull(cache.get(1));
+        assertEquals("v4", cache.get(4));
+    }
+
+    @Test
+    public void testSizeBound() {
+        ConcurrentClockCache<Integer, String> cache = new ConcurrentClockCache<>(100, 100);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "v" + i, 30);
+            assertTrue(cache.totalSize() <= 100);
+        }
+        assertEquals(3, cache.size());
+        cache.put(100, "too large", 101);
+        assertNull(cache.get(100));
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException, ExecutionException {
+        ConcurrentClockCache<Integer, Integer> cache = new ConcurrentClockCache<>(16, 160);
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t * 1000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        int key = offset + i % 100;
+                        Integer value = cache.get(key);
+                        if (value == null) {
+                            cache.put(key, key, 10);
+                        } else {
+                            assertEquals(key, value.intValue());
+                        }
+                    }
+                }));
+            }
+            // rethrows assertion errors of the workers
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(cache.size() <= 16);
+        assertEquals(cache.size() * 10L, cache.totalSize());
+    }
+}
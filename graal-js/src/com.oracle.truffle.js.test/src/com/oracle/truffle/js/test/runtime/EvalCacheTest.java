@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Repeated evals of identical code with the eval parse cache ({@code js.eval-cache-size}).
+ */
+public class EvalCacheTest {
+
+    private static String eval(String source, int cacheSize) {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.EVAL_CACHE_SIZE_NAME, String.valueOf(cacheSize)).build()) {
+            return context.eval(JavaScriptLanguage.ID, source).toString();
+        }
+    }
+
+    private static void assertEval(String expected, String source) {
+        for (int cacheSize : new int[]{0, 1, 32}) {
+            assertEquals(expected, eval(source, cacheSize));
+        }
+    }
+
+    @Test
+    public void testDirectEvalUsesCurrentFrame() {
+        assertEval("1,2,3", "" +
+                        "function f(x) { return eval('x'); }\n" +
+                        "[f(1), f(2), f(3)].join();");
+        assertEval("2,4,6", "" +
+                        "function f(x) { eval('var y = x * 2'); return y; }\n" +
+                        "[f(1), f(2), f(3)].join();");
+        assertEval("0,1,2", "" +
+                        "var fs = [];\n" +
+                        "for (let i = 0; i < 3; i++) { fs.push(eval('() => i')); }\n" +
+                        "fs.map(f => f()).join();");
+    }
+
+    @Test
+    public void testScopes() {
+        // same source, different enclosing scopes
+        assertEval("a,b", "" +
+                        "function f() { var v = 'a'; return eval('v'); }\n" +
+                        "function g() { var v = 'b'; return eval('v'); }\n" +
+                        "[f(), g()].join();");
+        // same source, different strictness
+        assertEval("true,false", "" +
+                        "function s() { 'use strict'; return eval('this === undefined'); }\n" +
+                        "function n() { return eval('this === undefined'); }\n" +
+                        "[s(), n()].join();");
+        // indirect eval
+        assertEval("3,3", "" +
+                        "var e = eval; var r = [];\n" +
+                        "for (var i = 0; i < 2; i++) { e('var g = 1 + 2'); r.push(g); }\n" +
+                        "r.join();");
+    }
+
+    @Test
+    public void testSyntaxErrorNotCached() {
+        assertEval("SyntaxError,SyntaxError", "" +
+                        "var r = [];\n" +
+                        "for (var i = 0; i < 2; i++) { try { eval('1 +'); } catch (e) { r.push(e.name); } }\n" +
+                        "r.join();");
+    }
+
+    @Test
+    public void testTaggedTemplates() {
+        assertEval("false", "" +
+                        "function tag(s) { return s; }\n" +
+                        "eval('tag`x`') === eval('tag`x`');");
+    }
+
+    @Test
+    public void testMetrics() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.METRICS_NAME, "true").build()) {
+            context.eval(JavaScriptLanguage.ID, "function f(x) { return eval('x + 1'); } for (var i = 0; i < 10; i++) { f(i); }");
+            Map<String, Long> counters = JavaScriptLanguage.getJSContext(context).getMetrics().getCounters();
+            assertEquals(counters.toString(), Long.valueOf(1), counters.get(JSMetrics.EVAL_CACHE_MISS));
+            assertTrue(counters.toString(), counters.get(JSMetrics.EVAL_CACHE_HIT) >= 9);
+        }
+    }
+}
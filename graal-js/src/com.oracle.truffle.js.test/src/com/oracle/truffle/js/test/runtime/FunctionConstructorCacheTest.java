@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Map;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * The Function constructor cache is shared by all contexts of an engine.
+ */
+public class FunctionConstructorCacheTest {
+
+    @Test
+    public void testSharedBetweenContexts() {
+        try (Engine engine = JSTest.newEngineBuilder().option(JSContextOptions.METRICS_NAME, "true").build()) {
+            JSContext jsContext;
+            try (Context context = JSTest.newContextBuilder().engine(engine).build()) {
+                assertEquals(3, context.eval(JavaScriptLanguage.ID, "new Function('a', 'return a + 1')(2) + new Function('a', 'return a * 0')(2);").asInt());
+                jsContext = JavaScriptLanguage.getJSContext(context);
+            }
+            try (Context context = JSTest.newContextBuilder().engine(engine).build()) {
+                assertEquals(5, context.eval(JavaScriptLanguage.ID, "new Function('a', 'return a + 1')(4);").asInt());
+                assertSame(jsContext, JavaScriptLanguage.getJSContext(context));
+            }
+            Map<String, Long> counters = jsContext.getMetrics().getCounters();
+            assertEquals(counters.toString(), Long.valueOf(2), counters.get(JSMetrics.FUNCTION_CONSTRUCTOR_CACHE_MISS));
+            assertEquals(counters.toString(), Long.valueOf(1), counters.get(JSMetrics.FUNCTION_CONSTRUCTOR_CACHE_HIT));
+        }
+    }
+
+    @Test
+    public void testFunctionKinds() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            String source = "" +
+                            "var AsyncFunction = (async function() {}).constructor;\n" +
+                            "var GeneratorFunction = (function*() {}).constructor;\n" +
+                            "var kinds = [];\n" +
+                            "for (var i = 0; i < 2; i++) {\n" +
+                            "  kinds.push(Object.getPrototypeOf(Function('return 1')) === Function.prototype);\n" +
+                            "  kinds.push(AsyncFunction('return 1')() instanceof Promise);\n" +
+                            "  kinds.push(typeof GeneratorFunction('return 1')().next);\n" +
+                            "  kinds.push(Function('return 1') !== Function('return 1'));\n" +
+                            "}\n" +
+                            "kinds.join();";
+            assertEquals("true,true,function,true,true,true,function,true", context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
+}
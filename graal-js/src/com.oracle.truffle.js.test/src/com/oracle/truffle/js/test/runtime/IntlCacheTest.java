@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Reuse of Intl service objects and ICU objects by the locale-sensitive built-ins.
+ */
+public class IntlCacheTest {
+
+    private static Context newContext(boolean metrics) {
+        return JSTest.newContextBuilder().option(JSContextOptions.INTL_402_NAME, "true").option(JSContextOptions.METRICS_NAME, String.valueOf(metrics)).build();
+    }
+
+    private static String eval(String source) {
+        try (Context context = newContext(false)) {
+            return context.eval(JavaScriptLanguage.ID, source).toString();
+        }
+    }
+
+    @Test
+    public void testLocaleCompare() {
+        assertEquals("-1,1,0", eval("['a'.localeCompare('b'), 'b'.localeCompare('a'), 'a'.localeCompare('a')].join()"));
+        // settings must not leak between collators
+        assertEquals("0,-1,0,-1", eval("[new Intl.Collator('en', {sensitivity: 'base'}).compare('a', 'A'), 'a'.localeCompare('A'), " +
+                        "'a'.localeCompare('A', 'en', {sensitivity: 'base'}), 'a'.localeCompare('A', 'en')].join()"));
+        assertEquals("1,-1", eval("['ä'.localeCompare('z', 'sv'), 'ä'.localeCompare('z', 'de')].join()"));
+        assertEquals("sorted", eval("var a = []; for (var i = 0; i < 1000; i++) { a.push('s' + ((i * 7919) % 1000)); }" +
+                        "a.sort((x, y) => x.localeCompare(y));" +
+                        "a.every((v, i) => i === 0 || a[i - 1].localeCompare(v) <= 0) ? 'sorted' : 'unsorted'"));
+    }
+
+    @Test
+    public void testToLocaleString() {
+        assertEquals("1,234.5|1.234,5|1,234.5", eval("[(1234.5).toLocaleString('en'), (1234.5).toLocaleString('de'), (1234.5).toLocaleString('en')].join('|')"));
+        assertEquals("1,234|1.234", eval("[1234n.toLocaleString('en'), 1234n.toLocaleString('de')].join('|')"));
+        assertEquals("true", eval("var d = new Date(2020, 0, 1, 12);" +
+                        "d.toLocaleString() !== d.toLocaleDateString() && d.toLocaleDateString() !== d.toLocaleTimeString() && " +
+                        "d.toLocaleString() === new Intl.DateTimeFormat(undefined, {year: 'numeric', month: 'numeric', day: 'numeric', hour: 'numeric', minute: 'numeric', second: 'numeric'}).format(d)"));
+    }
+
+    @Test
+    public void testOptionsAreRead() {
+        // calls with options are not served from the cache since reading options is observable
+        assertEquals("2", eval("var n = 0; var o = { get sensitivity() { n++; return 'base'; } };" +
+                        "'a'.localeCompare('A', 'en', o); 'a'.localeCompare('A', 'en', o); n"));
+    }
+
+    @Test
+    public void testMetrics() {
+        try (Context context = newContext(true)) {
+            context.eval(JavaScriptLanguage.ID, "for (var i = 0; i < 10; i++) { 'a'.localeCompare('b'); (i).toLocaleString(); }");
+            Map<String, Long> counters = JavaScriptLanguage.getJSContext(context).getMetrics().getCounters();
+            assertTrue(counters.toString(), counters.get(JSMetrics.INTL_CACHE_HIT) >= 18);
+            assertTrue(counters.toString(), counters.get(JSMetrics.INTL_CACHE_MISS) <= 3);
+        }
+    }
+}
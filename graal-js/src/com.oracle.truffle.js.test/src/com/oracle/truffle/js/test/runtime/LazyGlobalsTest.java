@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Built-in globals that are only created on first access ({@code Intl}, {@code Atomics},
+ * {@code console}) must be indistinguishable from eagerly created ones.
+ */
+public class LazyGlobalsTest {
+
+    private static final String[] NAMES = {"Intl", "Atomics", "console"};
+
+    private static String eval(String source) {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.INTL_402_NAME, "true").option(JSContextOptions.CONSOLE_NAME, "true").build()) {
+            return context.eval(JavaScriptLanguage.ID, source).toString();
+        }
+    }
+
+    @Test
+    public void testAccess() {
+        assertEquals("object,object,object", eval("[typeof Intl, typeof Atomics, typeof console].join()"));
+        assertEquals("[object Intl],[object Atomics]", eval("[String(Intl), String(Atomics)].join()"));
+        assertEquals("true,true", eval("[Intl === globalThis.Intl, Intl.Collator === Intl.Collator].join()"));
+        assertEquals("true", eval("Object.getPrototypeOf(new Intl.Collator()) === Intl.Collator.prototype"));
+        assertEquals("true", eval("Object.getPrototypeOf(new Intl.Segmenter().segment('a b')[Symbol.iterator]()) !== Object.prototype"));
+        // locale-sensitive built-ins that need the Intl prototypes without touching Intl
+        assertEquals("-1", eval("'a'.localeCompare('b')"));
+    }
+
+    @Test
+    public void testPropertyDescriptor() {
+        for (String name : NAMES) {
+            assertEquals(name, "true,false,true,object", eval("var d = Object.getOwnPropertyDescriptor(globalThis, '" + name + "');" +
+                            "[d.writable, d.enumerable, d.configurable, typeof d.value].join()"));
+            assertEquals(name, "true", eval("Object.getOwnPropertyNames(globalThis).includes('" + name + "')"));
+            assertEquals(name, "false", eval("Object.keys(globalThis).includes('" + name + "')"));
+        }
+    }
+
+    @Test
+    public void testAssignBeforeAccess() {
+        for (String name : NAMES) {
+            assertEquals(name, "42,true", eval(name + " = 42; var d = Object.getOwnPropertyDescriptor(globalThis, '" + name + "');" +
+                            "[" + name + ", d.writable && d.configurable && !d.enumerable].join()"));
+        }
+    }
+
+    @Test
+    public void testDeleteAndRedefine() {
+        for (String name : NAMES) {
+            assertEquals(name, "true,undefined", eval("[delete globalThis." + name + ", typeof " + name + "].join()"));
+            assertEquals(name, "true,object", eval("Object.defineProperty(globalThis, '" + name + "', {enumerable: true});" +
+                            "[Object.keys(globalThis).includes('" + name + "'), typeof " + name + "].join()"));
+        }
+    }
+
+    @Test
+    public void testOtherRealm() {
+        // the built-in is created in the realm of the global object it is read from
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.INTL_402_NAME, "true").option(JSContextOptions.TEST262_MODE_NAME, "true").build()) {
+            assertEquals("true,false,true", context.eval(JavaScriptLanguage.ID, "var g = $262.createRealm().global;" +
+                            "[g.Intl.Collator === g.Intl.Collator, g.Intl.Collator === Intl.Collator, new g.Intl.Collator() instanceof g.Intl.Collator].join()").toString());
+        }
+    }
+}
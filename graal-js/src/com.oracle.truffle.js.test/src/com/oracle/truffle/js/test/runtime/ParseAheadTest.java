@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Files parsed on background threads ahead of their evaluation ({@code js.parse-ahead}).
+ */
+public class ParseAheadTest {
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("parse-ahead");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (File file : dir.toFile().listFiles()) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(dir);
+    }
+
+    private File write(String name, String code) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, code.getBytes(StandardCharsets.UTF_8));
+        return file.toFile();
+    }
+
+    private static Context newContext(File... files) {
+        StringBuilder parseAhead = new StringBuilder();
+        for (File file : files) {
+            parseAhead.append(file.getPath()).append(File.pathSeparator);
+        }
+        return JSTest.newContextBuilder().allowIO(true).option(JSContextOptions.PARSE_AHEAD_NAME, parseAhead.toString()).option(JSContextOptions.METRICS_NAME, "true").build();
+    }
+
+    private static Map<String, Long> getCounters(Context context) {
+        return JavaScriptLanguage.getJSContext(context).getMetrics().getCounters();
+    }
+
+    @Test
+    public void testScriptsAndModules() throws IOException {
+        File a = write("a.js", "var a = [1, 2, 3].map(x => x * 2);");
+        File b = write("b.js", "var b = a.join() + /x+/.test('xx');");
+        File c = write("c.mjs", "export const c = 42; globalThis.c = c;");
+        try (Context context = newContext(a, b, c)) {
+            context.eval(Source.newBuilder(JavaScriptLanguage.ID, a).build());
+            context.eval(Source.newBuilder(JavaScriptLanguage.ID, b).build());
+            context.eval(Source.newBuilder(JavaScriptLanguage.ID, c).build());
+            assertEquals("2,4,6true", context.eval(JavaScriptLanguage.ID, "b").asString());
+            assertEquals(42, context.eval(JavaScriptLanguage.ID, "c").asInt());
+            assertEquals(getCounters(context).toString(), Long.valueOf(3), getCounters(context).get(JSMetrics.PARSE_AHEAD_HIT));
+        }
+    }
+
+    @Test
+    public void testModifiedSource() throws IOException {
+        File a = write("a.js", "1");
+        try (Context context = newContext(a)) {
+            assertEquals(2, context.eval(Source.newBuilder(JavaScriptLanguage.ID, "2", a.getName()).build()).asInt());
+            assertEquals(1, context.eval(Source.newBuilder(JavaScriptLanguage.ID, a).build()).asInt());
+        }
+    }
+
+    @Test
+    public void testDroppedOnClose() throws IOException {
+        File unused = write("unused.js", "var unused = 1;");
+        try (Engine engine = JSTest.newEngineBuilder().build()) {
+            try (Context context = JSTest.newContextBuilder().engine(engine).allowIO(true).option(JSContextOptions.PARSE_AHEAD_NAME, unused.getPath()).build()) {
+                context.eval(JavaScriptLanguage.ID, "1");
+            }
+            try (Context context = JSTest.newContextBuilder().engine(engine).build()) {
+                context.eval(JavaScriptLanguage.ID, "1");
+                assertFalse(JavaScriptLanguage.getJSContext(context).hasParseAheadResults());
+            }
+        }
+    }
+
+    @Test
+    public void testSyntaxErrors() throws IOException {
+        File syntax = write("syntax.js", "var x = ;");
+        File regex = write("regex.js", "var r = /(/;");
+        try (Context context = newContext(syntax, regex)) {
+            for (File file : new File[]{syntax, regex}) {
+                try {
+                    context.eval(Source.newBuilder(JavaScriptLanguage.ID, file).build());
+                    fail(file.getName());
+                } catch (PolyglotException e) {
+                    assertTrue(e.getMessage(), e.isSyntaxError());
+                    assertEquals(file.getName(), e.getSourceLocation().getSource().getName());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Promise.all and Promise.allSettled over native promises, with and without modified
+ * {@code then}/species.
+ */
+public class PromiseCombinatorTest {
+
+    private static void assertLog(String expected, String source) {
+        for (boolean asyncStackTraces : new boolean[]{false, true}) {
+            try (Context context = JSTest.newContextBuilder().option(JSContextOptions.ASYNC_STACK_TRACES_NAME, String.valueOf(asyncStackTraces)).build()) {
+                context.eval(JavaScriptLanguage.ID, "var log = [];\n" + source);
+                // pending jobs have been run at this point
+                assertEquals(expected, context.eval(JavaScriptLanguage.ID, "log.join()").asString());
+            }
+        }
+    }
+
+    @Test
+    public void testAll() {
+        assertLog("1,2,3,4", "" +
+                        "var resolveLater;\n" +
+                        "var pending = new Promise(r => resolveLater = r);\n" +
+                        "Promise.all([1, Promise.resolve(2), pending, Promise.resolve(4)]).then(v => log.push(...v));\n" +
+                        "resolveLater(3);");
+        assertLog("r1", "" +
+                        "Promise.all([Promise.resolve(1), Promise.reject('r1'), Promise.reject('r2')]).then(v => log.push('unexpected'), e => log.push(e));");
+        assertLog("0", "Promise.all([]).then(v => log.push(v.length));");
+    }
+
+    @Test
+    public void testAllSettled() {
+        assertLog("fulfilled:1,rejected:r2,fulfilled:3", "" +
+                        "Promise.allSettled([Promise.resolve(1), Promise.reject('r2'), 3]).then(v => {\n" +
+                        "  v.forEach(o => log.push(o.status + ':' + (o.status === 'fulfilled' ? o.value : o.reason)));\n" +
+                        "});");
+    }
+
+    @Test
+    public void testJobOrder() {
+        assertLog("t1,all:1,2,t2,t3", "" +
+                        "Promise.all([1, Promise.resolve(2)]).then(v => log.push('all:' + v));\n" +
+                        "Promise.resolve().then(() => log.push('t1')).then(() => log.push('t2')).then(() => log.push('t3'));");
+    }
+
+    @Test
+    public void testModifiedThen() {
+        assertLog("then,then,then,1,2", "" +
+                        "var originalThen = Promise.prototype.then;\n" +
+                        "Promise.prototype.then = function(f, r) { log.push('then'); return originalThen.call(this, f, r); };\n" +
+                        "Promise.all([Promise.resolve(1), Promise.resolve(2)]).then(v => log.push(...v));");
+    }
+
+    @Test
+    public void testSpecies() {
+        assertLog("species,ctor,species,ctor,species,ctor,1,2", "" +
+                        "class MyPromise extends Promise { constructor(executor) { log.push('ctor'); super(executor); } }\n" +
+                        "Object.defineProperty(Promise, Symbol.species, {get() { log.push('species'); return MyPromise; }});\n" +
+                        "Promise.all([Promise.resolve(1), Promise.resolve(2)]).then(v => log.push(...v));");
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSConfig;
+import com.oracle.truffle.js.runtime.builtins.JSDictionary;
+import com.oracle.truffle.js.runtime.builtins.JSFunction;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSOrdinaryObject;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Instance layouts chosen by slack tracking of constructors.
+ */
+public class SlackTrackingTest {
+
+    @Test
+    public void testInstanceLayout() {
+        testInstanceLayout(2, JSOrdinaryObject.DEFAULT_LAYOUT, JSOrdinaryObject.DefaultLayout.class);
+        testInstanceLayout(6, JSOrdinaryObject.MEDIUM_LAYOUT, JSOrdinaryObject.MediumLayout.class);
+        testInstanceLayout(12, JSOrdinaryObject.LARGE_LAYOUT, JSOrdinaryObject.LargeLayout.class);
+    }
+
+    private static String constructorSource(int propertyCount) {
+        StringBuilder code = new StringBuilder("function C(x) {");
+        for (int i = 0; i < propertyCount; i++) {
+            code.append("this.p").append(i).append(" = x + ").append(i).append(";");
+        }
+        code.append("} C;");
+        return code.toString();
+    }
+
+    private static Value createTrackedConstructor(Context context, int propertyCount) {
+        Value constructor = context.eval(ID, constructorSource(propertyCount));
+        for (int n = 0; n < JSConfig.SlackTrackingConstructions; n++) {
+            constructor.newInstance(0);
+        }
+        return constructor;
+    }
+
+    private static void assertInstance(Context context, Value instance, int propertyCount, int x, Class<?> expectedClass) {
+        for (int i = 0; i < propertyCount; i++) {
+            assertEquals(x + i, instance.getMember("p" + i).asInt());
+        }
+        DynamicObject object = unwrapJSObject(context, instance);
+        assertSame(expectedClass, object.getClass());
+        assertSame(expectedClass, object.getShape().getLayout().getType());
+    }
+
+    private static void testInstanceLayout(int propertyCount, int expectedLayout, Class<?> expectedClass) {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            Value constructor = context.eval(ID, constructorSource(propertyCount));
+            DynamicObject function = unwrapJSObject(context, constructor);
+            for (int n = 0; n < JSConfig.SlackTrackingConstructions + 2; n++) {
+                Value instance = constructor.newInstance(n * 100);
+                for (int i = 0; i < propertyCount; i++) {
+                    assertEquals(n * 100 + i, instance.getMember("p" + i).asInt());
+                }
+                if (n > JSConfig.SlackTrackingConstructions) {
+                    assertSame(expectedClass, unwrapJSObject(context, instance).getClass());
+                }
+            }
+            assertEquals(expectedLayout, JSFunction.getFunctionData(function).getInstanceLayout());
+        }
+    }
+
+    @Test
+    public void testDerivedClass() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            // the base class constructor allocates the instances of the derived class
+            Value classes = context.eval(ID, "class B { constructor(x) { this.p0 = x; this.p1 = x + 1; } }" +
+                            "class D extends B { constructor(x) { super(x); " +
+                            "for (var i = 2; i < 12; i++) { this['p' + i] = x + i; } } }" +
+                            "class E extends D { constructor(x) { super(x); this.p12 = x + 12; } }" +
+                            "[B, D, E];");
+            Value base = classes.getArrayElement(0);
+            Value derived = classes.getArrayElement(1);
+            for (int n = 0; n < JSConfig.SlackTrackingConstructions + 2; n++) {
+                Value instance = derived.newInstance(n * 100);
+                if (n > JSConfig.SlackTrackingConstructions) {
+                    assertInstance(context, instance, 12, n * 100, JSOrdinaryObject.LargeLayout.class);
+                }
+            }
+            assertEquals(JSOrdinaryObject.LARGE_LAYOUT, JSFunction.getFunctionData(unwrapJSObject(context, derived)).getInstanceLayout());
+            // the base class is tracked separately
+            for (int n = 0; n < JSConfig.SlackTrackingConstructions + 2; n++) {
+                assertInstance(context, base.newInstance(n), 2, n, JSOrdinaryObject.DefaultLayout.class);
+            }
+            assertEquals(JSOrdinaryObject.DEFAULT_LAYOUT, JSFunction.getFunctionData(unwrapJSObject(context, base)).getInstanceLayout());
+            assertInstance(context, derived.newInstance(1000), 12, 1000, JSOrdinaryObject.LargeLayout.class);
+
+            // a derived class of a derived class
+            Value derived2 = classes.getArrayElement(2);
+            for (int n = 0; n < JSConfig.SlackTrackingConstructions + 2; n++) {
+                Value instance = derived2.newInstance(n * 100);
+                if (n > JSConfig.SlackTrackingConstructions) {
+                    assertInstance(context, instance, 13, n * 100, JSOrdinaryObject.LargeLayout.class);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMultiContext() {
+        try (Engine engine = JSTest.newEngineBuilder().build()) {
+            for (int c = 0; c < 2; c++) {
+                try (Context context = JSTest.newContextBuilder().engine(engine).build()) {
+                    Value constructor = createTrackedConstructor(context, 12);
+                    assertInstance(context, constructor.newInstance(100), 12, 100, JSOrdinaryObject.LargeLayout.class);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSetPrototype() {
+        testSetPrototype(6, JSOrdinaryObject.MediumLayout.class);
+        testSetPrototype(12, JSOrdinaryObject.LargeLayout.class);
+    }
+
+    private static void testSetPrototype(int propertyCount, Class<?> expectedClass) {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            Value constructor = createTrackedConstructor(context, propertyCount);
+            Value setPrototype = context.eval(ID, "(function(o) { Object.setPrototypeOf(o, {z: 42}); return o.z; })");
+            Value setNullPrototype = context.eval(ID, "(function(o) { Object.setPrototypeOf(o, null); return Object.getPrototypeOf(o) === null; })");
+
+            Value instance = constructor.newInstance(100);
+            assertEquals(42, setPrototype.execute(instance).asInt());
+            assertInstance(context, instance, propertyCount, 100, expectedClass);
+
+            instance = constructor.newInstance(200);
+            assertTrue(setNullPrototype.execute(instance).asBoolean());
+            assertInstance(context, instance, propertyCount, 200, expectedClass);
+        }
+    }
+
+    @Test
+    public void testDictionaryObject() {
+        testDictionaryObject(6, JSOrdinaryObject.MediumLayout.class);
+        testDictionaryObject(12, JSOrdinaryObject.LargeLayout.class);
+    }
+
+    private static void testDictionaryObject(int propertyCount, Class<?> expectedClass) {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            Value constructor = createTrackedConstructor(context, propertyCount);
+            Value setNullPrototype = context.eval(ID, "(function(o) { Object.setPrototypeOf(o, null); })");
+
+            Value instance = constructor.newInstance(100);
+            makeDictionaryObject(context, instance);
+            assertInstance(context, instance, propertyCount, 100, expectedClass);
+
+            instance = constructor.newInstance(200);
+            setNullPrototype.execute(instance);
+            makeDictionaryObject(context, instance);
+            assertInstance(context, instance, propertyCount, 200, expectedClass);
+        }
+    }
+
+    private static void makeDictionaryObject(Context context, Value instance) {
+        DynamicObject object = unwrapJSObject(context, instance);
+        context.enter();
+        try {
+            JSDictionary.makeDictionaryObject(object, "test");
+        } finally {
+            context.leave();
+        }
+        assertTrue(JSDictionary.isJSDictionaryObject(object));
+    }
+
+    @Test
+    public void testPropertiesAddedLater() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            Value result = context.eval(ID, "function C() { this.a = 1; this.b = 2; }" +
+                            "var objects = [];" +
+                            "for (var i = 0; i < 20; i++) { objects.push(new C()); }" +
+                            "for (var i = 0; i < 20; i++) { for (var j = 0; j < 20; j++) { objects[i]['q' + j] = i + j; } }" +
+                            "var sum = 0;" +
+                            "for (var i = 0; i < 20; i++) { sum += objects[i].a + objects[i].b + objects[i].q19; }" +
+                            "sum;");
+            assertEquals(20 * 3 + 190 + 20 * 19, result.asInt());
+        }
+    }
+
+    private static DynamicObject unwrapJSObject(Context c, Value value) {
+        final String key = "_testObject";
+        c.getBindings(ID).putMember(key, value);
+        return (DynamicObject) JSObject.get(JavaScriptLanguage.getJSRealm(c).getGlobalObject(), key);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.nodes.instrumentation.profiler.JSAllocationProfiler;
+import com.oracle.truffle.js.nodes.instrumentation.profiler.JSAllocationProfiler.AllocationSite;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+public class AllocationProfilerTest {
+
+    private static final String CODE = "class Point { constructor(x, y) { this.x = x; this.y = y; } }\n" +
+                    "var keep = [];\n" +
+                    "for (var i = 0; i < 1000; i++) {\n" +
+                    "  keep.push(new Point(i, i));\n" +
+                    "  var tmp = {a: i};\n" +
+                    "}\n";
+
+    private static AllocationSite findSite(List<AllocationSite> sites, String constructorName) {
+        for (AllocationSite site : sites) {
+            if (site.getConstructorName().equals(constructorName)) {
+                return site;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testJavaAPI() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            JSAllocationProfiler profiler = JSAllocationProfiler.find(context.getEngine());
+            profiler.clear();
+            profiler.start(10);
+            context.eval(JavaScriptLanguage.ID, CODE);
+            profiler.stop();
+
+            List<AllocationSite> sites = profiler.getAllocationSites();
+            AllocationSite point = findSite(sites, "Point");
+            assertNotNull(sites.toString(), point);
+            assertEquals(1000, point.getEstimatedAllocations());
+            assertTrue(point.getEstimatedBytes() > 0);
+            assertEquals(3, point.getSourceSection().getStartLine());
+            AllocationSite literal = findSite(sites, "Object");
+            assertNotNull(sites.toString(), literal);
+            assertEquals(1000, literal.getEstimatedAllocations());
+
+            String json = profiler.toJSON();
+            assertTrue(json, json.contains("\"constructor\":\"Point\""));
+        }
+    }
+
+    @Test
+    public void testBuiltin() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.PROFILER_BUILTIN_NAME, "true").build()) {
+            Value result = context.eval(JavaScriptLanguage.ID, "Graal.allocationProfiler.clear();" +
+                            "Graal.allocationProfiler.start(1);" +
+                            CODE +
+                            "Graal.allocationProfiler.stop();" +
+                            "var sites = Graal.allocationProfiler.getAllocationSites();" +
+                            "JSON.parse(Graal.allocationProfiler.toJSON()).length === sites.length && " +
+                            "sites.some(s => s.constructor === 'Point' && s.allocations === 1000 && s.live > 0);");
+            assertTrue(result.asBoolean());
+        }
+    }
+
+    @Test
+    public void testDefaultSamplingInterval() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.PROFILER_BUILTIN_NAME, "true").build()) {
+            JSAllocationProfiler profiler = JSAllocationProfiler.find(context.getEngine());
+            profiler.clear();
+            context.eval(JavaScriptLanguage.ID, "Graal.allocationProfiler.start();");
+            try {
+                assertEquals(JSAllocationProfiler.DEFAULT_SAMPLING_INTERVAL, profiler.getSamplingInterval());
+                assertTrue(JSAllocationProfiler.DEFAULT_SAMPLING_INTERVAL >= 1024);
+                context.eval(JavaScriptLanguage.ID, CODE);
+            } finally {
+                profiler.stop();
+            }
+            AllocationSite point = findSite(profiler.getAllocationSites(), "Point");
+            assertNotNull(point);
+            // Only the first allocation is sampled and weighted by the interval.
+            assertEquals(JSAllocationProfiler.DEFAULT_SAMPLING_INTERVAL, point.getEstimatedAllocations());
+            assertTrue(point.getSampledLive() <= 1);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.tools;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.test.JSTest;
+
+public class MetricsTest {
+
+    private static final String MEGAMORPHIC_CODE = "function getX(o) { return o.x; }\n" +
+                    "for (var i = 0; i < 20; i++) {\n" +
+                    "  var o = {x: i};\n" +
+                    "  o['p' + i] = i;\n" +
+                    "  getX(o);\n" +
+                    "}\n" +
+                    "Promise.resolve().then(() => {}); Promise.resolve().then(() => {});\n";
+
+    @Test
+    public void testJavaAPI() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.METRICS_NAME, "true").build()) {
+            context.eval(JavaScriptLanguage.ID, MEGAMORPHIC_CODE);
+            JSMetrics metrics = JavaScriptLanguage.getJSContext(context).getMetrics();
+            assertTrue(metrics.getCounters().toString(), metrics.getCounters().get(JSMetrics.PROPERTY_CACHE_MEGAMORPHIC) > 0);
+            assertTrue(metrics.getMegamorphicSites().toString(), metrics.getMegamorphicSites().get(JSMetrics.PROPERTY_CACHE_MEGAMORPHIC).keySet().stream().anyMatch(s -> s.endsWith(" x")));
+            assertTrue(metrics.getHistograms().get(JSMetrics.PROMISE_JOB_QUEUE_DEPTH).getMax() >= 2);
+            metrics.reset();
+            assertTrue(metrics.getCounters().isEmpty());
+        }
+    }
+
+    @Test
+    public void testBuiltin() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.METRICS_NAME, "true").build()) {
+            context.eval(JavaScriptLanguage.ID, MEGAMORPHIC_CODE);
+            Value result = context.eval(JavaScriptLanguage.ID, "var m = Graal.metrics.snapshot();" +
+                            "m.counters." + JSMetrics.PROPERTY_CACHE_MEGAMORPHIC + " > 0 && " +
+                            "m.histograms." + JSMetrics.PROMISE_JOB_QUEUE_DEPTH + ".count > 0 && " +
+                            "JSON.parse(Graal.metrics.toJSON()).counters." + JSMetrics.PROPERTY_CACHE_MEGAMORPHIC + " > 0;");
+            assertTrue(result.asBoolean());
+        }
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertFalse(context.eval(JavaScriptLanguage.ID, "'metrics' in Graal").asBoolean());
+            assertNull(JavaScriptLanguage.getJSContext(context).getMetrics());
+        }
+    }
+}
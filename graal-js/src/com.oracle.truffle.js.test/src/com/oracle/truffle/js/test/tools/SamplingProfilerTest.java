@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.nodes.instrumentation.profiler.JSSamplingProfiler;
+import com.oracle.truffle.js.nodes.instrumentation.profiler.JSSamplingProfiler.FunctionStatistics;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+public class SamplingProfilerTest {
+
+    private static final String HOT_LOOP = "function hot(n) { var s = 0; for (var i = 0; i < n; i++) { s += Math.sqrt(i); } return s; }\n" +
+                    "function run(ms) { var start = Date.now(); while (Date.now() - start < ms) { hot(1000); } }\n";
+
+    @Test
+    public void testJavaAPI() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.eval(JavaScriptLanguage.ID, HOT_LOOP);
+            JSSamplingProfiler profiler = JSSamplingProfiler.find(context.getEngine());
+            profiler.start(1);
+            assertTrue(profiler.isRunning());
+            context.eval(JavaScriptLanguage.ID, "run(300);");
+            profiler.stop();
+            assertFalse(profiler.isRunning());
+
+            assertTrue(profiler.getSampleCount() > 0);
+            boolean foundHot = false;
+            boolean foundBuiltin = false;
+            List<FunctionStatistics> statistics = profiler.getFunctionStatistics();
+            for (FunctionStatistics entry : statistics) {
+                assertTrue(entry.getTotalSamples() >= entry.getSelfSamples());
+                foundHot |= !entry.getFunction().isBuiltin() && entry.getFunction().getName().equals("hot");
+                foundBuiltin |= entry.getFunction().isBuiltin();
+            }
+            assertTrue(statistics.toString(), foundHot);
+            assertTrue(statistics.toString(), foundBuiltin);
+
+            String collapsed = profiler.getCollapsedStacks();
+            assertTrue(collapsed, collapsed.contains("run (") && collapsed.contains(";hot ("));
+            String cpuProfile = profiler.getCpuProfile();
+            assertTrue(cpuProfile, cpuProfile.startsWith("{\"nodes\":[{\"id\":1,\"callFrame\":{\"functionName\":\"(root)\""));
+
+            profiler.clear();
+            assertEquals(0, profiler.getSampleCount());
+        }
+    }
+
+    @Test
+    public void testBuiltin() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.PROFILER_BUILTIN_NAME, "true").build()) {
+            context.eval(JavaScriptLanguage.ID, HOT_LOOP);
+            Value result = context.eval(JavaScriptLanguage.ID, "Graal.profiler.clear();" +
+                            "Graal.profiler.start(1);" +
+                            "run(300);" +
+                            "Graal.profiler.stop();" +
+                            "var stats = Graal.profiler.getFunctionStatistics();" +
+                            "var profile = JSON.parse(Graal.profiler.getProfile('cpuprofile'));" +
+                            "!Graal.profiler.isRunning() && stats.some(s => s.name === 'hot' && !s.builtin && s.selfTime > 0) && profile.nodes.length > 1;");
+            assertTrue(result.asBoolean());
+        }
+    }
+
+    @Test
+    public void testBuiltinDisabledByDefault() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            assertTrue(context.eval(JavaScriptLanguage.ID, "Graal.profiler === undefined").asBoolean());
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.js.builtins.AllocationProfilerBuiltinsFactory.AllocationProfilerClearNodeGen;
+import com.oracle.truffle.js.builtins.AllocationProfilerBuiltinsFactory.AllocationProfilerGetAllocationSitesNodeGen;
+import com.oracle.truffle.js.builtins.AllocationProfilerBuiltinsFactory.AllocationProfilerIsRunningNodeGen;
+import com.oracle.truffle.js.builtins.AllocationProfilerBuiltinsFactory.AllocationProfilerStartNodeGen;
+import com.oracle.truffle.js.builtins.AllocationProfilerBuiltinsFactory.AllocationProfilerStopNodeGen;
+import com.oracle.truffle.js.builtins.AllocationProfilerBuiltinsFactory.AllocationProfilerToJSONNodeGen;
+import com.oracle.truffle.js.builtins.AllocationProfilerBuiltinsFactory.AllocationProfilerWriteProfileNodeGen;
+import com.oracle.truffle.js.nodes.function.JSBuiltin;
+import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
+import com.oracle.truffle.js.nodes.instrumentation.profiler.JSAllocationProfiler;
+import com.oracle.truffle.js.nodes.instrumentation.profiler.JSAllocationProfiler.AllocationSite;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Contains builtins for the {@code Graal.allocationProfiler} object controlling the
+ * {@link JSAllocationProfiler}.
+ */
+public final class AllocationProfilerBuiltins extends JSBuiltinsContainer.SwitchEnum<AllocationProfilerBuiltins.AllocationProfiler> {
+
+    public static final JSBuiltinsContainer BUILTINS = new AllocationProfilerBuiltins();
+
+    protected AllocationProfilerBuiltins() {
+        super(JSRealm.ALLOCATION_PROFILER_CLASS_NAME, AllocationProfiler.class);
+    }
+
+    public enum AllocationProfiler implements BuiltinEnum<AllocationProfiler> {
+        start(0),
+        stop(0),
+        clear(0),
+        isRunning(0),
+        getAllocationSites(0),
+        toJSON(0),
+        writeProfile(1);
+
+        private final int length;
+
+        AllocationProfiler(int length) {
+            this.length = length;
+        }
+
+        @Override
+        public int getLength() {
+            return length;
+        }
+    }
+
+    @Override
+    protected Object createNode(JSContext context, JSBuiltin builtin, boolean construct, boolean newTarget, AllocationProfiler builtinEnum) {
+        switch (builtinEnum) {
+            case start:
+                return AllocationProfilerStartNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
+            case stop:
+                return AllocationProfilerStopNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case clear:
+                return AllocationProfilerClearNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case isRunning:
+                return AllocationProfilerIsRunningNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case getAllocationSites:
+                return AllocationProfilerGetAllocationSitesNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case toJSON:
+                return AllocationProfilerToJSONNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case writeProfile:
+                return AllocationProfilerWriteProfileNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
+        }
+        return null;
+    }
+
+    abstract static class AllocationProfilerOperation extends JSBuiltinNode {
+
+        AllocationProfilerOperation(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        protected final JSAllocationProfiler getProfiler() {
+            JSAllocationProfiler profiler = JSAllocationProfiler.find(getContext().getRealm().getEnv());
+            if (profiler == null) {
+                throw Errors.createError("Allocation profiler is not available");
+            }
+            return profiler;
+        }
+    }
+
+    public abstract static class AllocationProfilerStartNode extends AllocationProfilerOperation {
+
+        public AllocationProfilerStartNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object start(Object intervalObj) {
+            long interval = intervalObj == Undefined.instance ? JSAllocationProfiler.DEFAULT_SAMPLING_INTERVAL : JSRuntime.toInteger(intervalObj);
+            if (interval <= 0 || interval > Integer.MAX_VALUE) {
+                throw Errors.createRangeError("Sampling interval must be a positive integer");
+            }
+            getProfiler().start((int) interval);
+            return Undefined.instance;
+        }
+    }
+
+    public abstract static class AllocationProfilerStopNode extends AllocationProfilerOperation {
+
+        public AllocationProfilerStopNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object stop() {
+            getProfiler().stop();
+            return Undefined.instance;
+        }
+    }
+
+    public abstract static class AllocationProfilerClearNode extends AllocationProfilerOperation {
+
+        public AllocationProfilerClearNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object clear() {
+            getProfiler().clear();
+            return Undefined.instance;
+        }
+    }
+
+    public abstract static class AllocationProfilerIsRunningNode extends AllocationProfilerOperation {
+
+        public AllocationProfilerIsRunningNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected boolean isRunning() {
+            return getProfiler().isRunning();
+        }
+    }
+
+    /**
+     * Returns an array of <code>{constructor, url, line, column, allocations, bytes, live}</code>
+     * objects, ordered by descending estimated bytes.
+     */
+    public abstract static class AllocationProfilerGetAllocationSitesNode extends AllocationProfilerOperation {
+
+        public AllocationProfilerGetAllocationSitesNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object getAllocationSites() {
+            JSContext context = getContext();
+            List<AllocationSite> sites = getProfiler().getAllocationSites();
+            Object[] result = new Object[sites.size()];
+            for (int i = 0; i < result.length; i++) {
+                AllocationSite site = sites.get(i);
+                SourceSection section = site.getSourceSection();
+                boolean available = section != null && section.isAvailable();
+                DynamicObject obj = JSOrdinary.create(context);
+                JSObject.set(obj, "constructor", site.getConstructorName());
+                JSObject.set(obj, "url", section == null ? Undefined.instance : section.getSource().getName());
+                JSObject.set(obj, "line", available ? section.getStartLine() : Undefined.instance);
+                JSObject.set(obj, "column", available ? section.getStartColumn() : Undefined.instance);
+                JSObject.set(obj, "allocations", (double) site.getEstimatedAllocations());
+                JSObject.set(obj, "bytes", (double) site.getEstimatedBytes());
+                JSObject.set(obj, "live", (double) site.getSampledLive());
+                result[i] = obj;
+            }
+            return JSArray.createConstantObjectArray(context, result);
+        }
+    }
+
+    public abstract static class AllocationProfilerToJSONNode extends AllocationProfilerOperation {
+
+        public AllocationProfilerToJSONNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected String toJSON() {
+            return getProfiler().toJSON();
+        }
+    }
+
+    public abstract static class AllocationProfilerWriteProfileNode extends AllocationProfilerOperation {
+
+        public AllocationProfilerWriteProfileNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object writeProfile(Object pathObj) {
+            String profile = getProfiler().toJSON();
+            try {
+                TruffleFile file = getContext().getRealm().getEnv().getPublicTruffleFile(JSRuntime.toString(pathObj));
+                try (BufferedWriter writer = file.newBufferedWriter()) {
+                    writer.write(profile);
+                }
+            } catch (IOException | SecurityException e) {
+                throw Errors.createErrorFromException(e);
+            }
+            return Undefined.instance;
+        }
+    }
+}
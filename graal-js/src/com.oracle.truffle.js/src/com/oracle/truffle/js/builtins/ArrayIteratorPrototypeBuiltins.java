@@ -48,6 +48,7 @@ import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.js.builtins.ArrayIteratorPrototypeBuiltinsFactory.ArrayIteratorNextNodeGen;
 import com.oracle.truffle.js.nodes.access.CreateIterResultObjectNode;
 import com.oracle.truffle.js.nodes.access.HasHiddenKeyCacheNode;
@@ -58,8 +59,10 @@ import com.oracle.truffle.js.nodes.array.JSGetLengthNode;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
 import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.array.ScriptArray;
 import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
@@ -100,7 +103,7 @@ public final class ArrayIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
         return null;
     }
 
-    public abstract static class ArrayIteratorNextNode extends JSBuiltinNode {
+    public abstract static class ArrayIteratorNextNode extends JSBuiltinNode implements JSBuiltinNode.Inlineable {
         @Child private HasHiddenKeyCacheNode isArrayIteratorNode;
         @Child private PropertyGetNode getIteratedObjectNode;
         @Child private PropertyGetNode getNextIndexNode;
@@ -113,6 +116,7 @@ public final class ArrayIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
         private final ConditionProfile intIndexProfile;
         private final BranchProfile errorBranch;
         private final ConditionProfile isTypedArrayProfile;
+        private final ValueProfile arrayTypeProfile = ValueProfile.createClassProfile();
 
         public ArrayIteratorNextNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin);
@@ -176,6 +180,26 @@ public final class ArrayIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
             throw Errors.createTypeError("not an Array Iterator");
         }
 
+        /**
+         * Returns true if the next step of this iterator can neither call user code nor throw, i.e.,
+         * if the iteration is done or the iterated object is a typed array that is not detached or
+         * a fast array that has the next element as own data element.
+         */
+        protected final boolean isSimpleStep(DynamicObject iterator) {
+            Object array = getIteratedObjectNode.getValue(iterator);
+            if (array == Undefined.instance) {
+                return true;
+            } else if (JSArrayBufferView.isJSArrayBufferView(array)) {
+                return !JSArrayBufferView.hasDetachedBuffer((DynamicObject) array, getContext());
+            } else if (JSArray.isJSFastArray(array)) {
+                DynamicObject arrayObject = (DynamicObject) array;
+                ScriptArray arrayType = arrayTypeProfile.profile(JSArray.arrayGetArrayType(arrayObject));
+                long index = getNextIndex(iterator);
+                return index >= arrayType.length(arrayObject) || getIterationKind(iterator) == JSRuntime.ITERATION_KIND_KEY || arrayType.hasElement(arrayObject, index);
+            }
+            return false;
+        }
+
         protected final boolean isArrayIterator(Object thisObj) {
             // If the [[ArrayIterationKind]] internal slot is present, the others must be as well.
             return isArrayIteratorNode.executeHasHiddenKey(thisObj);
@@ -220,5 +244,42 @@ public final class ArrayIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
             }
             return getLengthNode;
         }
+
+        @Override
+        public Inlined createInlined() {
+            return ArrayIteratorNextNodeGen.InlinedNodeGen.create(getContext(), getBuiltin(), getArguments());
+        }
+
+        /**
+         * Inlining the step into the caller allows the iterator result object to be escape-analyzed
+         * away. Only steps that cannot call user code or throw are inlined.
+         */
+        public abstract static class Inlined extends ArrayIteratorNextNode implements JSBuiltinNode.Inlined {
+            public Inlined(JSContext context, JSBuiltin builtin) {
+                super(context, builtin);
+            }
+
+            @Override
+            @Specialization(guards = "isArrayIterator(iterator)")
+            protected DynamicObject doArrayIterator(VirtualFrame frame, DynamicObject iterator) {
+                if (!isSimpleStep(iterator)) {
+                    throw rewriteToCall();
+                }
+                return super.doArrayIterator(frame, iterator);
+            }
+
+            @Override
+            @Fallback
+            protected DynamicObject doIncompatibleReceiver(Object iterator) {
+                throw rewriteToCall();
+            }
+
+            protected abstract Object executeWithArguments(VirtualFrame frame, Object thisObj);
+
+            @Override
+            public Object callInlined(Object[] arguments) {
+                return executeWithArguments(null, JSArguments.getThisObject(arguments));
+            }
+        }
     }
 }
@@ -171,6 +171,7 @@ import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSProxy;
 import com.oracle.truffle.js.runtime.builtins.JSSlowArray;
+import com.oracle.truffle.js.runtime.builtins.intl.JSCollator;
 import com.oracle.truffle.js.runtime.interop.JSInteropUtil;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSObject;
@@ -364,7 +365,7 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
                     errorBranch.enter();
                     throw Errors.createTypeErrorDetachedBuffer();
                 }
-                TypedArray typedArray = typedArrayTypeProfile.profile(JSArrayBufferView.typedArrayGetArrayType(dynObj));
+                TypedArray typedArray = getTypedArrayType(dynObj);
                 return typedArray.length(dynObj);
             } else {
                 if (getLengthNode == null) {
@@ -375,6 +376,11 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             }
         }
 
+        protected final TypedArray getTypedArrayType(DynamicObject view) {
+            assert isTypedArrayImplementation;
+            return typedArrayTypeProfile.profile(JSArrayBufferView.typedArrayGetArrayType(view));
+        }
+
         protected final boolean isCallable(Object callback) {
             if (isCallableNode == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -975,6 +981,7 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
         private final ConditionProfile sizeIsZero = ConditionProfile.createBinaryProfile();
         private final ConditionProfile offsetProfile1 = ConditionProfile.createBinaryProfile();
         private final ConditionProfile offsetProfile2 = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile sameTypedArrayTypeProfile = ConditionProfile.createBinaryProfile();
 
         @Specialization
         protected Object sliceGeneric(Object thisObj, Object begin, Object end,
@@ -993,7 +1000,13 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             long size = startPos <= endPos ? endPos - startPos : 0;
             Object resultArray = getArraySpeciesConstructorNode().createEmptyContainer(thisArrayObj, size);
             if (sizeIsZero.profile(size > 0)) {
-                forEachIndexCall(thisArrayObj, null, startPos, startPos, endPos, resultArray);
+                if (isTypedArrayImplementation && sameTypedArrayTypeProfile.profile(isSameTypedArrayType((DynamicObject) thisArrayObj, resultArray))) {
+                    DynamicObject thisTypedArray = (DynamicObject) thisArrayObj;
+                    checkHasDetachedBuffer(thisTypedArray);
+                    getTypedArrayType(thisTypedArray).copyElementsTo(thisTypedArray, (int) startPos, (DynamicObject) resultArray, (int) size);
+                } else {
+                    forEachIndexCall(thisArrayObj, null, startPos, startPos, endPos, resultArray);
+                }
             }
             if (!isTypedArrayImplementation) {
                 setLength(resultArray, size);
@@ -1001,6 +1014,15 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             return resultArray;
         }
 
+        /**
+         * Elements of the same type can be copied byte-wise (ES2020 22.2.3.24 step 14.b).
+         */
+        private boolean isSameTypedArrayType(DynamicObject thisTypedArray, Object resultArray) {
+            TypedArray sourceType = getTypedArrayType(thisTypedArray);
+            TypedArray targetType = JSArrayBufferView.typedArrayGetArrayType((DynamicObject) resultArray);
+            return sourceType.getFactory() == targetType.getFactory() && sourceType.isDirect() == targetType.isDirect();
+        }
+
         @Override
         protected MaybeResultNode makeMaybeResultNode() {
             return new ForEachIndexCallNode.MaybeResultNode() {
@@ -1474,6 +1496,10 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             if (fromIndexValue < 0) {
                 return -1;
             }
+            if (isTypedArrayImplementation && isForward() && !JSArrayBufferView.hasDetachedBuffer((DynamicObject) thisJSObject, getContext())) {
+                DynamicObject typedArrayObj = (DynamicObject) thisJSObject;
+                return getTypedArrayType(typedArrayObj).indexOfElement(typedArrayObj, searchElement, (int) fromIndexValue, (int) len, false);
+            }
             return forEachIndexCall(thisJSObject, Undefined.instance, searchElement, fromIndexValue, len, -1);
         }
 
@@ -2681,6 +2707,9 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
 
         @TruffleBoundary
         private static void sortIntl(Comparator<Object> comparator, Object[] array) {
+            if (comparator instanceof SortComparator && ((SortComparator) comparator).sortWithCollationKeys(array)) {
+                return;
+            }
             try {
                 Arrays.sort(array, comparator);
             } catch (IllegalArgumentException e) {
@@ -2731,6 +2760,15 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
                 return res;
             }
 
+            /**
+             * Strings compared with {@code Intl.Collator.prototype.compare} are sorted by their
+             * collation keys, so that every string is collated once rather than per comparison.
+             */
+            boolean sortWithCollationKeys(Object[] array) {
+                DynamicObject collatorObj = isTypedArrayImplementation ? null : JSCollator.getBoundCollator(compFnObj);
+                return collatorObj != null && JSCollator.sortWithCollationKeys(collatorObj, array);
+            }
+
             private int convertResult(Object retObj) {
                 if (retObj instanceof Integer) {
                     return (int) retObj;
@@ -2929,6 +2967,14 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
                 finalIdx = JSRuntime.getOffset(toIntegerAsLong(end), len, offsetProfile3);
             }
             long count = Math.min(finalIdx - from, len - to);
+            if (isTypedArrayImplementation) {
+                if (count > 0) {
+                    DynamicObject typedArrayObj = (DynamicObject) obj;
+                    checkHasDetachedBuffer(typedArrayObj);
+                    getTypedArrayType(typedArrayObj).copyElementsWithin(typedArrayObj, (int) to, (int) from, (int) count);
+                }
+                return obj;
+            }
             long expectedCount = count;
 
             long direction;
@@ -2982,6 +3028,14 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
                 }
             }
 
+            if (isTypedArrayImplementation && !JSArrayBufferView.hasDetachedBuffer((DynamicObject) thisObj, getContext())) {
+                if (k >= len) {
+                    return false;
+                }
+                DynamicObject typedArrayObj = (DynamicObject) thisObj;
+                return getTypedArrayType(typedArrayObj).indexOfElement(typedArrayObj, searchElement, (int) k, (int) len, true) >= 0;
+            }
+
             if (!identicalNode.executeBoolean(searchElement, searchElement)) {
                 return true;
             }
@@ -63,6 +63,7 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSBigInt;
 import com.oracle.truffle.js.runtime.builtins.intl.JSNumberFormat;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlUtil;
 
 /**
  * Contains builtins for {@linkplain JSBigInt}.prototype.
@@ -196,9 +197,12 @@ public final class BigIntPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
         @TruffleBoundary
         private DynamicObject createNumberFormat(Object locales, Object options) {
-            DynamicObject numberFormatObj = JSNumberFormat.create(getContext());
-            initNumberFormatNode.executeInit(numberFormatObj, locales, options);
-            return numberFormatObj;
+            Object cacheKey = IntlUtil.serviceObjectCacheKey(getBuiltin(), locales, options);
+            return getContext().getRealm().getOrCreateCachedIntlObject(cacheKey, () -> {
+                DynamicObject numberFormatObj = JSNumberFormat.create(getContext());
+                initNumberFormatNode.executeInit(numberFormatObj, locales, options);
+                return numberFormatObj;
+            });
         }
 
         @Specialization
@@ -42,7 +42,6 @@ package com.oracle.truffle.js.builtins;
 
 import java.nio.ByteBuffer;
 import java.util.EnumSet;
-import java.util.LinkedHashMap;
 import java.util.Objects;
 import java.util.StringJoiner;
 
@@ -218,6 +217,7 @@ import com.oracle.truffle.js.runtime.objects.JSLazyString;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.DirectByteBufferHelper;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 
@@ -1596,21 +1596,6 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
         }
     }
 
-    static final class LRUCache<K, V> extends LinkedHashMap<K, V> {
-        private static final long serialVersionUID = 7813848977534444613L;
-        private final int maxCacheSize;
-
-        LRUCache(int maxCacheSize) {
-            super(16, 0.75F, true);
-            this.maxCacheSize = maxCacheSize;
-        }
-
-        @Override
-        protected boolean removeEldestEntry(java.util.Map.Entry<K, V> eldest) {
-            return size() > maxCacheSize;
-        }
-    }
-
     /**
      * Create (and potentially cache) dynamic function from parameter list and body strings.
      */
@@ -1631,37 +1616,51 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
             return a.equals(b);
         }
 
-        protected LRUCache<CachedSourceKey, ScriptNode> createCache() {
-            return new LRUCache<>(context.getContextOptions().getFunctionConstructorCacheSize());
-        }
-
         @SuppressWarnings("unused")
         @Specialization(guards = {"equals(cachedParamList, paramList)", "equals(cachedBody, body)", "equals(cachedSourceName, sourceName)"}, limit = "1")
         protected final DynamicObject doCached(String paramList, String body, String sourceName,
                         @Cached("paramList") String cachedParamList,
                         @Cached("body") String cachedBody,
                         @Cached("sourceName") String cachedSourceName,
-                        @Cached("parseFunction(paramList, body, sourceName)") ScriptNode parsedFunction) {
+                        @Cached("lookupOrParseFunction(paramList, body, sourceName)") ScriptNode parsedFunction) {
             return evalParsedFunction(context.getRealm(), parsedFunction);
         }
 
+        /**
+         * Looks up the function in the cache shared by all call sites and all contexts using this
+         * {@link JSContext}.
+         */
         @Specialization(replaces = "doCached")
         protected final DynamicObject doUncached(String paramList, String body, String sourceName,
-                        @Cached("createCache()") LRUCache<CachedSourceKey, ScriptNode> cache,
                         @Cached("createCountingProfile()") ConditionProfile cacheHit) {
-            ScriptNode cached = cacheLookup(cache, new CachedSourceKey(paramList, body, sourceName));
+            if (!isCacheable(paramList, body)) {
+                return evalParsedFunction(context.getRealm(), parseFunction(paramList, body, sourceName));
+            }
+            CachedSourceKey sourceKey = new CachedSourceKey(paramList, body, sourceName, generatorFunction, asyncFunction);
+            ScriptNode cached = context.getCachedDynamicFunction(sourceKey);
             if (cacheHit.profile(cached == null)) {
-                return parseAndEvalFunction(cache, context.getRealm(), paramList, body, sourceName);
+                return parseAndEvalFunction(sourceKey, context.getRealm(), paramList, body, sourceName);
             } else {
                 return evalParsedFunction(context.getRealm(), cached);
             }
         }
 
-        @TruffleBoundary
-        protected ScriptNode cacheLookup(LRUCache<CachedSourceKey, ScriptNode> cache, CachedSourceKey sourceKey) {
-            synchronized (cache) {
-                return cache.get(sourceKey);
+        private boolean isCacheable(String paramList, String body) {
+            return context.isFunctionConstructorCacheEnabled() && paramList.length() + body.length() <= JSConfig.MaxCachedDynamicFunctionLength;
+        }
+
+        @TruffleBoundary(transferToInterpreterOnException = false)
+        protected final ScriptNode lookupOrParseFunction(String paramList, String body, String sourceName) {
+            if (!isCacheable(paramList, body)) {
+                return parseFunction(paramList, body, sourceName);
+            }
+            CachedSourceKey sourceKey = new CachedSourceKey(paramList, body, sourceName, generatorFunction, asyncFunction);
+            ScriptNode cached = context.getCachedDynamicFunction(sourceKey);
+            if (cached == null) {
+                cached = parseFunction(paramList, body, sourceName);
+                context.putCachedDynamicFunction(sourceKey, cached, paramList.length() + body.length());
             }
+            return cached;
         }
 
         @TruffleBoundary(transferToInterpreterOnException = false)
@@ -1676,11 +1675,9 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
         }
 
         @TruffleBoundary(transferToInterpreterOnException = false)
-        private DynamicObject parseAndEvalFunction(LRUCache<CachedSourceKey, ScriptNode> cache, JSRealm realm, String paramList, String body, String sourceName) {
+        private DynamicObject parseAndEvalFunction(CachedSourceKey sourceKey, JSRealm realm, String paramList, String body, String sourceName) {
             ScriptNode parsedBody = parseFunction(paramList, body, sourceName);
-            synchronized (cache) {
-                cache.put(new CachedSourceKey(paramList, body, sourceName), parsedBody);
-            }
+            context.putCachedDynamicFunction(sourceKey, parsedBody, paramList.length() + body.length());
             return evalParsedFunction(realm, parsedBody);
         }
 
@@ -1688,11 +1685,15 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
             private final String body;
             private final String paramList;
             private final String sourceName;
+            private final boolean generatorFunction;
+            private final boolean asyncFunction;
 
-            CachedSourceKey(String paramList, String body, String sourceName) {
+            CachedSourceKey(String paramList, String body, String sourceName, boolean generatorFunction, boolean asyncFunction) {
                 this.body = body;
                 this.paramList = paramList;
                 this.sourceName = sourceName;
+                this.generatorFunction = generatorFunction;
+                this.asyncFunction = asyncFunction;
             }
 
             @Override
@@ -1701,12 +1702,12 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
                     return false;
                 }
                 CachedSourceKey k = (CachedSourceKey) o;
-                return k.body.equals(body) && k.paramList.equals(paramList) && k.sourceName.equals(sourceName);
+                return k.body.equals(body) && k.paramList.equals(paramList) && k.sourceName.equals(sourceName) && k.generatorFunction == generatorFunction && k.asyncFunction == asyncFunction;
             }
 
             @Override
             public int hashCode() {
-                return Objects.hash(body, paramList, sourceName);
+                return Objects.hash(body, paramList, sourceName, generatorFunction, asyncFunction);
             }
         }
 
@@ -1783,6 +1784,10 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
             if (maybeBuffer instanceof ByteBuffer) {
                 ByteBuffer byteBuffer = (ByteBuffer) maybeBuffer;
                 if (isDirect.profile(byteBuffer.isDirect())) {
+                    if (!DirectByteBufferHelper.isDirectByteBuffer(byteBuffer)) {
+                        errorBranch.enter();
+                        throw Errors.createTypeError("Unsupported input data type: read-only ByteBuffer");
+                    }
                     return swapPrototype(JSArrayBuffer.createDirectArrayBuffer(getContext(), byteBuffer), newTarget);
                 } else {
                     return swapPrototype(JSArrayBuffer.createArrayBuffer(getContext(), Boundaries.byteBufferArray(byteBuffer)), newTarget);
@@ -97,6 +97,7 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSDate;
 import com.oracle.truffle.js.runtime.builtins.intl.JSDateTimeFormat;
 import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.util.IntlUtil;
 
 /**
  * Contains builtins for {@linkplain JSDate}.prototype.
@@ -355,9 +356,12 @@ public final class DatePrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<
         }
 
         protected DynamicObject createDateTimeFormat(InitializeDateTimeFormatNode initDateTimeFormatNode, Object locales, Object options) {
-            DynamicObject dateTimeFormatObj = JSDateTimeFormat.create(getContext());
-            initDateTimeFormatNode.executeInit(dateTimeFormatObj, locales, options);
-            return dateTimeFormatObj;
+            Object cacheKey = IntlUtil.serviceObjectCacheKey(getBuiltin(), locales, options);
+            return getContext().getRealm().getOrCreateCachedIntlObject(cacheKey, () -> {
+                DynamicObject dateTimeFormatObj = JSDateTimeFormat.create(getContext());
+                initDateTimeFormatNode.executeInit(dateTimeFormatObj, locales, options);
+                return dateTimeFormatObj;
+            });
         }
     }
 
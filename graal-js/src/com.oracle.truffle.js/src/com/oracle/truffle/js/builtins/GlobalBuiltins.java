@@ -54,7 +54,10 @@ import java.io.Reader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.StringTokenizer;
@@ -85,6 +88,7 @@ import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.GlobalNashornExtensionParseToJSONNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.GlobalScriptingEXECNodeGen;
+import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalCloseBufferNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalDecodeURINodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalEncodeURINodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalExitNodeGen;
@@ -94,6 +98,7 @@ import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalIsFiniteNode
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalIsNaNNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalLoadNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalLoadWithNewGlobalNodeGen;
+import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalMapBufferNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalParseFloatNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalParseIntNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalPrintNodeGen;
@@ -145,6 +150,7 @@ import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.DirectByteBufferHelper;
 
 /**
  * Contains builtins for the global object.
@@ -234,7 +240,9 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
             quit(1),
             readline(1),
             read(1),
-            readbuffer(1);
+            readbuffer(1),
+            mapbuffer(3),
+            closebuffer(1);
 
             private final int length;
 
@@ -259,6 +267,10 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
                     return JSGlobalReadFullyNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
                 case readbuffer:
                     return JSGlobalReadBufferNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
+                case mapbuffer:
+                    return JSGlobalMapBufferNodeGen.create(context, builtin, args().fixedArgs(3).createArgumentNodes(context));
+                case closebuffer:
+                    return JSGlobalCloseBufferNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
             }
             return null;
         }
@@ -1630,6 +1642,90 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
         }
     }
 
+    /**
+     * Non-standard mapbuffer() that creates an ArrayBuffer over a region of a file without reading
+     * it into memory. At most the maximum ArrayBuffer length is mapped; larger files can be mapped
+     * in several regions. The mapping is private, i.e., writes are not written back to the file.
+     */
+    public abstract static class JSGlobalMapBufferNode extends JSBuiltinNode {
+
+        public JSGlobalMapBufferNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @Specialization
+        @TruffleBoundary(transferToInterpreterOnException = false)
+        protected final DynamicObject mapbuffer(Object fileParam, Object offsetParam, Object lengthParam) {
+            TruffleFile file = getFileFromArgument(fileParam, getContext().getRealm().getEnv());
+            long offset = offsetParam == Undefined.instance ? 0 : JSRuntime.toInteger(offsetParam);
+            long requestedLength = lengthParam == Undefined.instance ? Long.MAX_VALUE : JSRuntime.toInteger(lengthParam);
+            if (requestedLength < 0) {
+                throw Errors.createRangeError("invalid length");
+            }
+
+            try {
+                // a private (copy-on-write) mapping requires a channel that is open for reading and
+                // writing, even though the file is never written to
+                SeekableByteChannel channel;
+                boolean writable;
+                try {
+                    channel = file.newByteChannel(EnumSet.of(StandardOpenOption.READ, StandardOpenOption.WRITE));
+                    writable = true;
+                } catch (IOException | SecurityException ex) {
+                    channel = file.newByteChannel(EnumSet.of(StandardOpenOption.READ));
+                    writable = false;
+                }
+                try (SeekableByteChannel c = channel) {
+                    return mapOrRead(c, writable && c instanceof FileChannel, offset, requestedLength);
+                }
+            } catch (IOException | UnsupportedOperationException | SecurityException ex) {
+                throw Errors.createErrorFromException(ex);
+            }
+        }
+
+        private DynamicObject mapOrRead(SeekableByteChannel channel, boolean map, long offset, long requestedLength) throws IOException {
+            long size = channel.size();
+            if (offset < 0 || offset > size) {
+                throw Errors.createRangeError("offset out of range");
+            }
+            int length = (int) Math.min(Math.min(size - offset, requestedLength), getContext().getContextOptions().getMaxTypedArrayLength());
+            if (map) {
+                return JSArrayBuffer.createMappedArrayBuffer(getContext(), (FileChannel) channel, offset, length);
+            } else {
+                // the file cannot be mapped: read the region instead
+                ByteBuffer buffer = DirectByteBufferHelper.allocateDirect(length);
+                channel.position(offset);
+                int read;
+                do {
+                    read = channel.read(buffer);
+                } while (read >= 0 && buffer.hasRemaining());
+                asBaseBuffer(buffer).rewind();
+                return JSArrayBuffer.createDirectArrayBuffer(getContext(), buffer, true);
+            }
+        }
+    }
+
+    /**
+     * Non-standard closebuffer() that detaches an ArrayBuffer. The memory of a buffer created by
+     * mapbuffer() is released immediately, without waiting for garbage collection.
+     */
+    public abstract static class JSGlobalCloseBufferNode extends JSBuiltinNode {
+
+        public JSGlobalCloseBufferNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected static Object closebuffer(Object obj) {
+            if (!(JSArrayBuffer.isJSHeapArrayBuffer(obj) || JSArrayBuffer.isJSDirectArrayBuffer(obj))) {
+                throw Errors.createTypeErrorArrayBufferExpected();
+            }
+            JSArrayBuffer.detachArrayBuffer((DynamicObject) obj);
+            return Undefined.instance;
+        }
+    }
+
     /**
      * Non-standard import helper function for support of global scope bindings in
      * GraalJSScriptEngine.
@@ -41,6 +41,7 @@
 package com.oracle.truffle.js.builtins;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -95,6 +96,8 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
+import com.oracle.truffle.js.runtime.builtins.JSPromise;
+import com.oracle.truffle.js.runtime.interop.CompletionStageInterop;
 import com.oracle.truffle.js.runtime.java.JavaAccess;
 import com.oracle.truffle.js.runtime.java.adapter.JavaAdapterFactory;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
@@ -480,6 +483,8 @@ public final class JavaBuiltins extends JSBuiltinsContainer.SwitchEnum<JavaBuilt
             if (env.isHostObject(toType)) {
                 if (isJavaArrayClass(toType, env)) {
                     return toArray(jsObj, toType, env);
+                } else if (JSPromise.isJSPromise(jsObj) && isCompletableFutureSuperType(toType, env)) {
+                    return toCompletableFuture((DynamicObject) jsObj, env);
                 } else {
                     throw Errors.createTypeErrorFormat("Unsupported type: %s", toType);
                 }
@@ -490,6 +495,8 @@ public final class JavaBuiltins extends JSBuiltinsContainer.SwitchEnum<JavaBuilt
                 Object javaType = JavaTypeNode.lookupJavaType(className, env);
                 if (isJavaArrayClass(javaType, env)) {
                     return toArray(jsObj, javaType, env);
+                } else if (JSPromise.isJSPromise(jsObj) && isCompletableFutureSuperType(javaType, env)) {
+                    return toCompletableFuture((DynamicObject) jsObj, env);
                 } else {
                     throw Errors.createTypeErrorFormat("Unsupported type: %s", className);
                 }
@@ -513,6 +520,24 @@ public final class JavaBuiltins extends JSBuiltinsContainer.SwitchEnum<JavaBuilt
             return false;
         }
 
+        /**
+         * Is the type a supertype of {@link CompletableFuture}, like
+         * {@link java.util.concurrent.CompletionStage} or {@link java.util.concurrent.Future}?
+         */
+        @TruffleBoundary
+        private static boolean isCompletableFutureSuperType(Object obj, TruffleLanguage.Env env) {
+            if (env.isHostObject(obj)) {
+                Object javaObj = env.asHostObject(obj);
+                return javaObj instanceof Class && javaObj != Object.class && ((Class<?>) javaObj).isAssignableFrom(CompletableFuture.class);
+            }
+            return false;
+        }
+
+        private Object toCompletableFuture(DynamicObject promise, TruffleLanguage.Env env) {
+            JSRealm realm = getContext().getRealm();
+            return env.asGuestValue(CompletionStageInterop.toCompletableFuture(getContext(), realm, promise));
+        }
+
         private Object toArray(Object jsObj, Object arrayType, TruffleLanguage.Env env) {
             assert isJavaArrayClass(arrayType, env);
 
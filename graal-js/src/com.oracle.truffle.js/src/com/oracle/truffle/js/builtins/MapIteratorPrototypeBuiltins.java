@@ -54,6 +54,7 @@ import com.oracle.truffle.js.nodes.access.PropertySetNode;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
 import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
@@ -97,7 +98,7 @@ public final class MapIteratorPrototypeBuiltins extends JSBuiltinsContainer.Swit
         return null;
     }
 
-    public abstract static class MapIteratorNextNode extends JSBuiltinNode {
+    public abstract static class MapIteratorNextNode extends JSBuiltinNode implements JSBuiltinNode.Inlineable {
         @Child private HasHiddenKeyCacheNode isMapIteratorNode;
         @Child private PropertyGetNode getIteratedObjectNode;
         @Child private PropertyGetNode getNextIndexNode;
@@ -166,5 +167,33 @@ public final class MapIteratorPrototypeBuiltins extends JSBuiltinsContainer.Swit
                 throw Errors.shouldNotReachHere();
             }
         }
+
+        @Override
+        public Inlined createInlined() {
+            return MapIteratorNextNodeGen.InlinedNodeGen.create(getContext(), getBuiltin(), getArguments());
+        }
+
+        /**
+         * Inlining the step into the caller allows the iterator result object to be escape-analyzed
+         * away. The step itself cannot call user code, so only incompatible receivers need a call.
+         */
+        public abstract static class Inlined extends MapIteratorNextNode implements JSBuiltinNode.Inlined {
+            public Inlined(JSContext context, JSBuiltin builtin) {
+                super(context, builtin);
+            }
+
+            @Override
+            @Fallback
+            protected DynamicObject doIncompatibleReceiver(Object iterator) {
+                throw rewriteToCall();
+            }
+
+            protected abstract Object executeWithArguments(VirtualFrame frame, Object thisObj);
+
+            @Override
+            public Object callInlined(Object[] arguments) {
+                return executeWithArguments(null, JSArguments.getThisObject(arguments));
+            }
+        }
     }
 }
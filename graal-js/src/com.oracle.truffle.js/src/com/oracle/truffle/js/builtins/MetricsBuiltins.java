@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins;
+
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.builtins.MetricsBuiltinsFactory.MetricsResetNodeGen;
+import com.oracle.truffle.js.builtins.MetricsBuiltinsFactory.MetricsSnapshotNodeGen;
+import com.oracle.truffle.js.builtins.MetricsBuiltinsFactory.MetricsToJSONNodeGen;
+import com.oracle.truffle.js.nodes.function.JSBuiltin;
+import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
+import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.runtime.util.JSMetrics.Histogram;
+
+/**
+ * Contains builtins for the {@code Graal.metrics} object exposing the {@link JSMetrics} registry.
+ */
+public final class MetricsBuiltins extends JSBuiltinsContainer.SwitchEnum<MetricsBuiltins.Metrics> {
+
+    public static final JSBuiltinsContainer BUILTINS = new MetricsBuiltins();
+
+    protected MetricsBuiltins() {
+        super(JSRealm.METRICS_CLASS_NAME, Metrics.class);
+    }
+
+    public enum Metrics implements BuiltinEnum<Metrics> {
+        snapshot(0),
+        reset(0),
+        toJSON(0);
+
+        private final int length;
+
+        Metrics(int length) {
+            this.length = length;
+        }
+
+        @Override
+        public int getLength() {
+            return length;
+        }
+    }
+
+    @Override
+    protected Object createNode(JSContext context, JSBuiltin builtin, boolean construct, boolean newTarget, Metrics builtinEnum) {
+        switch (builtinEnum) {
+            case snapshot:
+                return MetricsSnapshotNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case reset:
+                return MetricsResetNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case toJSON:
+                return MetricsToJSONNodeGen.create(context, builtin, args().createArgumentNodes(context));
+        }
+        return null;
+    }
+
+    /**
+     * Returns an object of the form
+     * <code>{counters: {name: value}, histograms: {name: {count, sum, max, mean}}, megamorphicSites: {kind: {location: count}}}</code>
+     * .
+     */
+    public abstract static class MetricsSnapshotNode extends JSBuiltinNode {
+
+        public MetricsSnapshotNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object snapshot() {
+            JSContext context = getContext();
+            JSMetrics metrics = context.getMetrics();
+            DynamicObject result = JSOrdinary.create(context);
+            JSObject.set(result, "counters", toObject(context, metrics.getCounters()));
+            DynamicObject histograms = JSOrdinary.create(context);
+            for (Map.Entry<String, Histogram> entry : metrics.getHistograms().entrySet()) {
+                Histogram histogram = entry.getValue();
+                DynamicObject obj = JSOrdinary.create(context);
+                JSObject.set(obj, "count", (double) histogram.getCount());
+                JSObject.set(obj, "sum", (double) histogram.getSum());
+                JSObject.set(obj, "max", (double) histogram.getMax());
+                JSObject.set(obj, "mean", histogram.getMean());
+                JSObject.set(histograms, entry.getKey(), obj);
+            }
+            JSObject.set(result, "histograms", histograms);
+            DynamicObject sites = JSOrdinary.create(context);
+            for (Map.Entry<String, Map<String, Long>> entry : metrics.getMegamorphicSites().entrySet()) {
+                JSObject.set(sites, entry.getKey(), toObject(context, entry.getValue()));
+            }
+            JSObject.set(result, "megamorphicSites", sites);
+            return result;
+        }
+
+        private static DynamicObject toObject(JSContext context, Map<String, Long> map) {
+            DynamicObject obj = JSOrdinary.create(context);
+            for (Map.Entry<String, Long> entry : map.entrySet()) {
+                JSObject.set(obj, entry.getKey(), (double) entry.getValue());
+            }
+            return obj;
+        }
+    }
+
+    public abstract static class MetricsResetNode extends JSBuiltinNode {
+
+        public MetricsResetNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object reset() {
+            getContext().getMetrics().reset();
+            return Undefined.instance;
+        }
+    }
+
+    public abstract static class MetricsToJSONNode extends JSBuiltinNode {
+
+        public MetricsToJSONNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected String toJSON() {
+            return getContext().getMetrics().toJSON();
+        }
+    }
+}
@@ -71,6 +71,7 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSNumber;
 import com.oracle.truffle.js.runtime.builtins.intl.JSNumberFormat;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlUtil;
 
 /**
  * Contains builtins for {@linkplain JSNumber}.prototype.
@@ -279,9 +280,12 @@ public final class NumberPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
         @TruffleBoundary
         private DynamicObject createNumberFormat(Object locales, Object options) {
-            DynamicObject numberFormatObj = JSNumberFormat.create(getContext());
-            initNumberFormatNode.executeInit(numberFormatObj, locales, options);
-            return numberFormatObj;
+            Object cacheKey = IntlUtil.serviceObjectCacheKey(getBuiltin(), locales, options);
+            return getContext().getRealm().getOrCreateCachedIntlObject(cacheKey, () -> {
+                DynamicObject numberFormatObj = JSNumberFormat.create(getContext());
+                initNumberFormatNode.executeInit(numberFormatObj, locales, options);
+                return numberFormatObj;
+            });
         }
 
         @Specialization(guards = "isJSNumber(thisObj)")
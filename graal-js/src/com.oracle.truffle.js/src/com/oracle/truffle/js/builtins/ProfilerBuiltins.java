@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.js.builtins.ProfilerBuiltinsFactory.ProfilerClearNodeGen;
+import com.oracle.truffle.js.builtins.ProfilerBuiltinsFactory.ProfilerFunctionStatisticsNodeGen;
+import com.oracle.truffle.js.builtins.ProfilerBuiltinsFactory.ProfilerGetProfileNodeGen;
+import com.oracle.truffle.js.builtins.ProfilerBuiltinsFactory.ProfilerIsRunningNodeGen;
+import com.oracle.truffle.js.builtins.ProfilerBuiltinsFactory.ProfilerStartNodeGen;
+import com.oracle.truffle.js.builtins.ProfilerBuiltinsFactory.ProfilerStopNodeGen;
+import com.oracle.truffle.js.builtins.ProfilerBuiltinsFactory.ProfilerWriteProfileNodeGen;
+import com.oracle.truffle.js.nodes.function.JSBuiltin;
+import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
+import com.oracle.truffle.js.nodes.instrumentation.profiler.JSSamplingProfiler;
+import com.oracle.truffle.js.nodes.instrumentation.profiler.JSSamplingProfiler.FunctionStatistics;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Contains builtins for the {@code Graal.profiler} object controlling the
+ * {@link JSSamplingProfiler}.
+ */
+public final class ProfilerBuiltins extends JSBuiltinsContainer.SwitchEnum<ProfilerBuiltins.Profiler> {
+
+    public static final JSBuiltinsContainer BUILTINS = new ProfilerBuiltins();
+
+    protected ProfilerBuiltins() {
+        super(JSRealm.PROFILER_CLASS_NAME, Profiler.class);
+    }
+
+    public enum Profiler implements BuiltinEnum<Profiler> {
+        start(0),
+        stop(0),
+        clear(0),
+        isRunning(0),
+        getProfile(0),
+        getFunctionStatistics(0),
+        writeProfile(1);
+
+        private final int length;
+
+        Profiler(int length) {
+            this.length = length;
+        }
+
+        @Override
+        public int getLength() {
+            return length;
+        }
+    }
+
+    @Override
+    protected Object createNode(JSContext context, JSBuiltin builtin, boolean construct, boolean newTarget, Profiler builtinEnum) {
+        switch (builtinEnum) {
+            case start:
+                return ProfilerStartNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
+            case stop:
+                return ProfilerStopNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case clear:
+                return ProfilerClearNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case isRunning:
+                return ProfilerIsRunningNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case getProfile:
+                return ProfilerGetProfileNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
+            case getFunctionStatistics:
+                return ProfilerFunctionStatisticsNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case writeProfile:
+                return ProfilerWriteProfileNodeGen.create(context, builtin, args().fixedArgs(2).createArgumentNodes(context));
+        }
+        return null;
+    }
+
+    abstract static class ProfilerOperation extends JSBuiltinNode {
+
+        ProfilerOperation(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        protected final JSSamplingProfiler getProfiler() {
+            JSSamplingProfiler profiler = JSSamplingProfiler.find(getContext().getRealm().getEnv());
+            if (profiler == null) {
+                throw Errors.createError("Sampling profiler is not available");
+            }
+            return profiler;
+        }
+
+        @TruffleBoundary
+        protected static JSSamplingProfiler.Format toFormat(Object formatObj) {
+            if (formatObj == Undefined.instance) {
+                return JSSamplingProfiler.Format.COLLAPSED;
+            }
+            String name = JSRuntime.toString(formatObj);
+            JSSamplingProfiler.Format format = JSSamplingProfiler.Format.fromName(name);
+            if (format == null) {
+                throw Errors.createRangeError("Unsupported profile format: " + name);
+            }
+            return format;
+        }
+    }
+
+    public abstract static class ProfilerStartNode extends ProfilerOperation {
+
+        public ProfilerStartNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object start(Object periodObj) {
+            long period = periodObj == Undefined.instance ? JSSamplingProfiler.DEFAULT_PERIOD_MILLIS : JSRuntime.toInteger(periodObj);
+            if (period <= 0) {
+                throw Errors.createRangeError("Sampling period must be positive");
+            }
+            getProfiler().start(period);
+            return Undefined.instance;
+        }
+    }
+
+    public abstract static class ProfilerStopNode extends ProfilerOperation {
+
+        public ProfilerStopNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object stop() {
+            getProfiler().stop();
+            return Undefined.instance;
+        }
+    }
+
+    public abstract static class ProfilerClearNode extends ProfilerOperation {
+
+        public ProfilerClearNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object clear() {
+            getProfiler().clear();
+            return Undefined.instance;
+        }
+    }
+
+    public abstract static class ProfilerIsRunningNode extends ProfilerOperation {
+
+        public ProfilerIsRunningNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected boolean isRunning() {
+            return getProfiler().isRunning();
+        }
+    }
+
+    public abstract static class ProfilerGetProfileNode extends ProfilerOperation {
+
+        public ProfilerGetProfileNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected String getProfile(Object formatObj) {
+            return getProfiler().getProfile(toFormat(formatObj));
+        }
+    }
+
+    /**
+     * Returns an array of <code>{name, url, line, builtin, selfSamples, totalSamples, selfTime,
+     * totalTime}</code> objects, ordered by descending self time.
+     */
+    public abstract static class ProfilerFunctionStatisticsNode extends ProfilerOperation {
+
+        public ProfilerFunctionStatisticsNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object getFunctionStatistics() {
+            JSContext context = getContext();
+            List<FunctionStatistics> statistics = getProfiler().getFunctionStatistics();
+            Object[] result = new Object[statistics.size()];
+            for (int i = 0; i < result.length; i++) {
+                FunctionStatistics entry = statistics.get(i);
+                SourceSection section = entry.getFunction().getSourceSection();
+                DynamicObject obj = JSOrdinary.create(context);
+                JSObject.set(obj, "name", entry.getFunction().getName());
+                JSObject.set(obj, "url", section == null ? Undefined.instance : section.getSource().getName());
+                JSObject.set(obj, "line", section == null || !section.isAvailable() ? Undefined.instance : section.getStartLine());
+                JSObject.set(obj, "builtin", entry.getFunction().isBuiltin());
+                JSObject.set(obj, "selfSamples", (double) entry.getSelfSamples());
+                JSObject.set(obj, "totalSamples", (double) entry.getTotalSamples());
+                JSObject.set(obj, "selfTime", (double) entry.getSelfTimeMillis());
+                JSObject.set(obj, "totalTime", (double) entry.getTotalTimeMillis());
+                result[i] = obj;
+            }
+            return JSArray.createConstantObjectArray(context, result);
+        }
+    }
+
+    public abstract static class ProfilerWriteProfileNode extends ProfilerOperation {
+
+        public ProfilerWriteProfileNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object writeProfile(Object pathObj, Object formatObj) {
+            String profile = getProfiler().getProfile(toFormat(formatObj));
+            try {
+                TruffleFile file = getContext().getRealm().getEnv().getPublicTruffleFile(JSRuntime.toString(pathObj));
+                try (BufferedWriter writer = file.newBufferedWriter()) {
+                    writer.write(profile);
+                }
+            } catch (IOException | SecurityException e) {
+                throw Errors.createErrorFromException(e);
+            }
+            return Undefined.instance;
+        }
+    }
+}
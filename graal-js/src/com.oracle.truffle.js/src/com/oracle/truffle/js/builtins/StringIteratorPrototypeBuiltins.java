@@ -55,6 +55,7 @@ import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
 import com.oracle.truffle.js.runtime.Boundaries;
 import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSString;
@@ -95,7 +96,7 @@ public final class StringIteratorPrototypeBuiltins extends JSBuiltinsContainer.S
         return null;
     }
 
-    public abstract static class StringIteratorNextNode extends JSBuiltinNode {
+    public abstract static class StringIteratorNextNode extends JSBuiltinNode implements JSBuiltinNode.Inlineable {
         @Child private HasHiddenKeyCacheNode isStringIteratorNode;
         @Child private PropertyGetNode getIteratedObjectNode;
         @Child private PropertyGetNode getNextIndexNode;
@@ -165,5 +166,33 @@ public final class StringIteratorPrototypeBuiltins extends JSBuiltinsContainer.S
                 throw Errors.shouldNotReachHere();
             }
         }
+
+        @Override
+        public Inlined createInlined() {
+            return StringIteratorNextNodeGen.InlinedNodeGen.create(getContext(), getBuiltin(), getArguments());
+        }
+
+        /**
+         * Inlining the step into the caller allows the iterator result object to be escape-analyzed
+         * away. The step itself cannot call user code, so only incompatible receivers need a call.
+         */
+        public abstract static class Inlined extends StringIteratorNextNode implements JSBuiltinNode.Inlined {
+            public Inlined(JSContext context, JSBuiltin builtin) {
+                super(context, builtin);
+            }
+
+            @Override
+            @Fallback
+            protected DynamicObject doIncompatibleReceiver(Object iterator) {
+                throw rewriteToCall();
+            }
+
+            protected abstract Object executeWithArguments(VirtualFrame frame, Object thisObj);
+
+            @Override
+            public Object callInlined(Object[] arguments) {
+                return executeWithArguments(null, JSArguments.getThisObject(arguments));
+            }
+        }
     }
 }
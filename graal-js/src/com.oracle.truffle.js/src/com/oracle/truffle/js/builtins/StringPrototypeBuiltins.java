@@ -2344,9 +2344,12 @@ public final class StringPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnu
 
         @TruffleBoundary
         private DynamicObject createCollator(Object locales, Object options) {
-            DynamicObject collatorObj = JSCollator.create(getContext());
-            initCollatorNode.executeInit(collatorObj, locales, options);
-            return collatorObj;
+            Object cacheKey = IntlUtil.serviceObjectCacheKey(getBuiltin(), locales, options);
+            return getContext().getRealm().getOrCreateCachedIntlObject(cacheKey, () -> {
+                DynamicObject collatorObj = JSCollator.create(getContext());
+                initCollatorNode.executeInit(collatorObj, locales, options);
+                return collatorObj;
+            });
         }
 
         @Specialization
@@ -89,7 +89,6 @@ import com.oracle.truffle.js.nodes.array.JSGetLengthNode;
 import com.oracle.truffle.js.nodes.cast.JSToBigIntNode;
 import com.oracle.truffle.js.nodes.cast.JSToNumberNode;
 import com.oracle.truffle.js.nodes.cast.JSToObjectNode;
-import com.oracle.truffle.js.nodes.control.DeletePropertyNode;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
 import com.oracle.truffle.js.runtime.BigInt;
@@ -572,45 +571,10 @@ public final class TypedArrayPrototypeBuiltins extends JSBuiltinsContainer.Switc
         }
 
         @Specialization(guards = "isJSArrayBufferView(thisObj)")
-        protected DynamicObject reverse(DynamicObject thisObj,
-                        @Cached("create(THROW_ERROR, getContext())") DeletePropertyNode deletePropertyNode) {
+        protected DynamicObject reverse(DynamicObject thisObj) {
             checkHasDetachedBuffer(thisObj);
             long len = getLength(thisObj);
-            long middle = len / 2L;
-            long lower = 0;
-
-            while (lower != middle) {
-                long upper = len - lower - 1;
-                Object lowerValue = null;
-                Object upperValue = null;
-                boolean lowerExists = hasProperty(thisObj, lower);
-                if (lowerExists) {
-                    lowerValue = read(thisObj, lower);
-                }
-                boolean upperExists = hasProperty(thisObj, upper);
-                if (upperExists) {
-                    upperValue = read(thisObj, upper);
-                }
-
-                if (lowerExists && upperExists) {
-                    write(thisObj, lower, upperValue);
-                    write(thisObj, upper, lowerValue);
-                } else if (upperExists) {
-                    write(thisObj, lower, upperValue);
-                    deletePropertyNode.executeEvaluated(thisObj, upper);
-                } else if (lowerExists) {
-                    deletePropertyNode.executeEvaluated(thisObj, lower);
-                    write(thisObj, upper, lowerValue);
-                }
-
-                long nextLower = nextElementIndex(thisObj, lower, len);
-                long nextUpper = previousElementIndex(thisObj, upper);
-                if ((len - nextLower - 1) >= nextUpper) {
-                    lower = nextLower;
-                } else {
-                    lower = len - nextUpper - 1;
-                }
-            }
+            getTypedArrayType(thisObj).reverseElements(thisObj, (int) len);
             return thisObj;
         }
 
@@ -640,8 +604,10 @@ public final class TypedArrayPrototypeBuiltins extends JSBuiltinsContainer.Switc
             long lStart = JSRuntime.getOffset(toIntegerAsLong(start), len, offsetProfile1);
             long lEnd = end == Undefined.instance ? len : JSRuntime.getOffset(toIntegerAsLong(end), len, offsetProfile2);
             checkHasDetachedBuffer(thisJSObj);
-            for (long idx = lStart; idx < lEnd; idx++) {
-                write(thisJSObj, idx, convValue);
+            if (lStart < lEnd) {
+                // write the first element, then replicate its bytes
+                write(thisJSObj, lStart, convValue);
+                getTypedArrayType(thisJSObj).fillWithFirstElement(thisJSObj, (int) lStart, (int) lEnd);
             }
             return thisJSObj;
         }
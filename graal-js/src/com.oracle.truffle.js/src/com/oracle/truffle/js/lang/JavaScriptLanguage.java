@@ -203,8 +203,8 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
                 }
                 JSRealm realm = contextReference.get();
                 assert realm.getContext() == context : "unexpected JSContext";
+                interopBoundaryEnter(realm);
                 try {
-                    interopBoundaryEnter(realm);
                     Object[] arguments = frame.getArguments();
                     for (int i = 0; i < arguments.length; i++) {
                         arguments[i] = importValueNode.executeWithTarget(arguments[i]);
@@ -364,6 +364,7 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
                     JSContextOptions.PERFORMANCE,
                     JSContextOptions.CLASS_FIELDS,
                     JSContextOptions.REGEXP_STATIC_RESULT,
+                    JSContextOptions.PARSE_AHEAD,
     };
 
     /**
@@ -403,6 +404,7 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
         if (options.isProfileTime() && options.isProfileTimePrintCumulative()) {
             context.getTimeProfiler().printCumulative();
         }
+        realm.cancelParseAhead();
         realm.setGlobalObject(Undefined.instance);
     }
 
@@ -455,9 +457,27 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
         }
     }
 
-    @SuppressWarnings("static-method")
     public void interopBoundaryEnter(JSRealm realm) {
-        realm.getAgent().interopBoundaryEnter();
+        JSAgent agent = realm.getAgent();
+        if (agent.interopBoundaryEnter() && !promiseJobsQueueEmptyAssumption.isValid() && agent.hasHostCompletions()) {
+            processHostCompletions(agent);
+        }
+    }
+
+    /**
+     * Runs the completions of host operations that completed while the context was not in use.
+     */
+    @TruffleBoundary
+    private static void processHostCompletions(JSAgent agent) {
+        boolean processed = false;
+        try {
+            agent.processAllPromises(false);
+            processed = true;
+        } finally {
+            if (!processed) {
+                agent.interopBoundaryExit();
+            }
+        }
     }
 
     public void interopBoundaryExit(JSRealm realm) {
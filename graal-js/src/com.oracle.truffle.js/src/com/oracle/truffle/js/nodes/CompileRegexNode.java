@@ -47,6 +47,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.RegexCompilerInterface;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 
 @ImportStatic(JSConfig.class)
@@ -94,6 +95,23 @@ public abstract class CompileRegexNode extends JavaScriptBaseNode {
 
     @ReportPolymorphism.Megamorphic
     @Specialization(replaces = {"getCached"})
+    protected Object doCompileUncached(String pattern, String flags,
+                    @Cached("recordMegamorphic()") @SuppressWarnings("unused") boolean recorded) {
+        return doCompile(pattern, flags);
+    }
+
+    /**
+     * Records the transition to {@link #doCompileUncached} once, when the specialization is
+     * instantiated.
+     */
+    protected final boolean recordMegamorphic() {
+        JSMetrics metrics = context.getMetrics();
+        if (metrics != null) {
+            metrics.recordMegamorphic(JSMetrics.REGEX_CACHE_MEGAMORPHIC, this, null);
+        }
+        return true;
+    }
+
     protected Object doCompile(String pattern, String flags) {
         return RegexCompilerInterface.compile(pattern, flags, context, executeCompilerNode);
     }
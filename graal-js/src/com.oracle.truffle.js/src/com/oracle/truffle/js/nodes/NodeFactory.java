@@ -73,6 +73,7 @@ import com.oracle.truffle.js.nodes.access.IteratorCompleteUnaryNode;
 import com.oracle.truffle.js.nodes.access.IteratorGetNextValueNode;
 import com.oracle.truffle.js.nodes.access.IteratorNextUnaryNode;
 import com.oracle.truffle.js.nodes.access.IteratorSetDoneNode;
+import com.oracle.truffle.js.nodes.access.IteratorStepValueNode;
 import com.oracle.truffle.js.nodes.access.IteratorToArrayNode;
 import com.oracle.truffle.js.nodes.access.IteratorValueNode;
 import com.oracle.truffle.js.nodes.access.JSConstantNode;
@@ -939,6 +940,10 @@ public class NodeFactory {
         return IteratorGetNextValueNode.create(context, iterator, doneNode, setDoneOnError);
     }
 
+    public JavaScriptNode createIteratorStepValue(JSContext context, JavaScriptNode iterator, JSWriteFrameSlotNode writeValueNode) {
+        return IteratorStepValueNode.create(context, iterator, writeValueNode);
+    }
+
     public JavaScriptNode createIteratorSetDone(JavaScriptNode iterator, JavaScriptNode isDone) {
         return IteratorSetDoneNode.create(iterator, isDone);
     }
@@ -61,6 +61,8 @@ import com.oracle.truffle.js.nodes.instrumentation.JSTags.LiteralTag;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.array.ArrayAllocationSite;
+import com.oracle.truffle.js.runtime.array.LengthTrackingAllocationSite;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
 import com.oracle.truffle.js.runtime.array.dyn.AbstractConstantArray;
 import com.oracle.truffle.js.runtime.array.dyn.ConstantByteArray;
@@ -528,18 +530,21 @@ public abstract class ArrayLiteralNode extends JavaScriptNode {
 
     private static final class ConstantEmptyArrayLiteralNode extends ArrayLiteralNode {
 
+        private final ArrayAllocationSite allocationSite;
+
         ConstantEmptyArrayLiteralNode(JSContext context) {
             super(context);
+            this.allocationSite = context.getContextOptions().isArrayLengthFeedback() ? new LengthTrackingAllocationSite() : null;
         }
 
         @Override
         public DynamicObject execute(VirtualFrame frame) {
-            return JSArray.createConstantEmptyArray(context);
+            return JSArray.createConstantEmptyArray(context, allocationSite);
         }
 
         @Override
         protected JavaScriptNode copyUninitialized(Set<Class<? extends Tag>> materializedTags) {
-            return copy();
+            return new ConstantEmptyArrayLiteralNode(context);
         }
     }
 
@@ -46,6 +46,8 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.js.builtins.helper.ListGetNode;
@@ -72,6 +74,7 @@ public abstract class EnumerableOwnPropertyNamesNode extends JavaScriptBaseNode
     private final JSContext context;
     @Child private JSGetOwnPropertyNode getOwnPropertyNode;
     private final ConditionProfile hasFastShapesProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile hasOnlyDataPropertiesProfile = ConditionProfile.createBinaryProfile();
     private final BranchProfile growProfile = BranchProfile.create();
 
     protected EnumerableOwnPropertyNamesNode(JSContext context, boolean keys, boolean values) {
@@ -101,36 +104,57 @@ public abstract class EnumerableOwnPropertyNamesNode extends JavaScriptBaseNode
                     @Cached ListGetNode listGet,
                     @Cached HasOnlyShapePropertiesNode hasOnlyShapeProperties) {
         JSClass jsclass = jsclassProfile.getJSClass(thisObj);
-        if (hasFastShapesProfile.profile(keys && !values && JSConfig.FastOwnKeys && hasOnlyShapeProperties.execute(thisObj, jsclass))) {
-            return JSShape.getEnumerablePropertyNames(thisObj.getShape());
-        } else {
-            boolean isProxy = JSProxy.isJSProxy(thisObj);
-            List<Object> ownKeys = jsclass.ownPropertyKeys(thisObj);
-            int ownKeysSize = listSize.execute(ownKeys);
-            SimpleArrayList<Object> properties = new SimpleArrayList<>();
-            for (int i = 0; i < ownKeysSize; i++) {
-                Object key = listGet.execute(ownKeys, i);
-                if (key instanceof String) {
-                    PropertyDescriptor desc = getOwnProperty(thisObj, key);
-                    if (desc != null && desc.getEnumerable()) {
-                        Object element;
-                        if (keys && !values) {
-                            element = key;
+        if (hasFastShapesProfile.profile(JSConfig.FastOwnKeys && hasOnlyShapeProperties.execute(thisObj, jsclass))) {
+            Shape shape = thisObj.getShape();
+            if (keys && !values) {
+                return JSShape.getEnumerablePropertyNames(shape);
+            }
+            Property[] enumerableProperties = JSShape.getEnumerableDataProperties(shape);
+            if (hasOnlyDataPropertiesProfile.profile(enumerableProperties != null)) {
+                // reading data properties has no side effects, so the shape cannot change
+                return enumerableDataPropertyValues(thisObj, shape, enumerableProperties);
+            }
+        }
+        boolean isProxy = JSProxy.isJSProxy(thisObj);
+        List<Object> ownKeys = jsclass.ownPropertyKeys(thisObj);
+        int ownKeysSize = listSize.execute(ownKeys);
+        SimpleArrayList<Object> properties = new SimpleArrayList<>();
+        for (int i = 0; i < ownKeysSize; i++) {
+            Object key = listGet.execute(ownKeys, i);
+            if (key instanceof String) {
+                PropertyDescriptor desc = getOwnProperty(thisObj, key);
+                if (desc != null && desc.getEnumerable()) {
+                    Object element;
+                    if (keys && !values) {
+                        element = key;
+                    } else {
+                        Object value = (desc.isAccessorDescriptor() || isProxy) ? jsclass.get(thisObj, key) : desc.getValue();
+                        if (!keys && values) {
+                            element = value;
                         } else {
-                            Object value = (desc.isAccessorDescriptor() || isProxy) ? jsclass.get(thisObj, key) : desc.getValue();
-                            if (!keys && values) {
-                                element = value;
-                            } else {
-                                assert keys && values;
-                                element = JSArray.createConstant(context, new Object[]{key, value});
-                            }
+                            assert keys && values;
+                            element = JSArray.createConstant(context, new Object[]{key, value});
                         }
-                        properties.add(element, growProfile);
                     }
+                    properties.add(element, growProfile);
                 }
             }
-            return new UnmodifiableArrayList<>(properties.toArray());
         }
+        return new UnmodifiableArrayList<>(properties.toArray());
+    }
+
+    private UnmodifiableArrayList<Object> enumerableDataPropertyValues(DynamicObject thisObj, Shape shape, Property[] enumerableProperties) {
+        Object[] result = new Object[enumerableProperties.length];
+        for (int i = 0; i < enumerableProperties.length; i++) {
+            Property property = enumerableProperties[i];
+            Object value = property.get(thisObj, shape);
+            if (keys) {
+                result[i] = JSArray.createConstant(context, new Object[]{property.getKey(), value});
+            } else {
+                result[i] = value;
+            }
+        }
+        return new UnmodifiableArrayList<>(result);
     }
 
     protected PropertyDescriptor getOwnProperty(DynamicObject thisObj, Object key) {
@@ -84,6 +84,7 @@ import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.DebugCounter;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
 
 /**
  * Common base class for property cache nodes. Unifies the cache handling and receiver checks.
@@ -1324,6 +1325,10 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
             megamorphicCount.inc();
             reportPolymorphicSpecialize();
         }
+        JSMetrics metrics = context.getMetrics();
+        if (metrics != null) {
+            metrics.recordMegamorphic(JSMetrics.PROPERTY_CACHE_MEGAMORPHIC, this, key);
+        }
         traceRewriteMegamorphic(newNode, reason);
         if (JSConfig.TraceMegamorphicPropertyAccess) {
             System.out.printf("MEGAMORPHIC PROPERTY ACCESS key='%s' %s\n%s\n---\n", key, getEncapsulatingSourceSection(), currentHead.debugString());
@@ -41,11 +41,15 @@
 package com.oracle.truffle.js.nodes.cast;
 
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.CachedLanguage;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.runtime.Boundaries;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.util.NumberStringCache;
 
 /**
  * This implements 9.8.1 ToString Applied to the Number Type.
@@ -60,8 +64,10 @@ public abstract class JSDoubleToStringNode extends JavaScriptBaseNode {
     public abstract String executeString(Object operand);
 
     @Specialization
-    protected static String doInt(int i) {
-        return Boundaries.stringValueOf(i);
+    protected static String doInt(int i,
+                    @CachedLanguage @SuppressWarnings("unused") JavaScriptLanguage language,
+                    @Cached("language.getJSContext().getNumberStringCache()") @Shared("numberStringCache") NumberStringCache numberStringCache) {
+        return numberStringCache.intToString(i);
     }
 
     @Specialization
@@ -71,6 +77,8 @@ public abstract class JSDoubleToStringNode extends JavaScriptBaseNode {
 
     @Specialization
     protected static String doDouble(double d,
+                    @CachedLanguage @SuppressWarnings("unused") JavaScriptLanguage language,
+                    @Cached("language.getJSContext().getNumberStringCache()") @Shared("numberStringCache") NumberStringCache numberStringCache,
                     @Cached("createBinaryProfile()") ConditionProfile isInt,
                     @Cached("createBinaryProfile()") ConditionProfile isNaN,
                     @Cached("createBinaryProfile()") ConditionProfile isPositiveInfinity,
@@ -79,7 +87,7 @@ public abstract class JSDoubleToStringNode extends JavaScriptBaseNode {
         if (isZero.profile(d == 0)) {
             return "0";
         } else if (isInt.profile(JSRuntime.doubleIsRepresentableAsInt(d, true))) {
-            return doInt((int) d);
+            return numberStringCache.intToString((int) d);
         } else if (isNaN.profile(Double.isNaN(d))) {
             return JSRuntime.NAN_STRING;
         } else if (isPositiveInfinity.profile(d == Double.POSITIVE_INFINITY)) {
@@ -87,7 +95,7 @@ public abstract class JSDoubleToStringNode extends JavaScriptBaseNode {
         } else if (isNegativeInfinity.profile(d == Double.NEGATIVE_INFINITY)) {
             return JSRuntime.NEGATIVE_INFINITY_STRING;
         } else {
-            return JSRuntime.formatDtoA(d);
+            return numberStringCache.doubleToString(d);
         }
     }
 }
@@ -57,6 +57,8 @@ import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.nodes.JavaScriptNode;
 import com.oracle.truffle.js.nodes.access.ReadElementNode;
@@ -67,6 +69,7 @@ import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
 
 /**
  * Converts an arbitrary value to an Object[].
@@ -126,7 +129,18 @@ public abstract class JSToObjectArrayNode extends JavaScriptBaseNode {
     @Specialization(guards = {"isJSObject(obj)"})
     protected Object[] toArray(DynamicObject obj,
                     @Cached("create(context)") JSGetLengthNode getLengthNode,
-                    @Cached("create(context)") ReadElementNode readNode) {
+                    @Cached("create(context)") ReadElementNode readNode,
+                    @Cached("createBinaryProfile()") ConditionProfile fastArrayProfile,
+                    @Cached("createClassProfile()") ValueProfile arrayTypeProfile) {
+        if (fastArrayProfile.profile(JSArray.isJSFastArray(obj) && !JSArray.arrayGetArrayType(obj).hasHoles(obj))) {
+            // elements of a fast array without holes can be copied directly from the backing store
+            ScriptArray arrayType = arrayTypeProfile.profile(JSArray.arrayGetArrayType(obj));
+            if (arrayType.length(obj) > context.getContextOptions().getMaxApplyArgumentLength()) {
+                CompilerDirectives.transferToInterpreter();
+                throw Errors.createRangeErrorTooManyArguments();
+            }
+            return arrayType.toArray(obj);
+        }
         long len = getLengthNode.executeLong(obj);
         if (len > context.getContextOptions().getMaxApplyArgumentLength()) {
             CompilerDirectives.transferToInterpreter();
@@ -41,14 +41,17 @@
 package com.oracle.truffle.js.nodes.cast;
 
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.CachedLanguage;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.oracle.truffle.api.object.HiddenKey;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.JSGuards;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.Symbol;
+import com.oracle.truffle.js.runtime.util.NumberStringCache;
 
 /**
  * Converts value to array index according to ES5 15.4 Array Objects.
@@ -118,12 +121,14 @@ public abstract class ToArrayIndexNode extends JavaScriptBaseNode {
 
     @Specialization(guards = "isArrayIndexLengthInRange(index)")
     protected static Object convertFromString(String index,
+                    @CachedLanguage @SuppressWarnings("unused") JavaScriptLanguage language,
+                    @Cached("language.getJSContext().getNumberStringCache()") NumberStringCache numberStringCache,
                     @Cached("create()") BranchProfile startsWithDigitBranch,
                     @Cached("create()") BranchProfile isArrayIndexBranch,
                     @Cached("create()") BranchProfile needPassStringBranch) {
         if (JSRuntime.isAsciiDigit(index.charAt(0))) {
             startsWithDigitBranch.enter();
-            long longValue = JSRuntime.parseArrayIndexRaw(index);
+            long longValue = numberStringCache.stringToArrayIndex(index);
             if (JSRuntime.isArrayIndex(longValue)) {
                 isArrayIndexBranch.enter();
                 return JSRuntime.castArrayIndex(longValue);
@@ -113,6 +113,8 @@ public class AwaitNode extends JavaScriptNode implements ResumableNode, SuspendN
     private final ConditionProfile asyncTypeProf = ConditionProfile.createBinaryProfile();
     private final ConditionProfile resumptionTypeProf = ConditionProfile.createBinaryProfile();
     private final BranchProfile saveStackBranch = BranchProfile.create();
+    private final ConditionProfile handlersCreatedProf = ConditionProfile.createBinaryProfile();
+    private final boolean isCallExpression;
 
     static final HiddenKey ASYNC_CONTEXT = new HiddenKey("AsyncContext");
     static final HiddenKey ASYNC_TARGET = new HiddenKey("AsyncTarget");
@@ -133,7 +135,8 @@ public class AwaitNode extends JavaScriptNode implements ResumableNode, SuspendN
         this.setAsyncTargetNode = PropertySetNode.createSetHidden(ASYNC_TARGET, context);
         this.setAsyncGeneratorNode = PropertySetNode.createSetHidden(ASYNC_GENERATOR, context);
 
-        if (context.isOptionAsyncStackTraces() && expression != null && expression.hasTag(StandardTags.CallTag.class)) {
+        this.isCallExpression = expression != null && expression.hasTag(StandardTags.CallTag.class);
+        if (context.isOptionAsyncStackTraces()) {
             this.setAsyncCallNode = PropertySetNode.createSetHidden(ASYNC_CALL_NODE, context);
         }
 
@@ -192,8 +195,19 @@ public class AwaitNode extends JavaScriptNode implements ResumableNode, SuspendN
         }
 
         DynamicObject promise = promiseResolve(value);
-        DynamicObject onFulfilled = createAwaitFulfilledFunction(resumeTarget, asyncContext, generatorOrCapability);
-        DynamicObject onRejected = createAwaitRejectedFunction(resumeTarget, asyncContext, generatorOrCapability);
+        // The await handlers only depend on the async function activation, so they are created on
+        // the first await and reused by all subsequent awaits of the same activation. The same
+        // holds for their (capability-less) reaction records.
+        PromiseReactionRecord fulfillReaction = (PromiseReactionRecord) initialState[AsyncRootNode.AWAIT_FULFILLED_INDEX];
+        PromiseReactionRecord rejectReaction = (PromiseReactionRecord) initialState[AsyncRootNode.AWAIT_REJECTED_INDEX];
+        if (handlersCreatedProf.profile(fulfillReaction == null)) {
+            fulfillReaction = PromiseReactionRecord.create(null, createAwaitFulfilledFunction(resumeTarget, asyncContext, generatorOrCapability), true);
+            rejectReaction = PromiseReactionRecord.create(null, createAwaitRejectedFunction(resumeTarget, asyncContext, generatorOrCapability), false);
+            initialState[AsyncRootNode.AWAIT_FULFILLED_INDEX] = fulfillReaction;
+            initialState[AsyncRootNode.AWAIT_REJECTED_INDEX] = rejectReaction;
+        }
+        DynamicObject onFulfilled = (DynamicObject) fulfillReaction.getHandler();
+        DynamicObject onRejected = (DynamicObject) rejectReaction.getHandler();
         PromiseCapabilityRecord throwawayCapability = newThrowawayCapability();
 
         fillAsyncStackTrace(frame, onFulfilled, onRejected);
@@ -202,14 +216,20 @@ public class AwaitNode extends JavaScriptNode implements ResumableNode, SuspendN
         if (materializedInputNode != null) {
             materializedInputNode.executeWithTarget(frame, promise);
         }
-        performPromiseThenNode.execute(promise, onFulfilled, onRejected, throwawayCapability);
+        if (throwawayCapability == null) {
+            performPromiseThenNode.execute(promise, fulfillReaction, rejectReaction);
+        } else {
+            performPromiseThenNode.execute(promise, onFulfilled, onRejected, throwawayCapability);
+        }
         throw YieldException.AWAIT_NULL; // value is ignored
     }
 
     private void fillAsyncStackTrace(VirtualFrame frame, DynamicObject onFulfilled, DynamicObject onRejected) {
         if (setAsyncCallNode != null) {
-            setAsyncCallNode.setValue(onFulfilled, expression);
-            setAsyncCallNode.setValue(onRejected, expression);
+            // always (re)set, since the handlers are shared by all awaits of the activation
+            Object callNode = isCallExpression ? expression : Undefined.instance;
+            setAsyncCallNode.setValue(onFulfilled, callNode);
+            setAsyncCallNode.setValue(onRejected, callNode);
         }
         if (context.isOptionAsyncStackTraces()) {
             Object[] asyncContext = (Object[]) readAsyncContextNode.execute(frame);
@@ -349,7 +369,8 @@ public class AwaitNode extends JavaScriptNode implements ResumableNode, SuspendN
             RootCallTarget asyncTarget = (RootCallTarget) JSObjectUtil.getHiddenProperty(handlerFunction, ASYNC_TARGET);
             if (asyncTarget.getRootNode() instanceof AsyncRootNode) {
                 MaterializedFrame asyncContextFrame = (MaterializedFrame) JSObjectUtil.getHiddenProperty(handlerFunction, ASYNC_CONTEXT);
-                Node callNode = (Node) JSObjectUtil.getHiddenProperty(handlerFunction, AwaitNode.ASYNC_CALL_NODE);
+                Object asyncCallNode = JSObjectUtil.getHiddenProperty(handlerFunction, AwaitNode.ASYNC_CALL_NODE);
+                Node callNode = asyncCallNode instanceof Node ? (Node) asyncCallNode : null;
                 TruffleStackTraceElement asyncStackTraceElement = TruffleStackTraceElement.create(callNode, asyncTarget, asyncContextFrame);
                 DynamicObject asyncPromise = ((AsyncRootNode) asyncTarget.getRootNode()).getAsyncFunctionPromise(asyncContextFrame);
                 return new AsyncStackTraceInfo(asyncPromise, asyncStackTraceElement);
@@ -56,6 +56,7 @@ import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.JavaScriptRootNode;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
+import com.oracle.truffle.js.runtime.objects.JSOrdinaryObject;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
 public final class ConstructorRootNode extends JavaScriptRootNode {
@@ -109,7 +110,23 @@ public final class ConstructorRootNode extends JavaScriptRootNode {
         Object[] arguments = frame.getArguments();
         Object thisObject = allocateThisObject(frame, arguments);
         Object result = callNode.call(arguments);
-        return filterConstructorResult(thisObject, result);
+        Object constructed = filterConstructorResult(thisObject, result);
+        if (!newTarget && CompilerDirectives.inInterpreter() && functionData.isSlackTracking()) {
+            trackInstanceSize(thisObject, constructed);
+        }
+        return constructed;
+    }
+
+    /**
+     * Slack tracking is done by the outermost constructor, i.e. the new target, once all
+     * constructors in the class hierarchy have initialized the instance. The instance of a derived
+     * class is allocated by the base class constructor, which uses the layout of the new target.
+     */
+    private void trackInstanceSize(Object thisObject, Object constructed) {
+        Object instance = functionData.isDerived() ? constructed : thisObject;
+        if (instance instanceof JSOrdinaryObject) {
+            functionData.trackInstanceSize((DynamicObject) instance);
+        }
     }
 
     private void initialize() {
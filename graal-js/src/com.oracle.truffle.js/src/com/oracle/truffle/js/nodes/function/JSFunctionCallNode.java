@@ -107,6 +107,7 @@ import com.oracle.truffle.js.runtime.builtins.JSProxy;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.DebugCounter;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 
 public abstract class JSFunctionCallNode extends JavaScriptNode implements JavaScriptFunctionCallNode {
@@ -271,6 +272,9 @@ public abstract class JSFunctionCallNode extends JavaScriptNode implements JavaS
                 }
                 if (c == null) {
                     boolean hasCached = cachedCount > 0;
+                    if (hasCached) {
+                        recordMegamorphicMetric();
+                    }
                     if (JSFunction.isJSFunction(function)) {
                         c = specializeGenericFunction(currentHead, hasCached);
                     } else if (JSProxy.isJSProxy(function)) {
@@ -292,6 +296,13 @@ public abstract class JSFunctionCallNode extends JavaScriptNode implements JavaS
         return c.executeCall(arguments);
     }
 
+    private void recordMegamorphicMetric() {
+        JSMetrics metrics = JavaScriptLanguage.getCurrentJSRealm().getContext().getMetrics();
+        if (metrics != null) {
+            metrics.recordMegamorphic(JSMetrics.FUNCTION_CACHE_MEGAMORPHIC, this, null);
+        }
+    }
+
     private static boolean isCached(AbstractCacheNode c) {
         return c instanceof JSFunctionCacheNode;
     }
@@ -40,6 +40,7 @@
  */
 package com.oracle.truffle.js.nodes.function;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
@@ -51,6 +52,7 @@ import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.DynamicObjectLibrary;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.utilities.AlwaysValidAssumption;
 import com.oracle.truffle.js.nodes.JSGuards;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.nodes.access.JSTargetableNode;
@@ -64,6 +66,7 @@ import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.JSOrdinaryObject;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
 public abstract class SpecializedNewObjectNode extends JavaScriptBaseNode {
@@ -72,23 +75,27 @@ public abstract class SpecializedNewObjectNode extends JavaScriptBaseNode {
     protected final boolean isConstructor;
     protected final boolean isGenerator;
     protected final boolean isAsyncGenerator;
+    /** Function whose [[Construct]] allocates the objects, if known. */
+    protected final JSFunctionData functionData;
     @Child private JSTargetableNode getPrototypeNode;
 
-    public SpecializedNewObjectNode(JSContext context, boolean isBuiltin, boolean isConstructor, boolean isGenerator, boolean isAsyncGenerator) {
+    public SpecializedNewObjectNode(JSContext context, boolean isBuiltin, boolean isConstructor, boolean isGenerator, boolean isAsyncGenerator, JSFunctionData functionData) {
         this.context = context;
         this.isBuiltin = isBuiltin;
         this.isConstructor = isConstructor;
         this.isGenerator = isGenerator;
         this.isAsyncGenerator = isAsyncGenerator;
+        this.functionData = functionData;
         this.getPrototypeNode = (!isBuiltin && isConstructor) ? PropertyNode.createProperty(context, null, JSObject.PROTOTYPE) : null;
     }
 
     public static SpecializedNewObjectNode create(JSContext context, boolean isBuiltin, boolean isConstructor, boolean isGenerator, boolean isAsyncGenerator) {
-        return SpecializedNewObjectNodeGen.create(context, isBuiltin, isConstructor, isGenerator, isAsyncGenerator);
+        return SpecializedNewObjectNodeGen.create(context, isBuiltin, isConstructor, isGenerator, isAsyncGenerator, null);
     }
 
     public static SpecializedNewObjectNode create(JSFunctionData functionData) {
-        return create(functionData.getContext(), functionData.isBuiltin(), functionData.isConstructor(), functionData.isGenerator(), functionData.isAsyncGenerator());
+        return SpecializedNewObjectNodeGen.create(functionData.getContext(), functionData.isBuiltin(), functionData.isConstructor(), functionData.isGenerator(),
+                        functionData.isAsyncGenerator(), functionData);
     }
 
     public final DynamicObject execute(VirtualFrame frame, DynamicObject newTarget) {
@@ -98,19 +105,43 @@ public abstract class SpecializedNewObjectNode extends JavaScriptBaseNode {
 
     protected abstract DynamicObject execute(DynamicObject newTarget, Object prototype);
 
-    protected Shape getProtoChildShape(Object prototype) {
+    protected Shape getProtoChildShape(Object prototype, int layout) {
         CompilerAsserts.neverPartOfCompilation();
         if (JSGuards.isJSObject(prototype)) {
-            return JSObjectUtil.getProtoChildShape((DynamicObject) prototype, JSOrdinary.INSTANCE, context);
+            return JSObjectUtil.getProtoChildShape((DynamicObject) prototype, JSOrdinary.INSTANCE, layout, context);
         }
         return null;
     }
 
-    @Specialization(guards = {"!isBuiltin", "isConstructor", "!context.isMultiContext()", "isJSObject(cachedPrototype)", "prototype == cachedPrototype"}, limit = "context.getPropertyCacheLimit()")
+    /**
+     * Function whose slack tracking chooses the instance layout. This is the new target, i.e. the
+     * constructor that {@code new} was applied to, so that a base class constructor allocates the
+     * instances of a derived class with the layout tracked by the derived class.
+     */
+    protected final JSFunctionData getLayoutFunctionData(DynamicObject target) {
+        if (functionData == null || !JSFunction.isJSFunction(target)) {
+            return null;
+        }
+        return JSFunction.getFunctionData(target);
+    }
+
+    protected static int getInstanceLayout(JSFunctionData layoutFunctionData) {
+        return layoutFunctionData == null ? JSOrdinaryObject.DEFAULT_LAYOUT : layoutFunctionData.getInstanceLayout();
+    }
+
+    protected static Assumption getInstanceLayoutAssumption(JSFunctionData layoutFunctionData) {
+        return layoutFunctionData == null ? AlwaysValidAssumption.INSTANCE : layoutFunctionData.getInstanceLayoutAssumption();
+    }
+
+    @Specialization(guards = {"!isBuiltin", "isConstructor", "!context.isMultiContext()", "isJSObject(cachedPrototype)", "prototype == cachedPrototype",
+                    "getLayoutFunctionData(target) == layoutFunctionData", "layout == getInstanceLayout(layoutFunctionData)"}, assumptions = "instanceLayoutAssumption", limit = "context.getPropertyCacheLimit()")
     public DynamicObject doCachedProto(@SuppressWarnings("unused") DynamicObject target, @SuppressWarnings("unused") Object prototype,
                     @Cached("prototype") @SuppressWarnings("unused") Object cachedPrototype,
-                    @Cached("getProtoChildShape(prototype)") Shape shape) {
-        return JSOrdinary.create(context, shape);
+                    @Cached("getLayoutFunctionData(target)") JSFunctionData layoutFunctionData,
+                    @Cached("getInstanceLayoutAssumption(layoutFunctionData)") @SuppressWarnings("unused") Assumption instanceLayoutAssumption,
+                    @Cached("getInstanceLayout(layoutFunctionData)") int layout,
+                    @Cached("getProtoChildShape(prototype, layout)") Shape shape) {
+        return JSOrdinary.create(context, shape, layout);
     }
 
     /** Many different prototypes. */
@@ -122,11 +153,23 @@ public abstract class SpecializedNewObjectNode extends JavaScriptBaseNode {
         return JSOrdinary.create(context, shape);
     }
 
-    @Specialization(guards = {"!isBuiltin", "isConstructor", "context.isMultiContext()", "prototypeClass != null", "prototypeClass.isInstance(prototype)"}, limit = "1")
+    @Specialization(guards = {"!isBuiltin", "isConstructor", "context.isMultiContext()", "prototypeClass != null", "prototypeClass.isInstance(prototype)",
+                    "getLayoutFunctionData(target) == layoutFunctionData", "layout == getInstanceLayout(layoutFunctionData)"}, assumptions = "instanceLayoutAssumption", limit = "1")
     public DynamicObject createWithProtoCachedClass(@SuppressWarnings("unused") DynamicObject target, Object prototype,
                     @CachedLibrary(limit = "3") @Shared("setProtoNode") DynamicObjectLibrary setProtoNode,
-                    @Cached("getClassIfJSObject(prototype)") Class<?> prototypeClass) {
-        return createWithProto(target, (DynamicObject) prototypeClass.cast(prototype), setProtoNode);
+                    @Cached("getClassIfJSObject(prototype)") Class<?> prototypeClass,
+                    @Cached("getLayoutFunctionData(target)") JSFunctionData layoutFunctionData,
+                    @Cached("getInstanceLayoutAssumption(layoutFunctionData)") @SuppressWarnings("unused") Assumption instanceLayoutAssumption,
+                    @Cached("getInstanceLayout(layoutFunctionData)") int layout,
+                    @Cached("getEmptyShapePrototypeInObject(layout)") Shape shape) {
+        // the prototype is not part of the shape, so the shape can be shared by all contexts
+        DynamicObject object = JSOrdinary.create(context, shape, layout);
+        setProtoNode.put(object, JSObject.HIDDEN_PROTO, prototypeClass.cast(prototype));
+        return object;
+    }
+
+    protected Shape getEmptyShapePrototypeInObject(int layout) {
+        return context.makeEmptyShapeWithPrototypeInObject(JSOrdinary.INSTANCE, layout);
     }
 
     @Specialization(guards = {"!isBuiltin", "isConstructor", "context.isMultiContext()", "isJSObject(prototype)"})
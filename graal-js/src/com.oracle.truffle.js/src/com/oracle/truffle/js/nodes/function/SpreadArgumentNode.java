@@ -42,29 +42,46 @@ package com.oracle.truffle.js.nodes.function;
 
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.Tag;
+import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.js.nodes.JavaScriptNode;
 import com.oracle.truffle.js.nodes.access.GetIteratorNode;
 import com.oracle.truffle.js.nodes.access.IteratorGetNextValueNode;
 import com.oracle.truffle.js.nodes.access.JSConstantNode;
+import com.oracle.truffle.js.nodes.access.PropertyGetNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.Symbol;
+import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.objects.IteratorRecord;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 
 import java.util.Set;
 
 public final class SpreadArgumentNode extends JavaScriptNode {
+    @Child private JavaScriptNode argNode;
     @Child private GetIteratorNode getIteratorNode;
     @Child private IteratorGetNextValueNode iteratorStepNode;
+    @Child private PropertyGetNode getIteratorMethodNode;
+    @Child private PropertyGetNode getArrayIteratorNextNode;
     private final BranchProfile errorBranch = BranchProfile.create();
     private final BranchProfile listGrowProfile = BranchProfile.create();
+    private final ConditionProfile fastArrayProfile = ConditionProfile.createBinaryProfile();
+    private final ValueProfile arrayTypeProfile = ValueProfile.createClassProfile();
     private final JSContext context;
 
     private SpreadArgumentNode(JSContext context, JavaScriptNode arg) {
         this.context = context;
-        this.getIteratorNode = GetIteratorNode.create(context, arg);
+        this.argNode = arg;
+        this.getIteratorNode = GetIteratorNode.create(context);
         this.iteratorStepNode = IteratorGetNextValueNode.create(context, null, JSConstantNode.create(null), false);
+        this.getIteratorMethodNode = PropertyGetNode.create(Symbol.SYMBOL_ITERATOR, context);
+        this.getArrayIteratorNextNode = PropertyGetNode.create(JSRuntime.NEXT, context);
     }
 
     @Override
@@ -78,31 +95,74 @@ public final class SpreadArgumentNode extends JavaScriptNode {
 
     @Override
     public Object[] execute(VirtualFrame frame) {
+        Object value = argNode.execute(frame);
+        if (fastArrayProfile.profile(isUnmodifiedArrayIteration(value))) {
+            DynamicObject array = (DynamicObject) value;
+            ScriptArray arrayType = arrayTypeProfile.profile(JSArray.arrayGetArrayType(array));
+            checkArgumentCount(arrayType.lengthInt(array));
+            return arrayType.toArray(array);
+        }
         SimpleArrayList<Object> argList = new SimpleArrayList<>();
-        executeToList(frame, argList, listGrowProfile);
+        iterateToList(frame, value, argList, listGrowProfile);
         return argList.toArray();
     }
 
     public void executeToList(VirtualFrame frame, SimpleArrayList<Object> argList, BranchProfile growProfile) {
-        IteratorRecord iteratorRecord = getIteratorNode.execute(frame);
+        Object value = argNode.execute(frame);
+        if (fastArrayProfile.profile(isUnmodifiedArrayIteration(value))) {
+            DynamicObject array = (DynamicObject) value;
+            ScriptArray arrayType = arrayTypeProfile.profile(JSArray.arrayGetArrayType(array));
+            int length = arrayType.lengthInt(array);
+            checkArgumentCount(argList.size() + (long) length);
+            argList.ensureAdditionalCapacity(length, growProfile);
+            for (int i = 0; i < length; i++) {
+                argList.addUnchecked(arrayType.getElementInBounds(array, i));
+            }
+            return;
+        }
+        iterateToList(frame, value, argList, growProfile);
+    }
+
+    private void iterateToList(VirtualFrame frame, Object value, SimpleArrayList<Object> argList, BranchProfile growProfile) {
+        IteratorRecord iteratorRecord = getIteratorNode.execute(value);
         for (;;) {
             Object nextArg = iteratorStepNode.execute(frame, iteratorRecord);
             if (nextArg == null) {
                 break;
             }
-            if (argList.size() >= context.getFunctionArgumentsLimit()) {
-                errorBranch.enter();
-                throw Errors.createRangeError("spreaded function argument count exceeds limit");
-            }
+            checkArgumentCount(argList.size() + 1L);
             argList.add(nextArg, growProfile);
         }
     }
 
+    private void checkArgumentCount(long count) {
+        if (count > context.getFunctionArgumentsLimit()) {
+            errorBranch.enter();
+            throw Errors.createRangeError("spreaded function argument count exceeds limit");
+        }
+    }
+
+    /**
+     * Spreading a fast array without holes is observably equivalent to copying its elements
+     * directly, as long as neither its @@iterator method nor %ArrayIteratorPrototype%.next have
+     * been replaced. Elements of a fast array are plain data properties, so the copy cannot run
+     * user code, and without holes the prototype chain is never consulted.
+     */
+    private boolean isUnmodifiedArrayIteration(Object value) {
+        if (!JSArray.isJSFastArray(value)) {
+            return false;
+        }
+        DynamicObject array = (DynamicObject) value;
+        if (JSArray.arrayGetArrayType(array).hasHoles(array)) {
+            return false;
+        }
+        JSRealm realm = context.getRealm();
+        return getIteratorMethodNode.getValue(array) == realm.getArrayProtoValuesIterator() &&
+                        getArrayIteratorNextNode.getValue(realm.getArrayIteratorPrototype()) == realm.getArrayIteratorPrototypeNext();
+    }
+
     @Override
     protected JavaScriptNode copyUninitialized(Set<Class<? extends Tag>> materializedTags) {
-        SpreadArgumentNode copy = (SpreadArgumentNode) copy();
-        copy.getIteratorNode = cloneUninitialized(getIteratorNode, materializedTags);
-        copy.iteratorStepNode = cloneUninitialized(iteratorStepNode, materializedTags);
-        return copy;
+        return create(context, cloneUninitialized(argNode, materializedTags));
     }
 }
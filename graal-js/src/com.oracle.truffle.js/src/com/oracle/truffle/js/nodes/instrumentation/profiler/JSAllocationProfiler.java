@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.nodes.instrumentation.profiler;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Instrument;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventBinding;
+import com.oracle.truffle.api.instrumentation.EventContext;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNode;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNodeFactory;
+import com.oracle.truffle.api.instrumentation.InstrumentInfo;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.instrumentation.TruffleInstrument;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.js.nodes.access.ArrayLiteralNode;
+import com.oracle.truffle.js.nodes.access.ObjectLiteralNode;
+import com.oracle.truffle.js.nodes.access.RegExpLiteralNode;
+import com.oracle.truffle.js.nodes.function.JSFunctionExpressionNode;
+import com.oracle.truffle.js.nodes.instrumentation.JSTags;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSFunction;
+import com.oracle.truffle.js.runtime.builtins.JSProxy;
+import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
+import com.oracle.truffle.js.runtime.util.Pair;
+
+/**
+ * Engine-wide allocation profiler attributing allocated objects to their allocation site.
+ *
+ * Allocation sites are nodes tagged with {@link JSTags.ObjectAllocationTag} ({@code new}
+ * expressions) as well as object, array, function and regular expression literals (which carry
+ * {@link JSTags.LiteralTag}). Only every n-th allocation of a site is inspected (see
+ * {@link #start(int)}), and counts are extrapolated accordingly. The default interval is sparse
+ * enough for the profiler to stay enabled in production, and recording a sample does not take a
+ * profiler-wide lock. For every site, the profiler
+ * reports the (estimated) number of allocations and bytes and the number of sampled objects still
+ * alive. Allocations of a site are further distinguished by the name of the constructor.
+ *
+ * Embedders can obtain the profiler using {@link #find(Engine)}, scripts via the
+ * {@code Graal.allocationProfiler} built-in (see {@code js.profiler-builtin}).
+ */
+public final class JSAllocationProfiler {
+
+    public static final int DEFAULT_SAMPLING_INTERVAL = 1024;
+
+    private static final int OBJECT_HEADER_SIZE = 16;
+    private static final int ARRAY_HEADER_SIZE = 16;
+    private static final int REFERENCE_SIZE = 8;
+
+    private final TruffleInstrument.Env env;
+    private final ReferenceQueue<Object> collectedObjects = new ReferenceQueue<>();
+
+    private EventBinding<?> binding;
+    private int samplingInterval = DEFAULT_SAMPLING_INTERVAL;
+    private volatile ConcurrentHashMap<Pair<SourceSection, String>, AllocationSite> sites = new ConcurrentHashMap<>();
+    /** Keeps the references to sampled objects reachable until they are enqueued. */
+    private volatile Set<SampledObjectReference> liveObjects = ConcurrentHashMap.newKeySet();
+
+    JSAllocationProfiler(TruffleInstrument.Env env) {
+        this.env = env;
+    }
+
+    /**
+     * Finds the profiler associated with the given engine.
+     */
+    public static JSAllocationProfiler find(Engine engine) {
+        Instrument instrument = engine.getInstruments().get(JSAllocationProfilerInstrument.ID);
+        if (instrument == null) {
+            throw new IllegalStateException("Allocation profiler is not installed.");
+        }
+        return instrument.lookup(JSAllocationProfiler.class);
+    }
+
+    /**
+     * Finds the profiler from within the language, or returns {@code null} if not available.
+     */
+    public static JSAllocationProfiler find(TruffleLanguage.Env env) {
+        InstrumentInfo instrument = env.getInstruments().get(JSAllocationProfilerInstrument.ID);
+        if (instrument == null) {
+            return null;
+        }
+        return env.lookup(instrument, JSAllocationProfiler.class);
+    }
+
+    /**
+     * Starts tracking allocations, inspecting every {@code interval}-th allocation of each site.
+     */
+    public synchronized void start(int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Sampling interval must be positive.");
+        }
+        if (isRunning()) {
+            return;
+        }
+        this.samplingInterval = interval;
+        SourceSectionFilter filter = SourceSectionFilter.newBuilder().tagIs(JSTags.ObjectAllocationTag.class, JSTags.LiteralTag.class).build();
+        this.binding = env.getInstrumenter().attachExecutionEventFactory(filter, new ExecutionEventNodeFactory() {
+            @Override
+            public ExecutionEventNode create(EventContext context) {
+                String literalType = null;
+                if (!context.hasTag(JSTags.ObjectAllocationTag.class)) {
+                    literalType = getLiteralType(context.getInstrumentedNode());
+                    if (literalType == null) {
+                        // primitive literal, does not allocate
+                        return null;
+                    }
+                }
+                return new AllocationEventNode(context.getInstrumentedSourceSection(), literalType, interval);
+            }
+        });
+    }
+
+    public void start() {
+        start(DEFAULT_SAMPLING_INTERVAL);
+    }
+
+    /**
+     * Stops tracking allocations. The collected data remains available.
+     */
+    public synchronized void stop() {
+        if (!isRunning()) {
+            return;
+        }
+        binding.dispose();
+        binding = null;
+    }
+
+    public synchronized boolean isRunning() {
+        return binding != null;
+    }
+
+    public synchronized int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * Discards all collected data.
+     */
+    public synchronized void clear() {
+        sites = new ConcurrentHashMap<>();
+        liveObjects = ConcurrentHashMap.newKeySet();
+        while (collectedObjects.poll() != null) {
+            // drain
+        }
+    }
+
+    private static String getLiteralType(Node node) {
+        if (node instanceof ObjectLiteralNode) {
+            return "Object";
+        } else if (node instanceof ArrayLiteralNode) {
+            return "Array";
+        } else if (node instanceof JSFunctionExpressionNode) {
+            return "Function";
+        } else if (node instanceof RegExpLiteralNode) {
+            return "RegExp";
+        }
+        return null;
+    }
+
+    @TruffleBoundary
+    void recordAllocation(SourceSection section, String literalType, int weight, Object result) {
+        if (!JSDynamicObject.isJSDynamicObject(result)) {
+            return;
+        }
+        DynamicObject obj = (DynamicObject) result;
+        String constructorName = literalType != null ? literalType : getConstructorName(obj);
+        Pair<SourceSection, String> key = new Pair<>(section, constructorName);
+        AllocationSite site = sites.computeIfAbsent(key, k -> new AllocationSite(section, constructorName));
+        site.allocations.add(weight);
+        site.bytes.add((long) weight * estimateSize(obj));
+        site.sampledLive.increment();
+        liveObjects.add(new SampledObjectReference(obj, site, collectedObjects));
+        processCollectedObjects();
+    }
+
+    private void processCollectedObjects() {
+        SampledObjectReference ref;
+        while ((ref = (SampledObjectReference) collectedObjects.poll()) != null) {
+            if (liveObjects.remove(ref)) {
+                ref.site.sampledLive.decrement();
+            }
+        }
+    }
+
+    private static String getConstructorName(DynamicObject obj) {
+        if (!JSProxy.isJSProxy(obj)) {
+            DynamicObject proto = JSObject.getPrototype(obj);
+            if (proto != Null.instance && !JSProxy.isJSProxy(proto)) {
+                PropertyDescriptor desc = JSObject.getOwnProperty(proto, JSObject.CONSTRUCTOR);
+                if (desc != null && desc.isDataDescriptor() && JSFunction.isJSFunction(desc.getValue())) {
+                    String name = JSFunction.getName((DynamicObject) desc.getValue());
+                    if (!name.isEmpty()) {
+                        return name;
+                    }
+                }
+            }
+        }
+        return JSObject.getClassName(obj);
+    }
+
+    /**
+     * Shallow size estimate of a JS object: object header, one slot per property and the array
+     * backing store, if any.
+     */
+    private static long estimateSize(DynamicObject obj) {
+        long size = OBJECT_HEADER_SIZE + (long) obj.getShape().getPropertyCount() * REFERENCE_SIZE;
+        if (JSArray.isJSArray(obj)) {
+            Object storage = JSAbstractArray.arrayGetArray(obj);
+            if (storage instanceof int[]) {
+                size += ARRAY_HEADER_SIZE + 4L * ((int[]) storage).length;
+            } else if (storage instanceof double[]) {
+                size += ARRAY_HEADER_SIZE + 8L * ((double[]) storage).length;
+            } else if (storage instanceof byte[]) {
+                size += ARRAY_HEADER_SIZE + ((byte[]) storage).length;
+            } else if (storage instanceof Object[]) {
+                size += ARRAY_HEADER_SIZE + (long) REFERENCE_SIZE * ((Object[]) storage).length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns all allocation sites, ordered by descending estimated bytes.
+     */
+    public List<AllocationSite> getAllocationSites() {
+        processCollectedObjects();
+        List<AllocationSite> result = new ArrayList<>(sites.size());
+        for (AllocationSite site : sites.values()) {
+            result.add(site.copy());
+        }
+        Collections.sort(result, (a, b) -> Long.compare(b.getEstimatedBytes(), a.getEstimatedBytes()));
+        return result;
+    }
+
+    /**
+     * Returns all allocation sites as a JSON array.
+     */
+    public String toJSON() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        boolean first = true;
+        for (AllocationSite site : getAllocationSites()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"constructor\":").append(JSRuntime.quote(site.getConstructorName()));
+            SourceSection section = site.getSourceSection();
+            if (section != null && section.isAvailable()) {
+                sb.append(",\"source\":").append(JSRuntime.quote(section.getSource().getName()));
+                sb.append(",\"line\":").append(section.getStartLine());
+                sb.append(",\"column\":").append(section.getStartColumn());
+            }
+            sb.append(",\"allocations\":").append(site.getEstimatedAllocations());
+            sb.append(",\"bytes\":").append(site.getEstimatedBytes());
+            sb.append(",\"live\":").append(site.getSampledLive());
+            sb.append('}');
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+    private final class AllocationEventNode extends ExecutionEventNode {
+        private final SourceSection sourceSection;
+        private final String literalType;
+        private final int interval;
+        private int countdown;
+
+        AllocationEventNode(SourceSection sourceSection, String literalType, int interval) {
+            this.sourceSection = sourceSection;
+            this.literalType = literalType;
+            this.interval = interval;
+            this.countdown = 1;
+        }
+
+        @Override
+        protected void onReturnValue(VirtualFrame frame, Object result) {
+            if (--countdown <= 0) {
+                countdown = interval;
+                recordAllocation(sourceSection, literalType, interval, result);
+            }
+        }
+    }
+
+    private static final class SampledObjectReference extends WeakReference<Object> {
+        final AllocationSite site;
+
+        SampledObjectReference(Object referent, AllocationSite site, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.site = site;
+        }
+    }
+
+    /**
+     * Allocation statistics of a single site and constructor.
+     */
+    public static final class AllocationSite {
+        private final SourceSection sourceSection;
+        private final String constructorName;
+        final LongAdder allocations = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder sampledLive = new LongAdder();
+
+        AllocationSite(SourceSection sourceSection, String constructorName) {
+            this.sourceSection = sourceSection;
+            this.constructorName = constructorName;
+        }
+
+        AllocationSite copy() {
+            AllocationSite copy = new AllocationSite(sourceSection, constructorName);
+            copy.allocations.add(allocations.sum());
+            copy.bytes.add(bytes.sum());
+            copy.sampledLive.add(sampledLive.sum());
+            return copy;
+        }
+
+        public SourceSection getSourceSection() {
+            return sourceSection;
+        }
+
+        public String getConstructorName() {
+            return constructorName;
+        }
+
+        /**
+         * Number of allocations, extrapolated from the sampled allocations.
+         */
+        public long getEstimatedAllocations() {
+            return allocations.sum();
+        }
+
+        /**
+         * Shallow size of the allocated objects in bytes, extrapolated from the sampled allocations.
+         */
+        public long getEstimatedBytes() {
+            return bytes.sum();
+        }
+
+        /**
+         * Number of sampled objects that have not been garbage collected yet.
+         */
+        public long getSampledLive() {
+            return sampledLive.sum();
+        }
+
+        @Override
+        public String toString() {
+            return constructorName + " at " + sourceSection + ": " + getEstimatedAllocations() + " allocations, " + getEstimatedBytes() + " bytes, " + getSampledLive() + " live";
+        }
+    }
+}
@@ -0,0 +1,633 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.nodes.instrumentation.profiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Instrument;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventBinding;
+import com.oracle.truffle.api.instrumentation.EventContext;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNode;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNodeFactory;
+import com.oracle.truffle.api.instrumentation.InstrumentInfo;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.instrumentation.TruffleInstrument;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
+import com.oracle.truffle.js.nodes.instrumentation.JSTags;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.builtins.JSFunction;
+
+/**
+ * Engine-wide, low-overhead sampling profiler.
+ *
+ * While running, every JavaScript function and built-in root ({@link StandardTags.RootTag},
+ * {@link JSTags.BuiltinRootTag}) maintains a per-thread shadow stack. A timer thread periodically
+ * takes a snapshot of all shadow stacks and aggregates them into a call tree. Built-ins are
+ * attributed separately from the JavaScript functions calling them. When stopped, the
+ * instrumentation is removed and no longer incurs any overhead.
+ *
+ * The collected profile can be exported in the collapsed stack format (as consumed by flame graph
+ * tools) or in the Chrome {@code .cpuprofile} format.
+ *
+ * Embedders can obtain the profiler using {@link #find(Engine)}, scripts via the
+ * {@code Graal.profiler} built-in (see {@code js.profiler-builtin}).
+ */
+public final class JSSamplingProfiler {
+
+    public static final long DEFAULT_PERIOD_MILLIS = 10;
+    private static final int MAX_RECORDED_SAMPLES = 1 << 20;
+    private static final String ANONYMOUS_FUNCTION_NAME = "(anonymous)";
+
+    public enum Format {
+        COLLAPSED("collapsed"),
+        CPUPROFILE("cpuprofile");
+
+        private final String name;
+
+        Format(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static Format fromName(String name) {
+            for (Format format : values()) {
+                if (format.name.equals(name)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final TruffleInstrument.Env env;
+    private final List<ShadowStack> shadowStacks = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ShadowStack> currentShadowStack = ThreadLocal.withInitial(this::createShadowStack);
+
+    private EventBinding<?> binding;
+    private Timer samplerThread;
+    private long period = DEFAULT_PERIOD_MILLIS;
+
+    private CallTreeNode callTreeRoot;
+    private Map<FrameInfo, long[]> functionSamples;
+    private int nextNodeId;
+    private int[] sampleNodeIds;
+    private long[] sampleTimestamps;
+    private int sampleCount;
+    private long totalSamples;
+    private long startTime;
+    private long endTime;
+
+    JSSamplingProfiler(TruffleInstrument.Env env) {
+        this.env = env;
+        clear();
+    }
+
+    /**
+     * Finds the profiler associated with the given engine.
+     */
+    public static JSSamplingProfiler find(Engine engine) {
+        Instrument instrument = engine.getInstruments().get(JSSamplingProfilerInstrument.ID);
+        if (instrument == null) {
+            throw new IllegalStateException("Sampling profiler is not installed.");
+        }
+        return instrument.lookup(JSSamplingProfiler.class);
+    }
+
+    /**
+     * Finds the profiler from within the language, or returns {@code null} if not available.
+     */
+    public static JSSamplingProfiler find(TruffleLanguage.Env env) {
+        InstrumentInfo instrument = env.getInstruments().get(JSSamplingProfilerInstrument.ID);
+        if (instrument == null) {
+            return null;
+        }
+        return env.lookup(instrument, JSSamplingProfiler.class);
+    }
+
+    /**
+     * Starts sampling with the given period. Samples collected by a previous run are kept, use
+     * {@link #clear()} to discard them.
+     */
+    public synchronized void start(long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Sampling period must be positive.");
+        }
+        if (isRunning()) {
+            return;
+        }
+        this.period = periodMillis;
+        for (ShadowStack stack : shadowStacks) {
+            stack.reset();
+        }
+        SourceSectionFilter filter = SourceSectionFilter.newBuilder().tagIs(StandardTags.RootTag.class, JSTags.BuiltinRootTag.class).includeInternal(true).build();
+        this.binding = env.getInstrumenter().attachExecutionEventFactory(filter, new ExecutionEventNodeFactory() {
+            @Override
+            public ExecutionEventNode create(EventContext context) {
+                return new ShadowStackNode(createFrameInfo(context));
+            }
+        });
+        if (startTime == 0) {
+            startTime = System.nanoTime();
+        }
+        this.samplerThread = new Timer("js-sampling-profiler", true);
+        samplerThread.scheduleAtFixedRate(new TimerTask() {
+            @Override
+            public void run() {
+                takeSample();
+            }
+        }, periodMillis, periodMillis);
+    }
+
+    public void start() {
+        start(DEFAULT_PERIOD_MILLIS);
+    }
+
+    /**
+     * Stops sampling and removes the instrumentation. The collected profile remains available.
+     */
+    public synchronized void stop() {
+        if (!isRunning()) {
+            return;
+        }
+        samplerThread.cancel();
+        samplerThread = null;
+        binding.dispose();
+        binding = null;
+        endTime = System.nanoTime();
+    }
+
+    public synchronized boolean isRunning() {
+        return binding != null;
+    }
+
+    public synchronized long getPeriod() {
+        return period;
+    }
+
+    public synchronized long getSampleCount() {
+        return totalSamples;
+    }
+
+    /**
+     * Discards all collected samples.
+     */
+    public synchronized void clear() {
+        callTreeRoot = new CallTreeNode(1, null);
+        nextNodeId = 2;
+        functionSamples = new LinkedHashMap<>();
+        sampleNodeIds = new int[64];
+        sampleTimestamps = new long[64];
+        sampleCount = 0;
+        totalSamples = 0;
+        startTime = isRunning() ? System.nanoTime() : 0;
+        endTime = 0;
+    }
+
+    private ShadowStack createShadowStack() {
+        ShadowStack stack = new ShadowStack(Thread.currentThread());
+        shadowStacks.add(stack);
+        return stack;
+    }
+
+    @TruffleBoundary
+    void enter(FrameInfo frameInfo) {
+        currentShadowStack.get().push(frameInfo);
+    }
+
+    @TruffleBoundary
+    void exit() {
+        currentShadowStack.get().pop();
+    }
+
+    synchronized void takeSample() {
+        if (!isRunning()) {
+            return;
+        }
+        long timestamp = System.nanoTime();
+        for (ShadowStack stack : shadowStacks) {
+            if (!stack.thread.isAlive()) {
+                shadowStacks.remove(stack);
+                continue;
+            }
+            FrameInfo[] frames = stack.snapshot();
+            if (frames.length > 0) {
+                recordSample(frames, timestamp);
+            }
+        }
+    }
+
+    private void recordSample(FrameInfo[] frames, long timestamp) {
+        CallTreeNode node = callTreeRoot;
+        Set<FrameInfo> seen = new HashSet<>();
+        for (FrameInfo frame : frames) {
+            CallTreeNode child = node.children.get(frame);
+            if (child == null) {
+                child = new CallTreeNode(nextNodeId++, frame);
+                node.children.put(frame, child);
+            }
+            node = child;
+            if (seen.add(frame)) {
+                getFunctionSamples(frame)[1]++;
+            }
+        }
+        node.hitCount++;
+        getFunctionSamples(node.frame)[0]++;
+        totalSamples++;
+
+        if (sampleCount < MAX_RECORDED_SAMPLES) {
+            if (sampleCount == sampleNodeIds.length) {
+                sampleNodeIds = Arrays.copyOf(sampleNodeIds, sampleCount * 2);
+                sampleTimestamps = Arrays.copyOf(sampleTimestamps, sampleCount * 2);
+            }
+            sampleNodeIds[sampleCount] = node.id;
+            sampleTimestamps[sampleCount] = timestamp;
+            sampleCount++;
+        }
+    }
+
+    private long[] getFunctionSamples(FrameInfo frame) {
+        long[] samples = functionSamples.get(frame);
+        if (samples == null) {
+            samples = new long[2];
+            functionSamples.put(frame, samples);
+        }
+        return samples;
+    }
+
+    /**
+     * Returns the self and total time of all sampled functions, ordered by descending self time.
+     */
+    public synchronized List<FunctionStatistics> getFunctionStatistics() {
+        List<FunctionStatistics> result = new ArrayList<>(functionSamples.size());
+        for (Map.Entry<FrameInfo, long[]> entry : functionSamples.entrySet()) {
+            long[] samples = entry.getValue();
+            result.add(new FunctionStatistics(entry.getKey(), samples[0], samples[1], period));
+        }
+        Collections.sort(result, (a, b) -> Long.compare(b.getSelfSamples(), a.getSelfSamples()));
+        return result;
+    }
+
+    public synchronized String getProfile(Format format) {
+        switch (format) {
+            case COLLAPSED:
+                return getCollapsedStacks();
+            case CPUPROFILE:
+                return getCpuProfile();
+            default:
+                throw new IllegalArgumentException(String.valueOf(format));
+        }
+    }
+
+    /**
+     * Returns the profile in the collapsed stack format, one line per distinct stack:
+     * {@code frame1;frame2;...;frameN count}.
+     */
+    public synchronized String getCollapsedStacks() {
+        StringBuilder sb = new StringBuilder();
+        for (CallTreeNode child : callTreeRoot.children.values()) {
+            appendCollapsedStacks(sb, child, "");
+        }
+        return sb.toString();
+    }
+
+    private static void appendCollapsedStacks(StringBuilder sb, CallTreeNode node, String prefix) {
+        String path = prefix.isEmpty() ? node.frame.getDisplayName().replace(';', ':') : prefix + ';' + node.frame.getDisplayName().replace(';', ':');
+        if (node.hitCount > 0) {
+            sb.append(path).append(' ').append(node.hitCount).append('\n');
+        }
+        for (CallTreeNode child : node.children.values()) {
+            appendCollapsedStacks(sb, child, path);
+        }
+    }
+
+    /**
+     * Returns the profile in the Chrome DevTools {@code .cpuprofile} (JSON) format.
+     */
+    public synchronized String getCpuProfile() {
+        Map<Source, Integer> scriptIds = new HashMap<>();
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"nodes\":[");
+        appendCpuProfileNode(sb, callTreeRoot, scriptIds);
+        sb.append("],\"startTime\":").append(startTime / 1000);
+        sb.append(",\"endTime\":").append((isRunning() || endTime == 0 ? System.nanoTime() : endTime) / 1000);
+        sb.append(",\"samples\":[");
+        for (int i = 0; i < sampleCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(sampleNodeIds[i]);
+        }
+        sb.append("],\"timeDeltas\":[");
+        long previous = startTime;
+        for (int i = 0; i < sampleCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append((sampleTimestamps[i] - previous) / 1000);
+            previous = sampleTimestamps[i];
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+
+    private static void appendCpuProfileNode(StringBuilder sb, CallTreeNode node, Map<Source, Integer> scriptIds) {
+        FrameInfo frame = node.frame;
+        String functionName = "(root)";
+        String url = "";
+        int scriptId = 0;
+        int line = -1;
+        int column = -1;
+        if (frame != null) {
+            functionName = frame.getName();
+            if (frame.isBuiltin()) {
+                url = JSFunction.BUILTIN_SOURCE_NAME;
+            } else if (frame.sourceSection != null) {
+                Source source = frame.sourceSection.getSource();
+                url = source.getPath() != null ? source.getPath() : source.getName();
+                Integer id = scriptIds.get(source);
+                if (id == null) {
+                    id = scriptIds.size() + 1;
+                    scriptIds.put(source, id);
+                }
+                scriptId = id;
+                if (frame.sourceSection.isAvailable()) {
+                    line = frame.sourceSection.getStartLine() - 1;
+                    column = frame.sourceSection.getStartColumn() - 1;
+                }
+            }
+        }
+        sb.append("{\"id\":").append(node.id);
+        sb.append(",\"callFrame\":{\"functionName\":").append(JSRuntime.quote(functionName));
+        sb.append(",\"scriptId\":\"").append(scriptId).append('"');
+        sb.append(",\"url\":").append(JSRuntime.quote(url));
+        sb.append(",\"lineNumber\":").append(line);
+        sb.append(",\"columnNumber\":").append(column).append('}');
+        sb.append(",\"hitCount\":").append(node.hitCount);
+        sb.append(",\"children\":[");
+        boolean first = true;
+        for (CallTreeNode child : node.children.values()) {
+            if (!first) {
+                sb.append(',');
+            }
+            sb.append(child.id);
+            first = false;
+        }
+        sb.append("]}");
+        for (CallTreeNode child : node.children.values()) {
+            sb.append(',');
+            appendCpuProfileNode(sb, child, scriptIds);
+        }
+    }
+
+    private static FrameInfo createFrameInfo(EventContext context) {
+        Node node = context.getInstrumentedNode();
+        if (context.hasTag(JSTags.BuiltinRootTag.class)) {
+            String name = node instanceof JSBuiltinNode ? ((JSBuiltinNode) node).getBuiltin().getFullName() : node.getRootNode().getName();
+            return new FrameInfo(name, null, true);
+        }
+        RootNode rootNode = node.getRootNode();
+        String name = rootNode == null ? null : rootNode.getName();
+        return new FrameInfo(name == null || name.isEmpty() ? ANONYMOUS_FUNCTION_NAME : name, context.getInstrumentedSourceSection(), false);
+    }
+
+    private final class ShadowStackNode extends ExecutionEventNode {
+        private final FrameInfo frameInfo;
+
+        ShadowStackNode(FrameInfo frameInfo) {
+            this.frameInfo = frameInfo;
+        }
+
+        @Override
+        protected void onEnter(VirtualFrame frame) {
+            enter(frameInfo);
+        }
+
+        @Override
+        protected void onReturnValue(VirtualFrame frame, Object result) {
+            exit();
+        }
+
+        @Override
+        protected void onReturnExceptional(VirtualFrame frame, Throwable exception) {
+            exit();
+        }
+    }
+
+    /**
+     * Per-thread stack of active functions. Only modified by the owning thread; the sampler thread
+     * reads it racily, which may occasionally produce a slightly inaccurate sample.
+     */
+    private static final class ShadowStack {
+        final Thread thread;
+        private FrameInfo[] frames = new FrameInfo[32];
+        private int depth;
+
+        ShadowStack(Thread thread) {
+            this.thread = thread;
+        }
+
+        void push(FrameInfo frame) {
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+            }
+            frames[depth++] = frame;
+        }
+
+        void pop() {
+            if (depth > 0) {
+                frames[--depth] = null;
+            }
+        }
+
+        void reset() {
+            Arrays.fill(frames, null);
+            depth = 0;
+        }
+
+        FrameInfo[] snapshot() {
+            FrameInfo[] current = frames;
+            int length = Math.min(depth, current.length);
+            FrameInfo[] copy = new FrameInfo[length];
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                FrameInfo frame = current[i];
+                if (frame != null) {
+                    copy[count++] = frame;
+                }
+            }
+            return count == length ? copy : Arrays.copyOf(copy, count);
+        }
+    }
+
+    private static final class CallTreeNode {
+        final int id;
+        final FrameInfo frame;
+        final Map<FrameInfo, CallTreeNode> children = new LinkedHashMap<>();
+        long hitCount;
+
+        CallTreeNode(int id, FrameInfo frame) {
+            this.id = id;
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * Identifies a sampled function: a JavaScript function (by name and source section) or a
+     * built-in (by name).
+     */
+    public static final class FrameInfo {
+        private final String name;
+        private final SourceSection sourceSection;
+        private final boolean builtin;
+
+        FrameInfo(String name, SourceSection sourceSection, boolean builtin) {
+            this.name = name;
+            this.sourceSection = sourceSection;
+            this.builtin = builtin;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public SourceSection getSourceSection() {
+            return sourceSection;
+        }
+
+        public boolean isBuiltin() {
+            return builtin;
+        }
+
+        public String getDisplayName() {
+            if (builtin) {
+                return name + " [builtin]";
+            } else if (sourceSection != null && sourceSection.isAvailable()) {
+                return name + " (" + sourceSection.getSource().getName() + ":" + sourceSection.getStartLine() + ")";
+            } else {
+                return name;
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FrameInfo)) {
+                return false;
+            }
+            FrameInfo other = (FrameInfo) obj;
+            return builtin == other.builtin && name.equals(other.name) && Objects.equals(sourceSection, other.sourceSection);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, sourceSection, builtin);
+        }
+
+        @Override
+        public String toString() {
+            return getDisplayName();
+        }
+    }
+
+    /**
+     * Self and total samples (and the estimated time) spent in a function.
+     */
+    public static final class FunctionStatistics {
+        private final FrameInfo function;
+        private final long selfSamples;
+        private final long totalSamples;
+        private final long period;
+
+        FunctionStatistics(FrameInfo function, long selfSamples, long totalSamples, long period) {
+            this.function = function;
+            this.selfSamples = selfSamples;
+            this.totalSamples = totalSamples;
+            this.period = period;
+        }
+
+        public FrameInfo getFunction() {
+            return function;
+        }
+
+        public long getSelfSamples() {
+            return selfSamples;
+        }
+
+        public long getTotalSamples() {
+            return totalSamples;
+        }
+
+        public long getSelfTimeMillis() {
+            return selfSamples * period;
+        }
+
+        public long getTotalTimeMillis() {
+            return totalSamples * period;
+        }
+    }
+}
@@ -53,10 +53,12 @@ public interface AsyncRootNode {
     int GENERATOR_OBJECT_OR_PROMISE_CAPABILITY_INDEX = 1;
     int ASYNC_FRAME_INDEX = 2;
     int STACK_TRACE_INDEX = 3;
+    int AWAIT_FULFILLED_INDEX = 4;
+    int AWAIT_REJECTED_INDEX = 5;
 
     DynamicObject getAsyncFunctionPromise(Frame asyncFrame);
 
     static Object[] createAsyncContext(CallTarget resumeTarget, Object generatorObjectOrPromiseCapability, MaterializedFrame asyncFrame) {
-        return new Object[]{resumeTarget, generatorObjectOrPromiseCapability, asyncFrame, null};
+        return new Object[]{resumeTarget, generatorObjectOrPromiseCapability, asyncFrame, null, null, null};
     }
 }
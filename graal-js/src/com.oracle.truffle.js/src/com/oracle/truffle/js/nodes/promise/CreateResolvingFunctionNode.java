@@ -49,6 +49,7 @@ import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.HiddenKey;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.ValueProfile;
+import com.oracle.truffle.js.nodes.JSGuards;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.nodes.JavaScriptNode;
 import com.oracle.truffle.js.nodes.access.IsObjectNode;
@@ -65,6 +66,7 @@ import com.oracle.truffle.js.runtime.PromiseHook;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSPromise;
+import com.oracle.truffle.js.runtime.interop.CompletionStageInterop;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.Pair;
@@ -160,7 +162,12 @@ public class CreateResolvingFunctionNode extends JavaScriptBaseNode {
                     }
                 }
                 if (!isCallableNode.executeBoolean(then)) {
-                    return fulfillPromise(promise, resolution);
+                    if (context.getContextOptions().interopCompletionStage() && JSGuards.isForeignObject(resolution) &&
+                                    CompletionStageInterop.isCompletionStage(context.getRealm(), resolution)) {
+                        then = CompletionStageInterop.getThenFunction(context, context.getRealm());
+                    } else {
+                        return fulfillPromise(promise, resolution);
+                    }
                 }
                 DynamicObject job = promiseResolveThenableJob(promise, resolution, then);
                 context.promiseEnqueueJob(context.getRealm(), job);
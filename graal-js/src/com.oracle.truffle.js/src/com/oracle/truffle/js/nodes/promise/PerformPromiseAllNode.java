@@ -41,6 +41,7 @@
 package com.oracle.truffle.js.nodes.promise;
 
 import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleStackTraceElement;
@@ -48,6 +49,7 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.HiddenKey;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.JavaScriptNode;
@@ -56,6 +58,7 @@ import com.oracle.truffle.js.nodes.access.PropertySetNode;
 import com.oracle.truffle.js.nodes.arguments.AccessIndexedArgumentNode;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
+import com.oracle.truffle.js.nodes.unary.IsConstructorNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSContext;
@@ -63,13 +66,18 @@ import com.oracle.truffle.js.runtime.JSFrameUtil;
 import com.oracle.truffle.js.runtime.JSRealm;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.JavaScriptRootNode;
+import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSPromise;
 import com.oracle.truffle.js.runtime.objects.IteratorRecord;
+import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
+import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 
@@ -81,13 +89,20 @@ public class PerformPromiseAllNode extends PerformPromiseCombinatorNode {
         boolean alreadyCalled;
         final SimpleArrayList<Object> values;
         final BoxedInt remainingElements;
+        /** Whether this element belongs to Promise.allSettled (used by internal reactions). */
+        final boolean settled;
 
         ResolveElementArgs(int index, SimpleArrayList<Object> values, PromiseCapabilityRecord capability, BoxedInt remainingElements) {
+            this(index, values, capability, remainingElements, false);
+        }
+
+        ResolveElementArgs(int index, SimpleArrayList<Object> values, PromiseCapabilityRecord capability, BoxedInt remainingElements, boolean settled) {
             this.alreadyCalled = false;
             this.index = index;
             this.values = values;
             this.capability = capability;
             this.remainingElements = remainingElements;
+            this.settled = settled;
         }
     }
 
@@ -97,7 +112,15 @@ public class PerformPromiseAllNode extends PerformPromiseCombinatorNode {
     @Child protected PropertyGetNode getThen;
     @Child protected JSFunctionCallNode callThen;
     @Child protected PropertySetNode setArgs;
+    @Child private PerformPromiseThenNode performPromiseThen;
+    @Child private NewPromiseCapabilityNode newPromiseCapability;
+    @Child private PropertyGetNode getConstructor;
+    @Child private PropertyGetNode getSpecies;
+    @Child private IsConstructorNode isConstructor;
     private final BranchProfile growProfile = BranchProfile.create();
+    private final ConditionProfile intrinsicThenProf = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile speciesProf = ConditionProfile.createBinaryProfile();
+    private final BranchProfile errorBranch = BranchProfile.create();
 
     protected PerformPromiseAllNode(JSContext context) {
         super(context);
@@ -131,11 +154,99 @@ public class PerformPromiseAllNode extends PerformPromiseCombinatorNode {
             Object nextValue = iteratorValueOrSetDone(iteratorRecord, next);
             values.add(Undefined.instance, growProfile);
             Object nextPromise = callResolve.executeCall(JSArguments.createOneArg(constructor, promiseResolve, nextValue));
+            Object then = getThen.getValue(nextPromise);
+            if (intrinsicThenProf.profile(isIntrinsicThen(constructor, nextPromise, then))) {
+                remainingElementsCount.value++;
+                performIntrinsicThen((DynamicObject) nextPromise, index, values, resultCapability, remainingElementsCount);
+                continue;
+            }
             DynamicObject resolveElement = createResolveElementFunction(index, values, resultCapability, remainingElementsCount);
             Object rejectElement = createRejectElementFunction(index, values, resultCapability, remainingElementsCount);
             remainingElementsCount.value++;
-            callThen.executeCall(JSArguments.create(nextPromise, getThen.getValue(nextPromise), resolveElement, rejectElement));
+            callThen.executeCall(JSArguments.create(nextPromise, then, resolveElement, rejectElement));
+        }
+    }
+
+    /**
+     * Whether {@code then} is the unmodified %Promise.prototype.then% called on a native promise,
+     * so that the element reactions can be linked to the promise directly. The derived promise
+     * created by {@code then} is not observable when its constructor is %Promise%, unless it is
+     * reported to a promise hook or used for async stack traces.
+     */
+    private boolean isIntrinsicThen(DynamicObject constructor, Object nextPromise, Object then) {
+        JSRealm realm = context.getRealm();
+        return constructor == realm.getPromiseConstructor() && then == realm.getPromisePrototypeThen() && JSPromise.isJSPromise(nextPromise) &&
+                        context.getPromiseHookNotUsedAssumption().isValid() && !context.isOptionAsyncStackTraces();
+    }
+
+    /**
+     * Equivalent of calling %Promise.prototype.then%(resolveElement, rejectElement) on a native
+     * promise. Instead of creating element functions and a derived promise, the element record is
+     * installed as an internal reaction handler that {@link PromiseReactionJobNode} executes
+     * directly. All elements share the values list and the remaining elements counter.
+     */
+    private void performIntrinsicThen(DynamicObject promise, int index, SimpleArrayList<Object> values, PromiseCapabilityRecord resultCapability, BoxedInt remainingElementsCount) {
+        DynamicObject thenConstructor = speciesConstructor(promise);
+        if (speciesProf.profile(thenConstructor == context.getRealm().getPromiseConstructor())) {
+            ResolveElementArgs args = new ResolveElementArgs(index, values, resultCapability, remainingElementsCount, isSettled());
+            Object rejectHandler = isSettled() ? args : resultCapability.getReject();
+            getPerformPromiseThen().execute(promise, PromiseReactionRecord.create(null, args, true), PromiseReactionRecord.create(null, rejectHandler, false));
+        } else {
+            DynamicObject resolveElement = createResolveElementFunction(index, values, resultCapability, remainingElementsCount);
+            Object rejectElement = createRejectElementFunction(index, values, resultCapability, remainingElementsCount);
+            PromiseCapabilityRecord thenCapability = getNewPromiseCapability().execute(thenConstructor);
+            getPerformPromiseThen().execute(promise, resolveElement, rejectElement, thenCapability);
+        }
+    }
+
+    protected boolean isSettled() {
+        return false;
+    }
+
+    /**
+     * SpeciesConstructor(promise, %Promise%), as performed by %Promise.prototype.then%.
+     */
+    private DynamicObject speciesConstructor(DynamicObject promise) {
+        DynamicObject defaultConstructor = context.getRealm().getPromiseConstructor();
+        if (getConstructor == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            getConstructor = insert(PropertyGetNode.create(JSObject.CONSTRUCTOR, false, context));
+            getSpecies = insert(PropertyGetNode.create(Symbol.SYMBOL_SPECIES, false, context));
+            isConstructor = insert(IsConstructorNode.create());
+        }
+        Object c = getConstructor.getValue(promise);
+        if (c == Undefined.instance) {
+            return defaultConstructor;
+        }
+        if (!JSDynamicObject.isJSDynamicObject(c)) {
+            errorBranch.enter();
+            throw Errors.createTypeErrorNotAnObject(c);
+        }
+        Object species = getSpecies.getValue(c);
+        if (species == Undefined.instance || species == Null.instance) {
+            return defaultConstructor;
+        }
+        if (!isConstructor.executeBoolean(species)) {
+            errorBranch.enter();
+            throw Errors.createTypeErrorNotAConstructor(species, context);
+        }
+        return (DynamicObject) species;
+    }
+
+    private PerformPromiseThenNode getPerformPromiseThen() {
+        if (performPromiseThen == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            performPromiseThen = insert(PerformPromiseThenNode.create(context));
+        }
+        return performPromiseThen;
+    }
+
+    private NewPromiseCapabilityNode getNewPromiseCapability() {
+        if (newPromiseCapability == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            newPromiseCapability = insert(NewPromiseCapabilityNode.create(context));
         }
+        return newPromiseCapability;
     }
 
     protected DynamicObject createResolveElementFunction(int index, SimpleArrayList<Object> values, PromiseCapabilityRecord resultCapability, BoxedInt remainingElementsCount) {
@@ -71,6 +71,11 @@ public class PerformPromiseAllSettledNode extends PerformPromiseAllNode {
         return new PerformPromiseAllSettledNode(context);
     }
 
+    @Override
+    protected boolean isSettled() {
+        return true;
+    }
+
     @Override
     protected DynamicObject createResolveElementFunction(int index, SimpleArrayList<Object> values, PromiseCapabilityRecord resultCapability, BoxedInt remainingElementsCount) {
         JSFunctionData functionData = context.getOrCreateBuiltinFunctionData(JSContext.BuiltinFunctionKey.PromiseAllSettledResolveElement, (c) -> createResolveElementFunctionImpl(c));
@@ -83,7 +83,6 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
         return new PerformPromiseThenNode(context);
     }
 
-    @SuppressWarnings("unchecked")
     public DynamicObject execute(DynamicObject promise, Object onFulfilled, Object onRejected, PromiseCapabilityRecord resultCapability) {
         assert JSPromise.isJSPromise(promise);
         Object onFulfilledHandler = isCallableFulfillNode.executeBoolean(onFulfilled) ? onFulfilled : Undefined.instance;
@@ -91,7 +90,22 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
         assert resultCapability != null || (onFulfilledHandler != Undefined.instance && onRejectedHandler != Undefined.instance);
         PromiseReactionRecord fulfillReaction = PromiseReactionRecord.create(resultCapability, onFulfilledHandler, true);
         PromiseReactionRecord rejectReaction = PromiseReactionRecord.create(resultCapability, onRejectedHandler, false);
+        execute(promise, fulfillReaction, rejectReaction);
+        if (resultCapability == null) {
+            return Undefined.instance;
+        }
+        return resultCapability.getPromise();
+    }
 
+    /**
+     * PerformPromiseThen with already created reaction records. Reactions without a capability are
+     * immutable and can be shared between several calls (e.g., by all awaits of an async function
+     * activation). The handlers of the reactions are expected to be callable or undefined, or be
+     * one of the internal handlers understood by {@link PromiseReactionJobNode}.
+     */
+    @SuppressWarnings("unchecked")
+    public void execute(DynamicObject promise, PromiseReactionRecord fulfillReaction, PromiseReactionRecord rejectReaction) {
+        assert JSPromise.isJSPromise(promise);
         int promiseState = JSPromise.getPromiseState(promise);
         if (pendingProf.profile(promiseState == JSPromise.PENDING)) {
             ((SimpleArrayList<? super PromiseReactionRecord>) getPromiseFulfillReactionsNode.getValue(promise)).add(fulfillReaction, growProfile);
@@ -110,10 +124,6 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
             context.promiseEnqueueJob(context.getRealm(), job);
         }
         setPromiseIsHandledNode.setValueBoolean(promise, true);
-        if (resultCapability == null) {
-            return Undefined.instance;
-        }
-        return resultCapability.getPromise();
     }
 
     private DynamicObject getPromiseReactionJob(PromiseReactionRecord reaction, Object value) {
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.nodes.promise;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
+import com.oracle.truffle.js.nodes.access.CreateDataPropertyNode;
+import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
+import com.oracle.truffle.js.nodes.promise.PerformPromiseAllNode.ResolveElementArgs;
+import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Promise.all and Promise.allSettled resolve/reject element steps, executed directly as an
+ * internal promise reaction handler (see {@link PerformPromiseAllNode}).
+ */
+public class PromiseAllElementReactionNode extends JavaScriptBaseNode {
+    private final JSContext context;
+    @Child private JSFunctionCallNode callResolve;
+    @Child private CreateDataPropertyNode createStatusPropertyNode;
+    @Child private CreateDataPropertyNode createValuePropertyNode;
+    @Child private CreateDataPropertyNode createReasonPropertyNode;
+    private final ConditionProfile settledProf = ConditionProfile.createBinaryProfile();
+
+    protected PromiseAllElementReactionNode(JSContext context) {
+        this.context = context;
+        this.callResolve = JSFunctionCallNode.createCall();
+    }
+
+    public static PromiseAllElementReactionNode create(JSContext context) {
+        return new PromiseAllElementReactionNode(context);
+    }
+
+    public Object execute(ResolveElementArgs args, Object argument, boolean fulfill) {
+        if (args.alreadyCalled) {
+            return Undefined.instance;
+        }
+        args.alreadyCalled = true;
+        Object value;
+        if (settledProf.profile(args.settled)) {
+            value = createSettledResult(argument, fulfill);
+        } else {
+            assert fulfill;
+            value = argument;
+        }
+        args.values.set(args.index, value);
+        args.remainingElements.value--;
+        if (args.remainingElements.value == 0) {
+            DynamicObject valuesArray = JSArray.createConstantObjectArray(context, args.values.toArray());
+            return callResolve.executeCall(JSArguments.createOneArg(Undefined.instance, args.capability.getResolve(), valuesArray));
+        }
+        return Undefined.instance;
+    }
+
+    private DynamicObject createSettledResult(Object argument, boolean fulfill) {
+        if (createStatusPropertyNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            createStatusPropertyNode = insert(CreateDataPropertyNode.create(context, "status"));
+            createValuePropertyNode = insert(CreateDataPropertyNode.create(context, "value"));
+            createReasonPropertyNode = insert(CreateDataPropertyNode.create(context, "reason"));
+        }
+        DynamicObject obj = JSOrdinary.create(context);
+        if (fulfill) {
+            createStatusPropertyNode.executeVoid(obj, "fulfilled");
+            createValuePropertyNode.executeVoid(obj, argument);
+        } else {
+            createStatusPropertyNode.executeVoid(obj, "rejected");
+            createReasonPropertyNode.executeVoid(obj, argument);
+        }
+        return obj;
+    }
+}
@@ -115,7 +115,9 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
         @Child private JSFunctionCallNode callRejectNode;
         @Child private JSFunctionCallNode callHandlerNode;
         @Child private TryCatchNode.GetErrorObjectNode getErrorObjectNode;
+        @Child private PromiseAllElementReactionNode promiseAllElementNode;
         private final ConditionProfile handlerProf = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile internalHandlerProf = ConditionProfile.createBinaryProfile();
         private final ValueProfile typeProfile = ValueProfile.createClassProfile();
 
         PromiseReactionJobRootNode(JSContext context) {
@@ -139,6 +141,12 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
                 context.notifyPromiseHook(PromiseHook.TYPE_BEFORE, promiseCapability.getPromise());
             }
 
+            if (internalHandlerProf.profile(handler instanceof PerformPromiseAllNode.ResolveElementArgs)) {
+                // Promise.all/allSettled element reaction linked without element functions
+                assert promiseCapability == null;
+                return promiseAllElement().execute((PerformPromiseAllNode.ResolveElementArgs) handler, argument, reaction.isFulfill());
+            }
+
             Object handlerResult;
             boolean fulfill;
             if (handlerProf.profile(handler == Undefined.instance)) {
@@ -201,6 +209,14 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
             return callRejectNode;
         }
 
+        private PromiseAllElementReactionNode promiseAllElement() {
+            if (promiseAllElementNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                promiseAllElementNode = insert(PromiseAllElementReactionNode.create(context));
+            }
+            return promiseAllElementNode;
+        }
+
         private JSFunctionCallNode callHandler() {
             if (callHandlerNode == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -54,30 +54,51 @@ import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.runtime.interop.JSMetaType;
 
+/**
+ * A JavaScript BigInt value.
+ *
+ * Values that fit in a {@code long} are stored as a primitive {@code long} (the small
+ * representation), all other values as a {@link BigInteger}. The representation is canonical,
+ * i.e., a value is stored as a {@link BigInteger} only if it does not fit in a {@code long}.
+ * Operations on small values use overflow-checked {@code long} arithmetic and are not behind a
+ * {@link TruffleBoundary}, so that the intermediate {@link BigInt} objects can be virtualized in
+ * compiled code; they fall back to {@link BigInteger} arithmetic on overflow.
+ */
 @ExportLibrary(InteropLibrary.class)
 @ValueType
 public final class BigInt implements Comparable<BigInt>, TruffleObject {
 
     static final long serialVersionUID = 6019523258212492110L;
 
+    /** The value if it fits in a long (i.e. {@link #value} is null). */
+    private final long smallValue;
+    /** The value if it does not fit in a long, otherwise null. */
     private final BigInteger value;
 
-    public static final BigInt ZERO = new BigInt(BigInteger.ZERO);
-    public static final BigInt ONE = new BigInt(BigInteger.ONE);
-    public static final BigInt NEGATIVE_ONE = new BigInt(BigInteger.valueOf(-1));
-    public static final BigInt TWO = new BigInt(BigInteger.valueOf(2));
+    public static final BigInt ZERO = new BigInt(0L);
+    public static final BigInt ONE = new BigInt(1L);
+    public static final BigInt NEGATIVE_ONE = new BigInt(-1L);
+    public static final BigInt TWO = new BigInt(2L);
 
-    public static final BigInt MAX_INT = new BigInt(BigInteger.valueOf(Integer.MAX_VALUE));
-    public static final BigInt MIN_INT = new BigInt(BigInteger.valueOf(Integer.MIN_VALUE));
+    public static final BigInt MAX_INT = new BigInt((long) Integer.MAX_VALUE);
+    public static final BigInt MIN_INT = new BigInt((long) Integer.MIN_VALUE);
 
     private static final BigInteger TWO64 = BigInteger.ONE.shiftLeft(64);
 
+    private static final int MAX_SMALL_DECIMAL_DIGITS = 18;
+
+    private BigInt(long v) {
+        this.smallValue = v;
+        this.value = null;
+    }
+
     public BigInt(String s, int r) {
-        this.value = new BigInteger(s, r);
+        this(new BigInteger(s, r));
     }
 
     public BigInt(BigInteger v) {
-        this.value = v;
+        this.smallValue = v.longValue();
+        this.value = (v.bitLength() < Long.SIZE) ? null : v;
     }
 
     @TruffleBoundary
@@ -93,23 +114,44 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
 
     @TruffleBoundary
     public static BigInt valueOf(String s) {
-        return new BigInt(parseBigInteger(s));
+        String trimmedString = s.trim();
+        if (isSmallDecimal(trimmedString)) {
+            return valueOf(Long.parseLong(trimmedString));
+        }
+        return new BigInt(parseBigInteger(trimmedString));
+    }
+
+    private static boolean isSmallDecimal(String s) {
+        int length = s.length();
+        if (length == 0 || length > MAX_SMALL_DECIMAL_DIGITS) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
     }
 
-    @TruffleBoundary
     public static BigInt valueOf(long i) {
-        return new BigInt(BigInteger.valueOf(i));
+        return new BigInt(i);
     }
 
-    @TruffleBoundary
     public static BigInt valueOfUnsigned(long i) {
         if (i >= 0) {
-            return new BigInt(BigInteger.valueOf(i));
+            return new BigInt(i);
         } else {
-            return new BigInt(BigInteger.valueOf(i).mod(TWO64));
+            return valueOfUnsignedBig(i);
         }
     }
 
+    @TruffleBoundary
+    private static BigInt valueOfUnsignedBig(long i) {
+        return new BigInt(BigInteger.valueOf(i).mod(TWO64));
+    }
+
     @TruffleBoundary
     private static BigInteger parseBigInteger(final String valueString) {
 
@@ -141,52 +183,107 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         return new BigInteger(trimmedString, 10);
     }
 
-    @TruffleBoundary
+    /**
+     * Returns true if this value is stored as a primitive {@code long}, which is the case if and
+     * only if it fits in a {@code long}.
+     */
+    public boolean isSmall() {
+        return value == null;
+    }
+
     public int intValue() {
-        return value.intValue();
+        if (isSmall()) {
+            return (int) smallValue;
+        }
+        return bigIntValue();
     }
 
     @TruffleBoundary
+    private int bigIntValue() {
+        return value.intValue();
+    }
+
     public double doubleValue() {
+        if (isSmall()) {
+            return smallValue;
+        }
+        return bigDoubleValue();
+    }
+
+    @TruffleBoundary
+    private double bigDoubleValue() {
         return value.doubleValue();
     }
 
     public BigInteger bigIntegerValue() {
+        if (isSmall()) {
+            return toBigInteger(smallValue);
+        }
         return value;
     }
 
     @TruffleBoundary
+    private static BigInteger toBigInteger(long v) {
+        return BigInteger.valueOf(v);
+    }
+
     public BigInt toBigInt64() {
-        return valueOf(value.longValue());
+        if (isSmall()) {
+            return this;
+        }
+        return valueOf(longValue());
     }
 
-    @TruffleBoundary
     public BigInt toBigUint64() {
-        return new BigInt(value.mod(TWO64));
+        if (isSmall() && smallValue >= 0) {
+            return this;
+        }
+        return toBigUint64Big();
     }
 
     @TruffleBoundary
-    public BigInt pow(int e) {
-        return new BigInt(value.pow(e));
+    private BigInt toBigUint64Big() {
+        return new BigInt(bigIntegerValue().mod(TWO64));
     }
 
     @TruffleBoundary
+    public BigInt pow(int e) {
+        return new BigInt(bigIntegerValue().pow(e));
+    }
+
     public BigInt mod(BigInt m) {
-        return new BigInt(value.mod(m.value));
+        if (isSmall() && m.isSmall() && m.smallValue > 0) {
+            return new BigInt(Math.floorMod(smallValue, m.smallValue));
+        }
+        return modBig(m);
     }
 
-    @Override
     @TruffleBoundary
+    private BigInt modBig(BigInt m) {
+        return new BigInt(bigIntegerValue().mod(m.bigIntegerValue()));
+    }
+
+    @Override
     public int compareTo(BigInt b) {
-        return value.compareTo(b.value);
+        if (isSmall() && b.isSmall()) {
+            return Long.compare(smallValue, b.smallValue);
+        }
+        return compareToBig(b);
     }
 
     @TruffleBoundary
+    private int compareToBig(BigInt b) {
+        return bigIntegerValue().compareTo(b.bigIntegerValue());
+    }
+
     public int compareValueTo(long b) {
-        return value.compareTo(BigInteger.valueOf(b));
+        if (isSmall()) {
+            return Long.compare(smallValue, b);
+        }
+        // values that do not fit in a long are below or above any long value
+        return signum();
     }
 
-    @TruffleBoundary
     public int compareValueTo(double b) {
 
         assert !Double.isNaN(b) : "unexpected NAN in BigInt value comparison";
@@ -195,55 +292,118 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
             return -1;
         } else if (b == Double.NEGATIVE_INFINITY) {
             return 1;
+        } else if (isSmall() && JSRuntime.isSafeInteger(smallValue)) {
+            // exactly representable as a double
+            double thisValue = smallValue;
+            return thisValue < b ? -1 : (thisValue > b ? 1 : 0);
         } else {
-            BigDecimal thisValue = new BigDecimal(value);
-            BigDecimal theOtherValue = new BigDecimal(b);
-            return thisValue.compareTo(theOtherValue);
+            return compareValueToBig(b);
         }
     }
 
     @TruffleBoundary
+    private int compareValueToBig(double b) {
+        BigDecimal thisValue = new BigDecimal(bigIntegerValue());
+        BigDecimal theOtherValue = new BigDecimal(b);
+        return thisValue.compareTo(theOtherValue);
+    }
+
     public BigInt subtract(BigInt b) {
-        return new BigInt(value.subtract(b.value));
+        if (isSmall() && b.isSmall()) {
+            try {
+                return new BigInt(Math.subtractExact(smallValue, b.smallValue));
+            } catch (ArithmeticException e) {
+                // fall back to BigInteger
+            }
+        }
+        return subtractBig(b);
     }
 
     @TruffleBoundary
+    private BigInt subtractBig(BigInt b) {
+        return new BigInt(bigIntegerValue().subtract(b.bigIntegerValue()));
+    }
+
     public BigInt add(BigInt b) {
-        return new BigInt(value.add(b.value));
+        if (isSmall() && b.isSmall()) {
+            try {
+                return new BigInt(Math.addExact(smallValue, b.smallValue));
+            } catch (ArithmeticException e) {
+                // fall back to BigInteger
+            }
+        }
+        return addBig(b);
+    }
+
+    @TruffleBoundary
+    private BigInt addBig(BigInt b) {
+        return new BigInt(bigIntegerValue().add(b.bigIntegerValue()));
     }
 
     @TruffleBoundary
     public String toString(int radix) {
+        if (isSmall()) {
+            return Long.toString(smallValue, radix);
+        }
         return value.toString(radix);
     }
 
-    @TruffleBoundary
     public boolean testBit(int n) {
-        return value.testBit(n);
+        if (isSmall() && n >= 0) {
+            return n >= Long.SIZE ? smallValue < 0 : ((smallValue >> n) & 1) != 0;
+        }
+        return testBitBig(n);
+    }
+
+    @TruffleBoundary
+    private boolean testBitBig(int n) {
+        return bigIntegerValue().testBit(n);
     }
 
-    @TruffleBoundary(allowInlining = true)
     public int signum() {
+        if (isSmall()) {
+            return Long.signum(smallValue);
+        }
+        return signumBig();
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private int signumBig() {
         return value.signum();
     }
 
-    @TruffleBoundary
     public BigInt negate() {
-        return new BigInt(value.negate());
+        if (isSmall() && smallValue != Long.MIN_VALUE) {
+            return new BigInt(-smallValue);
+        }
+        return negateBig();
     }
 
     @TruffleBoundary
+    private BigInt negateBig() {
+        return new BigInt(bigIntegerValue().negate());
+    }
+
     public BigInt not() {
+        if (isSmall()) {
+            return new BigInt(~smallValue);
+        }
+        return notBig();
+    }
+
+    @TruffleBoundary
+    private BigInt notBig() {
         return new BigInt(value.not());
     }
 
     @Override
     @TruffleBoundary
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((value == null) ? 0 : value.hashCode());
-        return result;
+        // the representation is canonical, so equal values have the same representation
+        if (isSmall()) {
+            return Long.hashCode(smallValue);
+        }
+        return value.hashCode();
     }
 
     @Override
@@ -260,69 +420,134 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
         }
         BigInt other = (BigInt) obj;
         if (value == null) {
-            if (other.value != null) {
-                return false;
-            }
-        } else if (!value.equals(other.value)) {
-            return false;
+            return other.value == null && smallValue == other.smallValue;
+        } else {
+            return value.equals(other.value);
         }
-        return true;
     }
 
-    @TruffleBoundary
     public BigInt and(BigInt b) {
-        return new BigInt(value.and(b.value));
+        if (isSmall() && b.isSmall()) {
+            return new BigInt(smallValue & b.smallValue);
+        }
+        return andBig(b);
     }
 
     @TruffleBoundary
+    private BigInt andBig(BigInt b) {
+        return new BigInt(bigIntegerValue().and(b.bigIntegerValue()));
+    }
+
     public BigInt or(BigInt b) {
-        return new BigInt(value.or(b.value));
+        if (isSmall() && b.isSmall()) {
+            return new BigInt(smallValue | b.smallValue);
+        }
+        return orBig(b);
     }
 
     @TruffleBoundary
+    private BigInt orBig(BigInt b) {
+        return new BigInt(bigIntegerValue().or(b.bigIntegerValue()));
+    }
+
     public BigInt xor(BigInt b) {
-        return new BigInt(value.xor(b.value));
+        if (isSmall() && b.isSmall()) {
+            return new BigInt(smallValue ^ b.smallValue);
+        }
+        return xorBig(b);
     }
 
     @TruffleBoundary
+    private BigInt xorBig(BigInt b) {
+        return new BigInt(bigIntegerValue().xor(b.bigIntegerValue()));
+    }
+
     public BigInt multiply(BigInt b) {
-        return new BigInt(value.multiply(b.value));
+        if (isSmall() && b.isSmall()) {
+            try {
+                return new BigInt(Math.multiplyExact(smallValue, b.smallValue));
+            } catch (ArithmeticException e) {
+                // fall back to BigInteger
+            }
+        }
+        return multiplyBig(b);
     }
 
     @TruffleBoundary
+    private BigInt multiplyBig(BigInt b) {
+        return new BigInt(bigIntegerValue().multiply(b.bigIntegerValue()));
+    }
+
     public BigInt divide(BigInt b) {
-        return new BigInt(value.divide(b.value));
+        if (isSmall() && b.isSmall() && b.smallValue != 0 && !(smallValue == Long.MIN_VALUE && b.smallValue == -1)) {
+            return new BigInt(smallValue / b.smallValue);
+        }
+        return divideBig(b);
     }
 
     @TruffleBoundary
+    private BigInt divideBig(BigInt b) {
+        return new BigInt(bigIntegerValue().divide(b.bigIntegerValue()));
+    }
+
     public BigInt remainder(BigInt b) {
-        return new BigInt(value.remainder(b.value));
+        if (isSmall() && b.isSmall() && b.smallValue != 0) {
+            return new BigInt(smallValue % b.smallValue);
+        }
+        return remainderBig(b);
     }
 
     @TruffleBoundary
+    private BigInt remainderBig(BigInt b) {
+        return new BigInt(bigIntegerValue().remainder(b.bigIntegerValue()));
+    }
+
     public BigInt shiftLeft(int b) {
-        return new BigInt(value.shiftLeft(b));
+        if (isSmall() && b >= 0 && b < Long.SIZE) {
+            long result = smallValue << b;
+            if ((result >> b) == smallValue) {
+                return new BigInt(result);
+            }
+        }
+        return shiftLeftBig(b);
     }
 
     @TruffleBoundary
+    private BigInt shiftLeftBig(int b) {
+        return new BigInt(bigIntegerValue().shiftLeft(b));
+    }
+
     public BigInt shiftRight(int b) {
-        return new BigInt(value.shiftRight(b));
+        if (isSmall() && b >= 0) {
+            return new BigInt(smallValue >> Math.min(b, Long.SIZE - 1));
+        }
+        return shiftRightBig(b);
     }
 
     @TruffleBoundary
+    private BigInt shiftRightBig(int b) {
+        return new BigInt(bigIntegerValue().shiftRight(b));
+    }
+
     public long longValueExact() {
-        return value.longValueExact();
+        if (isSmall()) {
+            return smallValue;
+        }
+        throw new ArithmeticException("BigInt out of long range");
     }
 
-    @TruffleBoundary
+    /**
+     * Returns the low-order 64 bits of this value.
+     */
     public long longValue() {
-        return value.longValue();
+        // the low-order 64 bits are also kept for values that do not fit in a long
+        return smallValue;
     }
 
     @Override
     @TruffleBoundary
     public String toString() {
-        return value.toString(10);
+        return toString(10);
     }
 
     @ExportMessage
@@ -331,93 +556,86 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInByte() {
-        return value.bitLength() < Byte.SIZE;
+        return isSmall() && smallValue == (byte) smallValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInShort() {
-        return value.bitLength() < Short.SIZE;
+        return isSmall() && smallValue == (short) smallValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     boolean fitsInInt() {
-        return value.bitLength() < Integer.SIZE;
+        return isSmall() && smallValue == (int) smallValue;
     }
 
     @ExportMessage
-    @TruffleBoundary
     public boolean fitsInLong() {
-        return value.bitLength() < Long.SIZE;
+        return isSmall();
     }
 
     @ExportMessage
     @TruffleBoundary
     boolean fitsInDouble() {
-        if (value.bitLength() <= 53) { // 53 = size of double mantissa + 1
-            return true;
-        } else {
-            double doubleValue = value.doubleValue();
-            if (!Double.isFinite(doubleValue)) {
-                return false;
-            }
-            return new BigDecimal(doubleValue).toBigIntegerExact().equals(value);
+        if (isSmall()) {
+            double doubleValue = smallValue;
+            // 2^63 is not a long value, but the result of saturating the cast
+            return doubleValue != 0x1p63 && (long) doubleValue == smallValue;
+        }
+        double doubleValue = value.doubleValue();
+        if (!Double.isFinite(doubleValue)) {
+            return false;
         }
+        return new BigDecimal(doubleValue).toBigIntegerExact().equals(value);
     }
 
     @ExportMessage
     @TruffleBoundary
     boolean fitsInFloat() {
-        if (value.bitLength() <= 24) { // 24 = size of float mantissa + 1
-            return true;
-        } else {
-            float floatValue = value.floatValue();
-            if (!Float.isFinite(floatValue)) {
-                return false;
-            }
-            return new BigDecimal(floatValue).toBigIntegerExact().equals(value);
+        if (isSmall()) {
+            float floatValue = smallValue;
+            return floatValue != 0x1p63f && (long) floatValue == smallValue;
+        }
+        float floatValue = value.floatValue();
+        if (!Float.isFinite(floatValue)) {
+            return false;
         }
+        return new BigDecimal(floatValue).toBigIntegerExact().equals(value);
     }
 
     @ExportMessage
-    @TruffleBoundary
     byte asByte() throws UnsupportedMessageException {
-        try {
-            return value.byteValueExact();
-        } catch (ArithmeticException e) {
+        if (fitsInByte()) {
+            return (byte) smallValue;
+        } else {
             throw UnsupportedMessageException.create();
         }
     }
 
     @ExportMessage
-    @TruffleBoundary
     short asShort() throws UnsupportedMessageException {
-        try {
-            return value.shortValueExact();
-        } catch (ArithmeticException e) {
+        if (fitsInShort()) {
+            return (short) smallValue;
+        } else {
             throw UnsupportedMessageException.create();
         }
     }
 
     @ExportMessage
-    @TruffleBoundary
     int asInt() throws UnsupportedMessageException {
-        try {
-            return value.intValueExact();
-        } catch (ArithmeticException e) {
+        if (fitsInInt()) {
+            return (int) smallValue;
+        } else {
             throw UnsupportedMessageException.create();
         }
     }
 
     @ExportMessage
-    @TruffleBoundary
     long asLong() throws UnsupportedMessageException {
-        try {
-            return longValueExact();
-        } catch (ArithmeticException e) {
+        if (fitsInLong()) {
+            return smallValue;
+        } else {
             throw UnsupportedMessageException.create();
         }
     }
@@ -426,7 +644,7 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     @TruffleBoundary
     float asFloat() throws UnsupportedMessageException {
         if (fitsInFloat()) {
-            return value.floatValue();
+            return isSmall() ? smallValue : value.floatValue();
         } else {
             throw UnsupportedMessageException.create();
         }
@@ -436,7 +654,7 @@ public final class BigInt implements Comparable<BigInt>, TruffleObject {
     @TruffleBoundary
     double asDouble() throws UnsupportedMessageException {
         if (fitsInDouble()) {
-            return value.doubleValue();
+            return doubleValue();
         } else {
             throw UnsupportedMessageException.create();
         }
@@ -40,6 +40,8 @@
  */
 package com.oracle.truffle.js.runtime;
 
+import java.util.List;
+
 import com.oracle.js.parser.ir.Expression;
 import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.nodes.Node;
@@ -119,6 +121,16 @@ public interface Evaluator {
 
     Expression parseExpression(JSContext context, String sourceString);
 
+    /**
+     * Parses the given sources on background threads, so that the first evaluation of each source
+     * only has to translate the already parsed AST. Sources with the module MIME type or the
+     * {@code .mjs} suffix are parsed as modules. Syntax errors are reported when the source is
+     * evaluated.
+     *
+     * @return the keys of the submitted sources, see {@link JSContext#cancelParseAheadResult}
+     */
+    List<Object> parseAhead(JSContext context, List<Source> sources);
+
     /**
      * Creates a script that will be evaluated in a specified lexical context.
      */
@@ -42,6 +42,7 @@ package com.oracle.truffle.js.runtime;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -75,6 +76,8 @@ public abstract class GraalJSException extends RuntimeException implements Truff
     private JSStackTraceElement[] jsStackTrace;
     private Object location;
     private int stackTraceLimit;
+    /** Frames to skip when the captured stack trace is materialized. */
+    private DynamicObject skipFramesUpTo = Undefined.instance;
 
     private static final String DYNAMIC_FUNCTION_NAME = "anonymous";
 
@@ -105,17 +108,29 @@ public abstract class GraalJSException extends RuntimeException implements Truff
     }
 
     protected final GraalJSException fillInStackTrace(DynamicObject skipFramesUpTo, boolean capture) {
-        // We can only skip frames when capturing eagerly.
+        // We can only skip frames when capturing the current stack.
         assert capture || skipFramesUpTo == Undefined.instance;
         assert jsStackTrace == (stackTraceLimit == 0 ? EMPTY_STACK_TRACE : null);
-        if (capture || JSConfig.EagerStackTrace) {
-            if (stackTraceLimit > 0) {
+        if (stackTraceLimit > 0) {
+            if (JSConfig.EagerStackTrace) {
                 this.jsStackTrace = getJSStackTrace(skipFramesUpTo);
+            } else if (capture) {
+                captureStackTrace(skipFramesUpTo);
             }
         }
         return this;
     }
 
+    /**
+     * Records the raw frames (call target, call node, and frame) of the current stack. The
+     * {@link JSStackTraceElement}s are only created when the stack trace is accessed.
+     */
+    @TruffleBoundary
+    private void captureStackTrace(DynamicObject skipUpTo) {
+        TruffleStackTrace.fillIn(this);
+        this.skipFramesUpTo = skipUpTo;
+    }
+
     @Override
     public Node getLocation() {
         return location instanceof Node ? (Node) location : null;
@@ -177,7 +192,9 @@ public abstract class GraalJSException extends RuntimeException implements Truff
 
     @TruffleBoundary
     private JSStackTraceElement[] materializeJSStackTrace() {
-        return getJSStackTrace(Undefined.instance);
+        JSStackTraceElement[] stackTrace = getJSStackTrace(skipFramesUpTo);
+        skipFramesUpTo = Undefined.instance;
+        return stackTrace;
     }
 
     @TruffleBoundary
@@ -398,37 +415,62 @@ public abstract class GraalJSException extends RuntimeException implements Truff
 
     private static JSStackTraceElement processJSFrame(RootNode rootNode, Node node, Object thisObj, DynamicObject functionObj, boolean inStrictMode, boolean inNashornMode, boolean async,
                     int promiseIndex) {
-        Node callNode = node;
-        while (callNode.getSourceSection() == null) {
-            callNode = callNode.getParent();
+        JSRealm realm = JSFunction.getRealm(functionObj);
+        Map<Node, CallSiteInfo> callSiteCache = realm.getStackTraceCallSiteCache();
+        CallSiteInfo callSite = callSiteCache.get(node);
+        if (callSite == null || callSite.inNashornMode != inNashornMode) {
+            callSite = new CallSiteInfo(rootNode, node, inNashornMode);
+            callSiteCache.put(node, callSite);
         }
-        SourceSection callNodeSourceSection = callNode.getSourceSection();
-        Source source = callNodeSourceSection.getSource();
 
-        String fileName = getFileName(source);
         String functionName;
-        if (JSFunction.isBuiltin(functionObj)) {
-            functionName = JSFunction.getName(functionObj);
-        } else {
-            functionName = rootNode.getName();
-        }
-        boolean eval = false;
-        if (isEvalSource(source)) {
+        if (callSite.eval) {
             functionName = "eval";
-            eval = true;
-        } else if (functionName == null || isInternalFunctionName(functionName)) {
-            functionName = "";
-        }
-        SourceSection targetSourceSection = null;
-        if (!inNashornMode) { // for V8
-            if (callNode instanceof JavaScriptFunctionCallNode) {
-                Node target = ((JavaScriptFunctionCallNode) callNode).getTarget();
-                targetSourceSection = target == null ? null : target.getSourceSection();
+        } else {
+            functionName = JSFunction.isBuiltin(functionObj) ? JSFunction.getName(functionObj) : callSite.rootName;
+            if (functionName == null || isInternalFunctionName(functionName)) {
+                functionName = "";
             }
         }
-        boolean global = (JSRuntime.isNullOrUndefined(thisObj) && !JSFunction.isStrict(functionObj)) || isGlobalObject(thisObj, JSFunction.getRealm(functionObj));
+        boolean global = (JSRuntime.isNullOrUndefined(thisObj) && !JSFunction.isStrict(functionObj)) || isGlobalObject(thisObj, realm);
 
-        return new JSStackTraceElement(fileName, functionName, callNodeSourceSection, thisObj, functionObj, targetSourceSection, inStrictMode, eval, global, inNashornMode, async, promiseIndex);
+        return new JSStackTraceElement(callSite.fileName, functionName, callSite.sourceSection, thisObj, functionObj, callSite.targetSourceSection, inStrictMode, callSite.eval, global, inNashornMode,
+                        async, promiseIndex);
+    }
+
+    /**
+     * The parts of a {@link JSStackTraceElement} that only depend on the call node, cached per
+     * realm so that repeatedly materializing stack traces through the same call sites does not
+     * have to look up source sections and names again.
+     */
+    static final class CallSiteInfo {
+        final String fileName;
+        final String rootName;
+        final SourceSection sourceSection;
+        final SourceSection targetSourceSection;
+        final boolean eval;
+        final boolean inNashornMode;
+
+        CallSiteInfo(RootNode rootNode, Node node, boolean inNashornMode) {
+            Node callNode = node;
+            while (callNode.getSourceSection() == null) {
+                callNode = callNode.getParent();
+            }
+            this.sourceSection = callNode.getSourceSection();
+            Source source = sourceSection.getSource();
+            this.fileName = getFileName(source);
+            this.rootName = rootNode.getName();
+            this.eval = isEvalSource(source);
+            SourceSection target = null;
+            if (!inNashornMode) { // for V8
+                if (callNode instanceof JavaScriptFunctionCallNode) {
+                    Node targetNode = ((JavaScriptFunctionCallNode) callNode).getTarget();
+                    target = targetNode == null ? null : targetNode.getSourceSection();
+                }
+            }
+            this.targetSourceSection = target;
+            this.inNashornMode = inNashornMode;
+        }
     }
 
     private static boolean isEvalSource(Source source) {
@@ -514,7 +556,7 @@ public abstract class GraalJSException extends RuntimeException implements Truff
 
     public void printJSStackTrace() {
         System.err.println(getMessage());
-        for (JSStackTraceElement jsste : jsStackTrace) {
+        for (JSStackTraceElement jsste : getJSStackTrace()) {
             System.err.println(jsste);
         }
     }
@@ -44,6 +44,8 @@ import java.lang.ref.WeakReference;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.graalvm.collections.EconomicSet;
@@ -78,6 +80,13 @@ public abstract class JSAgent implements EcmaAgent {
      */
     private final Deque<DynamicObject> promiseJobsQueue;
 
+    /**
+     * Completions of host operations (e.g. Java {@code CompletionStage}s) that are waited for by
+     * this agent. Completions may be enqueued by any thread; they are run by the agent while it
+     * processes its job queue.
+     */
+    private final Queue<Runnable> hostCompletionQueue;
+
     /**
      * According to ECMA2017 8.4 the queue of pending jobs (promises reactions) must be processed
      * when the current stack is empty. For Interop, we assume that the stack is empty when (1) we
@@ -99,6 +108,7 @@ public abstract class JSAgent implements EcmaAgent {
         this.signifier = signifierGenerator.incrementAndGet();
         this.canBlock = canBlock;
         this.promiseJobsQueue = new ArrayDeque<>(4);
+        this.hostCompletionQueue = new ConcurrentLinkedQueue<>();
         this.finalizationRegistryQueue = new ArrayDeque<>(4);
     }
 
@@ -151,25 +161,51 @@ public abstract class JSAgent implements EcmaAgent {
         promiseJobsQueue.push(job);
     }
 
+    @TruffleBoundary
+    public final int getPromiseJobsQueueSize() {
+        return promiseJobsQueue.size();
+    }
+
+    /**
+     * Enqueues the completion of a host operation. It is run the next time the agent processes its
+     * job queue, i.e., when the context is entered or left. May be called from any thread.
+     */
+    @TruffleBoundary
+    public final void enqueueHostCompletion(Runnable completion) {
+        hostCompletionQueue.add(completion);
+    }
+
+    @TruffleBoundary
+    public final boolean hasHostCompletions() {
+        return !hostCompletionQueue.isEmpty();
+    }
+
     @TruffleBoundary
     public final void processAllPromises(boolean processWeakRefs) {
+        boolean completed = false;
         try {
-            while (!promiseJobsQueue.isEmpty()) {
-                DynamicObject nextJob = promiseJobsQueue.pollLast();
-                if (JSFunction.isJSFunction(nextJob)) {
-                    JSRealm functionRealm = JSFunction.getRealm(nextJob);
-                    Object prev = functionRealm.getTruffleContext().enter();
-                    try {
-                        JSFunction.call(nextJob, Undefined.instance, JSArguments.EMPTY_ARGUMENTS_ARRAY);
-                    } finally {
-                        functionRealm.getTruffleContext().leave(prev);
+            do {
+                while (!promiseJobsQueue.isEmpty()) {
+                    DynamicObject nextJob = promiseJobsQueue.pollLast();
+                    if (JSFunction.isJSFunction(nextJob)) {
+                        JSRealm functionRealm = JSFunction.getRealm(nextJob);
+                        Object prev = functionRealm.getTruffleContext().enter();
+                        try {
+                            JSFunction.call(nextJob, Undefined.instance, JSArguments.EMPTY_ARGUMENTS_ARRAY);
+                        } finally {
+                            functionRealm.getTruffleContext().leave(prev);
+                        }
                     }
                 }
-            }
+            } while (runHostCompletions());
+            completed = true;
         } finally {
             // Ensure that there are no leftovers when the processing
             // is terminated by an exception (like ExitException).
             promiseJobsQueue.clear();
+            if (!completed) {
+                hostCompletionQueue.clear();
+            }
             if (processWeakRefs) {
                 if (weakRefTargets != null) {
                     weakRefTargets.clear();
@@ -179,6 +215,20 @@ public abstract class JSAgent implements EcmaAgent {
         }
     }
 
+    /**
+     * Runs the completions of host operations that have been enqueued so far, without waiting for
+     * pending ones. Returns {@code false} if there were none.
+     */
+    private boolean runHostCompletions() {
+        boolean ran = false;
+        Runnable completion;
+        while ((completion = hostCompletionQueue.poll()) != null) {
+            completion.run();
+            ran = true;
+        }
+        return ran;
+    }
+
     /**
      * Cleanup the finalizationRegistries that are unreferenced; cleanup referenced ones according
      * to 4.1.3 Execution and 4.1.4.1 HostCleanupFinalizatioRegistry.
@@ -195,8 +245,8 @@ public abstract class JSAgent implements EcmaAgent {
         }
     }
 
-    public final void interopBoundaryEnter() {
-        interopCallStackDepth++;
+    public final boolean interopBoundaryEnter() {
+        return interopCallStackDepth++ == 0;
     }
 
     public final boolean interopBoundaryExit() {
@@ -56,6 +56,12 @@ public final class JSConfig {
     public static final int MaxArrayHoleSize = 5000;
     public static final int MaxFlatArraySize = 1000000;
     public static final boolean TrackArrayAllocationSites = Boolean.FALSE;
+    /** Upper bound for the backing store size allocation sites presize their arrays to. */
+    public static final int MaxArrayLengthFeedback = 1 << 12;
+    /** Arrays an allocation site samples without presizing before choosing a presize. */
+    public static final int ArrayLengthFeedbackSamples = 8;
+    /** Arrays an allocation site allocates before it samples again. */
+    public static final int ArrayLengthFeedbackPeriod = 64;
     public static final int BigArrayThreshold = 10000;
     public static final boolean MarkElementsNonNull = true;
 
@@ -89,6 +95,11 @@ public final class JSConfig {
     public static final int DictionaryObjectThreshold = 256;
     public static final int DictionaryObjectTransitionThreshold = 1024;
     public static final boolean MergeShapes = true;
+    /**
+     * Number of constructions by which a constructor's instance size is tracked before its instance
+     * layout is chosen (slack tracking).
+     */
+    public static final int SlackTrackingConstructions = 8;
 
     // LazyString options
     public static final boolean LazyStrings = true;
@@ -120,6 +131,19 @@ public final class JSConfig {
     /** [Construct] as part of the CallTarget names. Off by default (footprint). */
     public static final boolean DetailedCallTargetNames = false;
     public static final int SpreadArgumentPlaceholderCount = 3;
+    /** Number of entries (a power of 2) of the number to string and array index string caches. */
+    public static final int NumberStringCacheSize = 1024;
+    /**
+     * Maximum source length (parameters and body) of functions kept in the Function constructor
+     * cache. Together with {@code js.function-constructor-cache-size}, this bounds its footprint.
+     */
+    public static final int MaxCachedDynamicFunctionLength = 64 * 1024;
+    /** Maximum total source length of the functions kept in the Function constructor cache. */
+    public static final long MaxCachedDynamicFunctionsLength = 1024 * 1024;
+    /**
+     * Maximum number of initialized Intl service objects and ICU objects cached per realm.
+     */
+    public static final int IntlCacheSize = 32;
     // should Graal.js Exceptions use the default Exception.fillInStackTrace? Turning it off might
     // hide Java frames (causing problems with interop, debugger), but increase performance around
     // fast-path exceptions.
@@ -45,7 +45,10 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Function;
 
 import com.oracle.truffle.api.Assumption;
@@ -71,6 +74,7 @@ import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.nodes.ScriptNode;
 import com.oracle.truffle.js.nodes.access.GetPrototypeNode;
 import com.oracle.truffle.js.nodes.cast.JSToObjectNode;
 import com.oracle.truffle.js.runtime.array.TypedArray;
@@ -125,6 +129,7 @@ import com.oracle.truffle.js.runtime.java.adapter.JavaAdapterFactory;
 import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSOrdinaryObject;
 import com.oracle.truffle.js.runtime.objects.JSPrototypeData;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.JSShapeData;
@@ -133,7 +138,11 @@ import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.CompilableBiFunction;
+import com.oracle.truffle.js.runtime.util.ConcurrentClockCache;
 import com.oracle.truffle.js.runtime.util.DebugJSAgent;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.runtime.util.LRUCache;
+import com.oracle.truffle.js.runtime.util.NumberStringCache;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 import com.oracle.truffle.js.runtime.util.TimeProfiler;
 
@@ -185,6 +194,27 @@ public class JSContext {
 
     private final TimeProfiler timeProfiler;
 
+    private final JSMetrics metrics;
+
+    /** Cache of number to string conversions and of the array indices of numeric strings. */
+    private final NumberStringCache numberStringCache = new NumberStringCache();
+
+    /**
+     * Pending results of sources submitted for parsing on background threads, keyed by source and
+     * parser options. Each result is consumed by the first evaluation of its source.
+     */
+    private final Map<Object, Future<?>> parseAheadResults = new ConcurrentHashMap<>();
+
+    /** Parsed eval code, bounded by {@code js.eval-cache-size}; {@code null} if disabled. */
+    private final LRUCache<Object, ScriptNode> evalCache;
+    /**
+     * Functions parsed by the Function constructor (and its generator and async variants), shared
+     * by all call sites and by all polyglot contexts using this context. Bounded by
+     * {@code js.function-constructor-cache-size} entries and by
+     * {@link JSConfig#MaxCachedDynamicFunctionsLength} source characters; {@code null} if disabled.
+     */
+    private final ConcurrentClockCache<Object, ScriptNode> functionConstructorCache;
+
     private final JSObjectFactory.BoundProto moduleNamespaceFactory;
 
     /** The TRegex engine, as obtained from RegexLanguage. */
@@ -215,6 +245,25 @@ public class JSContext {
     private volatile CallTarget boundFunctionConstructTargetCache;
     private volatile CallTarget boundFunctionConstructNewTargetCache;
 
+    /*
+     * Lazily created call targets and function data are initialized without locking: racing
+     * threads may create duplicates, but only the first one is published.
+     */
+    private static final AtomicReferenceFieldUpdater<JSContext, CallTarget> NOT_CONSTRUCTIBLE_CALL_TARGET_UPDATER = AtomicReferenceFieldUpdater.newUpdater(JSContext.class,
+                    CallTarget.class, "notConstructibleCallTargetCache");
+    private static final AtomicReferenceFieldUpdater<JSContext, CallTarget> GENERATOR_NOT_CONSTRUCTIBLE_CALL_TARGET_UPDATER = AtomicReferenceFieldUpdater.newUpdater(JSContext.class,
+                    CallTarget.class, "generatorNotConstructibleCallTargetCache");
+    private static final AtomicReferenceFieldUpdater<JSContext, CallTarget> BOUND_FUNCTION_CALL_TARGET_UPDATER = AtomicReferenceFieldUpdater.newUpdater(JSContext.class,
+                    CallTarget.class, "boundFunctionCallTargetCache");
+    private static final AtomicReferenceFieldUpdater<JSContext, CallTarget> BOUND_FUNCTION_CONSTRUCT_TARGET_UPDATER = AtomicReferenceFieldUpdater.newUpdater(JSContext.class,
+                    CallTarget.class, "boundFunctionConstructTargetCache");
+    private static final AtomicReferenceFieldUpdater<JSContext, CallTarget> BOUND_FUNCTION_CONSTRUCT_NEW_TARGET_UPDATER = AtomicReferenceFieldUpdater.newUpdater(JSContext.class,
+                    CallTarget.class, "boundFunctionConstructNewTargetCache");
+    private static final AtomicReferenceFieldUpdater<JSContext, JSFunctionData> BOUND_FUNCTION_DATA_UPDATER = AtomicReferenceFieldUpdater.newUpdater(JSContext.class,
+                    JSFunctionData.class, "boundFunctionData");
+    private static final AtomicReferenceFieldUpdater<JSContext, JSFunctionData> BOUND_CONSTRUCTOR_FUNCTION_DATA_UPDATER = AtomicReferenceFieldUpdater.newUpdater(JSContext.class,
+                    JSFunctionData.class, "boundConstructorFunctionData");
+
     public enum BuiltinFunctionKey {
         ArrayFlattenIntoArray,
         AwaitFulfilled,
@@ -294,6 +343,9 @@ public class JSContext {
         AsyncModuleExecutionRejected,
         TopLevelAwaitResolve,
         TopLevelAwaitReject,
+        CompletionStageThen,
+        CompletableFutureComplete,
+        CompletableFutureCompleteExceptionally,
     }
 
     @CompilationFinal(dimensions = 1) private final JSFunctionData[] builtinFunctionData;
@@ -305,7 +357,12 @@ public class JSContext {
     final JSFunctionData protoGetterFunctionData;
     final JSFunctionData protoSetterFunctionData;
 
-    private Map<Shape, JSShapeData> shapeDataMap;
+    private static final int SHAPE_DATA_MAP_STRIPES = 16;
+    /**
+     * Shape data maps, striped by shape so that threads of a shared engine do not contend on a
+     * single lock. Each map is guarded by its own monitor.
+     */
+    private final AtomicReferenceArray<Map<Shape, JSShapeData>> shapeDataMaps = new AtomicReferenceArray<>(SHAPE_DATA_MAP_STRIPES);
 
     final Assumption noChildRealmsAssumption;
     private final Assumption singleRealmAssumption;
@@ -456,6 +513,10 @@ public class JSContext {
         this.builtinFunctionData = new JSFunctionData[BuiltinFunctionKey.values().length];
 
         this.timeProfiler = contextOptions.isProfileTime() ? new TimeProfiler() : null;
+        this.metrics = contextOptions.isMetrics() ? new JSMetrics() : null;
+        this.evalCache = contextOptions.getEvalCacheSize() > 0 ? new LRUCache<>(contextOptions.getEvalCacheSize()) : null;
+        this.functionConstructorCache = contextOptions.getFunctionConstructorCacheSize() > 0 ? new ConcurrentClockCache<>(contextOptions.getFunctionConstructorCacheSize(),
+                        JSConfig.MaxCachedDynamicFunctionsLength) : null;
 
         this.singleRealmAssumption = Truffle.getRuntime().createAssumption("single realm");
         this.noChildRealmsAssumption = Truffle.getRuntime().createAssumption("no child realms");
@@ -608,6 +669,10 @@ public class JSContext {
         return regExpStaticResultUnusedAssumption;
     }
 
+    public final Assumption getPromiseHookNotUsedAssumption() {
+        return promiseHookNotUsedAssumption;
+    }
+
     public static JSContext createContext(Evaluator evaluator, JSContextOptions contextOptions, JavaScriptLanguage lang, TruffleLanguage.Env env) {
         return new JSContext(evaluator, contextOptions, lang, env);
     }
@@ -669,6 +734,35 @@ public class JSContext {
         return inObjectPrototypeData.getOrAddProtoChildTree(jsclass, JSShape.makeEmptyRootWithInstanceProto(this, jsclass));
     }
 
+    /**
+     * Empty shape with null prototype for objects with the given {@link JSOrdinaryObject} layout.
+     */
+    public final Shape makeEmptyShapeWithNullPrototype(JSClass jsclass, int layout) {
+        if (layout == JSOrdinaryObject.DEFAULT_LAYOUT) {
+            return makeEmptyShapeWithNullPrototype(jsclass);
+        }
+        Shape protoChildTree = nullPrototypeData.getProtoChildTree(jsclass, layout);
+        if (protoChildTree != null) {
+            return protoChildTree;
+        }
+        return nullPrototypeData.getOrAddProtoChildTree(jsclass, layout, JSShape.createObjectShape(this, jsclass, Null.instance, layout));
+    }
+
+    /**
+     * Empty shape with prototype in object for objects with the given {@link JSOrdinaryObject}
+     * layout.
+     */
+    public final Shape makeEmptyShapeWithPrototypeInObject(JSClass jsclass, int layout) {
+        if (layout == JSOrdinaryObject.DEFAULT_LAYOUT) {
+            return makeEmptyShapeWithPrototypeInObject(jsclass);
+        }
+        Shape protoChildTree = inObjectPrototypeData.getProtoChildTree(jsclass, layout);
+        if (protoChildTree != null) {
+            return protoChildTree;
+        }
+        return inObjectPrototypeData.getOrAddProtoChildTree(jsclass, layout, JSShape.makeEmptyRootWithInstanceProto(this, jsclass, layout));
+    }
+
     private Shape createGlobalScopeShape() {
         return JSShape.makeEmptyRoot(JSGlobal.INSTANCE, this);
     }
@@ -692,7 +786,20 @@ public class JSContext {
      */
     public final void promiseEnqueueJob(JSRealm realm, DynamicObject job) {
         invalidatePromiseQueueNotUsedAssumption();
-        realm.getAgent().enqueuePromiseJob(job);
+        JSAgent agent = realm.getAgent();
+        agent.enqueuePromiseJob(job);
+        if (metrics != null) {
+            metrics.record(JSMetrics.PROMISE_JOB_QUEUE_DEPTH, agent.getPromiseJobsQueueSize());
+        }
+    }
+
+    /**
+     * Registers a pending host operation whose completion is run by the agent's job queue.
+     *
+     * @see JSAgent#enqueueHostCompletion(Runnable)
+     */
+    public final void registerHostCompletion() {
+        invalidatePromiseQueueNotUsedAssumption();
     }
 
     private void invalidatePromiseQueueNotUsedAssumption() {
@@ -723,6 +830,17 @@ public class JSContext {
         return timeProfiler;
     }
 
+    /**
+     * Returns the metrics registry, or {@code null} if {@code js.metrics} is not enabled.
+     */
+    public JSMetrics getMetrics() {
+        return metrics;
+    }
+
+    public NumberStringCache getNumberStringCache() {
+        return numberStringCache;
+    }
+
     /**
      * Get the current Realm using {@link ContextReference}.
      */
@@ -1012,22 +1130,23 @@ public class JSContext {
         this.symbolRegistry = newSymbolRegistry;
     }
 
-    public Map<Shape, JSShapeData> getShapeDataMap() {
-        assert Thread.holdsLock(this);
-        Map<Shape, JSShapeData> map = shapeDataMap;
+    /**
+     * Returns the shape data map responsible for the given shape. Accesses to the map must be
+     * synchronized on the map.
+     */
+    public Map<Shape, JSShapeData> getShapeDataMap(Shape shape) {
+        CompilerAsserts.neverPartOfCompilation();
+        int index = System.identityHashCode(shape) & (SHAPE_DATA_MAP_STRIPES - 1);
+        Map<Shape, JSShapeData> map = shapeDataMaps.get(index);
         if (map == null) {
-            map = createShapeDataMap();
+            map = new WeakHashMap<>();
+            if (!shapeDataMaps.compareAndSet(index, null, map)) {
+                map = shapeDataMaps.get(index);
+            }
         }
         return map;
     }
 
-    private Map<Shape, JSShapeData> createShapeDataMap() {
-        CompilerAsserts.neverPartOfCompilation();
-        Map<Shape, JSShapeData> map = new WeakHashMap<>();
-        shapeDataMap = map;
-        return map;
-    }
-
     public JavaScriptLanguage getLanguage() {
         return language;
     }
@@ -1067,12 +1186,7 @@ public class JSContext {
     public CallTarget getNotConstructibleCallTarget() {
         CallTarget result = notConstructibleCallTargetCache;
         if (result == null) {
-            synchronized (this) {
-                result = notConstructibleCallTargetCache;
-                if (result == null) {
-                    result = notConstructibleCallTargetCache = createNotConstructibleCallTarget(getLanguage(), false, this);
-                }
-            }
+            result = initializeIfAbsent(NOT_CONSTRUCTIBLE_CALL_TARGET_UPDATER, createNotConstructibleCallTarget(getLanguage(), false, this));
         }
         return result;
     }
@@ -1081,12 +1195,7 @@ public class JSContext {
     public CallTarget getGeneratorNotConstructibleCallTarget() {
         CallTarget result = generatorNotConstructibleCallTargetCache;
         if (result == null) {
-            synchronized (this) {
-                result = generatorNotConstructibleCallTargetCache;
-                if (result == null) {
-                    result = generatorNotConstructibleCallTargetCache = createNotConstructibleCallTarget(getLanguage(), true, this);
-                }
-            }
+            result = initializeIfAbsent(GENERATOR_NOT_CONSTRUCTIBLE_CALL_TARGET_UPDATER, createNotConstructibleCallTarget(getLanguage(), true, this));
         }
         return result;
     }
@@ -1108,12 +1217,7 @@ public class JSContext {
     public CallTarget getBoundFunctionCallTarget() {
         CallTarget result = boundFunctionCallTargetCache;
         if (result == null) {
-            synchronized (this) {
-                result = boundFunctionCallTargetCache;
-                if (result == null) {
-                    result = boundFunctionCallTargetCache = Truffle.getRuntime().createCallTarget(JSFunction.createBoundRootNode(this, false, false));
-                }
-            }
+            result = initializeIfAbsent(BOUND_FUNCTION_CALL_TARGET_UPDATER, Truffle.getRuntime().createCallTarget(JSFunction.createBoundRootNode(this, false, false)));
         }
         return result;
     }
@@ -1122,12 +1226,7 @@ public class JSContext {
     public CallTarget getBoundFunctionConstructTarget() {
         CallTarget result = boundFunctionConstructTargetCache;
         if (result == null) {
-            synchronized (this) {
-                result = boundFunctionConstructTargetCache;
-                if (result == null) {
-                    result = boundFunctionConstructTargetCache = Truffle.getRuntime().createCallTarget(JSFunction.createBoundRootNode(this, true, false));
-                }
-            }
+            result = initializeIfAbsent(BOUND_FUNCTION_CONSTRUCT_TARGET_UPDATER, Truffle.getRuntime().createCallTarget(JSFunction.createBoundRootNode(this, true, false)));
         }
         return result;
     }
@@ -1136,12 +1235,7 @@ public class JSContext {
     public CallTarget getBoundFunctionConstructNewTarget() {
         CallTarget result = boundFunctionConstructNewTargetCache;
         if (result == null) {
-            synchronized (this) {
-                result = boundFunctionConstructNewTargetCache;
-                if (result == null) {
-                    result = boundFunctionConstructNewTargetCache = Truffle.getRuntime().createCallTarget(JSFunction.createBoundRootNode(this, true, true));
-                }
-            }
+            result = initializeIfAbsent(BOUND_FUNCTION_CONSTRUCT_NEW_TARGET_UPDATER, Truffle.getRuntime().createCallTarget(JSFunction.createBoundRootNode(this, true, true)));
         }
         return result;
     }
@@ -1150,23 +1244,27 @@ public class JSContext {
         JSFunctionData result = constructor ? boundConstructorFunctionData : boundFunctionData;
         if (result == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            synchronized (this) {
-                result = constructor ? boundConstructorFunctionData : boundFunctionData;
-                if (result == null) {
-                    result = JSFunctionData.create(this,
-                                    getBoundFunctionCallTarget(), getBoundFunctionConstructTarget(), getBoundFunctionConstructNewTarget(),
-                                    0, "bound", constructor, false, true, false, false, false, false, false, true, false, true);
-                    if (constructor) {
-                        boundConstructorFunctionData = result;
-                    } else {
-                        boundFunctionData = result;
-                    }
-                }
-            }
+            result = createBoundFunctionData(constructor);
         }
         return result;
     }
 
+    @TruffleBoundary
+    private JSFunctionData createBoundFunctionData(boolean constructor) {
+        JSFunctionData newData = JSFunctionData.create(this,
+                        getBoundFunctionCallTarget(), getBoundFunctionConstructTarget(), getBoundFunctionConstructNewTarget(),
+                        0, "bound", constructor, false, true, false, false, false, false, false, true, false, true);
+        return initializeIfAbsent(constructor ? BOUND_CONSTRUCTOR_FUNCTION_DATA_UPDATER : BOUND_FUNCTION_DATA_UPDATER, newData);
+    }
+
+    private <T> T initializeIfAbsent(AtomicReferenceFieldUpdater<JSContext, T> updater, T newValue) {
+        if (updater.compareAndSet(this, null, newValue)) {
+            return newValue;
+        } else {
+            return updater.get(this);
+        }
+    }
+
     public JSAgent getJSAgent() {
         return getRealm().getAgent();
     }
@@ -1462,10 +1560,13 @@ public class JSContext {
             return functionData;
         }
         CompilerDirectives.transferToInterpreterAndInvalidate();
-        synchronized (this) {
+        // create the function data outside of the lock, so that factories of different keys do
+        // not serialize on the context; if another thread won the race, its result is used.
+        JSFunctionData newFunctionData = factory.apply(this);
+        synchronized (builtinFunctionData) {
             functionData = builtinFunctionData[index];
             if (functionData == null) {
-                functionData = factory.apply(this);
+                functionData = newFunctionData;
                 builtinFunctionData[index] = functionData;
             }
             return functionData;
@@ -1628,6 +1729,97 @@ public class JSContext {
         }
     }
 
+    public boolean isEvalCacheEnabled() {
+        return evalCache != null;
+    }
+
+    /**
+     * Looks up parsed eval code. The key has to identify everything the translation depends on
+     * (source, strictness, and enclosing scope of a direct eval). Hits and misses are counted if
+     * {@code js.metrics} is enabled.
+     */
+    @TruffleBoundary
+    public ScriptNode getCachedEval(Object key) {
+        assert isEvalCacheEnabled();
+        ScriptNode cached;
+        synchronized (evalCache) {
+            cached = evalCache.get(key);
+        }
+        if (metrics != null) {
+            metrics.increment(cached != null ? JSMetrics.EVAL_CACHE_HIT : JSMetrics.EVAL_CACHE_MISS);
+        }
+        return cached;
+    }
+
+    @TruffleBoundary
+    public void putCachedEval(Object key, ScriptNode scriptNode) {
+        assert isEvalCacheEnabled();
+        synchronized (evalCache) {
+            evalCache.put(key, scriptNode);
+        }
+    }
+
+    public boolean hasParseAheadResults() {
+        return !parseAheadResults.isEmpty();
+    }
+
+    @TruffleBoundary
+    public void putParseAheadResult(Object key, Future<?> result) {
+        parseAheadResults.put(key, result);
+    }
+
+    /**
+     * Drops the result of a source parsed on a background thread if it has not been consumed.
+     */
+    @TruffleBoundary
+    public void cancelParseAheadResult(Object key) {
+        Future<?> result = parseAheadResults.remove(key);
+        if (result != null) {
+            result.cancel(false);
+        }
+    }
+
+    /**
+     * Removes and returns the pending result of a source parsed on a background thread, or
+     * {@code null} if the source has not been submitted. Hits and misses are counted if
+     * {@code js.metrics} is enabled.
+     */
+    @TruffleBoundary
+    public Future<?> takeParseAheadResult(Object key) {
+        Future<?> result = parseAheadResults.remove(key);
+        if (metrics != null) {
+            metrics.increment(result != null ? JSMetrics.PARSE_AHEAD_HIT : JSMetrics.PARSE_AHEAD_MISS);
+        }
+        return result;
+    }
+
+    public boolean isFunctionConstructorCacheEnabled() {
+        return functionConstructorCache != null;
+    }
+
+    /**
+     * Looks up a function parsed by the Function constructor. Hits and misses are counted if
+     * {@code js.metrics} is enabled.
+     */
+    @TruffleBoundary
+    public ScriptNode getCachedDynamicFunction(Object key) {
+        assert isFunctionConstructorCacheEnabled();
+        ScriptNode cached = functionConstructorCache.get(key);
+        if (metrics != null) {
+            metrics.increment(cached != null ? JSMetrics.FUNCTION_CONSTRUCTOR_CACHE_HIT : JSMetrics.FUNCTION_CONSTRUCTOR_CACHE_MISS);
+        }
+        return cached;
+    }
+
+    /**
+     * Caches a function parsed by the Function constructor from a source of the given length.
+     */
+    @TruffleBoundary
+    public void putCachedDynamicFunction(Object key, ScriptNode scriptNode, int sourceLength) {
+        assert isFunctionConstructorCacheEnabled();
+        functionConstructorCache.put(key, scriptNode, sourceLength);
+    }
+
     public boolean isOptionLoadFromURL() {
         return contextOptions.isLoadFromURL();
     }
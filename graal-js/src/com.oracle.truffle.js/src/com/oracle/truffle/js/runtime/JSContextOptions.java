@@ -405,6 +405,15 @@ public final class JSContextOptions {
     public static final OptionKey<Integer> FUNCTION_CONSTRUCTOR_CACHE_SIZE = new OptionKey<>(32);
     @CompilationFinal private int functionConstructorCacheSize;
 
+    public static final String EVAL_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "eval-cache-size";
+    @Option(name = EVAL_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum size of the parsing cache used by eval to avoid re-parsing known sources.") //
+    public static final OptionKey<Integer> EVAL_CACHE_SIZE = new OptionKey<>(32);
+    @CompilationFinal private int evalCacheSize;
+
+    public static final String PARSE_AHEAD_NAME = JS_OPTION_PREFIX + "parse-ahead";
+    @Option(name = PARSE_AHEAD_NAME, category = OptionCategory.EXPERT, help = "Files to parse on background threads before they are evaluated, separated by the path separator.") //
+    public static final OptionKey<String> PARSE_AHEAD = new OptionKey<>("");
+
     public static final String STRING_LENGTH_LIMIT_NAME = JS_OPTION_PREFIX + "string-length-limit";
     @Option(name = STRING_LENGTH_LIMIT_NAME, category = OptionCategory.EXPERT, help = "Maximum string length.") //
     public static final OptionKey<Integer> STRING_LENGTH_LIMIT = new OptionKey<>(JSConfig.StringLengthLimit);
@@ -425,6 +434,11 @@ public final class JSContextOptions {
     public static final OptionKey<Boolean> INTEROP_COMPLETE_PROMISES = new OptionKey<>(false);
     @CompilationFinal private boolean interopCompletePromises;
 
+    public static final String INTEROP_COMPLETION_STAGE_NAME = JS_OPTION_PREFIX + "interop-completion-stage";
+    @Option(name = INTEROP_COMPLETION_STAGE_NAME, category = OptionCategory.EXPERT, help = "Treat Java CompletionStage objects as thenables that are resolved on the job queue.") //
+    public static final OptionKey<Boolean> INTEROP_COMPLETION_STAGE = new OptionKey<>(false);
+    @CompilationFinal private boolean interopCompletionStage;
+
     public static final String DEBUG_PROPERTY_NAME_NAME = JS_OPTION_PREFIX + "debug-property-name";
     @Option(name = DEBUG_PROPERTY_NAME_NAME, category = OptionCategory.EXPERT, help = "The name used for the Graal.js debug builtin.") //
     public static final OptionKey<String> DEBUG_PROPERTY_NAME = new OptionKey<>(JSRealm.DEBUG_CLASS_NAME);
@@ -437,6 +451,20 @@ public final class JSContextOptions {
     @Option(name = PROFILE_TIME_PRINT_CUMULATIVE_NAME, category = OptionCategory.INTERNAL, help = "Print cumulative time when time profiling is enabled.") //
     public static final OptionKey<Boolean> PROFILE_TIME_PRINT_CUMULATIVE = new OptionKey<>(false);
 
+    public static final String PROFILER_BUILTIN_NAME = JS_OPTION_PREFIX + "profiler-builtin";
+    @Option(name = PROFILER_BUILTIN_NAME, category = OptionCategory.EXPERT, help = "Provide the sampling and allocation profilers as Graal.profiler and Graal.allocationProfiler.") //
+    public static final OptionKey<Boolean> PROFILER_BUILTIN = new OptionKey<>(false);
+
+    public static final String METRICS_NAME = JS_OPTION_PREFIX + "metrics";
+    @Option(name = METRICS_NAME, category = OptionCategory.EXPERT, help = "Collect runtime metrics (megamorphic caches, promise job queue depth) and provide them as Graal.metrics().") //
+    public static final OptionKey<Boolean> METRICS = new OptionKey<>(false);
+    @CompilationFinal private boolean metrics;
+
+    public static final String ARRAY_LENGTH_FEEDBACK_NAME = JS_OPTION_PREFIX + "array-length-feedback";
+    @Option(name = ARRAY_LENGTH_FEEDBACK_NAME, category = OptionCategory.EXPERT, help = "Presize arrays created by empty array literals to the length most arrays of the literal have recently grown to.") //
+    public static final OptionKey<Boolean> ARRAY_LENGTH_FEEDBACK = new OptionKey<>(false);
+    @CompilationFinal private boolean arrayLengthFeedback;
+
     public static final String TEST_CLONE_UNINITIALIZED_NAME = JS_OPTION_PREFIX + "test-clone-uninitialized";
     @Option(name = TEST_CLONE_UNINITIALIZED_NAME, category = OptionCategory.INTERNAL, help = "Test uninitialized cloning.") //
     public static final OptionKey<Boolean> TEST_CLONE_UNINITIALIZED = new OptionKey<>(false);
@@ -548,12 +576,16 @@ public final class JSContextOptions {
         this.testV8Mode = readBooleanOption(TESTV8_MODE);
         this.validateRegExpLiterals = readBooleanOption(VALIDATE_REGEXP_LITERALS);
         this.functionConstructorCacheSize = readIntegerOption(FUNCTION_CONSTRUCTOR_CACHE_SIZE);
+        this.evalCacheSize = readIntegerOption(EVAL_CACHE_SIZE);
         this.stringLengthLimit = readIntegerOption(STRING_LENGTH_LIMIT);
         this.bindMemberFunctions = readBooleanOption(BIND_MEMBER_FUNCTIONS);
         this.commonJSRequire = readBooleanOption(COMMONJS_REQUIRE);
         this.regexRegressionTestMode = readBooleanOption(REGEX_REGRESSION_TEST_MODE);
         this.interopCompletePromises = readBooleanOption(INTEROP_COMPLETE_PROMISES);
+        this.interopCompletionStage = readBooleanOption(INTEROP_COMPLETION_STAGE);
         this.testCloneUninitialized = readBooleanOption(TEST_CLONE_UNINITIALIZED);
+        this.metrics = readBooleanOption(METRICS);
+        this.arrayLengthFeedback = readBooleanOption(ARRAY_LENGTH_FEEDBACK);
         this.lazyTranslation = readBooleanOption(LAZY_TRANSLATION);
         this.stackTraceLimit = readIntegerOption(STACK_TRACE_LIMIT);
         this.maxTypedArrayLength = readIntegerOption(MAX_TYPED_ARRAY_LENGTH);
@@ -843,6 +875,10 @@ public final class JSContextOptions {
         return functionConstructorCacheSize;
     }
 
+    public int getEvalCacheSize() {
+        return evalCacheSize;
+    }
+
     public int getStringLengthLimit() {
         return stringLengthLimit;
     }
@@ -859,6 +895,10 @@ public final class JSContextOptions {
         return interopCompletePromises;
     }
 
+    public boolean interopCompletionStage() {
+        return interopCompletionStage;
+    }
+
     public String getDebugPropertyName() {
         CompilerAsserts.neverPartOfCompilation("Context patchable option debug-property-name was assumed not to be accessed in compiled code.");
         return DEBUG_PROPERTY_NAME.getValue(optionValues);
@@ -869,6 +909,19 @@ public final class JSContextOptions {
         return PROFILE_TIME.getValue(optionValues);
     }
 
+    public boolean isProfilerBuiltin() {
+        CompilerAsserts.neverPartOfCompilation("Context patchable option profiler-builtin was assumed not to be accessed in compiled code.");
+        return PROFILER_BUILTIN.getValue(optionValues);
+    }
+
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    public boolean isArrayLengthFeedback() {
+        return arrayLengthFeedback;
+    }
+
     public boolean isTestCloneUninitialized() {
         return testCloneUninitialized;
     }
@@ -943,12 +996,16 @@ public final class JSContextOptions {
         hash = 53 * hash + (this.testV8Mode ? 1 : 0);
         hash = 53 * hash + (this.validateRegExpLiterals ? 1 : 0);
         hash = 53 * hash + this.functionConstructorCacheSize;
+        hash = 53 * hash + this.evalCacheSize;
         hash = 53 * hash + this.stringLengthLimit;
         hash = 53 * hash + (this.bindMemberFunctions ? 1 : 0);
         hash = 53 * hash + (this.commonJSRequire ? 1 : 0);
         hash = 53 * hash + (this.regexRegressionTestMode ? 1 : 0);
         hash = 53 * hash + (this.interopCompletePromises ? 1 : 0);
+        hash = 53 * hash + (this.interopCompletionStage ? 1 : 0);
         hash = 53 * hash + (this.testCloneUninitialized ? 1 : 0);
+        hash = 53 * hash + (this.metrics ? 1 : 0);
+        hash = 53 * hash + (this.arrayLengthFeedback ? 1 : 0);
         hash = 53 * hash + (this.lazyTranslation ? 1 : 0);
         hash = 53 * hash + this.stackTraceLimit;
         hash = 53 * hash + (this.asyncStackTraces ? 1 : 0);
@@ -1059,6 +1116,9 @@ public final class JSContextOptions {
         if (this.functionConstructorCacheSize != other.functionConstructorCacheSize) {
             return false;
         }
+        if (this.evalCacheSize != other.evalCacheSize) {
+            return false;
+        }
         if (this.stringLengthLimit != other.stringLengthLimit) {
             return false;
         }
@@ -1074,9 +1134,18 @@ public final class JSContextOptions {
         if (this.interopCompletePromises != other.interopCompletePromises) {
             return false;
         }
+        if (this.interopCompletionStage != other.interopCompletionStage) {
+            return false;
+        }
         if (this.testCloneUninitialized != other.testCloneUninitialized) {
             return false;
         }
+        if (this.metrics != other.metrics) {
+            return false;
+        }
+        if (this.arrayLengthFeedback != other.arrayLengthFeedback) {
+            return false;
+        }
         if (this.lazyTranslation != other.lazyTranslation) {
             return false;
         }
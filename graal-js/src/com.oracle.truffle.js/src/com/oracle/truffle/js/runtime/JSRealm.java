@@ -42,18 +42,23 @@ package com.oracle.truffle.js.runtime;
 
 import static com.oracle.truffle.js.lang.JavaScriptLanguage.MODULE_SOURCE_NAME_SUFFIX;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Writer;
 import java.time.DateTimeException;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.SplittableRandom;
 import java.util.WeakHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.graalvm.home.HomeFinder;
 import org.graalvm.options.OptionValues;
@@ -67,9 +72,12 @@ import com.oracle.truffle.api.TruffleContext;
 import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.DynamicObjectLibrary;
 import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.builtins.AllocationProfilerBuiltins;
 import com.oracle.truffle.js.builtins.ArrayIteratorPrototypeBuiltins;
 import com.oracle.truffle.js.builtins.AtomicsBuiltins;
 import com.oracle.truffle.js.builtins.ConsoleBuiltins;
@@ -79,9 +87,11 @@ import com.oracle.truffle.js.builtins.GlobalBuiltins;
 import com.oracle.truffle.js.builtins.JSBuiltinsContainer;
 import com.oracle.truffle.js.builtins.JavaBuiltins;
 import com.oracle.truffle.js.builtins.MapIteratorPrototypeBuiltins;
+import com.oracle.truffle.js.builtins.MetricsBuiltins;
 import com.oracle.truffle.js.builtins.ObjectFunctionBuiltins;
 import com.oracle.truffle.js.builtins.PerformanceBuiltins;
 import com.oracle.truffle.js.builtins.PolyglotBuiltins;
+import com.oracle.truffle.js.builtins.ProfilerBuiltins;
 import com.oracle.truffle.js.builtins.RealmFunctionBuiltins;
 import com.oracle.truffle.js.builtins.ReflectBuiltins;
 import com.oracle.truffle.js.builtins.RegExpBuiltins;
@@ -111,6 +121,7 @@ import com.oracle.truffle.js.runtime.builtins.JSFinalizationRegistry;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSGlobal;
+import com.oracle.truffle.js.runtime.builtins.JSGlobalObject;
 import com.oracle.truffle.js.runtime.builtins.JSMap;
 import com.oracle.truffle.js.runtime.builtins.JSMath;
 import com.oracle.truffle.js.runtime.builtins.JSNumber;
@@ -151,9 +162,12 @@ import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSModuleLoader;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.runtime.util.LRUCache;
 import com.oracle.truffle.js.runtime.util.PrintWriterWrapper;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 
@@ -174,6 +188,9 @@ public class JSRealm {
     public static final String PERFORMANCE_CLASS_NAME = "performance";
     public static final String DEBUG_CLASS_NAME = "Debug";
     public static final String CONSOLE_CLASS_NAME = "Console";
+    public static final String PROFILER_CLASS_NAME = "Profiler";
+    public static final String ALLOCATION_PROFILER_CLASS_NAME = "AllocationProfiler";
+    public static final String METRICS_CLASS_NAME = "Metrics";
 
     private static final String GRAALVM_VERSION = HomeFinder.getInstance().getVersion();
 
@@ -198,24 +215,24 @@ public class JSRealm {
     private final DynamicObject stringPrototype;
     private final DynamicObject regExpConstructor;
     private final DynamicObject regExpPrototype;
-    private final DynamicObject collatorConstructor;
-    private final DynamicObject collatorPrototype;
-    private final DynamicObject numberFormatConstructor;
-    private final DynamicObject numberFormatPrototype;
-    private final DynamicObject pluralRulesConstructor;
-    private final DynamicObject pluralRulesPrototype;
-    private final DynamicObject listFormatConstructor;
-    private final DynamicObject listFormatPrototype;
-    private final DynamicObject dateTimeFormatConstructor;
-    private final DynamicObject dateTimeFormatPrototype;
-    private final DynamicObject relativeTimeFormatConstructor;
-    private final DynamicObject relativeTimeFormatPrototype;
-    private final DynamicObject segmenterConstructor;
-    private final DynamicObject segmenterPrototype;
-    private final DynamicObject displayNamesConstructor;
-    private final DynamicObject displayNamesPrototype;
-    private final DynamicObject localeConstructor;
-    private final DynamicObject localePrototype;
+    private DynamicObject collatorConstructor;
+    private DynamicObject collatorPrototype;
+    private DynamicObject numberFormatConstructor;
+    private DynamicObject numberFormatPrototype;
+    private DynamicObject pluralRulesConstructor;
+    private DynamicObject pluralRulesPrototype;
+    private DynamicObject listFormatConstructor;
+    private DynamicObject listFormatPrototype;
+    private DynamicObject dateTimeFormatConstructor;
+    private DynamicObject dateTimeFormatPrototype;
+    private DynamicObject relativeTimeFormatConstructor;
+    private DynamicObject relativeTimeFormatPrototype;
+    private DynamicObject segmenterConstructor;
+    private DynamicObject segmenterPrototype;
+    private DynamicObject displayNamesConstructor;
+    private DynamicObject displayNamesPrototype;
+    private DynamicObject localeConstructor;
+    private DynamicObject localePrototype;
     private final DynamicObject dateConstructor;
     private final DynamicObject datePrototype;
     @CompilationFinal(dimensions = 1) private final DynamicObject[] errorConstructors;
@@ -273,7 +290,7 @@ public class JSRealm {
     private final DynamicObject arrayIteratorPrototype;
     private final DynamicObject setIteratorPrototype;
     private final DynamicObject mapIteratorPrototype;
-    private final DynamicObject segmentIteratorPrototype;
+    private DynamicObject segmentIteratorPrototype;
     private final DynamicObject stringIteratorPrototype;
     private final DynamicObject regExpStringIteratorPrototype;
     private final DynamicObject enumerateIteratorPrototype;
@@ -297,19 +314,27 @@ public class JSRealm {
 
     private final DynamicObject promiseConstructor;
     private final DynamicObject promisePrototype;
+    private final Object promisePrototypeThen;
     private DynamicObject promiseAllFunctionObject;
 
     @CompilationFinal private DynamicObject javaPackageToPrimitiveFunction;
 
     private final DynamicObject arrayProtoValuesIterator;
+    private final Object arrayIteratorPrototypeNext;
     @CompilationFinal private DynamicObject typedArrayConstructor;
     @CompilationFinal private DynamicObject typedArrayPrototype;
 
     private DynamicObject preinitIntlObject;
+    /** Initialized Intl service objects and ICU objects, see {@link #getCachedIntlObject}. */
+    private LRUCache<Object, Object> intlCache;
+    /** Keys of the sources submitted for parsing on background threads by this realm. */
+    private List<Object> parseAheadKeys;
     private DynamicObject preinitConsoleBuiltinObject;
     private DynamicObject preinitPerformanceObject;
 
     private volatile Map<Object, DynamicObject> templateRegistry;
+    /** Frame-independent parts of stack trace elements, keyed by call node. */
+    private volatile Map<Node, GraalJSException.CallSiteInfo> stackTraceCallSiteCache;
 
     private final DynamicObject globalScope;
 
@@ -470,6 +495,7 @@ public class JSRealm {
             ctor = JSPromise.createConstructor(this);
             this.promiseConstructor = ctor.getFunctionObject();
             this.promisePrototype = ctor.getPrototype();
+            this.promisePrototypeThen = JSDynamicObject.getOrDefault(promisePrototype, JSPromise.THEN, Undefined.instance);
         } else {
             this.symbolConstructor = null;
             this.symbolPrototype = null;
@@ -485,6 +511,7 @@ public class JSRealm {
             this.proxyPrototype = null;
             this.promiseConstructor = null;
             this.promisePrototype = null;
+            this.promisePrototypeThen = Undefined.instance;
         }
 
         this.errorConstructors = new DynamicObject[JSErrorType.errorTypes().length];
@@ -520,35 +547,6 @@ public class JSRealm {
         this.stringIteratorPrototype = es6 ? createStringIteratorPrototype() : null;
         this.regExpStringIteratorPrototype = context.getContextOptions().getEcmaScriptVersion() >= JSConfig.ECMAScript2019 ? createRegExpStringIteratorPrototype() : null;
 
-        ctor = JSCollator.createConstructor(this);
-        this.collatorConstructor = ctor.getFunctionObject();
-        this.collatorPrototype = ctor.getPrototype();
-        ctor = JSNumberFormat.createConstructor(this);
-        this.numberFormatConstructor = ctor.getFunctionObject();
-        this.numberFormatPrototype = ctor.getPrototype();
-        ctor = JSDateTimeFormat.createConstructor(this);
-        this.dateTimeFormatConstructor = ctor.getFunctionObject();
-        this.dateTimeFormatPrototype = ctor.getPrototype();
-        ctor = JSPluralRules.createConstructor(this);
-        this.pluralRulesConstructor = ctor.getFunctionObject();
-        this.pluralRulesPrototype = ctor.getPrototype();
-        ctor = JSListFormat.createConstructor(this);
-        this.listFormatConstructor = ctor.getFunctionObject();
-        this.listFormatPrototype = ctor.getPrototype();
-        ctor = JSRelativeTimeFormat.createConstructor(this);
-        this.relativeTimeFormatConstructor = ctor.getFunctionObject();
-        this.relativeTimeFormatPrototype = ctor.getPrototype();
-        ctor = JSSegmenter.createConstructor(this);
-        this.segmenterConstructor = ctor.getFunctionObject();
-        this.segmenterPrototype = ctor.getPrototype();
-        this.segmentIteratorPrototype = JSSegmenter.createSegmentIteratorPrototype(context, this);
-        ctor = JSDisplayNames.createConstructor(this);
-        this.displayNamesConstructor = ctor.getFunctionObject();
-        this.displayNamesPrototype = ctor.getPrototype();
-        ctor = JSLocale.createConstructor(this);
-        this.localeConstructor = ctor.getFunctionObject();
-        this.localePrototype = ctor.getPrototype();
-
         if (es6) {
             ctor = JSFunction.createGeneratorFunctionConstructor(this);
             this.generatorFunctionConstructor = ctor.getFunctionObject();
@@ -562,6 +560,7 @@ public class JSRealm {
         this.enumerateIteratorPrototype = JSFunction.createEnumerateIteratorPrototype(this);
         this.forInIteratorPrototype = JSFunction.createForInIteratorPrototype(this);
         this.arrayProtoValuesIterator = (DynamicObject) JSDynamicObject.getOrDefault(getArrayPrototype(), Symbol.SYMBOL_ITERATOR, Undefined.instance);
+        this.arrayIteratorPrototypeNext = es6 ? JSDynamicObject.getOrDefault(arrayIteratorPrototype, JSRuntime.NEXT, Undefined.instance) : Undefined.instance;
 
         if (context.isOptionSharedArrayBuffer()) {
             ctor = JSSharedArrayBuffer.createConstructor(this);
@@ -771,50 +770,62 @@ public class JSRealm {
     }
 
     public final DynamicObject getCollatorConstructor() {
+        ensureIntlInitialized();
         return collatorConstructor;
     }
 
     public final DynamicObject getCollatorPrototype() {
+        ensureIntlInitialized();
         return collatorPrototype;
     }
 
     public final DynamicObject getNumberFormatConstructor() {
+        ensureIntlInitialized();
         return numberFormatConstructor;
     }
 
     public final DynamicObject getNumberFormatPrototype() {
+        ensureIntlInitialized();
         return numberFormatPrototype;
     }
 
     public final DynamicObject getPluralRulesConstructor() {
+        ensureIntlInitialized();
         return pluralRulesConstructor;
     }
 
     public final DynamicObject getPluralRulesPrototype() {
+        ensureIntlInitialized();
         return pluralRulesPrototype;
     }
 
     public final DynamicObject getListFormatConstructor() {
+        ensureIntlInitialized();
         return listFormatConstructor;
     }
 
     public final DynamicObject getListFormatPrototype() {
+        ensureIntlInitialized();
         return listFormatPrototype;
     }
 
     public final DynamicObject getRelativeTimeFormatConstructor() {
+        ensureIntlInitialized();
         return relativeTimeFormatConstructor;
     }
 
     public final DynamicObject getRelativeTimeFormatPrototype() {
+        ensureIntlInitialized();
         return relativeTimeFormatPrototype;
     }
 
     public final DynamicObject getDateTimeFormatConstructor() {
+        ensureIntlInitialized();
         return dateTimeFormatConstructor;
     }
 
     public final DynamicObject getDateTimeFormatPrototype() {
+        ensureIntlInitialized();
         return dateTimeFormatPrototype;
     }
 
@@ -827,29 +838,80 @@ public class JSRealm {
     }
 
     public final DynamicObject getSegmenterConstructor() {
+        ensureIntlInitialized();
         return segmenterConstructor;
     }
 
     public final DynamicObject getSegmenterPrototype() {
+        ensureIntlInitialized();
         return segmenterPrototype;
     }
 
     public final DynamicObject getDisplayNamesConstructor() {
+        ensureIntlInitialized();
         return displayNamesConstructor;
     }
 
     public final DynamicObject getDisplayNamesPrototype() {
+        ensureIntlInitialized();
         return displayNamesPrototype;
     }
 
     public final DynamicObject getLocaleConstructor() {
+        ensureIntlInitialized();
         return localeConstructor;
     }
 
     public final DynamicObject getLocalePrototype() {
+        ensureIntlInitialized();
         return localePrototype;
     }
 
+    /**
+     * The ECMA-402 constructors and prototypes are only needed once Intl or one of the
+     * locale-sensitive built-ins is used, so they are created on first request rather than with the
+     * realm.
+     */
+    private void ensureIntlInitialized() {
+        // the realm is not a compilation constant with a shared engine, so this must not
+        // invalidate compiled code
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, localePrototype == null)) {
+            initializeIntl();
+        }
+    }
+
+    @TruffleBoundary
+    private void initializeIntl() {
+        JSConstructor ctor = JSCollator.createConstructor(this);
+        this.collatorConstructor = ctor.getFunctionObject();
+        this.collatorPrototype = ctor.getPrototype();
+        ctor = JSNumberFormat.createConstructor(this);
+        this.numberFormatConstructor = ctor.getFunctionObject();
+        this.numberFormatPrototype = ctor.getPrototype();
+        ctor = JSDateTimeFormat.createConstructor(this);
+        this.dateTimeFormatConstructor = ctor.getFunctionObject();
+        this.dateTimeFormatPrototype = ctor.getPrototype();
+        ctor = JSPluralRules.createConstructor(this);
+        this.pluralRulesConstructor = ctor.getFunctionObject();
+        this.pluralRulesPrototype = ctor.getPrototype();
+        ctor = JSListFormat.createConstructor(this);
+        this.listFormatConstructor = ctor.getFunctionObject();
+        this.listFormatPrototype = ctor.getPrototype();
+        ctor = JSRelativeTimeFormat.createConstructor(this);
+        this.relativeTimeFormatConstructor = ctor.getFunctionObject();
+        this.relativeTimeFormatPrototype = ctor.getPrototype();
+        ctor = JSSegmenter.createConstructor(this);
+        this.segmenterConstructor = ctor.getFunctionObject();
+        this.segmenterPrototype = ctor.getPrototype();
+        this.segmentIteratorPrototype = JSSegmenter.createSegmentIteratorPrototype(context, this);
+        ctor = JSDisplayNames.createConstructor(this);
+        this.displayNamesConstructor = ctor.getFunctionObject();
+        this.displayNamesPrototype = ctor.getPrototype();
+        ctor = JSLocale.createConstructor(this);
+        this.localeConstructor = ctor.getFunctionObject();
+        this.localePrototype = ctor.getPrototype();
+    }
+
     public final DynamicObject getSymbolConstructor() {
         return symbolConstructor;
     }
@@ -1031,6 +1093,20 @@ public class JSRealm {
         }
     }
 
+    final Map<Node, GraalJSException.CallSiteInfo> getStackTraceCallSiteCache() {
+        if (stackTraceCallSiteCache == null) {
+            createStackTraceCallSiteCache();
+        }
+        return stackTraceCallSiteCache;
+    }
+
+    @TruffleBoundary
+    private synchronized void createStackTraceCallSiteCache() {
+        if (stackTraceCallSiteCache == null) {
+            stackTraceCallSiteCache = Collections.synchronizedMap(new WeakHashMap<>());
+        }
+    }
+
     public final Object getEvalFunctionObject() {
         return evalFunctionObject;
     }
@@ -1115,6 +1191,7 @@ public class JSRealm {
     }
 
     public DynamicObject getSegmentIteratorPrototype() {
+        ensureIntlInitialized();
         return segmentIteratorPrototype;
     }
 
@@ -1141,6 +1218,13 @@ public class JSRealm {
         return promisePrototype;
     }
 
+    /**
+     * The initial value of %Promise.prototype%.then.
+     */
+    public Object getPromisePrototypeThen() {
+        return promisePrototypeThen;
+    }
+
     public final JSObjectFactory.RealmData getObjectFactories() {
         return objectFactories;
     }
@@ -1238,7 +1322,7 @@ public class JSRealm {
             putGlobalProperty(SHARED_ARRAY_BUFFER_CLASS_NAME, getSharedArrayBufferConstructor());
         }
         if (context.isOptionAtomics()) {
-            putGlobalProperty(ATOMICS_CLASS_NAME, createAtomics());
+            putLazyGlobalProperty(ATOMICS_LAZY_PROXY);
         }
         if (context.getEcmaScriptVersion() >= JSConfig.ECMAScript2019) {
             putGlobalProperty("globalThis", global);
@@ -1379,7 +1463,11 @@ public class JSRealm {
 
     private void addIntlGlobal() {
         if (context.isOptionIntl402()) {
-            putGlobalProperty(JSIntl.CLASS_NAME, preinitIntlObject != null ? preinitIntlObject : createIntlObject());
+            if (preinitIntlObject != null) {
+                putGlobalProperty(JSIntl.CLASS_NAME, preinitIntlObject);
+            } else {
+                putLazyGlobalProperty(INTL_LAZY_PROXY);
+            }
         }
     }
 
@@ -1414,6 +1502,13 @@ public class JSRealm {
         JSObjectUtil.putDataProperty(context, graalObject, "versionGraalVM", GRAALVM_VERSION, flags);
         JSObjectUtil.putDataProperty(context, graalObject, "versionJS", GRAALVM_VERSION, flags);
         JSObjectUtil.putDataProperty(context, graalObject, "isGraalRuntime", JSFunction.create(this, isGraalRuntimeFunction(context)), flags);
+        if (context.getContextOptions().isProfilerBuiltin()) {
+            JSObjectUtil.putDataProperty(context, graalObject, "profiler", createProfilerObject(), flags);
+            JSObjectUtil.putDataProperty(context, graalObject, "allocationProfiler", createAllocationProfilerObject(), flags);
+        }
+        if (context.getMetrics() != null) {
+            JSObjectUtil.putDataProperty(context, graalObject, "metrics", createMetricsObject(), flags);
+        }
         putGlobalProperty("Graal", graalObject);
     }
 
@@ -1444,6 +1539,13 @@ public class JSRealm {
         JSObjectUtil.putDataProperty(getContext(), getGlobalObject(), key, value, attributes);
     }
 
+    /**
+     * Defines a global property whose value is only created when the property is first accessed.
+     */
+    private void putLazyGlobalProperty(LazyGlobalPropertyProxy proxy) {
+        JSObjectUtil.putProxyProperty(getGlobalObject(), proxy.key, proxy, JSAttributes.getDefaultNotEnumerable());
+    }
+
     private void putProperty(DynamicObject receiver, Object key, Object value) {
         JSObjectUtil.putDataProperty(getContext(), receiver, key, value, JSAttributes.getDefaultNotEnumerable());
     }
@@ -1519,7 +1621,11 @@ public class JSRealm {
 
     private void addConsoleGlobals() {
         if (context.getContextOptions().isConsole()) {
-            putGlobalProperty("console", preinitConsoleBuiltinObject != null ? preinitConsoleBuiltinObject : createConsoleObject());
+            if (preinitConsoleBuiltinObject != null) {
+                putGlobalProperty(CONSOLE_NAME, preinitConsoleBuiltinObject);
+            } else {
+                putLazyGlobalProperty(CONSOLE_LAZY_PROXY);
+            }
         }
     }
 
@@ -1602,6 +1708,13 @@ public class JSRealm {
         return arrayProtoValuesIterator;
     }
 
+    /**
+     * The initial value of %ArrayIteratorPrototype%.next.
+     */
+    public Object getArrayIteratorPrototypeNext() {
+        return arrayIteratorPrototypeNext;
+    }
+
     private DynamicObject createReflect() {
         DynamicObject obj = JSObjectUtil.createOrdinaryPrototypeObject(this, this.getObjectPrototype());
         JSObjectUtil.putToStringTag(obj, REFLECT_CLASS_NAME);
@@ -1704,6 +1817,27 @@ public class JSRealm {
         return obj;
     }
 
+    private DynamicObject createProfilerObject() {
+        DynamicObject obj = JSOrdinary.createInit(this);
+        JSObjectUtil.putToStringTag(obj, PROFILER_CLASS_NAME);
+        JSObjectUtil.putFunctionsFromContainer(this, obj, ProfilerBuiltins.BUILTINS);
+        return obj;
+    }
+
+    private DynamicObject createAllocationProfilerObject() {
+        DynamicObject obj = JSOrdinary.createInit(this);
+        JSObjectUtil.putToStringTag(obj, ALLOCATION_PROFILER_CLASS_NAME);
+        JSObjectUtil.putFunctionsFromContainer(this, obj, AllocationProfilerBuiltins.BUILTINS);
+        return obj;
+    }
+
+    private DynamicObject createMetricsObject() {
+        DynamicObject obj = JSOrdinary.createInit(this);
+        JSObjectUtil.putToStringTag(obj, METRICS_CLASS_NAME);
+        JSObjectUtil.putFunctionsFromContainer(this, obj, MetricsBuiltins.BUILTINS);
+        return obj;
+    }
+
     private DynamicObject createDebugObject() {
         DynamicObject obj = JSOrdinary.createInit(this);
         JSObjectUtil.putToStringTag(obj, DEBUG_CLASS_NAME);
@@ -1802,6 +1936,8 @@ public class JSRealm {
             setErrorWriter(null, newEnv.err());
         }
 
+        parseAheadFromEnv(newEnv);
+
         // During context pre-initialization, optional globals are not added to global
         // environment. During context-patching time, we are obliged to call addOptionalGlobals
         // to add any necessary globals.
@@ -1813,6 +1949,8 @@ public class JSRealm {
         if (localTimeZoneId != null) {
             localTimeZoneId = getTimeZoneFromEnv();
         }
+        // Cached Intl objects may depend on the default time zone.
+        intlCache = null;
         initTimeOffsetAndRandom();
 
         // Patch the RegExp constructor's static result properties
@@ -1828,6 +1966,8 @@ public class JSRealm {
             return;
         }
 
+        parseAheadFromEnv(getEnv());
+
         addOptionalGlobals();
 
         addArgumentsFromEnv(getEnv());
@@ -1843,6 +1983,48 @@ public class JSRealm {
         preinitPerformanceObject = createPerformanceObject();
     }
 
+    /**
+     * Submits the files listed in {@code js.parse-ahead} for parsing on background threads.
+     */
+    @TruffleBoundary
+    private void parseAheadFromEnv(TruffleLanguage.Env newEnv) {
+        String files = JSContextOptions.PARSE_AHEAD.getValue(newEnv.getOptions());
+        if (files.isEmpty()) {
+            return;
+        }
+        List<Source> sources = new ArrayList<>();
+        for (String path : files.split(File.pathSeparator)) {
+            if (path.isEmpty()) {
+                continue;
+            }
+            try {
+                TruffleFile file = newEnv.getPublicTruffleFile(path);
+                sources.add(Source.newBuilder(JavaScriptLanguage.ID, file).build());
+            } catch (IOException | SecurityException | UnsupportedOperationException | IllegalArgumentException e) {
+                // reported when the file is evaluated
+            }
+        }
+        List<Object> keys = context.getEvaluator().parseAhead(context, sources);
+        if (parseAheadKeys == null) {
+            parseAheadKeys = keys;
+        } else {
+            parseAheadKeys.addAll(keys);
+        }
+    }
+
+    /**
+     * Drops the results of the sources submitted by {@link #parseAheadFromEnv} that have not been
+     * evaluated, e.g. after an early exit.
+     */
+    public void cancelParseAhead() {
+        if (parseAheadKeys != null) {
+            for (Object key : parseAheadKeys) {
+                context.cancelParseAheadResult(key);
+            }
+            parseAheadKeys = null;
+        }
+    }
+
     private void addArgumentsFromEnv(TruffleLanguage.Env newEnv) {
         String[] applicationArguments = newEnv.getApplicationArguments();
         if (context.getContextOptions().isGlobalArguments()) {
@@ -2077,6 +2259,50 @@ public class JSRealm {
         this.agent = newAgent;
     }
 
+    /**
+     * Returns an Intl service object or ICU object cached in this realm, or {@code null}. The key
+     * has to identify everything the object depends on, i.e., the kind of object, the locales and
+     * the resolved options. Cached objects must not be exposed to user code, and ICU objects must
+     * be frozen or copied before they are modified. Hits and misses are counted if
+     * {@code js.metrics} is enabled.
+     */
+    @TruffleBoundary
+    public Object getCachedIntlObject(Object key) {
+        Object cached = intlCache == null ? null : intlCache.get(key);
+        JSMetrics metrics = context.getMetrics();
+        if (metrics != null) {
+            metrics.increment(cached != null ? JSMetrics.INTL_CACHE_HIT : JSMetrics.INTL_CACHE_MISS);
+        }
+        return cached;
+    }
+
+    @TruffleBoundary
+    public void putCachedIntlObject(Object key, Object value) {
+        if (intlCache == null) {
+            intlCache = new LRUCache<>(JSConfig.IntlCacheSize);
+        }
+        intlCache.put(key, value);
+    }
+
+    /**
+     * Returns the Intl object cached under the given key, creating and caching it on a miss. A
+     * {@code null} key (see {@link com.oracle.truffle.js.runtime.util.IntlUtil#serviceObjectCacheKey}) means that the object must not
+     * be shared, so a new one is created for every call.
+     */
+    @TruffleBoundary
+    public <T> T getOrCreateCachedIntlObject(Object key, Supplier<T> creator) {
+        if (key == null) {
+            return creator.get();
+        }
+        @SuppressWarnings("unchecked")
+        T cached = (T) getCachedIntlObject(key);
+        if (cached == null) {
+            cached = creator.get();
+            putCachedIntlObject(key, cached);
+        }
+        return cached;
+    }
+
     public ZoneId getLocalTimeZoneId() {
         ZoneId id = localTimeZoneId;
         if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, id == null)) {
@@ -2162,6 +2388,55 @@ public class JSRealm {
         v8RealmCurrent = realm;
     }
 
+    private static final String CONSOLE_NAME = "console";
+
+    private static final LazyGlobalPropertyProxy INTL_LAZY_PROXY = new LazyGlobalPropertyProxy(JSIntl.CLASS_NAME, JSRealm::createIntlObject);
+    private static final LazyGlobalPropertyProxy ATOMICS_LAZY_PROXY = new LazyGlobalPropertyProxy(ATOMICS_CLASS_NAME, JSRealm::createAtomics);
+    private static final LazyGlobalPropertyProxy CONSOLE_LAZY_PROXY = new LazyGlobalPropertyProxy(CONSOLE_NAME, JSRealm::createConsoleObject);
+
+    /**
+     * Placeholder for a built-in global whose value is created on first access. Reading the
+     * property creates the value in the realm of the global object and replaces the placeholder
+     * with an ordinary data property with the same attributes. Writing the property replaces the
+     * placeholder with the written value without creating the built-in at all.
+     */
+    private static final class LazyGlobalPropertyProxy implements PropertyProxy {
+        private final Object key;
+        private final Function<JSRealm, DynamicObject> factory;
+
+        LazyGlobalPropertyProxy(Object key, Function<JSRealm, DynamicObject> factory) {
+            this.key = key;
+            this.factory = factory;
+        }
+
+        @TruffleBoundary
+        @Override
+        public Object get(DynamicObject store) {
+            DynamicObject value = factory.apply(realmOf(store));
+            materialize(store, value);
+            return value;
+        }
+
+        @TruffleBoundary
+        @Override
+        public boolean set(DynamicObject store, Object value) {
+            materialize(store, value);
+            return true;
+        }
+
+        private void materialize(DynamicObject store, Object value) {
+            int flags = DynamicObjectLibrary.getUncached().getPropertyFlags(store, key, JSAttributes.getDefaultNotEnumerable());
+            JSObjectUtil.defineDataProperty(store, key, value, flags & ~JSProperty.PROXY);
+        }
+
+        private static JSRealm realmOf(DynamicObject store) {
+            if (store instanceof JSGlobalObject && ((JSGlobalObject) store).getRealm() != null) {
+                return ((JSGlobalObject) store).getRealm();
+            }
+            return JSObject.getJSContext(store).getRealm();
+        }
+    }
+
     private static final String REALM_SHARED_NAME = "shared";
     private static final PropertyProxy REALM_SHARED_PROXY = new RealmSharedPropertyProxy();
 
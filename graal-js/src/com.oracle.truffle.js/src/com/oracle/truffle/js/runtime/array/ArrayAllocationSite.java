@@ -47,4 +47,19 @@ public interface ArrayAllocationSite {
     default ScriptArray getInitialArrayType() {
         return null;
     }
+
+    /**
+     * Called when the backing store of an array allocated at this site is grown from
+     * {@code oldCapacity} to {@code newCapacity}.
+     */
+    default void notifyArrayGrowth(@SuppressWarnings("unused") int oldCapacity, @SuppressWarnings("unused") int newCapacity) {
+    }
+
+    /**
+     * Returns the backing store size for the first elements written to an empty array allocated at
+     * this site, or 0 to use the default size. Called once per array.
+     */
+    default int nextInitialCapacity() {
+        return 0;
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.array;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.JSConfig;
+
+/**
+ * Allocation site that records how far the backing stores of its arrays grow, so that subsequent
+ * arrays can be allocated with a backing store of that size right away instead of being copied
+ * repeatedly while they are filled (e.g., by {@code push} in a loop).
+ *
+ * The site works in periods of {@link JSConfig#ArrayLengthFeedbackPeriod} arrays. The first
+ * {@link JSConfig#ArrayLengthFeedbackSamples} arrays of a period are allocated with the default
+ * size and their growth is recorded per power-of-two capacity. The remaining arrays of the period
+ * are presized to the largest such capacity that a majority of the sampled arrays reached, up to
+ * {@link JSConfig#MaxArrayLengthFeedback}. Thus a few large arrays do not inflate the others, and
+ * the presize is dropped again once the arrays of the site stop growing. Racy updates only affect
+ * the heuristic.
+ */
+public class LengthTrackingAllocationSite implements ArrayAllocationSite {
+
+    private static final int CAPACITY_BUCKETS = Integer.numberOfTrailingZeros(JSConfig.MaxArrayLengthFeedback) + 1;
+
+    /** Arrays allocated in the current period. */
+    private int allocations;
+    /** Backing store size of the presized arrays of the current period, or 0. */
+    private int initialCapacity;
+    /** Number of sampled arrays whose backing store has grown to at least {@code 1 << i}. */
+    private int[] grownToCapacity;
+
+    @Override
+    public int nextInitialCapacity() {
+        int count = allocations + 1;
+        if (count <= JSConfig.ArrayLengthFeedbackSamples) {
+            allocations = count;
+            return 0;
+        }
+        if (count == JSConfig.ArrayLengthFeedbackSamples + 1) {
+            updateInitialCapacity();
+        }
+        allocations = count < JSConfig.ArrayLengthFeedbackPeriod ? count : 0;
+        return initialCapacity;
+    }
+
+    @TruffleBoundary
+    private void updateInitialCapacity() {
+        int[] grown = grownToCapacity;
+        int newCapacity = 0;
+        if (grown != null) {
+            for (int i = grown.length - 1; i >= 0; i--) {
+                if (grown[i] * 2 > JSConfig.ArrayLengthFeedbackSamples) {
+                    newCapacity = 1 << i;
+                    break;
+                }
+            }
+            Arrays.fill(grown, 0);
+        }
+        initialCapacity = newCapacity;
+    }
+
+    @TruffleBoundary
+    @Override
+    public void notifyArrayGrowth(int oldCapacity, int newCapacity) {
+        int count = allocations;
+        if (count == 0 || count > JSConfig.ArrayLengthFeedbackSamples) {
+            // only the growth of sampled arrays is recorded
+            return;
+        }
+        int[] grown = grownToCapacity;
+        if (grown == null) {
+            grown = new int[CAPACITY_BUCKETS];
+            grownToCapacity = grown;
+        }
+        // count the array once for every power of two it has grown past
+        int from = Integer.SIZE - Integer.numberOfLeadingZeros(oldCapacity);
+        int to = Math.min(Integer.SIZE - 1 - Integer.numberOfLeadingZeros(newCapacity), CAPACITY_BUCKETS - 1);
+        for (int i = from; i <= to; i++) {
+            grown[i]++;
+        }
+    }
+}
@@ -46,14 +46,18 @@ import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArra
 import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArrayGetOffset;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.BigInt;
+import com.oracle.truffle.js.runtime.Boundaries;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.BufferUtil;
 
 public abstract class TypedArray extends ScriptArray {
 
@@ -231,6 +235,188 @@ public abstract class TypedArray extends ScriptArray {
 
     public abstract void setBufferElement(DynamicObject buffer, int index, boolean littleEndian, Object value);
 
+    /**
+     * Returns the index of the first element in [fromIndex, toIndex) that is strictly equal to the
+     * given value, or -1 if there is none. If {@code sameValueZero} is true, NaN is found, too.
+     */
+    public abstract int indexOfElement(DynamicObject object, Object value, int fromIndex, int toIndex, boolean sameValueZero);
+
+    /**
+     * Sets all elements in [start, end) to the value of the element at index {@code start}, by
+     * copying its bytes in chunks of doubling size.
+     */
+    public final void fillWithFirstElement(DynamicObject object, int start, int end) {
+        int offset = getOffset(object);
+        int byteStart = offset + start * bytesPerElement;
+        int byteEnd = offset + end * bytesPerElement;
+        if (isDirect()) {
+            ByteBuffer buffer = getByteBuffer(object);
+            int filled = bytesPerElement;
+            while (byteStart + filled < byteEnd) {
+                int chunk = Math.min(filled, byteEnd - byteStart - filled);
+                Boundaries.byteBufferPutSlice(buffer, byteStart + filled, buffer, byteStart, byteStart + chunk);
+                filled += chunk;
+            }
+        } else {
+            byte[] array = getByteArray(object);
+            if (bytesPerElement == 1) {
+                Arrays.fill(array, byteStart + 1, byteEnd, array[byteStart]);
+            } else {
+                int filled = bytesPerElement;
+                while (byteStart + filled < byteEnd) {
+                    int chunk = Math.min(filled, byteEnd - byteStart - filled);
+                    System.arraycopy(array, byteStart, array, byteStart + filled, chunk);
+                    filled += chunk;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies {@code count} elements from index {@code from} to index {@code to}. The ranges may
+     * overlap (as in {@code copyWithin}).
+     */
+    public final void copyElementsWithin(DynamicObject object, int to, int from, int count) {
+        int offset = getOffset(object);
+        int toByteIndex = offset + to * bytesPerElement;
+        int fromByteIndex = offset + from * bytesPerElement;
+        int byteLength = count * bytesPerElement;
+        if (isDirect()) {
+            ByteBuffer buffer = getByteBuffer(object);
+            if (Math.abs(toByteIndex - fromByteIndex) < byteLength) {
+                byteBufferMove(buffer, toByteIndex, fromByteIndex, byteLength);
+            } else {
+                Boundaries.byteBufferPutSlice(buffer, toByteIndex, buffer, fromByteIndex, fromByteIndex + byteLength);
+            }
+        } else {
+            byte[] array = getByteArray(object);
+            System.arraycopy(array, fromByteIndex, array, toByteIndex, byteLength);
+        }
+    }
+
+    @TruffleBoundary
+    private static void byteBufferMove(ByteBuffer buffer, int toByteIndex, int fromByteIndex, int byteLength) {
+        byte[] bytes = new byte[byteLength];
+        ByteBuffer source = buffer.duplicate();
+        BufferUtil.asBaseBuffer(source).position(fromByteIndex);
+        source.get(bytes);
+        ByteBuffer target = buffer.duplicate();
+        BufferUtil.asBaseBuffer(target).position(toByteIndex);
+        target.put(bytes);
+    }
+
+    /**
+     * Copies {@code count} elements starting at index {@code start} to the beginning of
+     * {@code target}, which must be a typed array with the same element type and backing store
+     * kind (i.e. {@code this.getFactory() == targetType.getFactory()} and
+     * {@code this.isDirect() == targetType.isDirect()}).
+     */
+    public final void copyElementsTo(DynamicObject object, int start, DynamicObject target, int count) {
+        Object sourceBuffer = getBufferFromTypedArray(object);
+        Object targetBuffer = getBufferFromTypedArray(target);
+        int sourceByteIndex = getOffset(object) + start * bytesPerElement;
+        int targetByteIndex = typedArrayGetOffset(target);
+        int byteLength = count * bytesPerElement;
+        if (sourceBuffer == targetBuffer && sourceByteIndex < targetByteIndex && targetByteIndex < sourceByteIndex + byteLength) {
+            // overlapping views on the same buffer: the bytes are copied one by one, in order
+            for (int i = 0; i < byteLength; i++) {
+                setRawElement(targetBuffer, targetByteIndex + i, 1, getRawElement(sourceBuffer, sourceByteIndex + i, 1));
+            }
+        } else if (isDirect()) {
+            Boundaries.byteBufferPutSlice((ByteBuffer) targetBuffer, targetByteIndex, (ByteBuffer) sourceBuffer, sourceByteIndex, sourceByteIndex + byteLength);
+        } else {
+            System.arraycopy(sourceBuffer, sourceByteIndex, targetBuffer, targetByteIndex, byteLength);
+        }
+    }
+
+    /**
+     * Reverses the elements in [0, length) in place by swapping their raw bit patterns.
+     */
+    public final void reverseElements(DynamicObject object, int length) {
+        Object buffer = getBufferFromTypedArray(object);
+        int lower = getOffset(object);
+        int upper = lower + (length - 1) * bytesPerElement;
+        while (lower < upper) {
+            long lowerValue = getRawElement(buffer, lower, bytesPerElement);
+            setRawElement(buffer, lower, bytesPerElement, getRawElement(buffer, upper, bytesPerElement));
+            setRawElement(buffer, upper, bytesPerElement, lowerValue);
+            lower += bytesPerElement;
+            upper -= bytesPerElement;
+        }
+    }
+
+    private long getRawElement(Object buffer, int byteIndex, int size) {
+        if (isDirect()) {
+            ByteBufferAccess access = ByteBufferAccess.nativeOrder();
+            ByteBuffer byteBuffer = (ByteBuffer) buffer;
+            switch (size) {
+                case 1:
+                    return access.getInt8(byteBuffer, byteIndex);
+                case 2:
+                    return access.getInt16(byteBuffer, byteIndex);
+                case 4:
+                    return access.getInt32(byteBuffer, byteIndex);
+                default:
+                    assert size == 8;
+                    return access.getInt64(byteBuffer, byteIndex);
+            }
+        } else {
+            ByteArrayAccess access = ByteArrayAccess.nativeOrder();
+            byte[] byteArray = (byte[]) buffer;
+            switch (size) {
+                case 1:
+                    return access.getInt8(byteArray, byteIndex);
+                case 2:
+                    return access.getInt16(byteArray, byteIndex);
+                case 4:
+                    return access.getInt32(byteArray, byteIndex);
+                default:
+                    assert size == 8;
+                    return access.getInt64(byteArray, byteIndex);
+            }
+        }
+    }
+
+    private void setRawElement(Object buffer, int byteIndex, int size, long value) {
+        if (isDirect()) {
+            ByteBufferAccess access = ByteBufferAccess.nativeOrder();
+            ByteBuffer byteBuffer = (ByteBuffer) buffer;
+            switch (size) {
+                case 1:
+                    access.putInt8(byteBuffer, byteIndex, (int) value);
+                    break;
+                case 2:
+                    access.putInt16(byteBuffer, byteIndex, (int) value);
+                    break;
+                case 4:
+                    access.putInt32(byteBuffer, byteIndex, (int) value);
+                    break;
+                default:
+                    assert size == 8;
+                    access.putInt64(byteBuffer, byteIndex, value);
+                    break;
+            }
+        } else {
+            ByteArrayAccess access = ByteArrayAccess.nativeOrder();
+            byte[] byteArray = (byte[]) buffer;
+            switch (size) {
+                case 1:
+                    access.putInt8(byteArray, byteIndex, (int) value);
+                    break;
+                case 2:
+                    access.putInt16(byteArray, byteIndex, (int) value);
+                    break;
+                case 4:
+                    access.putInt32(byteArray, byteIndex, (int) value);
+                    break;
+                default:
+                    assert size == 8;
+                    access.putInt64(byteArray, byteIndex, value);
+                    break;
+            }
+        }
+    }
+
     public static TypedArrayFactory[] factories(JSContext context) {
         if (context.getContextOptions().isBigInt()) {
             return TypedArrayFactory.FACTORIES;
@@ -283,6 +469,31 @@ public abstract class TypedArray extends ScriptArray {
         public abstract int getIntImpl(T buffer, int offset, int index);
 
         public abstract void setIntImpl(T buffer, int offset, int index, int value);
+
+        @Override
+        public int indexOfElement(DynamicObject object, Object value, int fromIndex, int toIndex, boolean sameValueZero) {
+            if (!JSRuntime.isNumber(value)) {
+                return -1;
+            }
+            double doubleValue = JSRuntime.doubleValue((Number) value);
+            int intValue = (int) doubleValue;
+            if (intValue != doubleValue) {
+                // NaN, fractional or out of range
+                return -1;
+            }
+            return indexOfInt(object, intValue, fromIndex, toIndex);
+        }
+
+        protected final int indexOfInt(DynamicObject object, int value, int fromIndex, int toIndex) {
+            T buffer = getBufferFromTypedArrayT(object);
+            int offset = getOffset(object);
+            for (int i = fromIndex; i < toIndex; i++) {
+                if (getIntImpl(buffer, offset, i) == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
     }
 
     static final int INT8_BYTES_PER_ELEMENT = 1;
@@ -689,6 +900,19 @@ public abstract class TypedArray extends ScriptArray {
             assert hasElement(object, index);
             return toUint32(getInt(object, (int) index));
         }
+
+        @Override
+        public int indexOfElement(DynamicObject object, Object value, int fromIndex, int toIndex, boolean sameValueZero) {
+            if (!JSRuntime.isNumber(value)) {
+                return -1;
+            }
+            double doubleValue = JSRuntime.doubleValue((Number) value);
+            long longValue = (long) doubleValue;
+            if (longValue != doubleValue || longValue < 0 || longValue > 0xFFFF_FFFFL) {
+                return -1;
+            }
+            return indexOfInt(object, (int) longValue, fromIndex, toIndex);
+        }
     }
 
     public static final class Uint32Array extends AbstractUint32Array<byte[]> {
@@ -792,6 +1016,22 @@ public abstract class TypedArray extends ScriptArray {
         public abstract BigInt getBigIntImpl(T buffer, int offset, int index);
 
         public abstract void setBigIntImpl(T buffer, int offset, int index, BigInt value);
+
+        @Override
+        public final int indexOfElement(DynamicObject object, Object value, int fromIndex, int toIndex, boolean sameValueZero) {
+            if (!(value instanceof BigInt)) {
+                return -1;
+            }
+            BigInt bigIntValue = (BigInt) value;
+            T buffer = getBufferFromTypedArrayT(object);
+            int offset = getOffset(object);
+            for (int i = fromIndex; i < toIndex; i++) {
+                if (getBigIntImpl(buffer, offset, i).compareTo(bigIntValue) == 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
     }
 
     static final int BIGINT64_BYTES_PER_ELEMENT = 8;
@@ -957,6 +1197,32 @@ public abstract class TypedArray extends ScriptArray {
         public abstract double getDoubleImpl(T buffer, int offset, int index);
 
         public abstract void setDoubleImpl(T buffer, int offset, int index, double value);
+
+        @Override
+        public final int indexOfElement(DynamicObject object, Object value, int fromIndex, int toIndex, boolean sameValueZero) {
+            if (!JSRuntime.isNumber(value)) {
+                return -1;
+            }
+            double doubleValue = JSRuntime.doubleValue((Number) value);
+            T buffer = getBufferFromTypedArrayT(object);
+            int offset = getOffset(object);
+            if (Double.isNaN(doubleValue)) {
+                if (sameValueZero) {
+                    for (int i = fromIndex; i < toIndex; i++) {
+                        if (Double.isNaN(getDoubleImpl(buffer, offset, i))) {
+                            return i;
+                        }
+                    }
+                }
+                return -1;
+            }
+            for (int i = fromIndex; i < toIndex; i++) {
+                if (getDoubleImpl(buffer, offset, i) == doubleValue) {
+                    return i;
+                }
+            }
+            return -1;
+        }
     }
 
     static final int FLOAT32_BYTES_PER_ELEMENT = 4;
@@ -125,7 +125,7 @@ public abstract class AbstractConstantEmptyArray extends AbstractConstantArray {
     public AbstractIntArray createWriteableInt(DynamicObject object, long index, int value, ProfileHolder profile) {
         assert index >= 0; // corner case, length would not be int then
         int capacity = lengthInt(object);
-        int[] initialArray = new int[calcNewArraySize(capacity, profile)];
+        int[] initialArray = new int[calcNewArraySize(object, capacity, profile)];
         AbstractIntArray newArray;
         if (CREATE_WRITABLE_PROFILE.indexZero(profile, index == 0)) {
             newArray = ZeroBasedIntArray.makeZeroBasedIntArray(object, capacity, 0, initialArray, integrityLevel);
@@ -150,9 +150,9 @@ public abstract class AbstractConstantEmptyArray extends AbstractConstantArray {
         return ContiguousIntArray.makeContiguousIntArray(object, length, initialArray, indexOffset, arrayOffset, 0, integrityLevel);
     }
 
-    private static int calcNewArraySize(int capacity, ProfileHolder profile) {
+    private static int calcNewArraySize(DynamicObject object, int capacity, ProfileHolder profile) {
         if (CREATE_WRITABLE_PROFILE.lengthZero(profile, capacity == 0)) {
-            return JSConfig.InitialArraySize;
+            return Math.max(JSConfig.InitialArraySize, getAllocationSiteCapacity(object));
         } else if (CREATE_WRITABLE_PROFILE.lengthBelowLimit(profile, capacity < JSConfig.MaxFlatArraySize)) {
             return capacity;
         } else {
@@ -160,10 +160,18 @@ public abstract class AbstractConstantEmptyArray extends AbstractConstantArray {
         }
     }
 
+    /**
+     * Backing store size most arrays of the allocation site have grown to recently, if any.
+     */
+    private static int getAllocationSiteCapacity(DynamicObject object) {
+        ArrayAllocationSite site = JSAbstractArray.arrayGetAllocationSite(object);
+        return site == null ? 0 : site.nextInitialCapacity();
+    }
+
     @Override
     public AbstractDoubleArray createWriteableDouble(DynamicObject object, long index, double value, ProfileHolder profile) {
         int capacity = lengthInt(object);
-        double[] initialArray = new double[calcNewArraySize(capacity, profile)];
+        double[] initialArray = new double[calcNewArraySize(object, capacity, profile)];
         AbstractDoubleArray newArray;
         if (CREATE_WRITABLE_PROFILE.indexZero(profile, index == 0)) {
             newArray = ZeroBasedDoubleArray.makeZeroBasedDoubleArray(object, capacity, 0, initialArray, integrityLevel);
@@ -191,7 +199,7 @@ public abstract class AbstractConstantEmptyArray extends AbstractConstantArray {
     @Override
     public AbstractJSObjectArray createWriteableJSObject(DynamicObject object, long index, JSDynamicObject value, ProfileHolder profile) {
         int capacity = lengthInt(object);
-        JSDynamicObject[] initialArray = new JSDynamicObject[calcNewArraySize(capacity, profile)];
+        JSDynamicObject[] initialArray = new JSDynamicObject[calcNewArraySize(object, capacity, profile)];
         AbstractJSObjectArray newArray;
         if (CREATE_WRITABLE_PROFILE.indexZero(profile, index == 0)) {
             newArray = ZeroBasedJSObjectArray.makeZeroBasedJSObjectArray(object, capacity, 0, initialArray, integrityLevel);
@@ -219,7 +227,7 @@ public abstract class AbstractConstantEmptyArray extends AbstractConstantArray {
     @Override
     public AbstractObjectArray createWriteableObject(DynamicObject object, long index, Object value, ProfileHolder profile) {
         int capacity = lengthInt(object);
-        Object[] initialArray = new Object[calcNewArraySize(capacity, profile)];
+        Object[] initialArray = new Object[calcNewArraySize(object, capacity, profile)];
         AbstractObjectArray newArray;
         if (CREATE_WRITABLE_PROFILE.indexZero(profile, index == 0)) {
             newArray = ZeroBasedObjectArray.makeZeroBasedObjectArray(object, capacity, 0, initialArray, integrityLevel);
@@ -57,11 +57,14 @@ import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.array.ArrayAllocationSite;
 import com.oracle.truffle.js.runtime.array.DynamicArray;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
 import com.oracle.truffle.js.runtime.array.SparseArray;
 import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
+import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 
 /**
@@ -259,10 +262,22 @@ public abstract class AbstractWritableArray extends DynamicArray {
                 }
             }
             resizeArray(object, (int) newCapacity, capacity, offset);
+            notifyArrayGrowth(object, capacity, (int) newCapacity);
             return offset;
         }
     }
 
+    private static void notifyArrayGrowth(DynamicObject object, int oldCapacity, int newCapacity) {
+        ArrayAllocationSite site = JSAbstractArray.arrayGetAllocationSite(object);
+        if (site != null) {
+            site.notifyArrayGrowth(oldCapacity, newCapacity);
+        }
+        JSMetrics metrics = JSObject.getJSContext(object).getMetrics();
+        if (metrics != null) {
+            metrics.increment(JSMetrics.ARRAY_GROW);
+        }
+    }
+
     private int ensureCapacityContiguous(DynamicObject object, int internalIndex, ProfileHolder profile) {
         int offset = ensureCapacity(object, internalIndex, getIndexOffset(object), profile);
         if (offset != 0) {
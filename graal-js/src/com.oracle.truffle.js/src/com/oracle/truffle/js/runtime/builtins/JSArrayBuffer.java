@@ -43,7 +43,11 @@ package com.oracle.truffle.js.runtime.builtins;
 import static com.oracle.truffle.js.runtime.objects.JSObjectUtil.putConstructorProperty;
 import static com.oracle.truffle.js.runtime.objects.JSObjectUtil.putFunctionsFromContainer;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -106,14 +110,39 @@ public final class JSArrayBuffer extends JSAbstractBuffer implements JSConstruct
     }
 
     public static DynamicObject createDirectArrayBuffer(JSContext context, ByteBuffer buffer) {
+        return createDirectArrayBuffer(context, buffer, false);
+    }
+
+    /**
+     * Creates an ArrayBuffer backed by the given direct buffer, without copying. If
+     * {@code releaseOnDetach} is {@code true}, the ArrayBuffer takes ownership of the buffer and
+     * releases its memory (or file mapping) when it is detached; the buffer must not be used by the
+     * caller afterwards.
+     */
+    public static DynamicObject createDirectArrayBuffer(JSContext context, ByteBuffer buffer, boolean releaseOnDetach) {
+        assert DirectByteBufferHelper.isDirectByteBuffer(buffer);
         JSRealm realm = context.getRealm();
         JSObjectFactory factory = context.getDirectArrayBufferFactory();
-        DynamicObject obj = JSArrayBufferObject.createDirectArrayBuffer(factory.getShape(realm), buffer);
+        DynamicObject obj = JSArrayBufferObject.createDirectArrayBuffer(factory.getShape(realm), buffer, releaseOnDetach);
         factory.initProto(obj, realm);
         assert isJSDirectArrayBuffer(obj);
         return context.trackAllocation(obj);
     }
 
+    /**
+     * Creates an ArrayBuffer over a private (copy-on-write) mapping of {@code length} bytes of the
+     * file, starting at {@code position}. The channel must be open for reading and writing, but
+     * writes to the ArrayBuffer are not written back to the file. The mapping is released when the
+     * ArrayBuffer is detached. Files larger than the maximum ArrayBuffer size can be mapped in
+     * several regions.
+     */
+    @TruffleBoundary
+    public static DynamicObject createMappedArrayBuffer(JSContext context, FileChannel channel, long position, int length) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.PRIVATE, position, length);
+        buffer.order(ByteOrder.nativeOrder());
+        return createDirectArrayBuffer(context, buffer, true);
+    }
+
     @Override
     public DynamicObject createPrototype(JSRealm realm, DynamicObject ctor) {
         JSContext context = realm.getContext();
@@ -47,6 +47,7 @@ import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList;
 import com.oracle.truffle.js.runtime.objects.JSNonProxyObject;
+import com.oracle.truffle.js.runtime.util.DirectBufferCleaner;
 import com.oracle.truffle.js.runtime.util.DirectByteBufferHelper;
 
 public abstract class JSArrayBufferObject extends JSNonProxyObject {
@@ -135,13 +136,24 @@ public abstract class JSArrayBufferObject extends JSNonProxyObject {
     }
 
     public static final class Direct extends DirectBase {
-        protected Direct(Shape shape, ByteBuffer byteBuffer) {
+        /**
+         * Whether the buffer (e.g. a file mapping) is owned by this object and its memory should be
+         * released eagerly when the ArrayBuffer is detached.
+         */
+        private final boolean releaseOnDetach;
+
+        protected Direct(Shape shape, ByteBuffer byteBuffer, boolean releaseOnDetach) {
             super(shape, byteBuffer);
+            this.releaseOnDetach = releaseOnDetach;
         }
 
         @Override
         public void detachArrayBuffer() {
+            ByteBuffer detached = this.byteBuffer;
             this.byteBuffer = null;
+            if (releaseOnDetach && detached != null) {
+                DirectBufferCleaner.clean(detached);
+            }
         }
     }
 
@@ -172,7 +184,11 @@ public abstract class JSArrayBufferObject extends JSNonProxyObject {
     }
 
     public static DynamicObject createDirectArrayBuffer(Shape shape, ByteBuffer byteBuffer) {
-        return new Direct(shape, byteBuffer);
+        return new Direct(shape, byteBuffer, false);
+    }
+
+    public static DynamicObject createDirectArrayBuffer(Shape shape, ByteBuffer byteBuffer, boolean releaseOnDetach) {
+        return new Direct(shape, byteBuffer, releaseOnDetach);
     }
 
     public static DynamicObject createSharedArrayBuffer(Shape shape, ByteBuffer byteBuffer, JSAgentWaiterList waiterList) {
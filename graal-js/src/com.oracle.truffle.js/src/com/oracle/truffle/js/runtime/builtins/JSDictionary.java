@@ -325,14 +325,15 @@ public final class JSDictionary extends JSNonProxy {
 
     private static Shape makeEmptyShapeForNewType(JSContext context, Shape currentShape, JSClass jsclass, DynamicObject fromObject) {
         Property prototypeProperty = JSShape.getPrototypeProperty(currentShape);
+        int layout = JSOrdinaryObject.getLayout(fromObject);
         if (!prototypeProperty.getLocation().isConstant()) {
-            return context.makeEmptyShapeWithPrototypeInObject(jsclass);
+            return context.makeEmptyShapeWithPrototypeInObject(jsclass, layout);
         } else {
             DynamicObject prototype = JSObjectUtil.getPrototype(fromObject);
             if (prototype == Null.instance) {
-                return context.makeEmptyShapeWithNullPrototype(jsclass);
+                return context.makeEmptyShapeWithNullPrototype(jsclass, layout);
             } else {
-                return JSObjectUtil.getProtoChildShape(prototype, jsclass, context);
+                return JSObjectUtil.getProtoChildShape(prototype, jsclass, layout, context);
             }
         }
     }
@@ -43,16 +43,22 @@ package com.oracle.truffle.js.runtime.builtins;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.objects.JSOrdinaryObject;
+import com.oracle.truffle.js.runtime.objects.JSShape;
 
 public final class JSFunctionData {
 
@@ -97,6 +103,15 @@ public final class JSFunctionData {
     /** Lazy initialization function. */
     private volatile Initializer lazyInit;
 
+    /** Constructions left until the instance layout is chosen; 0 once slack tracking is done. */
+    private int slackTrackingRemaining = JSConfig.SlackTrackingConstructions;
+    /** Maximum property count of the instances seen by slack tracking. */
+    private int slackTrackingPropertyCount;
+    /** {@link JSOrdinaryObject} layout of the objects allocated by [[Construct]]. */
+    @CompilationFinal private int instanceLayout = JSOrdinaryObject.DEFAULT_LAYOUT;
+    /** Invalidated when {@link #instanceLayout} changes; created on demand. */
+    private Assumption instanceLayoutAssumption;
+
     private static final AtomicReferenceFieldUpdater<JSFunctionData, CallTarget> UPDATER_CALL_TARGET = //
                     AtomicReferenceFieldUpdater.newUpdater(JSFunctionData.class, CallTarget.class, "callTarget");
     private static final AtomicReferenceFieldUpdater<JSFunctionData, CallTarget> UPDATER_CONSTRUCT_TARGET = //
@@ -236,6 +251,62 @@ public final class JSFunctionData {
         return (flags & IS_DERIVED) != 0;
     }
 
+    public boolean isSlackTracking() {
+        return slackTrackingRemaining > 0;
+    }
+
+    /**
+     * Records the shape of an object after it has been initialized by this constructor. After
+     * {@link JSConfig#SlackTrackingConstructions} constructions, the instance layout is chosen so
+     * that the properties of later instances fit in-object. Racy updates only affect the heuristic.
+     */
+    @TruffleBoundary
+    public void trackInstanceSize(DynamicObject instance) {
+        int remaining = slackTrackingRemaining;
+        if (remaining <= 0) {
+            return;
+        }
+        Shape shape = instance.getShape();
+        // a prototype stored in the shape does not need a slot
+        int propertyCount = Math.max(slackTrackingPropertyCount, shape.getPropertyCount() - (JSShape.isPrototypeInShape(shape) ? 1 : 0));
+        slackTrackingPropertyCount = propertyCount;
+        slackTrackingRemaining = remaining - 1;
+        if (remaining == 1) {
+            int newLayout = JSOrdinaryObject.getLayoutForPropertyCount(propertyCount);
+            if (newLayout != instanceLayout) {
+                setInstanceLayout(newLayout);
+            }
+        }
+    }
+
+    private synchronized void setInstanceLayout(int newLayout) {
+        instanceLayout = newLayout;
+        if (instanceLayoutAssumption != null) {
+            instanceLayoutAssumption.invalidate("instance layout changed");
+            instanceLayoutAssumption = null;
+        }
+    }
+
+    /**
+     * Returns an assumption that stays valid while {@link #getInstanceLayout()} does not change.
+     */
+    @TruffleBoundary
+    public synchronized Assumption getInstanceLayoutAssumption() {
+        Assumption assumption = instanceLayoutAssumption;
+        if (assumption == null) {
+            assumption = Truffle.getRuntime().createAssumption("instanceLayout");
+            instanceLayoutAssumption = assumption;
+        }
+        return assumption;
+    }
+
+    /**
+     * Returns the {@link JSOrdinaryObject} layout for objects allocated by [[Construct]].
+     */
+    public int getInstanceLayout() {
+        return instanceLayout;
+    }
+
     public boolean isClassConstructor() {
         return (flags & IS_CLASS_CONSTRUCTOR) != 0;
     }
@@ -64,7 +64,7 @@ public final class JSGlobal extends JSNonProxy {
         CompilerAsserts.neverPartOfCompilation();
         JSContext context = realm.getContext();
         JSObjectFactory factory = context.getGlobalObjectFactory();
-        DynamicObject global = new JSGlobalObject(factory.getShape(realm));
+        DynamicObject global = new JSGlobalObject(factory.getShape(realm), realm);
         factory.initProto(global, objectPrototype);
 
         JSObjectUtil.putToStringTag(global, CLASS_NAME);
@@ -84,7 +84,7 @@ public final class JSGlobal extends JSNonProxy {
 
     public static DynamicObject createGlobalScope(JSContext context) {
         CompilerAsserts.neverPartOfCompilation();
-        return new JSGlobalObject(context.getGlobalScopeShape());
+        return new JSGlobalObject(context.getGlobalScopeShape(), null);
     }
 
     public static boolean isJSGlobalObject(Object obj) {
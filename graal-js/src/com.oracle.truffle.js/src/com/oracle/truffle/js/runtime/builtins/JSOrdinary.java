@@ -126,6 +126,11 @@ public final class JSOrdinary extends JSNonProxy implements PrototypeSupplier {
         return context.trackAllocation(JSOrdinaryObject.create(shape));
     }
 
+    public static DynamicObject create(JSContext context, Shape shape, int layout) {
+        assert JSShape.getJSClass(shape) == JSOrdinary.INSTANCE;
+        return context.trackAllocation(JSOrdinaryObject.create(shape, layout));
+    }
+
     public static DynamicObject createInit(JSRealm realm) {
         CompilerAsserts.neverPartOfCompilation();
         return createInit(realm, realm.getObjectPrototype());
@@ -47,6 +47,7 @@ import java.util.Locale;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import com.ibm.icu.text.CollationKey;
 import com.ibm.icu.text.Collator;
 import com.ibm.icu.text.RuleBasedCollator;
 import com.oracle.truffle.api.CallTarget;
@@ -71,6 +72,7 @@ import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSContext.BuiltinFunctionKey;
 import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.JavaScriptRootNode;
 import com.oracle.truffle.js.runtime.builtins.JSConstructor;
 import com.oracle.truffle.js.runtime.builtins.JSConstructorFactory;
@@ -81,6 +83,7 @@ import com.oracle.truffle.js.runtime.builtins.JSObjectFactory;
 import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
 import com.oracle.truffle.js.runtime.builtins.PrototypeSupplier;
 import com.oracle.truffle.js.runtime.objects.JSAttributes;
+import com.oracle.truffle.js.runtime.objects.JSDynamicObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.IntlUtil;
@@ -215,25 +218,37 @@ public final class JSCollator extends JSNonProxy implements JSConstructorFactory
             collatorLocale = builder.setUnicodeLocaleKeyword("co", IntlUtil.SEARCH).build();
         }
 
-        state.collator = Collator.getInstance(collatorLocale);
-        state.collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+        int strength;
         switch (state.sensitivity) {
             case IntlUtil.BASE:
-                state.collator.setStrength(Collator.PRIMARY);
+                strength = Collator.PRIMARY;
                 break;
             case IntlUtil.ACCENT:
-                state.collator.setStrength(Collator.SECONDARY);
+                strength = Collator.SECONDARY;
                 break;
-            case IntlUtil.CASE:
-            case IntlUtil.VARIANT:
-                state.collator.setStrength(Collator.TERTIARY);
+            default:
+                assert IntlUtil.CASE.equals(state.sensitivity) || IntlUtil.VARIANT.equals(state.sensitivity);
+                strength = Collator.TERTIARY;
                 break;
         }
-        if (state.ignorePunctuation) {
-            if (state.collator instanceof RuleBasedCollator) {
-                ((RuleBasedCollator) state.collator).setAlternateHandlingShifted(true);
+        // ICU collators are expensive to create but immutable (and thread-safe) once frozen,
+        // so collators with the same locale and settings are shared.
+        JSRealm realm = ctx.getRealm();
+        Object cacheKey = Arrays.asList(CLASS_NAME, collatorLocale, strength, state.ignorePunctuation);
+        Locale icuLocale = collatorLocale;
+        state.collator = realm.getOrCreateCachedIntlObject(cacheKey, () -> createICUCollator(icuLocale, strength, state.ignorePunctuation));
+    }
+
+    private static Collator createICUCollator(Locale collatorLocale, int strength, boolean ignorePunctuation) {
+        Collator collator = Collator.getInstance(collatorLocale);
+        collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+        collator.setStrength(strength);
+        if (ignorePunctuation) {
+            if (collator instanceof RuleBasedCollator) {
+                ((RuleBasedCollator) collator).setAlternateHandlingShifted(true);
             }
         }
+        return collator.freeze();
     }
 
     @Override
@@ -278,6 +293,65 @@ public final class JSCollator extends JSNonProxy implements JSConstructorFactory
         return collator.compare(a, b);
     }
 
+    /**
+     * Returns the collator of a compare function obtained from {@code Intl.Collator.prototype.compare},
+     * or {@code null} if {@code fn} is not such a function.
+     */
+    public static DynamicObject getBoundCollator(Object fn) {
+        if (JSFunction.isJSFunction(fn)) {
+            Object collatorObj = JSDynamicObject.getOrNull((DynamicObject) fn, BOUND_OBJECT_KEY);
+            if (isJSCollator(collatorObj)) {
+                return (DynamicObject) collatorObj;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sorts the array the same way as {@code Array.prototype.sort} with the bound compare function
+     * of the collator would, but computes the ICU collation key of every element once instead of
+     * collating the strings again for every comparison. Only applicable if all elements are strings
+     * or undefined (which sorts last); returns {@code false} without modifying the array otherwise.
+     */
+    @TruffleBoundary
+    public static boolean sortWithCollationKeys(DynamicObject collatorObj, Object[] array) {
+        InternalState state = getInternalState(collatorObj);
+        boolean caseSensitive = IntlUtil.CASE.equals(state.sensitivity);
+        CollationKeyEntry[] entries = new CollationKeyEntry[array.length];
+        int count = 0;
+        for (Object value : array) {
+            if (JSRuntime.isString(value)) {
+                String str = value.toString();
+                String source = caseSensitive ? stripAccents(str) : normalize(str);
+                entries[count++] = new CollationKeyEntry(state.collator.getCollationKey(source), value);
+            } else if (value != Undefined.instance) {
+                return false;
+            }
+        }
+        // Arrays.sort is stable, as required for Array.prototype.sort.
+        Arrays.sort(entries, 0, count);
+        for (int i = 0; i < count; i++) {
+            array[i] = entries[i].value;
+        }
+        Arrays.fill(array, count, array.length, Undefined.instance);
+        return true;
+    }
+
+    private static final class CollationKeyEntry implements Comparable<CollationKeyEntry> {
+        final CollationKey key;
+        final Object value;
+
+        CollationKeyEntry(CollationKey key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(CollationKeyEntry other) {
+            return key.compareTo(other.key);
+        }
+    }
+
     private static String stripAccents(String input) {
         if (input == null) {
             return null;
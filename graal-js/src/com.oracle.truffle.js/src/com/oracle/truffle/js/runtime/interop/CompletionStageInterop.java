@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.interop;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.HiddenKey;
+import com.oracle.truffle.js.nodes.access.PropertyGetNode;
+import com.oracle.truffle.js.nodes.interop.ExportValueNode;
+import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSContext.BuiltinFunctionKey;
+import com.oracle.truffle.js.runtime.JSFrameUtil;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.JavaScriptRootNode;
+import com.oracle.truffle.js.runtime.UserScriptException;
+import com.oracle.truffle.js.runtime.builtins.JSFunction;
+import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
+import com.oracle.truffle.js.runtime.builtins.JSPromise;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Bridges Java {@link CompletionStage}s and JavaScript promises.
+ *
+ * With {@code js.interop-completion-stage}, a host {@link CompletionStage} is treated as a thenable
+ * when it is used to resolve a promise (e.g. by {@code await}). The stage may complete on any
+ * thread; the resolution is handed over to the agent of the realm and run from its job queue. The
+ * thread executing the context never waits for pending stages; the resolution is run when the
+ * context is entered next (or left, if the stage completes while the context is in use).
+ *
+ * Conversely, {@link #toCompletableFuture} exports a promise as a {@link CompletableFuture} that
+ * completes when the promise is settled.
+ */
+public final class CompletionStageInterop {
+
+    private static final HiddenKey FUTURE_KEY = new HiddenKey("CompletableFuture");
+
+    private CompletionStageInterop() {
+    }
+
+    @TruffleBoundary
+    public static boolean isCompletionStage(JSRealm realm, Object value) {
+        TruffleLanguage.Env env = realm.getEnv();
+        return env.isHostObject(value) && env.asHostObject(value) instanceof CompletionStage;
+    }
+
+    /**
+     * Returns a function that can be used as the {@code then} method of a host
+     * {@link CompletionStage}.
+     */
+    public static DynamicObject getThenFunction(JSContext context, JSRealm realm) {
+        JSFunctionData functionData = context.getOrCreateBuiltinFunctionData(BuiltinFunctionKey.CompletionStageThen, (c) -> createThenImpl(c));
+        return JSFunction.create(realm, functionData);
+    }
+
+    private static JSFunctionData createThenImpl(JSContext context) {
+        class CompletionStageThenRootNode extends JavaScriptRootNode {
+            @Override
+            public Object execute(VirtualFrame frame) {
+                Object[] arguments = frame.getArguments();
+                Object onFulfilled = getArgument(arguments, 0);
+                Object onRejected = getArgument(arguments, 1);
+                subscribe(context, JSFrameUtil.getThisObj(frame), onFulfilled, onRejected);
+                return Undefined.instance;
+            }
+        }
+        return JSFunctionData.createCallOnly(context, Truffle.getRuntime().createCallTarget(new CompletionStageThenRootNode()), 2, "then");
+    }
+
+    private static Object getArgument(Object[] arguments, int index) {
+        return index < JSArguments.getUserArgumentCount(arguments) ? JSArguments.getUserArgument(arguments, index) : Undefined.instance;
+    }
+
+    @TruffleBoundary
+    private static void subscribe(JSContext context, Object thisObj, Object onFulfilled, Object onRejected) {
+        JSRealm realm = context.getRealm();
+        TruffleLanguage.Env env = realm.getEnv();
+        CompletionStage<?> stage = (CompletionStage<?>) env.asHostObject(thisObj);
+        context.registerHostCompletion();
+        stage.whenComplete((value, error) -> realm.getAgent().enqueueHostCompletion(() -> {
+            // runs on the thread of the agent
+            if (error == null) {
+                callIfCallable(onFulfilled, value == null ? Null.instance : JSRuntime.importValue(env.asGuestValue(value)));
+            } else {
+                callIfCallable(onRejected, env.asGuestValue(unwrapCompletionException(error)));
+            }
+        }));
+    }
+
+    private static void callIfCallable(Object callback, Object argument) {
+        if (JSRuntime.isCallable(callback)) {
+            JSRuntime.call(callback, Undefined.instance, new Object[]{argument});
+        }
+    }
+
+    private static Throwable unwrapCompletionException(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Returns a {@link CompletableFuture} that is completed with the exported value of the given
+     * promise when it is fulfilled, or exceptionally with a {@link UserScriptException} wrapping
+     * the reason when it is rejected.
+     */
+    @TruffleBoundary
+    public static CompletableFuture<Object> toCompletableFuture(JSContext context, JSRealm realm, DynamicObject promise) {
+        assert JSPromise.isJSPromise(promise);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        DynamicObject onFulfilled = JSFunction.create(realm, context.getOrCreateBuiltinFunctionData(BuiltinFunctionKey.CompletableFutureComplete, (c) -> createCompleteImpl(c, false)));
+        DynamicObject onRejected = JSFunction.create(realm, context.getOrCreateBuiltinFunctionData(BuiltinFunctionKey.CompletableFutureCompleteExceptionally, (c) -> createCompleteImpl(c, true)));
+        JSObjectUtil.putHiddenProperty(onFulfilled, FUTURE_KEY, future);
+        JSObjectUtil.putHiddenProperty(onRejected, FUTURE_KEY, future);
+        JSRuntime.call(JSObject.get(promise, JSPromise.THEN), promise, new Object[]{onFulfilled, onRejected});
+        return future;
+    }
+
+    private static JSFunctionData createCompleteImpl(JSContext context, boolean exceptionally) {
+        class CompleteFutureRootNode extends JavaScriptRootNode {
+            @Child private PropertyGetNode getFutureNode = PropertyGetNode.createGetHidden(FUTURE_KEY, context);
+            @Child private ExportValueNode exportValueNode = ExportValueNode.create();
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public Object execute(VirtualFrame frame) {
+                CompletableFuture<Object> future = (CompletableFuture<Object>) getFutureNode.getValue(JSFrameUtil.getFunctionObject(frame));
+                Object value = getArgument(frame.getArguments(), 0);
+                if (exceptionally) {
+                    completeExceptionally(future, value);
+                } else {
+                    complete(future, exportValueNode.execute(value));
+                }
+                return Undefined.instance;
+            }
+        }
+        return JSFunctionData.createCallOnly(context, Truffle.getRuntime().createCallTarget(new CompleteFutureRootNode()), 1, "");
+    }
+
+    @TruffleBoundary
+    private static void complete(CompletableFuture<Object> future, Object value) {
+        future.complete(value);
+    }
+
+    @TruffleBoundary
+    private static void completeExceptionally(CompletableFuture<Object> future, Object reason) {
+        future.completeExceptionally(UserScriptException.create(reason));
+    }
+}
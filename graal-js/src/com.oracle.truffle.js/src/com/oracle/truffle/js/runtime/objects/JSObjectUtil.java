@@ -294,6 +294,30 @@ public final class JSObjectUtil {
         return getProtoChildShapeSlowPath(obj, jsclass, context);
     }
 
+    /**
+     * Returns the initial shape of objects with the given prototype and {@link JSOrdinaryObject}
+     * layout.
+     */
+    @TruffleBoundary
+    public static Shape getProtoChildShape(DynamicObject obj, JSClass jsclass, int layout, JSContext context) {
+        if (layout == JSOrdinaryObject.DEFAULT_LAYOUT) {
+            return getProtoChildShape(obj, jsclass, context);
+        }
+        if (obj == null) {
+            return context.makeEmptyShapeWithPrototypeInObject(jsclass, layout);
+        }
+        assert JSRuntime.isObject(obj);
+        JSPrototypeData prototypeData = getPrototypeData(obj);
+        if (prototypeData == null) {
+            prototypeData = putPrototypeData(obj);
+        }
+        Shape protoChild = prototypeData.getProtoChildTree(jsclass, layout);
+        if (protoChild != null) {
+            return protoChild;
+        }
+        return prototypeData.getOrAddProtoChildTree(jsclass, layout, JSShape.createObjectShape(context, jsclass, obj, layout));
+    }
+
     private static Shape getProtoChildShapeMaybe(DynamicObject obj, JSClass jsclass) {
         Shape protoChild = JSShape.getProtoChildTree(obj, jsclass);
         assert protoChild == null || JSShape.getJSClassNoCast(protoChild) == jsclass;
@@ -354,14 +378,16 @@ public final class JSObjectUtil {
         JSShape.invalidatePrototypeAssumption(oldShape);
         final Shape newRootShape;
         JSClass jsclass = JSShape.getJSClass(oldShape);
+        // the new root shape must match the layout the object was allocated with
+        int layout = JSOrdinaryObject.getLayout(object);
         if (newPrototype == Null.instance) {
-            newRootShape = context.makeEmptyShapeWithNullPrototype(jsclass);
+            newRootShape = context.makeEmptyShapeWithNullPrototype(jsclass, layout);
         } else {
             assert JSRuntime.isObject(newPrototype) : newPrototype;
             if (context.isMultiContext()) {
-                newRootShape = context.makeEmptyShapeWithPrototypeInObject(jsclass);
+                newRootShape = context.makeEmptyShapeWithPrototypeInObject(jsclass, layout);
             } else {
-                newRootShape = JSObjectUtil.getProtoChildShape(newPrototype, jsclass, context);
+                newRootShape = JSObjectUtil.getProtoChildShape(newPrototype, jsclass, layout, context);
             }
         }
 
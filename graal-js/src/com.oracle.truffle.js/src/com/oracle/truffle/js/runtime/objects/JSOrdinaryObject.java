@@ -41,11 +41,19 @@
 package com.oracle.truffle.js.runtime.objects;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
 
 public abstract class JSOrdinaryObject extends JSNonProxyObject implements JSCopyableObject {
 
+    /** Layout with 4 object and 3 primitive in-object property slots. */
+    public static final int DEFAULT_LAYOUT = 0;
+    /** Layout with 8 object and 4 primitive in-object property slots. */
+    public static final int MEDIUM_LAYOUT = 1;
+    /** Layout with 16 object and 8 primitive in-object property slots. */
+    public static final int LARGE_LAYOUT = 2;
+
     protected JSOrdinaryObject(Shape shape) {
         super(shape);
     }
@@ -54,6 +62,62 @@ public abstract class JSOrdinaryObject extends JSNonProxyObject implements JSCop
         return new DefaultLayout(shape);
     }
 
+    /**
+     * Creates an object of the given layout; the shape must have been created for this layout.
+     */
+    public static JSOrdinaryObject create(Shape shape, int layout) {
+        switch (layout) {
+            case DEFAULT_LAYOUT:
+                return new DefaultLayout(shape);
+            case MEDIUM_LAYOUT:
+                return new MediumLayout(shape);
+            case LARGE_LAYOUT:
+                return new LargeLayout(shape);
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    public static Class<? extends DynamicObject> getLayoutClass(int layout) {
+        switch (layout) {
+            case DEFAULT_LAYOUT:
+                return DefaultLayout.class;
+            case MEDIUM_LAYOUT:
+                return MediumLayout.class;
+            case LARGE_LAYOUT:
+                return LargeLayout.class;
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Returns the layout of the object; objects that are not {@link JSOrdinaryObject}s have the
+     * default layout.
+     */
+    public static int getLayout(DynamicObject object) {
+        if (object instanceof MediumLayout) {
+            return MEDIUM_LAYOUT;
+        } else if (object instanceof LargeLayout) {
+            return LARGE_LAYOUT;
+        }
+        return DEFAULT_LAYOUT;
+    }
+
+    /**
+     * Returns the smallest layout that has an in-object slot for each of {@code propertyCount}
+     * properties.
+     */
+    public static int getLayoutForPropertyCount(int propertyCount) {
+        if (propertyCount <= 4) {
+            return DEFAULT_LAYOUT;
+        } else if (propertyCount <= 8) {
+            return MEDIUM_LAYOUT;
+        } else {
+            return LARGE_LAYOUT;
+        }
+    }
+
     @Override
     public String getClassName() {
         return JSOrdinary.CLASS_NAME;
@@ -89,4 +153,64 @@ public abstract class JSOrdinaryObject extends JSNonProxyObject implements JSCop
             return new DefaultLayout(shape);
         }
     }
+
+    public static final class MediumLayout extends JSOrdinaryObject {
+        @DynamicField Object o0;
+        @DynamicField Object o1;
+        @DynamicField Object o2;
+        @DynamicField Object o3;
+        @DynamicField Object o4;
+        @DynamicField Object o5;
+        @DynamicField Object o6;
+        @DynamicField Object o7;
+        @DynamicField long p0;
+        @DynamicField long p1;
+        @DynamicField long p2;
+        @DynamicField long p3;
+
+        protected MediumLayout(Shape shape) {
+            super(shape);
+        }
+
+        @Override
+        protected JSObject copyWithoutProperties(Shape shape) {
+            return new MediumLayout(shape);
+        }
+    }
+
+    public static final class LargeLayout extends JSOrdinaryObject {
+        @DynamicField Object o0;
+        @DynamicField Object o1;
+        @DynamicField Object o2;
+        @DynamicField Object o3;
+        @DynamicField Object o4;
+        @DynamicField Object o5;
+        @DynamicField Object o6;
+        @DynamicField Object o7;
+        @DynamicField Object o8;
+        @DynamicField Object o9;
+        @DynamicField Object o10;
+        @DynamicField Object o11;
+        @DynamicField Object o12;
+        @DynamicField Object o13;
+        @DynamicField Object o14;
+        @DynamicField Object o15;
+        @DynamicField long p0;
+        @DynamicField long p1;
+        @DynamicField long p2;
+        @DynamicField long p3;
+        @DynamicField long p4;
+        @DynamicField long p5;
+        @DynamicField long p6;
+        @DynamicField long p7;
+
+        protected LargeLayout(Shape shape) {
+            super(shape);
+        }
+
+        @Override
+        protected JSObject copyWithoutProperties(Shape shape) {
+            return new LargeLayout(shape);
+        }
+    }
 }
@@ -52,9 +52,12 @@ import com.oracle.truffle.js.runtime.builtins.JSClass;
 public final class JSPrototypeData {
     private static final Shape[] EMPTY_SHAPE_ARRAY = new Shape[0];
     private volatile Shape[] protoChildTrees;
+    /** Root shapes of objects with a non-default {@link JSOrdinaryObject} layout. */
+    private volatile Shape[] layoutChildTrees;
 
     public JSPrototypeData() {
         this.protoChildTrees = EMPTY_SHAPE_ARRAY;
+        this.layoutChildTrees = EMPTY_SHAPE_ARRAY;
     }
 
     public Shape getProtoChildTree(JSClass jsclass) {
@@ -78,4 +81,28 @@ public final class JSPrototypeData {
         }
         return existingRootShape;
     }
+
+    public Shape getProtoChildTree(JSClass jsclass, int layout) {
+        assert layout != JSOrdinaryObject.DEFAULT_LAYOUT;
+        Class<?> layoutClass = JSOrdinaryObject.getLayoutClass(layout);
+        for (Shape childTree : layoutChildTrees) {
+            if (JSShape.getJSClassNoCast(childTree) == jsclass && childTree.getLayout().getType() == layoutClass) {
+                return childTree;
+            }
+        }
+        return null;
+    }
+
+    public synchronized Shape getOrAddProtoChildTree(JSClass jsclass, int layout, Shape newRootShape) {
+        CompilerAsserts.neverPartOfCompilation();
+        Shape existingRootShape = getProtoChildTree(jsclass, layout);
+        if (existingRootShape == null) {
+            Shape[] oldArray = layoutChildTrees;
+            Shape[] newArray = Arrays.copyOf(oldArray, oldArray.length + 1);
+            newArray[oldArray.length] = newRootShape;
+            layoutChildTrees = newArray;
+            return newRootShape;
+        }
+        return existingRootShape;
+    }
 }
@@ -90,6 +90,14 @@ public final class JSShape {
         return Shape.newBuilder(rootShape).addConstantProperty(JSObject.HIDDEN_PROTO, prototype, 0).build();
     }
 
+    /**
+     * Root shape of objects with the given prototype and {@link JSOrdinaryObject} layout.
+     */
+    static Shape createObjectShape(JSContext context, JSClass jsclass, DynamicObject prototype, int layout) {
+        Shape rootShape = newBuilder(context, jsclass, prototype).layout(JSOrdinaryObject.getLayoutClass(layout)).build();
+        return Shape.newBuilder(rootShape).addConstantProperty(JSObject.HIDDEN_PROTO, prototype, 0).build();
+    }
+
     public static JSClass getJSClass(Shape shape) {
         return (JSClass) shape.getObjectType();
     }
@@ -159,6 +167,16 @@ public final class JSShape {
         return JSShapeData.getEnumerablePropertyNames(shape);
     }
 
+    /**
+     * Returns the enumerable string-keyed properties of the shape in property key order, or
+     * {@code null} if the shape has enumerable accessor or proxy properties. The returned array
+     * must not be modified.
+     */
+    public static Property[] getEnumerableDataProperties(Shape shape) {
+        assert JSConfig.FastOwnKeys;
+        return JSShapeData.getEnumerableDataProperties(shape);
+    }
+
     public static UnmodifiableArrayList<Property> getPropertiesIfHasEnumerablePropertyNames(Shape shape) {
         assert JSConfig.FastOwnKeys;
         return JSShapeData.getPropertiesIfHasEnumerablePropertyNames(shape);
@@ -190,6 +208,14 @@ public final class JSShape {
         return newBuilder(context, jsclass, null).build();
     }
 
+    /**
+     * Empty shape constructor with prototype in field and the given {@link JSOrdinaryObject}
+     * layout.
+     */
+    public static Shape makeEmptyRootWithInstanceProto(JSContext context, JSClass jsclass, int layout) {
+        return newBuilder(context, jsclass, null).layout(JSOrdinaryObject.getLayoutClass(layout)).build();
+    }
+
     public static JSSharedData makeJSSharedData(JSContext context, JSDynamicObject proto) {
         return new JSSharedData(context, proto);
     }
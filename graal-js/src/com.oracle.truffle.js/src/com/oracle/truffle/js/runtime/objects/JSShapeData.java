@@ -63,8 +63,12 @@ public final class JSShapeData {
     private static final Property[] EMPTY_PROPERTY_ARRAY = new Property[0];
     private static final String[] EMPTY_STRING_ARRAY = new String[0];
 
-    private Property[] propertyArray;
-    private String[] enumerablePropertyNames;
+    /** Marks shapes with enumerable accessor or proxy properties. */
+    private static final Property[] NOT_ONLY_DATA_PROPERTIES = new Property[0];
+
+    private volatile Property[] propertyArray;
+    private volatile String[] enumerablePropertyNames;
+    private volatile Property[] enumerableDataProperties;
 
     private JSShapeData() {
     }
@@ -90,6 +94,22 @@ public final class JSShapeData {
         return ownProperties.toArray(EMPTY_STRING_ARRAY);
     }
 
+    private static Property[] createEnumerableDataPropertiesArray(Shape shape) {
+        CompilerAsserts.neverPartOfCompilation();
+        enumerableDataPropertyListAllocCount.inc();
+        List<Property> ownProperties = new ArrayList<>();
+        for (Property property : shape.getPropertyList()) {
+            if (JSProperty.isEnumerable(property) && property.getKey() instanceof String) {
+                if (JSProperty.isAccessor(property) || JSProperty.isProxy(property)) {
+                    return NOT_ONLY_DATA_PROPERTIES;
+                }
+                ownProperties.add(property);
+            }
+        }
+        sortProperties(ownProperties);
+        return ownProperties.toArray(EMPTY_PROPERTY_ARRAY);
+    }
+
     private static void sortProperties(List<Property> ownProperties) {
         CompilerAsserts.neverPartOfCompilation();
         Collections.sort(ownProperties, (o1, o2) -> JSRuntime.comparePropertyKeys(o1.getKey(), o2.getKey()));
@@ -103,8 +123,8 @@ public final class JSShapeData {
     private static JSShapeData getShapeData(Shape shape) {
         CompilerAsserts.neverPartOfCompilation();
         JSContext context = JSShape.getJSContext(shape);
-        synchronized (context) {
-            Map<Shape, JSShapeData> map = context.getShapeDataMap();
+        Map<Shape, JSShapeData> map = context.getShapeDataMap(shape);
+        synchronized (map) {
             JSShapeData shapeData = map.get(shape);
             if (shapeData == null) {
                 shapeData = new JSShapeData();
@@ -153,6 +173,25 @@ public final class JSShapeData {
         return asUnmodifiableList(shape.getPropertyCount() == 0 ? EMPTY_STRING_ARRAY : getEnumerablePropertyNamesArray(shape));
     }
 
+    /**
+     * Returns the enumerable string-keyed properties of the shape in property key order, or
+     * {@code null} if any of them is an accessor or proxy property, i.e., if reading the property
+     * values could have side effects.
+     */
+    @TruffleBoundary
+    static Property[] getEnumerableDataProperties(Shape shape) {
+        if (shape.getPropertyCount() == 0) {
+            return EMPTY_PROPERTY_ARRAY;
+        }
+        JSShapeData shapeData = getShapeData(shape);
+        Property[] enumerableProperties = shapeData.enumerableDataProperties;
+        if (enumerableProperties == null) {
+            enumerableProperties = createEnumerableDataPropertiesArray(shape);
+            shapeData.enumerableDataProperties = enumerableProperties;
+        }
+        return enumerableProperties == NOT_ONLY_DATA_PROPERTIES ? null : enumerableProperties;
+    }
+
     @TruffleBoundary
     private static Property[] getPropertiesArrayIfHasEnumerablePropertyNames(Shape shape) {
         assert shape.getPropertyCount() != 0;
@@ -172,6 +211,7 @@ public final class JSShapeData {
         return new UnmodifiableArrayList<>(array);
     }
 
+    private static final DebugCounter enumerableDataPropertyListAllocCount = DebugCounter.create("Enumerable data property lists allocated");
     private static final DebugCounter enumerablePropertyListAllocCount = DebugCounter.create("Enumerable property lists allocated");
     private static final DebugCounter propertyListAllocCount = DebugCounter.create("Property lists allocated");
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A concurrent cache bounded by its number of entries and by the total size of its values, with
+ * approximate least recently used eviction (CLOCK, also known as second chance).
+ *
+ * Lookups do not lock: they only mark the entry as referenced. Once a bound is exceeded, a single
+ * thread sweeps the insertion-ordered clock queue, giving referenced entries a second chance and
+ * evicting the first unreferenced ones. The bounds may be exceeded temporarily while another
+ * thread is inserting or evicting.
+ */
+public final class ConcurrentClockCache<K, V> {
+
+    private static final class Entry<V> {
+        final V value;
+        final long size;
+        volatile boolean referenced;
+
+        Entry(V value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxTotalSize;
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+    private final Queue<K> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicLong totalSize = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public ConcurrentClockCache(int maxEntries, long maxTotalSize) {
+        this.maxEntries = maxEntries;
+        this.maxTotalSize = maxTotalSize;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Adds a value of the given size unless the key is already present. Values larger than the
+     * total size bound are not cached.
+     */
+    public void put(K key, V value, long size) {
+        if (size > maxTotalSize) {
+            return;
+        }
+        if (map.putIfAbsent(key, new Entry<>(value, size)) == null) {
+            clock.add(key);
+            totalSize.addAndGet(size);
+            evictIfNeeded();
+        }
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public long totalSize() {
+        return totalSize.get();
+    }
+
+    private boolean isOverBounds() {
+        return map.size() > maxEntries || totalSize.get() > maxTotalSize;
+    }
+
+    private void evictIfNeeded() {
+        while (isOverBounds() && evicting.compareAndSet(false, true)) {
+            try {
+                // bounds the sweep if concurrent lookups keep marking entries as referenced
+                int secondChances = 2 * map.size();
+                while (isOverBounds()) {
+                    K key = clock.poll();
+                    if (key == null) {
+                        break;
+                    }
+                    Entry<V> entry = map.get(key);
+                    if (entry == null) {
+                        continue;
+                    }
+                    if (entry.referenced && secondChances-- > 0) {
+                        entry.referenced = false;
+                        clock.add(key);
+                    } else if (map.remove(key, entry)) {
+                        totalSize.addAndGet(-entry.size);
+                    }
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+}
@@ -64,6 +64,7 @@ import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.builtins.JSOrdinary;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.Undefined;
 
 /**
  *
@@ -236,6 +237,21 @@ public final class IntlUtil {
                     "year"
     }));
 
+    /**
+     * Returns the key under which a locale-sensitive built-in (e.g. {@code localeCompare} or
+     * {@code toLocaleString}) may cache its internal service object in the realm, or {@code null}
+     * if the object has to be created for this call. Only calls without options and with at most a
+     * single language tag qualify: creating the service object is not observable for them and
+     * depends on nothing but the locale argument (and the realm defaults).
+     */
+    @TruffleBoundary
+    public static Object serviceObjectCacheKey(Object builtin, Object locales, Object options) {
+        if (options == Undefined.instance && (locales == Undefined.instance || locales instanceof String)) {
+            return Arrays.asList(builtin, locales);
+        }
+        return null;
+    }
+
     public static Locale selectedLocale(JSContext ctx, String[] locales) {
         // We don't distinguish BestFitMatcher and LookupMatcher i.e.
         // the implementation dependent BestFitMatcher is implemented as LookupMatcher
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.js.runtime.JSRuntime;
+
+/**
+ * Registry of runtime metrics (counters and histograms), enabled with {@code js.metrics}.
+ *
+ * The registry is only created if metrics are enabled, see {@code JSContext#getMetrics()}. Since
+ * the context is a compilation constant, guarding the recording code with a {@code null} check
+ * makes it free when metrics are disabled.
+ *
+ * In addition to the counters, megamorphic transitions (of property caches, function call caches
+ * and regular expression compilation caches) are counted per source location.
+ */
+public final class JSMetrics {
+
+    /** Property access cache exceeded {@code js.property-cache-limit} or was otherwise generic. */
+    public static final String PROPERTY_CACHE_MEGAMORPHIC = "propertyCacheMegamorphic";
+    /** Function call cache exceeded {@code js.function-cache-limit}. */
+    public static final String FUNCTION_CACHE_MEGAMORPHIC = "functionCacheMegamorphic";
+    /** Regular expression compiled by a site whose compilation cache overflowed. */
+    public static final String REGEX_CACHE_MEGAMORPHIC = "regexCacheMegamorphic";
+    /** Eval code found in the eval parse cache ({@code js.eval-cache-size}). */
+    public static final String EVAL_CACHE_HIT = "evalCacheHit";
+    /** Eval code not found in the eval parse cache and parsed. */
+    public static final String EVAL_CACHE_MISS = "evalCacheMiss";
+    /** Function found in the Function constructor cache ({@code js.function-constructor-cache-size}). */
+    public static final String FUNCTION_CONSTRUCTOR_CACHE_HIT = "functionConstructorCacheHit";
+    /** Function not found in the Function constructor cache and parsed. */
+    public static final String FUNCTION_CONSTRUCTOR_CACHE_MISS = "functionConstructorCacheMiss";
+    /** Intl service object or ICU object found in the per-realm Intl cache. */
+    public static final String INTL_CACHE_HIT = "intlCacheHit";
+    /** Intl service object or ICU object not found in the per-realm Intl cache and created. */
+    public static final String INTL_CACHE_MISS = "intlCacheMiss";
+    /** Source found among the sources parsed ahead on background threads ({@code js.parse-ahead}). */
+    public static final String PARSE_AHEAD_HIT = "parseAheadHit";
+    /** Source not found among the sources parsed ahead while some are still pending. */
+    public static final String PARSE_AHEAD_MISS = "parseAheadMiss";
+    /** Backing store of an array copied to a larger one to make room for more elements. */
+    public static final String ARRAY_GROW = "arrayGrow";
+    /** Depth of the promise job queue after enqueuing a job. */
+    public static final String PROMISE_JOB_QUEUE_DEPTH = "promiseJobQueueDepth";
+
+    private static final String UNKNOWN_LOCATION = "<unknown>";
+
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> sites = new ConcurrentHashMap<>();
+
+    @TruffleBoundary
+    public void increment(String counter) {
+        counters.computeIfAbsent(counter, k -> new LongAdder()).increment();
+    }
+
+    @TruffleBoundary
+    public void record(String histogram, long value) {
+        histograms.computeIfAbsent(histogram, k -> new Histogram()).record(value);
+    }
+
+    /**
+     * Counts a megamorphic transition of the given node, attributed to its source location.
+     */
+    @TruffleBoundary
+    public void recordMegamorphic(String kind, Node node, Object detail) {
+        increment(kind);
+        String location = formatLocation(node.getEncapsulatingSourceSection());
+        if (detail != null) {
+            location = location + " " + detail;
+        }
+        sites.computeIfAbsent(kind, k -> new ConcurrentHashMap<>()).computeIfAbsent(location, k -> new LongAdder()).increment();
+    }
+
+    private static String formatLocation(SourceSection section) {
+        if (section == null || !section.isAvailable()) {
+            return UNKNOWN_LOCATION;
+        }
+        return section.getSource().getName() + ":" + section.getStartLine() + ":" + section.getStartColumn();
+    }
+
+    @TruffleBoundary
+    public Map<String, Long> getCounters() {
+        return snapshot(counters);
+    }
+
+    @TruffleBoundary
+    public Map<String, Histogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * Returns the number of megamorphic transitions of the given kind per source location.
+     */
+    @TruffleBoundary
+    public Map<String, Map<String, Long>> getMegamorphicSites() {
+        Map<String, Map<String, Long>> result = new TreeMap<>();
+        for (Map.Entry<String, ConcurrentMap<String, LongAdder>> entry : sites.entrySet()) {
+            result.put(entry.getKey(), snapshot(entry.getValue()));
+        }
+        return result;
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> map) {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : map.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().sum());
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    public void reset() {
+        counters.clear();
+        histograms.clear();
+        sites.clear();
+    }
+
+    @TruffleBoundary
+    public String toJSON() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"counters\":{");
+        appendLongMap(sb, getCounters());
+        sb.append("},\"histograms\":{");
+        boolean first = true;
+        for (Map.Entry<String, Histogram> entry : getHistograms().entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            Histogram histogram = entry.getValue();
+            sb.append(JSRuntime.quote(entry.getKey())).append(":{");
+            sb.append("\"count\":").append(histogram.getCount());
+            sb.append(",\"sum\":").append(histogram.getSum());
+            sb.append(",\"max\":").append(histogram.getMax());
+            sb.append(",\"buckets\":[");
+            long[] buckets = histogram.getBuckets();
+            for (int i = 0; i < buckets.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(buckets[i]);
+            }
+            sb.append("]}");
+        }
+        sb.append("},\"megamorphicSites\":{");
+        first = true;
+        for (Map.Entry<String, Map<String, Long>> entry : getMegamorphicSites().entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append(JSRuntime.quote(entry.getKey())).append(":{");
+            appendLongMap(sb, entry.getValue());
+            sb.append('}');
+        }
+        sb.append("}}");
+        return sb.toString();
+    }
+
+    private static void appendLongMap(StringBuilder sb, Map<String, Long> map) {
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : map.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append(JSRuntime.quote(entry.getKey())).append(':').append(entry.getValue());
+        }
+    }
+
+    /**
+     * Histogram of non-negative values with power-of-two buckets: bucket {@code i} counts values
+     * {@code v} with {@code 2^(i-1) <= v < 2^i} (bucket 0 counts zeros).
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long value) {
+            long v = Math.max(0, value);
+            count.increment();
+            sum.add(v);
+            buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(v))].increment();
+            long currentMax;
+            while (v > (currentMax = max.get())) {
+                if (max.compareAndSet(currentMax, v)) {
+                    break;
+                }
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSum() {
+            return sum.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long c = getCount();
+            return c == 0 ? 0 : getSum() / (double) c;
+        }
+
+        /**
+         * Returns the bucket counts, omitting trailing empty buckets.
+         */
+        public long[] getBuckets() {
+            int length = BUCKETS;
+            while (length > 0 && buckets[length - 1].sum() == 0) {
+                length--;
+            }
+            long[] result = new long[length];
+            for (int i = 0; i < length; i++) {
+                result[i] = buckets[i].sum();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.JSConfig;
+import com.oracle.truffle.js.runtime.JSRuntime;
+
+/**
+ * Small direct-mapped caches for number to string conversions and for the array indices of
+ * numeric property keys, similar to the number string cache of V8.
+ *
+ * Strings produced for non-negative integers are also entered into the array index cache, so that
+ * using such a string as a property key does not have to parse it again. Entries are immutable
+ * and looked up by identity (array index cache) or by value (number cache), so the caches can be
+ * read and updated from multiple threads without synchronization; a racing update can only
+ * replace another entry.
+ *
+ * There is one cache per {@link com.oracle.truffle.js.runtime.JSContext}, see
+ * {@code JSContext#getNumberStringCache()}.
+ */
+public final class NumberStringCache {
+
+    private static final int SIZE = JSConfig.NumberStringCacheSize;
+    private static final int MASK = SIZE - 1;
+
+    private final NumberEntry[] numberCache = new NumberEntry[SIZE];
+    private final IndexEntry[] indexCache = new IndexEntry[SIZE];
+
+    public NumberStringCache() {
+    }
+
+    private static final class NumberEntry {
+        final double number;
+        final String string;
+
+        NumberEntry(double number, String string) {
+            this.number = number;
+            this.string = string;
+        }
+    }
+
+    private static final class IndexEntry {
+        final String string;
+        final long index;
+
+        IndexEntry(String string, long index) {
+            this.string = string;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Converts an int to a string.
+     */
+    public String intToString(int i) {
+        NumberEntry entry = numberCache[i & MASK];
+        if (entry != null && entry.number == i) {
+            return entry.string;
+        }
+        return intToStringAndCache(i);
+    }
+
+    @TruffleBoundary
+    private String intToStringAndCache(int i) {
+        String string = String.valueOf(i);
+        numberCache[i & MASK] = new NumberEntry(i, string);
+        if (i >= 0) {
+            indexCache[string.hashCode() & MASK] = new IndexEntry(string, i);
+        }
+        return string;
+    }
+
+    /**
+     * Converts a finite, non-zero double that is not representable as an int to a string
+     * (9.8.1 ToString Applied to the Number Type).
+     */
+    public String doubleToString(double d) {
+        assert !Double.isNaN(d) && !Double.isInfinite(d) && d != 0 && !JSRuntime.doubleIsRepresentableAsInt(d);
+        int slot = hash(d);
+        NumberEntry entry = numberCache[slot];
+        if (entry != null && entry.number == d) {
+            return entry.string;
+        }
+        return doubleToStringAndCache(d, slot);
+    }
+
+    @TruffleBoundary
+    private String doubleToStringAndCache(double d, int slot) {
+        String string = JSRuntime.formatDtoA(d);
+        numberCache[slot] = new NumberEntry(d, string);
+        return string;
+    }
+
+    private static int hash(double d) {
+        long bits = Double.doubleToRawLongBits(d);
+        return (int) (bits ^ (bits >>> 32)) & MASK;
+    }
+
+    /**
+     * Parses a string of digits with a length in the array index range, see
+     * {@link JSRuntime#parseArrayIndexRaw(String)}. The result of parsing a valid array index is
+     * cached for the given string instance.
+     */
+    @TruffleBoundary
+    public long stringToArrayIndex(String string) {
+        int slot = string.hashCode() & MASK;
+        IndexEntry entry = indexCache[slot];
+        if (entry != null && entry.string == string) {
+            return entry.index;
+        }
+        long index = JSRuntime.parseArrayIndexRaw(string);
+        if (JSRuntime.isArrayIndex(index)) {
+            indexCache[slot] = new IndexEntry(string, index);
+        }
+        return index;
+    }
+}
@@ -84,6 +84,13 @@ public class SimpleArrayList<E> {
         elements[size++] = e;
     }
 
+    /**
+     * Ensures that {@code count} more elements can be added using {@link #addUnchecked}.
+     */
+    public void ensureAdditionalCapacity(int count, BranchProfile growProfile) {
+        ensureCapacity(size + count, growProfile);
+    }
+
     @SuppressWarnings("unchecked")
     public E get(int index) {
         assert index < size : "out of bounds";